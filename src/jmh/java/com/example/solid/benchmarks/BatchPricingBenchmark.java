@@ -0,0 +1,56 @@
+package com.example.solid.benchmarks;
+
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.services.OrderBatch;
+import com.example.solid.services.OrderPricingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-order cost of columnar repricing with {@link OrderPricingService#applyDiscountBatch}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchPricingBenchmark {
+    private static final int BATCH_SIZE = 4096;
+
+    @Param({"none", "percentage", "fixed", "composite"})
+    public String discount;
+
+    private final OrderPricingService pricingService = new OrderPricingService();
+    private final OrderBatch batch = new OrderBatch(BATCH_SIZE);
+    private DiscountCalculator discountCalculator;
+
+    @Setup
+    public void setUp() {
+        discountCalculator = BenchmarkFixtures.discount(discount);
+        Random random = new Random(42);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(100 + random.nextInt(1_000_000), 0);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public OrderBatch applyDiscountBatch() {
+        pricingService.applyDiscountBatch(batch, discountCalculator);
+        return batch;
+    }
+}
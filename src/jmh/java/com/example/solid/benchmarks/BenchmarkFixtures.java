@@ -0,0 +1,57 @@
+package com.example.solid.benchmarks;
+
+import com.example.solid.discounts.CompositeDiscount;
+import com.example.solid.discounts.FixedAmountDiscount;
+import com.example.solid.discounts.NoDiscount;
+import com.example.solid.discounts.PercentageDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.interfaces.NotificationService;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.notifications.EmailNotification;
+import com.example.solid.payment.CreditCardProcessor;
+import com.example.solid.payment.PayPalProcessor;
+
+/**
+ * Shared strategy instances for the benchmarks. Everything reports to the no-op event sink
+ * so the measurements cover the order path, not console output.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static DiscountCalculator discount(String name) {
+        switch (name) {
+            case "percentage":
+                return new PercentageDiscount(15);
+            case "fixed":
+                return new FixedAmountDiscount(20);
+            case "composite":
+                return CompositeDiscount.sequential()
+                        .then(new PercentageDiscount(10))
+                        .then(new FixedAmountDiscount(5))
+                        .withFloor(20)
+                        .build();
+            case "none":
+                return new NoDiscount();
+            default:
+                throw new IllegalArgumentException("Unknown discount " + name);
+        }
+    }
+
+    static PaymentProcessor paymentProcessor(String name) {
+        switch (name) {
+            case "paypal":
+                return new PayPalProcessor(NoOpOrderEventSink.INSTANCE);
+            case "creditcard":
+                return new CreditCardProcessor(NoOpOrderEventSink.INSTANCE);
+            default:
+                throw new IllegalArgumentException("Unknown payment processor " + name);
+        }
+    }
+
+    static NotificationService notificationService() {
+        return new EmailNotification("bench@example.com", NoOpOrderEventSink.INSTANCE);
+    }
+}
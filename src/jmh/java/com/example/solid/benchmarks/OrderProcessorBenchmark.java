@@ -0,0 +1,60 @@
+package com.example.solid.benchmarks;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.services.OrderNotificationService;
+import com.example.solid.services.OrderPaymentService;
+import com.example.solid.services.OrderPricingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of {@link OrderProcessor#processOrder} on one thread and on four threads sharing one processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderProcessorBenchmark {
+
+    @Param({"none", "percentage", "fixed", "composite"})
+    public String discount;
+
+    private OrderProcessor processor;
+    private DiscountCalculator discountCalculator;
+
+    @Setup
+    public void setUp() {
+        processor = new OrderProcessor(BenchmarkFixtures.paymentProcessor("creditcard"),
+                BenchmarkFixtures.notificationService(), new OrderPricingService(), new OrderPaymentService(),
+                new OrderNotificationService(), NoOpOrderEventSink.INSTANCE);
+        discountCalculator = BenchmarkFixtures.discount(discount);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean processOrder() {
+        return processor.processOrder("Benchmark Customer", 127.50, discountCalculator);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean processOrderContended() {
+        return processor.processOrder("Benchmark Customer", 127.50, discountCalculator);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.solid.benchmarks;
+
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.services.OrderNotificationService;
+import com.example.solid.services.OrderPaymentService;
+import com.example.solid.services.OrderPricing;
+import com.example.solid.services.OrderPricingService;
+import com.example.solid.services.PaymentOutcome;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-stage costs: pricing with each discount strategy, payment with each processor and message composition.
+ * Each stage has its own state so its parameters only multiply its own benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderServicesBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class PricingState {
+        @Param({"none", "percentage", "fixed", "composite"})
+        public String discount;
+
+        final OrderPricingService pricingService = new OrderPricingService();
+        DiscountCalculator discountCalculator;
+
+        @Setup
+        public void setUp() {
+            discountCalculator = BenchmarkFixtures.discount(discount);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PaymentState {
+        @Param({"creditcard", "paypal"})
+        public String payment;
+
+        final OrderPaymentService paymentService = new OrderPaymentService();
+        PaymentProcessor paymentProcessor;
+
+        @Setup
+        public void setUp() {
+            paymentProcessor = BenchmarkFixtures.paymentProcessor(payment);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class NotificationState {
+        final OrderNotificationService notificationService = new OrderNotificationService();
+        final OrderPricing pricing = new OrderPricingService().applyDiscount(127.50, BenchmarkFixtures.discount("percentage"));
+        final PaymentOutcome successfulOutcome = new PaymentOutcome("Credit Card", true);
+        final PaymentOutcome declinedOutcome = new PaymentOutcome("Credit Card", false);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public OrderPricing applyDiscount(PricingState state) {
+        return state.pricingService.applyDiscount(127.50, state.discountCalculator);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public OrderPricing applyDiscountContended(PricingState state) {
+        return state.pricingService.applyDiscount(127.50, state.discountCalculator);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public PaymentOutcome processPayment(PaymentState state) {
+        return state.paymentService.processPayment(state.paymentProcessor, 108.38);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public PaymentOutcome processPaymentContended(PaymentState state) {
+        return state.paymentService.processPayment(state.paymentProcessor, 108.38);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String composeSuccessMessage(NotificationState state) {
+        return state.notificationService.composeMessage(state.successfulOutcome, state.pricing);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String composeDeclinedMessage(NotificationState state) {
+        return state.notificationService.composeMessage(state.declinedOutcome, state.pricing);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public CharSequence renderSuccessMessage(NotificationState state) {
+        return state.notificationService.renderMessage(state.successfulOutcome, state.pricing);
+    }
+}
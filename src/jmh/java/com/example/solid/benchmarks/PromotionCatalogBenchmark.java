@@ -0,0 +1,86 @@
+package com.example.solid.benchmarks;
+
+import com.example.solid.discounts.FixedAmountDiscount;
+import com.example.solid.discounts.PercentageDiscount;
+import com.example.solid.discounts.PromotionCatalog;
+import com.example.solid.discounts.PromotionCatalog.Promotion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best-promotion lookup per order: the indexed {@link PromotionCatalog} against checking every promotion.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromotionCatalogBenchmark {
+    private static final int ORDERS = 1024;
+
+    @Param({"100", "1000", "10000"})
+    public int promotions;
+
+    private final PromotionCatalog catalog = new PromotionCatalog();
+    private Promotion[] promotionArray;
+    private final long[] amountsCents = new long[ORDERS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Promotion> list = new ArrayList<>();
+        for (int i = 0; i < promotions; i++) {
+            double min = random.nextInt(100_000) / 100.0;
+            list.add(new Promotion("promo-" + i,
+                i % 2 == 0 ? new PercentageDiscount(1 + random.nextInt(40)) : new FixedAmountDiscount(1 + random.nextInt(100)),
+                min, min + 1 + random.nextInt(500)));
+        }
+        catalog.replaceAll(list);
+        promotionArray = list.toArray(new Promotion[0]);
+        for (int i = 0; i < ORDERS; i++) {
+            amountsCents[i] = random.nextInt(150_000);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public long indexed() {
+        long total = 0;
+        for (long amount : amountsCents) {
+            total += catalog.calculateDiscountCents(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public long linearScan() {
+        long total = 0;
+        for (long amount : amountsCents) {
+            long best = 0;
+            for (Promotion promotion : promotionArray) {
+                if (promotion.appliesTo(amount)) {
+                    best = Math.max(best, promotion.getDiscount().calculateDiscountCents(amount));
+                }
+            }
+            total += best;
+        }
+        return total;
+    }
+}
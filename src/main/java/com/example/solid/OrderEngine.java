@@ -0,0 +1,60 @@
+package com.example.solid;
+
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.registry.StrategyRegistry;
+
+/**
+ * One shared order engine for all callers: the payment method, notification channel and discount are chosen per
+ * call instead of being fixed at construction, so there is no need for an {@link OrderProcessor} per order.
+ * <p>
+ * Thread safety: an engine holds no per-order state. Any number of threads may call it concurrently, provided the
+ * services configured on the underlying processor are thread-safe, which holds for all implementations in this
+ * project. Strategies come from an immutable {@link StrategyRegistry} and are shared rather than constructed.
+ */
+public class OrderEngine {
+    private final StrategyRegistry registry;
+    private final OrderProcessor processor;
+
+    /**
+     * Uses default services; the registry's first payment method and channel back the processor's own methods.
+     */
+    public OrderEngine(StrategyRegistry registry) {
+        this(registry, OrderProcessor.builder(registry.paymentProcessor(registry.getPaymentMethods().iterator().next()),
+                                              registry.channel(registry.getChannels().iterator().next()))
+            .eventSink(registry.getEventSink())
+            .build());
+    }
+
+    /**
+     * Shares {@code processor}'s pricing, payment and notification services, event sink, metrics and journal;
+     * its own payment processor and channel are only used by its own methods.
+     */
+    public OrderEngine(StrategyRegistry registry, OrderProcessor processor) {
+        this.registry = registry;
+        this.processor = processor;
+    }
+
+    /**
+     * Processes {@code request} with the registered payment method and channel, notifying {@code recipient}
+     * (or the channel's default recipient when {@code null}).
+     *
+     * @throws IllegalArgumentException if the payment method or channel is not registered
+     */
+    public OrderResult process(OrderRequest request, String paymentMethod, String channel, String recipient) {
+        return processor.execute(request, registry.paymentProcessor(paymentMethod), registry.channel(channel), recipient);
+    }
+
+    public boolean processOrder(String customerName, double orderAmount, DiscountCalculator discountCalculator,
+                                String paymentMethod, String channel, String recipient) {
+        return process(new OrderRequest(customerName, orderAmount, discountCalculator), paymentMethod, channel, recipient)
+            .isSuccessful();
+    }
+
+    public StrategyRegistry getRegistry() {
+        return registry;
+    }
+
+    public OrderProcessor getProcessor() {
+        return processor;
+    }
+}
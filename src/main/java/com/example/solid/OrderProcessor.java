@@ -1,25 +1,58 @@
 package com.example.solid;
 
+import com.example.solid.admission.AdmissionController;
+import com.example.solid.admission.TokenBucket;
+import com.example.solid.concurrent.OrderExecutors;
+import com.example.solid.events.AsyncOrderEventSink;
+import com.example.solid.events.OrderEventSink;
+import com.example.solid.flow.OrderFlowSettings;
+import com.example.solid.flow.StageProcessor;
 import com.example.solid.interfaces.DiscountCalculator;
 import com.example.solid.interfaces.NotificationService;
 import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.journal.OrderJournal;
+import com.example.solid.ledger.RevenueLedger;
+import com.example.solid.metrics.OrderMetrics;
+import com.example.solid.metrics.OrderStage;
+import com.example.solid.money.Money;
+import com.example.solid.services.OrderContext;
 import com.example.solid.services.OrderNotificationService;
 import com.example.solid.services.OrderPaymentService;
 import com.example.solid.services.OrderPricing;
 import com.example.solid.services.OrderPricingService;
 import com.example.solid.services.PaymentOutcome;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
 /**
  * SRP: This class has a single responsibility - processing orders
  * DIP: It depends on abstractions (interfaces) not concrete implementations
  * OCP: New discount types, payment methods, and notification services can be added without modifying this class
  */
 public class OrderProcessor {
+    // Below this many orders a batch task is processed inline instead of being split further
+    private static final int BATCH_SPLIT_THRESHOLD = 16;
+
     private final PaymentProcessor paymentProcessor;
     private final NotificationService notificationService;
     private final OrderPricingService orderPricingService;
     private final OrderPaymentService orderPaymentService;
     private final OrderNotificationService orderNotificationService;
+    private final OrderEventSink eventSink;
+    private final OrderMetrics metrics;
+    private final OrderJournal journal;
+    private final AdmissionController admissionController;
+    private final RevenueLedger ledger;
     
     // DIP: Constructor injection of dependencies (abstractions)
     public OrderProcessor(PaymentProcessor paymentProcessor, NotificationService notificationService) {
@@ -31,38 +64,469 @@ public class OrderProcessor {
                           OrderPricingService orderPricingService,
                           OrderPaymentService orderPaymentService,
                           OrderNotificationService orderNotificationService) {
-        this.paymentProcessor = paymentProcessor;
-        this.notificationService = notificationService;
-        this.orderPricingService = orderPricingService;
-        this.orderPaymentService = orderPaymentService;
-        this.orderNotificationService = orderNotificationService;
+        this(paymentProcessor, notificationService, orderPricingService, orderPaymentService, orderNotificationService,
+             AsyncOrderEventSink.console());
+    }
+
+    public OrderProcessor(PaymentProcessor paymentProcessor,
+                          NotificationService notificationService,
+                          OrderPricingService orderPricingService,
+                          OrderPaymentService orderPaymentService,
+                          OrderNotificationService orderNotificationService,
+                          OrderEventSink eventSink) {
+        this(builder(paymentProcessor, notificationService)
+                .pricingService(orderPricingService)
+                .paymentService(orderPaymentService)
+                .notificationService(orderNotificationService)
+                .eventSink(eventSink));
+    }
+
+    private OrderProcessor(Builder builder) {
+        this.paymentProcessor = builder.paymentProcessor;
+        this.notificationService = builder.notificationService;
+        this.orderPricingService = builder.orderPricingService;
+        this.orderPaymentService = builder.orderPaymentService;
+        this.orderNotificationService = builder.orderNotificationService;
+        this.eventSink = builder.eventSink;
+        this.metrics = builder.metrics;
+        this.journal = builder.journal;
+        this.admissionController = builder.admissionController;
+        this.ledger = builder.ledger;
+    }
+
+    /**
+     * Starts building a processor with optional collaborators; anything not set uses the same defaults as the constructors.
+     */
+    public static Builder builder(PaymentProcessor paymentProcessor, NotificationService notificationService) {
+        return new Builder(paymentProcessor, notificationService);
+    }
+
+    public OrderMetrics getMetrics() {
+        return metrics;
     }
     
     // SRP: Single method with single responsibility - process an order
     public boolean processOrder(String customerName, double orderAmount, DiscountCalculator discountCalculator) {
-        System.out.println("\n=== Processing Order for " + customerName + " ===");
-        
-        // Calculate discount
-        OrderPricing pricing = orderPricingService.applyDiscount(orderAmount, discountCalculator);
-
-        System.out.println("Original amount: $" + pricing.getOriginalAmount());
-        System.out.println("Discount (" + pricing.getDiscountLabel() + "): $" + pricing.getDiscountApplied());
-        System.out.println("Final amount: $" + pricing.getFinalAmount());
-        
-        // Process payment
-        PaymentOutcome paymentOutcome = orderPaymentService.processPayment(paymentProcessor, pricing.getFinalAmount());
-        System.out.println("Payment method: " + paymentOutcome.getPaymentMethod());
-        
-        // Send notification
-        String message = orderNotificationService.composeMessage(paymentOutcome, pricing);
-        if (paymentOutcome.isSuccessful()) {
-            System.out.println("[SUCCESS] Payment successful!");
-        } else {
-            System.out.println("[FAILED] Payment failed!");
-        }
-
-        orderNotificationService.send(notificationService, message);
-
-        return paymentOutcome.isSuccessful();
-    }
-}
\ No newline at end of file
+        return processOrder(new OrderRequest(customerName, orderAmount, discountCalculator)).isSuccessful();
+    }
+
+    public OrderResult processOrder(OrderRequest request) {
+        return execute(request, paymentProcessor, notificationService, null);
+    }
+
+    /**
+     * Allocation-free variant of {@link #processOrder(OrderRequest)}: pricing, payment outcome and notification text
+     * are written into {@code context} instead of new objects. With a discard or reusing event sink, notification
+     * channels that copy the message, and no journal or notification dispatcher, a warmed-up call allocates nothing.
+     * <pre>
+     * OrderContext context = processor.processOrder(OrderContext.current().reset("Alice", 2_500, discount));
+     * </pre>
+     *
+     * @return {@code context}, holding the order's results until it is reset
+     */
+    public OrderContext processOrder(OrderContext context) {
+        long start = startTimer();
+        if (admissionController != null
+                && !admissionController.acquire(paymentProcessor.getPaymentMethod(), context.getCustomerName())) {
+            context.setRejected(paymentProcessor.getPaymentMethod(), OrderResult.NOT_ADMITTED);
+            return context;
+        }
+
+        long stageStart = startTimer();
+        eventSink.orderReceived(context.getCustomerName());
+        orderPricingService.applyDiscount(context);
+        recordPricing(stageStart, context.getOriginalAmountCents(), context.getDiscountAppliedCents(),
+                      context.getFinalAmountCents(), context.getDiscountLabel());
+
+        stageStart = startTimer();
+        orderPaymentService.processPayment(context, paymentProcessor);
+        if (context.isRejected()) {
+            context.setRejected(context.getPaymentMethod(), OrderResult.NOT_ADMITTED);
+            return context;
+        }
+        recordPayment(stageStart, context.getPaymentMethod(), context.isSuccessful(), context.getDiscountLabel(),
+                      context.getFinalAmountCents(), context.getDiscountAppliedCents(), context.isReplayed());
+        if (journal != null && !context.isReplayed()) {
+            appendToJournal(context.getCustomerName(), context.toPricing(), context.toPaymentOutcome());
+        }
+
+        if (!context.isReplayed()) {
+            stageStart = startTimer();
+            CharSequence message = orderNotificationService.renderMessage(context);
+            orderNotificationService.send(notificationService, message);
+            stopTimer(OrderStage.NOTIFICATION, stageStart);
+        }
+        stopTimer(OrderStage.TOTAL, start);
+        return context;
+    }
+
+    /**
+     * Runs the pipeline with strategies chosen per call; shared by {@link OrderEngine}.
+     * {@code recipient} overrides the channel's configured recipient when not {@code null}.
+     */
+    OrderResult execute(OrderRequest request, PaymentProcessor paymentProcessor, NotificationService notificationService,
+                        String recipient) {
+        // The total includes any admission queueing delay
+        long start = startTimer();
+        if (admissionController != null
+                && !admissionController.acquire(paymentProcessor.getPaymentMethod(), request.getCustomerName())) {
+            return OrderResult.rejected(request, paymentProcessor.getPaymentMethod());
+        }
+        OrderPricing pricing = priceOrder(request);
+        PaymentOutcome paymentOutcome = chargeOrder(request, pricing, paymentProcessor);
+        if (paymentOutcome.isRejected()) {
+            return OrderResult.rejected(request, paymentOutcome.getPaymentMethod());
+        }
+        notifyCustomer(pricing, paymentOutcome, notificationService, recipient);
+        stopTimer(OrderStage.TOTAL, start);
+        return new OrderResult(request.getCustomerName(), pricing, paymentOutcome);
+    }
+
+    /**
+     * Processes an order as a non-blocking pipeline on the shared stage executor
+     * (virtual threads on Java 21+). The caller is never blocked by payment or notification I/O.
+     */
+    public CompletableFuture<OrderResult> processOrderAsync(String customerName, double orderAmount, DiscountCalculator discountCalculator) {
+        return processOrderAsync(new OrderRequest(customerName, orderAmount, discountCalculator));
+    }
+
+    public CompletableFuture<OrderResult> processOrderAsync(OrderRequest request) {
+        return processOrderAsync(request, StageExecutorHolder.EXECUTOR);
+    }
+
+    /**
+     * Processes an order as a pipeline of pricing, payment and notification stages, each run on {@code executor}.
+     * With admission control, a rejected order completes immediately and a queued one starts after its delay;
+     * the caller is never parked.
+     */
+    public CompletableFuture<OrderResult> processOrderAsync(OrderRequest request, Executor executor) {
+        long start = startTimer();
+        Executor firstStage = executor;
+        if (admissionController != null) {
+            long wait = admissionController.reserve(paymentProcessor.getPaymentMethod(), request.getCustomerName());
+            if (wait == TokenBucket.REJECTED) {
+                return CompletableFuture.completedFuture(OrderResult.rejected(request, paymentProcessor.getPaymentMethod()));
+            }
+            if (wait > 0) {
+                firstStage = CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS, executor);
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> priceOrder(request), firstStage)
+                .thenApplyAsync(pricing -> toResult(request, pricing, chargeOrder(request, pricing, paymentProcessor)), executor)
+                .thenApplyAsync(result -> {
+                    if (!result.isRejected()) {
+                        notifyCustomer(result.getPricing(), result.getPaymentOutcome(), notificationService, null);
+                        stopTimer(OrderStage.TOTAL, start);
+                    }
+                    return result;
+                }, executor);
+    }
+
+    /**
+     * Streams orders through pricing, payment and notification as separate {@link StageProcessor}s, each with the
+     * concurrency and buffer size in {@code settings}. Results are published in the order the orders arrived.
+     * Demand flows from the results' subscriber back to {@code orders}: the source is asked for no more orders than
+     * the subscriber has requested, and no stage holds more than its buffer.
+     * With admission control, orders wait for admission in the pricing stage, so a throttled stream slows the
+     * source instead of queueing, and rejected orders pass straight through as rejected results.
+     */
+    public Flow.Publisher<OrderResult> processOrderStream(Flow.Publisher<OrderRequest> orders, OrderFlowSettings settings) {
+        Executor executor = settings.getExecutor() != null ? settings.getExecutor() : StageExecutorHolder.EXECUTOR;
+        StageProcessor<OrderRequest, StagedOrder> pricing = new StageProcessor<>(this::priceStage, executor,
+            settings.getPricingConcurrency(), settings.getPricingBuffer());
+        StageProcessor<StagedOrder, StagedOrder> payment = new StageProcessor<>(this::paymentStage, executor,
+            settings.getPaymentConcurrency(), settings.getPaymentBuffer());
+        StageProcessor<StagedOrder, OrderResult> notification = new StageProcessor<>(this::notificationStage, executor,
+            settings.getNotificationConcurrency(), settings.getNotificationBuffer());
+        payment.subscribe(notification);
+        pricing.subscribe(payment);
+        orders.subscribe(pricing);
+        return notification;
+    }
+
+    private StagedOrder priceStage(OrderRequest request) {
+        StagedOrder order = new StagedOrder(request, startTimer());
+        if (admissionController != null
+                && !admissionController.acquire(paymentProcessor.getPaymentMethod(), request.getCustomerName())) {
+            order.result = OrderResult.rejected(request, paymentProcessor.getPaymentMethod());
+            return order;
+        }
+        order.pricing = priceOrder(request);
+        return order;
+    }
+
+    private StagedOrder paymentStage(StagedOrder order) {
+        if (order.result == null) {
+            order.paymentOutcome = chargeOrder(order.request, order.pricing, paymentProcessor);
+            if (order.paymentOutcome.isRejected()) {
+                order.result = OrderResult.rejected(order.request, order.paymentOutcome.getPaymentMethod());
+            }
+        }
+        return order;
+    }
+
+    private OrderResult notificationStage(StagedOrder order) {
+        if (order.result != null) {
+            return order.result;
+        }
+        notifyCustomer(order.pricing, order.paymentOutcome, notificationService, null);
+        stopTimer(OrderStage.TOTAL, order.start);
+        return new OrderResult(order.request.getCustomerName(), order.pricing, order.paymentOutcome);
+    }
+
+    // Stage 1: calculate discount
+    private OrderPricing priceOrder(OrderRequest request) {
+        long start = startTimer();
+        eventSink.orderReceived(request.getCustomerName());
+
+        OrderPricing pricing = orderPricingService.applyDiscount(request.getOrderAmount(), request.getDiscountCalculator());
+
+        recordPricing(start, pricing.getOriginalAmountCents(), pricing.getDiscountAppliedCents(),
+                      pricing.getFinalAmountCents(), pricing.getDiscountLabel());
+        return pricing;
+    }
+
+    // Stage 2: process payment; with a journal the decision is durable before the customer is told.
+    // A replayed outcome was counted, journaled and notified when the order was first charged, so a retry
+    // of the same order id only returns it. A rejected payment is not a decision and is handled like an
+    // order refused by admission control.
+    private PaymentOutcome chargeOrder(OrderRequest request, OrderPricing pricing, PaymentProcessor paymentProcessor) {
+        long start = startTimer();
+        PaymentOutcome paymentOutcome = orderPaymentService.processPaymentCents(request.getOrderId(), paymentProcessor,
+                                                                                 pricing.getFinalAmountCents());
+        if (paymentOutcome.isRejected()) {
+            return paymentOutcome;
+        }
+        recordPayment(start, paymentOutcome.getPaymentMethod(), paymentOutcome.isSuccessful(), pricing.getDiscountLabel(),
+                      pricing.getFinalAmountCents(), pricing.getDiscountAppliedCents(), paymentOutcome.isReplayed());
+        if (journal != null && !paymentOutcome.isReplayed()) {
+            appendToJournal(request.getCustomerName(), pricing, paymentOutcome);
+        }
+        return paymentOutcome;
+    }
+
+    private static OrderResult toResult(OrderRequest request, OrderPricing pricing, PaymentOutcome paymentOutcome) {
+        return paymentOutcome.isRejected()
+            ? OrderResult.rejected(request, paymentOutcome.getPaymentMethod())
+            : new OrderResult(request.getCustomerName(), pricing, paymentOutcome);
+    }
+
+    // The recording helpers below serve both the request and the context path, so they take primitives only
+    private void recordPricing(long stageStart, long originalAmountCents, long discountAppliedCents,
+                               long finalAmountCents, String discountLabel) {
+        eventSink.pricingComputed(Money.toAmount(originalAmountCents), Money.toAmount(discountAppliedCents),
+                                  Money.toAmount(finalAmountCents), discountLabel);
+        stopTimer(OrderStage.PRICING, stageStart);
+    }
+
+    private void recordPayment(long stageStart, String paymentMethod, boolean successful, String discountLabel,
+                               long finalAmountCents, long discountAppliedCents, boolean replayed) {
+        eventSink.paymentCompleted(paymentMethod, successful);
+        stopTimer(OrderStage.PAYMENT, stageStart);
+        if (replayed) {
+            return;
+        }
+        metrics.recordOutcome(paymentMethod, discountLabel, successful);
+        if (ledger != null) {
+            ledger.record(paymentMethod, discountLabel, finalAmountCents, discountAppliedCents, successful);
+        }
+    }
+
+    private void appendToJournal(String customerName, OrderPricing pricing, PaymentOutcome paymentOutcome) {
+        try {
+            journal.append(customerName, pricing, paymentOutcome);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal order for " + customerName, e);
+        }
+    }
+
+    // Stage 3: send notification
+    private void notifyCustomer(OrderPricing pricing, PaymentOutcome paymentOutcome,
+                                NotificationService notificationService, String recipient) {
+        if (paymentOutcome.isReplayed()) {
+            return;
+        }
+        long start = startTimer();
+        CharSequence message = orderNotificationService.renderMessage(paymentOutcome, pricing);
+        orderNotificationService.send(notificationService, recipient, message);
+        stopTimer(OrderStage.NOTIFICATION, start);
+    }
+
+    // With metrics disabled the clock is never read
+    private long startTimer() {
+        return metrics.isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    private void stopTimer(OrderStage stage, long start) {
+        if (metrics.isEnabled()) {
+            metrics.recordStage(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Processes a batch of orders with as many workers as the common fork-join pool has threads.
+     * Results are returned in the same order as the requests.
+     */
+    public List<OrderResult> processOrders(List<OrderRequest> requests) {
+        return processOrders(requests, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Processes a batch of orders on a fork-join pool of its own with {@code parallelism} workers, so up to that
+     * many payments run at once whatever the core count. Payment and notification calls block, so the batch never
+     * runs on the common pool, where it would starve other users. Results are returned in the same order as the
+     * requests; the first failing order's exception is rethrown.
+     */
+    public List<OrderResult> processOrders(List<OrderRequest> requests, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, was " + parallelism);
+        }
+        OrderRequest[] batch = requests.toArray(new OrderRequest[0]);
+        OrderResult[] results = new OrderResult[batch.length];
+
+        if (parallelism == 1 || batch.length <= BATCH_SPLIT_THRESHOLD) {
+            for (int i = 0; i < batch.length; i++) {
+                results[i] = processOrder(batch[i]);
+            }
+            return Arrays.asList(results);
+        }
+
+        // The caller is not a pool worker, so the pool's size is the bound; no more workers than slices are started
+        int parts = (batch.length + BATCH_SPLIT_THRESHOLD - 1) / BATCH_SPLIT_THRESHOLD;
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, parts));
+        try {
+            pool.invoke(new BatchTask(batch, results, 0, batch.length, parts));
+        } finally {
+            pool.shutdown();
+        }
+        return Arrays.asList(results);
+    }
+
+    // An order between stream stages; each stage fills in its part, and a rejected order carries its result
+    private static final class StagedOrder {
+        private final OrderRequest request;
+        private final long start;
+        private OrderPricing pricing;
+        private PaymentOutcome paymentOutcome;
+        private OrderResult result;
+
+        StagedOrder(OrderRequest request, long start) {
+            this.request = request;
+            this.start = start;
+        }
+    }
+
+    // Lazily created so processors that never go async do not start an executor
+    private static final class StageExecutorHolder {
+        static final ExecutorService EXECUTOR = OrderExecutors.newPerTaskExecutor();
+    }
+
+    // Splits the batch in halves until a slice is small enough to process inline; each order writes its own result slot
+    private class BatchTask extends RecursiveAction {
+        private final OrderRequest[] requests;
+        private final OrderResult[] results;
+        private final int from;
+        private final int to;
+        // Sequential slices this range is split into
+        private final int parts;
+
+        BatchTask(OrderRequest[] requests, OrderResult[] results, int from, int to, int parts) {
+            this.requests = requests;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.parts = parts;
+        }
+
+        @Override
+        protected void compute() {
+            if (parts <= 1) {
+                for (int i = from; i < to; i++) {
+                    results[i] = processOrder(requests[i]);
+                }
+                return;
+            }
+            int leftParts = parts / 2;
+            int middle = from + (int) ((long) (to - from) * leftParts / parts);
+            invokeAll(new BatchTask(requests, results, from, middle, leftParts),
+                      new BatchTask(requests, results, middle, to, parts - leftParts));
+        }
+    }
+
+    /**
+     * Fluent configuration for {@link OrderProcessor}.
+     */
+    public static final class Builder {
+        private final PaymentProcessor paymentProcessor;
+        private final NotificationService notificationService;
+        private OrderPricingService orderPricingService = new OrderPricingService();
+        private OrderPaymentService orderPaymentService = new OrderPaymentService();
+        private OrderNotificationService orderNotificationService = new OrderNotificationService();
+        private OrderEventSink eventSink = AsyncOrderEventSink.console();
+        private OrderMetrics metrics = OrderMetrics.disabled();
+        private OrderJournal journal;
+        private AdmissionController admissionController;
+        private RevenueLedger ledger;
+
+        private Builder(PaymentProcessor paymentProcessor, NotificationService notificationService) {
+            this.paymentProcessor = paymentProcessor;
+            this.notificationService = notificationService;
+        }
+
+        public Builder pricingService(OrderPricingService orderPricingService) {
+            this.orderPricingService = orderPricingService;
+            return this;
+        }
+
+        public Builder paymentService(OrderPaymentService orderPaymentService) {
+            this.orderPaymentService = orderPaymentService;
+            return this;
+        }
+
+        public Builder notificationService(OrderNotificationService orderNotificationService) {
+            this.orderNotificationService = orderNotificationService;
+            return this;
+        }
+
+        public Builder eventSink(OrderEventSink eventSink) {
+            this.eventSink = eventSink;
+            return this;
+        }
+
+        /**
+         * Records per-stage latencies and outcome counters; defaults to {@link OrderMetrics#disabled()}.
+         */
+        public Builder metrics(OrderMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Appends every payment decision to {@code journal} before the customer is notified; off by default.
+         */
+        public Builder journal(OrderJournal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        /**
+         * Rate-limits orders per payment method and per customer before any processing; off by default.
+         */
+        public Builder admissionController(AdmissionController admissionController) {
+            this.admissionController = admissionController;
+            return this;
+        }
+
+        /**
+         * Adds every charged order to live revenue, discount and decline totals; off by default.
+         */
+        public Builder ledger(RevenueLedger ledger) {
+            this.ledger = ledger;
+            return this;
+        }
+
+        public OrderProcessor build() {
+            return new OrderProcessor(this);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.solid;
+
+import com.example.solid.interfaces.DiscountCalculator;
+
+/**
+ * Immutable description of a single order submitted for processing.
+ */
+public class OrderRequest {
+    private final String orderId;
+    private final String customerName;
+    private final double orderAmount;
+    private final DiscountCalculator discountCalculator;
+
+    public OrderRequest(String customerName, double orderAmount, DiscountCalculator discountCalculator) {
+        this(null, customerName, orderAmount, discountCalculator);
+    }
+
+    /**
+     * @param orderId client-chosen id that stays the same across retries of this order, or {@code null}
+     */
+    public OrderRequest(String orderId, String customerName, double orderAmount, DiscountCalculator discountCalculator) {
+        this.orderId = orderId;
+        this.customerName = customerName;
+        this.orderAmount = orderAmount;
+        this.discountCalculator = discountCalculator;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public double getOrderAmount() {
+        return orderAmount;
+    }
+
+    public DiscountCalculator getDiscountCalculator() {
+        return discountCalculator;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.solid;
+
+import com.example.solid.money.Money;
+import com.example.solid.services.OrderPricing;
+import com.example.solid.services.PaymentOutcome;
+
+/**
+ * Immutable result of processing a single order: its pricing and payment outcome.
+ * An order turned away by admission control or by its payment processor is {@link #isRejected() rejected}:
+ * it was never charged, and its result carries no pricing.
+ */
+public class OrderResult {
+    /**
+     * Discount label of a rejected order's placeholder pricing.
+     */
+    public static final String NOT_ADMITTED = "Not admitted";
+
+    private final String customerName;
+    private final OrderPricing pricing;
+    private final PaymentOutcome paymentOutcome;
+    private final boolean rejected;
+
+    public OrderResult(String customerName, OrderPricing pricing, PaymentOutcome paymentOutcome) {
+        this(customerName, pricing, paymentOutcome, false);
+    }
+
+    private OrderResult(String customerName, OrderPricing pricing, PaymentOutcome paymentOutcome, boolean rejected) {
+        this.customerName = customerName;
+        this.pricing = pricing;
+        this.paymentOutcome = paymentOutcome;
+        this.rejected = rejected;
+    }
+
+    /**
+     * Result for an order refused before processing. Its pricing is the undiscounted amount labelled
+     * {@link #NOT_ADMITTED}, and its payment outcome is unsuccessful.
+     */
+    public static OrderResult rejected(OrderRequest request, String paymentMethod) {
+        long amountCents = Money.toCents(request.getOrderAmount());
+        return new OrderResult(request.getCustomerName(), OrderPricing.ofCents(amountCents, 0, amountCents, NOT_ADMITTED),
+                               PaymentOutcome.rejected(paymentMethod), true);
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public OrderPricing getPricing() {
+        return pricing;
+    }
+
+    public PaymentOutcome getPaymentOutcome() {
+        return paymentOutcome;
+    }
+
+    public boolean isSuccessful() {
+        return paymentOutcome.isSuccessful();
+    }
+
+    public boolean isRejected() {
+        return rejected;
+    }
+}
@@ -1,21 +1,67 @@
 package com.example.solid;
 
 import com.example.solid.discounts.*;
+import com.example.solid.events.AsyncOrderEventSink;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.events.OrderEventSink;
+import com.example.solid.ingest.BinaryOrderFileWriter;
+import com.example.solid.ingest.IngestionSummary;
+import com.example.solid.ingest.OrderFileIngestor;
 import com.example.solid.interfaces.*;
+import com.example.solid.load.LoadGenerator;
+import com.example.solid.load.LoadProfile;
+import com.example.solid.load.SimulatedNotificationService;
+import com.example.solid.load.SimulatedPaymentProcessor;
 import com.example.solid.notifications.*;
+import com.example.solid.partition.PartitionCoordinator;
+import com.example.solid.partition.PartitionWorker;
 import com.example.solid.payment.*;
+import com.example.solid.registry.StrategyDescriptor;
+import com.example.solid.registry.StrategyIndex;
+import com.example.solid.registry.StrategyRegistry;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Interactive demo application showing SOLID principles in action
  * 
  * Run with: mvn exec:java
  * Or: mvn compile exec:java -Dexec.mainClass=com.example.solid.SolidDemo
+ *
+ * Headless batch replay (no prompts):
+ *   mvn exec:java -Dexec.args="--ingest orders.csv results.csv [--payment paypal] [--verbose]"
+ *   mvn exec:java -Dexec.args="--convert orders.csv orders.bin"
+ *
+ * Synthetic load against simulated gateways:
+ *   mvn exec:java -Dexec.args="--load 2000 30"
+ *
+ * Partitioned over worker processes on localhost:
+ *   mvn exec:java -Dexec.args="--partitioned 4 100000"
  */
 public class SolidDemo {
     private static Scanner scanner = new Scanner(System.in);
+
+    private static final String WORKER_READY = "Worker listening on ";
+
+    // One engine and one set of strategy instances serve every order
+    private static final OrderEngine ENGINE = new OrderEngine(StrategyRegistry.standard(AsyncOrderEventSink.console()));
     
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            runHeadless(args);
+            return;
+        }
+
         System.out.println("SOLID Principles Interactive Demo");
         System.out.println("=================================");
         System.out.println("Welcome to the Order Processing System!");
@@ -40,6 +86,170 @@ public class SolidDemo {
         scanner.close();
     }
     
+    private static void runHeadless(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("--convert")) {
+            long written = BinaryOrderFileWriter.convertCsv(Paths.get(args[1]), Paths.get(args[2]));
+            System.out.println("Converted " + written + " orders to " + args[2]);
+            return;
+        }
+        if (args.length >= 3 && args[0].equals("--load")) {
+            runLoad(Double.parseDouble(args[1]), Long.parseLong(args[2]));
+            return;
+        }
+        if (args.length >= 2 && args[0].equals("--worker")) {
+            runWorker(Integer.parseInt(args[1]));
+            return;
+        }
+        if (args.length >= 3 && args[0].equals("--partitioned")) {
+            runPartitioned(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+        if (args[0].equals("--startup")) {
+            runStartupProbe();
+            return;
+        }
+        if (args.length < 3 || !args[0].equals("--ingest")) {
+            System.out.println("Usage: SolidDemo --ingest <orders.csv|orders.bin> <results.csv> [--payment paypal] [--verbose]");
+            System.out.println("       SolidDemo --convert <orders.csv> <orders.bin>");
+            System.out.println("       SolidDemo --load <orders per second> <seconds>");
+            System.out.println("       SolidDemo --partitioned <worker processes> <orders>");
+            System.out.println("       SolidDemo --worker <port>");
+            System.out.println("       SolidDemo --startup");
+            return;
+        }
+        boolean verbose = false;
+        boolean payPal = false;
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].equals("--verbose")) {
+                verbose = true;
+            } else if (args[i].equals("--payment") && i + 1 < args.length) {
+                payPal = args[++i].equalsIgnoreCase("paypal");
+            }
+        }
+
+        // Replays can be millions of orders; only echo events to the console when asked
+        OrderEventSink eventSink = verbose ? AsyncOrderEventSink.console() : NoOpOrderEventSink.INSTANCE;
+        PaymentProcessor paymentProcessor = payPal ? new PayPalProcessor(eventSink) : new CreditCardProcessor(eventSink);
+        OrderProcessor processor = OrderProcessor.builder(paymentProcessor, new EmailNotification("batch@example.com", eventSink))
+                .eventSink(eventSink)
+                .build();
+
+        IngestionSummary summary = new OrderFileIngestor(processor).ingest(Paths.get(args[1]), Paths.get(args[2]));
+        eventSink.flush();
+        System.out.println("Ingested " + summary);
+    }
+    
+    // Soak test against simulated gateways: a few milliseconds per call and a small injected failure rate
+    private static void runLoad(double ordersPerSecond, long seconds) {
+        StrategyRegistry registry = StrategyRegistry.builder(NoOpOrderEventSink.INSTANCE)
+                .paymentProcessor(StrategyRegistry.CREDIT_CARD, new SimulatedPaymentProcessor("Credit Card", 10000, 2000, 1000, 0.02))
+                .paymentProcessor(StrategyRegistry.PAYPAL, new SimulatedPaymentProcessor("PayPal", 5000, 5000, 3000, 0.03))
+                .channel(StrategyRegistry.EMAIL, new SimulatedNotificationService("Email", 1000, 500, 0.001))
+                .channel(StrategyRegistry.SMS, new SimulatedNotificationService("SMS", 3000, 1000, 0.001))
+                .discount(StrategyRegistry.NO_DISCOUNT, new NoDiscount())
+                .build();
+        LoadProfile profile = LoadProfile.standard(registry)
+                .ordersPerSecond(ordersPerSecond)
+                .duration(seconds, TimeUnit.SECONDS)
+                .warmup(Math.min(5, seconds / 5), TimeUnit.SECONDS)
+                .build();
+        System.out.println("Sending " + ordersPerSecond + " orders/s for " + seconds + "s...");
+        try {
+            System.out.println(new LoadGenerator(new OrderEngine(registry)).run(profile).toText());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // One partition worker process; prints its port, then serves until the coordinator closes its stdin
+    private static void runWorker(int port) throws IOException {
+        StrategyRegistry registry = StrategyRegistry.standard(NoOpOrderEventSink.INSTANCE);
+        OrderProcessor processor = OrderProcessor.builder(registry.paymentProcessor(StrategyRegistry.CREDIT_CARD),
+                                                          registry.channel(StrategyRegistry.EMAIL))
+                .eventSink(NoOpOrderEventSink.INSTANCE)
+                .build();
+        try (PartitionWorker worker = new PartitionWorker(processor, registry, port)) {
+            System.out.println(WORKER_READY + worker.getPort());
+            System.out.flush();
+            while (System.in.read() >= 0) {
+                // Wait for end of input
+            }
+        }
+    }
+
+    // Starts worker JVMs from this classpath and spreads orders for many customers over them
+    private static void runPartitioned(int workerCount, int orders) throws IOException {
+        StrategyRegistry registry = StrategyRegistry.standard(NoOpOrderEventSink.INSTANCE);
+        List<Process> processes = new ArrayList<>();
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                Process process = new ProcessBuilder(Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                        "-cp", System.getProperty("java.class.path"), SolidDemo.class.getName(), "--worker", "0")
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                processes.add(process);
+                BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+                String line;
+                while ((line = output.readLine()) != null && !line.startsWith(WORKER_READY)) {
+                    // Skip anything printed before the port
+                }
+                if (line == null) {
+                    throw new IOException("Worker " + i + " exited before listening");
+                }
+                int port = Integer.parseInt(line.substring(WORKER_READY.length()).trim());
+                addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            }
+            try (PartitionCoordinator coordinator = new PartitionCoordinator(registry, addresses, workerCount * 16)) {
+                DiscountCalculator discount = registry.percentage(10);
+                long start = System.nanoTime();
+                List<CompletableFuture<OrderResult>> results = new ArrayList<>(orders);
+                for (int i = 0; i < orders; i++) {
+                    results.add(coordinator.submit(new OrderRequest("Customer " + (i % 1000), 10.0 + i % 90, discount)));
+                }
+                long successful = 0;
+                for (CompletableFuture<OrderResult> result : results) {
+                    successful += result.join().isSuccessful() ? 1 : 0;
+                }
+                long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                System.out.println("Processed " + orders + " orders (" + successful + " successful) on " + workerCount
+                                   + " workers in " + elapsedMillis + " ms");
+            }
+        } finally {
+            for (Process process : processes) {
+                process.getOutputStream().close();
+            }
+            for (Process process : processes) {
+                try {
+                    if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                        process.destroy();
+                    }
+                } catch (InterruptedException e) {
+                    process.destroy();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // Short-lived worker in miniature: one order through every indexed strategy, then exit.
+    // Used to train the AppCDS archive (mvn -Pappcds package) and to time startup with and without it.
+    private static void runStartupProbe() {
+        StrategyRegistry registry = StrategyRegistry.standard(NoOpOrderEventSink.INSTANCE);
+        OrderEngine engine = new OrderEngine(registry);
+        int orders = 0;
+        for (StrategyDescriptor<DiscountCalculator> discount : StrategyIndex.discounts()) {
+            for (String paymentMethod : registry.getPaymentMethods()) {
+                for (String channel : registry.getChannels()) {
+                    engine.process(new OrderRequest("Startup probe", 100.0, discount.create(registry.getEventSink())),
+                                   paymentMethod, channel, null);
+                    orders++;
+                }
+            }
+        }
+        System.out.println("Startup probe processed " + orders + " orders");
+    }
+
     private static void processInteractiveOrder() {
         System.out.println("\n==================================================");
         System.out.println("NEW ORDER");
@@ -59,17 +269,23 @@ public class SolidDemo {
         }
         
         // Choose payment method
-        PaymentProcessor paymentProcessor = choosePaymentMethod();
+        String paymentMethod = choosePaymentMethod();
         
         // Choose notification method
-        NotificationService notificationService = chooseNotificationMethod();
+        String channel = chooseNotificationMethod();
+        // An invalid choice falls back to the email channel's default address without prompting
+        String recipient = channel == null ? null : chooseRecipient(channel);
+        if (channel == null) {
+            channel = StrategyRegistry.EMAIL;
+        }
         
         // Choose discount
         DiscountCalculator discountCalculator = chooseDiscount();
         
-        // Create order processor and process the order
-        OrderProcessor processor = new OrderProcessor(paymentProcessor, notificationService);
-        boolean success = processor.processOrder(customerName, orderAmount, discountCalculator);
+        // Process the order on the shared engine
+        boolean success = ENGINE.processOrder(customerName, orderAmount, discountCalculator, paymentMethod, channel, recipient);
+        // Let the background event writer catch up before prompting again
+        AsyncOrderEventSink.console().flush();
         
         if (success) {
             System.out.println("\nORDER COMPLETED SUCCESSFULLY!");
@@ -78,88 +294,72 @@ public class SolidDemo {
         }
     }
     
-    private static PaymentProcessor choosePaymentMethod() {
-        System.out.println("\nChoose Payment Method:");
-        System.out.println("1. Credit Card (limit: $10,000)");
-        System.out.println("2. PayPal (limit: $5,000)");
-        System.out.print("Enter choice (1-2): ");
-        
-        String choice = scanner.nextLine().trim();
-        switch (choice) {
-            case "2":
-                return new PayPalProcessor();
-            case "1":
-            default:
-                return new CreditCardProcessor();
-        }
+    // Menus are built from the compile-time strategy index, so a new strategy class shows up without edits here
+    private static String choosePaymentMethod() {
+        StrategyDescriptor<PaymentProcessor> choice = choose("Payment Method", StrategyIndex.paymentProcessors());
+        return (choice != null ? choice : StrategyIndex.paymentProcessors().get(0)).getKey();
     }
     
-    private static NotificationService chooseNotificationMethod() {
-        System.out.println("\nChoose Notification Method:");
-        System.out.println("1. Email");
-        System.out.println("2. SMS");
-        System.out.print("Enter choice (1-2): ");
-        
-        String choice = scanner.nextLine().trim();
-        switch (choice) {
-            case "1":
-                System.out.print("Enter email address: ");
-                String email = scanner.nextLine().trim();
-                if (email.isEmpty()) email = "customer@example.com";
-                return new EmailNotification(email);
-            case "2":
-                System.out.print("Enter phone number: ");
-                String phone = scanner.nextLine().trim();
-                if (phone.isEmpty()) phone = "+1-555-0000";
-                return new SmsNotification(phone);
-            default:
-                return new EmailNotification("customer@example.com");
+    private static String chooseNotificationMethod() {
+        StrategyDescriptor<NotificationService> choice = choose("Notification Method", StrategyIndex.notificationServices());
+        return choice != null ? choice.getKey() : null;
+    }
+
+    private static String chooseRecipient(String channel) {
+        for (StrategyDescriptor<NotificationService> descriptor : StrategyIndex.notificationServices()) {
+            if (descriptor.getKey().equals(channel) && descriptor.takesArgument()) {
+                System.out.print(descriptor.getPrompt());
+                String recipient = scanner.nextLine().trim();
+                return recipient.isEmpty() ? descriptor.getDefaultArgument() : recipient;
+            }
         }
+        return null;
     }
     
     private static DiscountCalculator chooseDiscount() {
-        System.out.println("\nChoose Discount Type:");
-        System.out.println("1. No Discount");
-        System.out.println("2. Percentage Discount");
-        System.out.println("3. Fixed Amount Discount");
-        System.out.println("4. Buy One Get One Free (50% off)");
-        System.out.print("Enter choice (1-4): ");
+        StrategyDescriptor<DiscountCalculator> choice = choose("Discount Type", StrategyIndex.discounts());
+        if (choice == null) {
+            return ENGINE.getRegistry().discount(StrategyRegistry.NO_DISCOUNT);
+        }
+        if (!choice.takesArgument()) {
+            return ENGINE.getRegistry().discount(choice.getKey());
+        }
+        System.out.print(choice.getPrompt());
+        try {
+            return createDiscount(choice, scanner.nextLine().trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid value. Using " + choice.getDefaultArgument() + " as default.");
+            return createDiscount(choice, choice.getDefaultArgument());
+        }
+    }
+
+    // Plain percentages and fixed amounts come from the registry's shared instances instead of new objects
+    private static DiscountCalculator createDiscount(StrategyDescriptor<DiscountCalculator> choice, String argument) {
+        StrategyRegistry registry = ENGINE.getRegistry();
+        switch (choice.getKey()) {
+            case StrategyRegistry.PERCENTAGE:
+                return registry.percentage(Double.parseDouble(argument));
+            case StrategyRegistry.FIXED_AMOUNT:
+                return registry.fixedAmount(Double.parseDouble(argument));
+            default:
+                return choice.create(registry.getEventSink(), argument);
+        }
+    }
+
+    // Returns null for an invalid choice
+    private static <T> StrategyDescriptor<T> choose(String title, List<StrategyDescriptor<T>> options) {
+        System.out.println("\nChoose " + title + ":");
+        for (int i = 0; i < options.size(); i++) {
+            System.out.println((i + 1) + ". " + options.get(i).getLabel());
+        }
+        System.out.print("Enter choice (1-" + options.size() + "): ");
         
         String choice = scanner.nextLine().trim();
-        switch (choice) {
-            case "2":
-                System.out.print("Enter percentage (e.g., 10 for 10%): ");
-                try {
-                    double percentage = Double.parseDouble(scanner.nextLine().trim());
-                    return new PercentageDiscount(percentage);
-                } catch (NumberFormatException e) {
-                    System.out.println("Invalid percentage. Using 10% default.");
-                    return new PercentageDiscount(10);
-                }
-            case "3":
-                System.out.print("Enter fixed discount amount: $");
-                try {
-                    double amount = Double.parseDouble(scanner.nextLine().trim());
-                    return new FixedAmountDiscount(amount);
-                } catch (NumberFormatException e) {
-                    System.out.println("Invalid amount. Using $10 default.");
-                    return new FixedAmountDiscount(10);
-                }
-            case "4":
-                return new DiscountCalculator() {
-                    @Override
-                    public double calculateDiscount(double originalPrice) {
-                        return originalPrice * 0.5;
-                    }
-                    
-                    @Override
-                    public String getDiscountType() {
-                        return "Buy One Get One Free";
-                    }
-                };
-            case "1":
-            default:
-                return new NoDiscount();
+        try {
+            int index = Integer.parseInt(choice) - 1;
+            return index >= 0 && index < options.size() ? options.get(index) : null;
+        } catch (NumberFormatException e) {
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,242 @@
+package com.example.solid.admission;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Admission control at the front of the order path: each order takes a token from its payment method's bucket
+ * and from its customer's bucket before any work is done. When a bucket is empty the order is either rejected
+ * straight away or, in queue mode, delayed by at most the configured wait; an order that would have to wait
+ * longer is rejected. Shedding here is a few atomic operations, far cheaper than letting a burst pile up in
+ * front of the payment backends.
+ * <p>
+ * Buckets are {@link TokenBucket}s, so admission never locks. Payment method buckets are created on first use.
+ * Customer buckets are dropped again once full, so memory is bounded by the customers active within one refill
+ * period rather than by every customer ever seen.
+ */
+public class AdmissionController {
+    private static final long UNLIMITED = 0;
+
+    private final double methodRate;
+    private final int methodBurst;
+    private final Map<String, double[]> methodOverrides;
+    private final double customerRate;
+    private final int customerBurst;
+    private final long maxWaitNanos;
+    private final int maxTrackedCustomers;
+    private final ConcurrentHashMap<String, TokenBucket> methodBuckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TokenBucket> customerBuckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private AdmissionController(Builder builder) {
+        this.methodRate = builder.methodRate;
+        this.methodBurst = builder.methodBurst;
+        this.methodOverrides = new HashMap<>(builder.methodOverrides);
+        this.customerRate = builder.customerRate;
+        this.customerBurst = builder.customerBurst;
+        this.maxWaitNanos = builder.maxWaitNanos;
+        this.maxTrackedCustomers = builder.maxTrackedCustomers;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Reserves a slot for an order without blocking.
+     *
+     * @return nanoseconds the order must be delayed (0 to run now), or {@link TokenBucket#REJECTED}
+     */
+    public long reserve(String paymentMethod, String customerName) {
+        long now = System.nanoTime();
+        TokenBucket customer = customerName != null ? customerBucket(customerName, now) : null;
+        long customerWait = customer != null ? customer.reserve(now, maxWaitNanos) : 0;
+        if (customerWait == TokenBucket.REJECTED) {
+            rejected.increment();
+            return TokenBucket.REJECTED;
+        }
+        TokenBucket method = methodBucket(paymentMethod, now);
+        long methodWait = method != null ? method.reserve(now, maxWaitNanos) : 0;
+        if (methodWait == TokenBucket.REJECTED) {
+            // Do not charge a customer for an order the payment method refused
+            if (customer != null) {
+                customer.release();
+            }
+            rejected.increment();
+            return TokenBucket.REJECTED;
+        }
+        long wait = Math.max(customerWait, methodWait);
+        (wait > 0 ? delayed : admitted).increment();
+        return wait;
+    }
+
+    /**
+     * Admits an order, parking the caller for any queueing delay.
+     *
+     * @return {@code false} if the order was rejected
+     */
+    public boolean acquire(String paymentMethod, String customerName) {
+        long wait = reserve(paymentMethod, customerName);
+        if (wait == TokenBucket.REJECTED) {
+            return false;
+        }
+        // The slot is already reserved, so an interrupt cuts the wait short rather than losing the order
+        long deadline = System.nanoTime() + wait;
+        long remaining;
+        while (wait > 0 && (remaining = deadline - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(this, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Orders admitted without delay.
+     */
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    /**
+     * Orders admitted after a queueing delay.
+     */
+    public long getDelayedCount() {
+        return delayed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private TokenBucket methodBucket(String paymentMethod, long now) {
+        TokenBucket bucket = methodBuckets.get(paymentMethod);
+        if (bucket != null) {
+            return bucket;
+        }
+        double[] limit = methodOverrides.get(paymentMethod);
+        double rate = limit != null ? limit[0] : methodRate;
+        if (rate == UNLIMITED) {
+            return null;
+        }
+        int burst = limit != null ? (int) limit[1] : methodBurst;
+        return methodBuckets.computeIfAbsent(paymentMethod, key -> new TokenBucket(rate, burst, now));
+    }
+
+    private TokenBucket customerBucket(String customerName, long now) {
+        if (customerRate == UNLIMITED) {
+            return null;
+        }
+        TokenBucket bucket = customerBuckets.get(customerName);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (customerBuckets.size() >= maxTrackedCustomers) {
+            sweepIdleCustomers(now);
+        }
+        return customerBuckets.computeIfAbsent(customerName, key -> new TokenBucket(customerRate, customerBurst, now));
+    }
+
+    // One thread at a time drops full buckets; a customer whose bucket is dropped mid-reservation gets a fresh
+    // bucket next time, which is what a full bucket would have given anyway
+    private void sweepIdleCustomers(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Iterator<TokenBucket> buckets = customerBuckets.values().iterator();
+            while (buckets.hasNext()) {
+                if (buckets.next().isIdle(now)) {
+                    buckets.remove();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * Configures the limits. Every limit is off until set, and overflowing orders are rejected unless
+     * {@link #queue(long, TimeUnit)} allows them to wait.
+     */
+    public static final class Builder {
+        private double methodRate = UNLIMITED;
+        private int methodBurst;
+        private final Map<String, double[]> methodOverrides = new HashMap<>();
+        private double customerRate = UNLIMITED;
+        private int customerBurst;
+        private long maxWaitNanos;
+        private int maxTrackedCustomers = 100_000;
+
+        private Builder() {
+        }
+
+        /**
+         * Limits every payment method to {@code ratePerSecond} orders, allowing bursts of {@code burst}.
+         */
+        public Builder paymentMethodLimit(double ratePerSecond, int burst) {
+            validate(ratePerSecond, burst);
+            this.methodRate = ratePerSecond;
+            this.methodBurst = burst;
+            return this;
+        }
+
+        /**
+         * Overrides the limit for one payment method, keyed by {@code PaymentProcessor.getPaymentMethod()}.
+         */
+        public Builder paymentMethodLimit(String paymentMethod, double ratePerSecond, int burst) {
+            validate(ratePerSecond, burst);
+            methodOverrides.put(paymentMethod, new double[] {ratePerSecond, burst});
+            return this;
+        }
+
+        /**
+         * Limits each customer, keyed by customer name, to {@code ratePerSecond} orders with bursts of {@code burst}.
+         */
+        public Builder customerLimit(double ratePerSecond, int burst) {
+            validate(ratePerSecond, burst);
+            this.customerRate = ratePerSecond;
+            this.customerBurst = burst;
+            return this;
+        }
+
+        /**
+         * Delays an order that exceeds a limit by up to {@code maxWait} instead of rejecting it.
+         */
+        public Builder queue(long maxWait, TimeUnit unit) {
+            if (maxWait < 0) {
+                throw new IllegalArgumentException("Maximum wait must not be negative, was " + maxWait);
+            }
+            this.maxWaitNanos = unit.toNanos(maxWait);
+            return this;
+        }
+
+        /**
+         * Customer buckets kept before full ones are swept; 100,000 by default.
+         */
+        public Builder maxTrackedCustomers(int maxTrackedCustomers) {
+            if (maxTrackedCustomers < 1) {
+                throw new IllegalArgumentException("Must track at least one customer, was " + maxTrackedCustomers);
+            }
+            this.maxTrackedCustomers = maxTrackedCustomers;
+            return this;
+        }
+
+        public AdmissionController build() {
+            return new AdmissionController(this);
+        }
+
+        private static void validate(double ratePerSecond, int burst) {
+            if (!(ratePerSecond > 0) || burst < 1) {
+                throw new IllegalArgumentException("Rate and burst must be positive, were " + ratePerSecond + " and " + burst);
+            }
+        }
+    }
+}
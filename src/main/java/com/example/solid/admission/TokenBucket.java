@@ -0,0 +1,67 @@
+package com.example.solid.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time" in a single
+ * {@link AtomicLong}, advanced by one emission interval per admitted order. A bucket allows {@code burst}
+ * orders back to back and then one per interval.
+ */
+public final class TokenBucket {
+    /**
+     * Returned by {@link #reserve(long, long)} when the order cannot be admitted within the allowed wait.
+     */
+    public static final long REJECTED = -1;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param ratePerSecond sustained admissions per second
+     * @param burst         admissions allowed at once by a bucket that has been idle
+     * @param nowNanos      current {@link System#nanoTime()}; the bucket starts full
+     */
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (!(ratePerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive, were " + ratePerSecond + " and " + burst);
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000.0 / ratePerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token, borrowing from the future by at most {@code maxWaitNanos}.
+     *
+     * @return nanoseconds the caller must wait before proceeding (0 if it may go now), or {@link #REJECTED}
+     */
+    public long reserve(long nowNanos, long maxWaitNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = (arrival - nowNanos > 0 ? arrival : nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > maxWaitNanos) {
+                return REJECTED;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return Math.max(0, wait);
+            }
+        }
+    }
+
+    /**
+     * Returns a token taken by {@link #reserve(long, long)} whose order was rejected by another limit.
+     * Other orders may have reserved in between, so this is approximate, never more generous than one token.
+     */
+    public void release() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+
+    /**
+     * Whether the bucket is full, in which case dropping it and creating a new one later changes nothing.
+     */
+    boolean isIdle(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.solid.discounts;
+
+import com.example.solid.registry.RegisteredStrategy;
+import com.example.solid.registry.StrategyRegistry;
+
+/**
+ * OCP: Buy one, get one free - half of the order amount, priced exactly in cents like any percentage discount
+ */
+@RegisteredStrategy(key = StrategyRegistry.BUY_ONE_GET_ONE, label = "Buy One Get One Free (50% off)", order = 4)
+public class BuyOneGetOneDiscount extends PercentageDiscount {
+
+    public BuyOneGetOneDiscount() {
+        super(50);
+    }
+
+    @Override
+    public String getDiscountType() {
+        return "Buy One Get One Free";
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.solid.discounts;
+
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.money.Money;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OCP: Stacks several discount strategies into one.
+ * Built chains are compiled into flat primitive arrays: percentage and fixed-amount steps are
+ * evaluated inline by a single loop instead of through nested interface calls, the label is
+ * rendered once at build time, and evaluation allocates nothing.
+ *
+ * <pre>
+ * DiscountCalculator promo = CompositeDiscount.sequential()
+ *         .then(new PercentageDiscount(10))
+ *         .then(new FixedAmountDiscount(5))
+ *         .withFloor(20.0)
+ *         .build();
+ * </pre>
+ */
+public final class CompositeDiscount implements DiscountCalculator {
+    private static final byte PERCENTAGE = 0;
+    private static final byte FIXED_AMOUNT = 1;
+    private static final byte DELEGATE = 2;
+    private static final long NO_CAP = Long.MAX_VALUE;
+    private static final long NO_FLOOR = Long.MIN_VALUE;
+
+    private final boolean bestOf;
+    private final DiscountCalculator[] steps;
+    private final byte[] kinds;
+    // Basis points for percentage steps, cents for fixed-amount steps
+    private final long[] parameters;
+    private final RoundingMode[] roundingModes;
+    private final DiscountCalculator[] delegates;
+    private final long maxDiscountCents;
+    private final long minFinalCents;
+    private final String discountType;
+    private final boolean labelled;
+
+    private CompositeDiscount(Builder builder, List<DiscountCalculator> steps) {
+        int size = steps.size();
+        this.bestOf = builder.bestOf;
+        this.steps = steps.toArray(new DiscountCalculator[0]);
+        this.kinds = new byte[size];
+        this.parameters = new long[size];
+        this.roundingModes = new RoundingMode[size];
+        this.delegates = new DiscountCalculator[size];
+        for (int i = 0; i < size; i++) {
+            DiscountCalculator step = steps.get(i);
+            // Exact classes only: a subclass may override the calculation, so it is called like any other step
+            if (step.getClass() == PercentageDiscount.class) {
+                PercentageDiscount percentage = (PercentageDiscount) step;
+                kinds[i] = PERCENTAGE;
+                parameters[i] = percentage.getBasisPoints();
+                roundingModes[i] = percentage.getRoundingMode();
+            } else if (step.getClass() == FixedAmountDiscount.class) {
+                kinds[i] = FIXED_AMOUNT;
+                parameters[i] = ((FixedAmountDiscount) step).getDiscountCents();
+            } else {
+                kinds[i] = DELEGATE;
+                delegates[i] = step;
+            }
+        }
+        this.maxDiscountCents = builder.maxDiscountCents;
+        this.minFinalCents = builder.minFinalCents;
+        this.labelled = builder.label != null;
+        this.discountType = labelled ? builder.label : describe(steps);
+    }
+
+    public static Builder sequential() {
+        return new Builder(false);
+    }
+
+    public static Builder bestOf() {
+        return new Builder(true);
+    }
+
+    @Override
+    public double calculateDiscount(double originalPrice) {
+        return Money.toAmount(calculateDiscountCents(Money.toCents(originalPrice)));
+    }
+
+    @Override
+    public long calculateDiscountCents(long originalPriceCents) {
+        long total = 0;
+        long remaining = originalPriceCents;
+        for (int i = 0; i < kinds.length; i++) {
+            long base = bestOf ? originalPriceCents : remaining;
+            long discount;
+            switch (kinds[i]) {
+                case PERCENTAGE:
+                    discount = Money.percentOf(base, parameters[i], roundingModes[i]);
+                    break;
+                case FIXED_AMOUNT:
+                    discount = Math.min(parameters[i], base);
+                    break;
+                default:
+                    discount = delegates[i].calculateDiscountCents(base);
+                    break;
+            }
+            if (bestOf) {
+                total = Math.max(total, discount);
+            } else {
+                total += discount;
+                remaining -= discount;
+            }
+        }
+        total = Math.min(total, maxDiscountCents);
+        if (minFinalCents != NO_FLOOR && originalPriceCents - total < minFinalCents) {
+            total = Math.max(0, originalPriceCents - minFinalCents);
+        }
+        return total;
+    }
+
+    @Override
+    public String getDiscountType() {
+        return discountType;
+    }
+
+    private boolean isPlain() {
+        return maxDiscountCents == NO_CAP && minFinalCents == NO_FLOOR && !labelled;
+    }
+
+    private String describe(List<DiscountCalculator> steps) {
+        StringBuilder label = new StringBuilder();
+        if (steps.isEmpty()) {
+            label.append("No Discount");
+        } else if (bestOf) {
+            label.append("Best of (");
+            appendLabels(label, steps, ", ");
+            label.append(')');
+        } else {
+            appendLabels(label, steps, " + ");
+        }
+        if (maxDiscountCents != NO_CAP) {
+            label.append(", max $").append(Money.toAmount(maxDiscountCents));
+        }
+        if (minFinalCents != NO_FLOOR) {
+            label.append(", min price $").append(Money.toAmount(minFinalCents));
+        }
+        return label.toString();
+    }
+
+    private static void appendLabels(StringBuilder label, List<DiscountCalculator> steps, String separator) {
+        for (int i = 0; i < steps.size(); i++) {
+            if (i > 0) {
+                label.append(separator);
+            }
+            label.append(steps.get(i).getDiscountType());
+        }
+    }
+
+    /**
+     * Collects the steps of a chain; {@link #build()} compiles them into an immutable evaluator.
+     */
+    public static final class Builder {
+        private final boolean bestOf;
+        private final List<DiscountCalculator> steps = new ArrayList<>();
+        private long maxDiscountCents = NO_CAP;
+        private long minFinalCents = NO_FLOOR;
+        private String label;
+
+        private Builder(boolean bestOf) {
+            this.bestOf = bestOf;
+        }
+
+        public Builder then(DiscountCalculator step) {
+            steps.add(step);
+            return this;
+        }
+
+        /**
+         * Caps the combined discount at {@code maxDiscount}.
+         */
+        public Builder cappedAt(double maxDiscount) {
+            this.maxDiscountCents = Money.toCents(maxDiscount);
+            return this;
+        }
+
+        /**
+         * Never discounts the final price below {@code minFinalPrice}.
+         */
+        public Builder withFloor(double minFinalPrice) {
+            this.minFinalCents = Money.toCents(minFinalPrice);
+            return this;
+        }
+
+        /**
+         * Overrides the generated discount label.
+         */
+        public Builder labelled(String label) {
+            this.label = label;
+            return this;
+        }
+
+        public CompositeDiscount build() {
+            List<DiscountCalculator> flattened = new ArrayList<>();
+            for (DiscountCalculator step : steps) {
+                flatten(step, flattened);
+            }
+            return new CompositeDiscount(this, flattened);
+        }
+
+        // Inlines nested chains of the same kind and drops no-op steps so evaluation stays a single loop
+        private void flatten(DiscountCalculator step, List<DiscountCalculator> flattened) {
+            // A NoDiscount subclass might still discount, so only the exact class is dropped
+            if (step.getClass() == NoDiscount.class) {
+                return;
+            }
+            if (step instanceof CompositeDiscount) {
+                CompositeDiscount nested = (CompositeDiscount) step;
+                if (nested.bestOf == bestOf && nested.isPlain()) {
+                    for (DiscountCalculator nestedStep : nested.steps) {
+                        flattened.add(nestedStep);
+                    }
+                    return;
+                }
+            }
+            flattened.add(step);
+        }
+    }
+}
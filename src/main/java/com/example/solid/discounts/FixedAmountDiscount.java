@@ -1,24 +1,60 @@
 package com.example.solid.discounts;
 
 import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.money.Money;
+import com.example.solid.registry.RegisteredStrategy;
+import com.example.solid.registry.StrategyRegistry;
+
+import java.math.RoundingMode;
 
 /**
  * OCP: Another discount strategy implementation
  */
+@RegisteredStrategy(key = StrategyRegistry.FIXED_AMOUNT, label = "Fixed Amount Discount", order = 3,
+                    prompt = "Enter fixed discount amount: $", defaultArgument = "10")
 public class FixedAmountDiscount implements DiscountCalculator {
     private final double discountAmount;
+    private final long discountCents;
+    private final String discountType;
     
     public FixedAmountDiscount(double discountAmount) {
+        this(discountAmount, Money.DEFAULT_ROUNDING);
+    }
+
+    public FixedAmountDiscount(double discountAmount, RoundingMode roundingMode) {
         this.discountAmount = discountAmount;
+        this.discountCents = Money.toCents(discountAmount, roundingMode);
+        this.discountType = "$" + discountAmount + " Off";
     }
     
     @Override
     public double calculateDiscount(double originalPrice) {
-        return Math.min(discountAmount, originalPrice);
+        return Money.toAmount(calculateDiscountCents(Money.toCents(originalPrice)));
+    }
+
+    @Override
+    public long calculateDiscountCents(long originalPriceCents) {
+        return Math.min(discountCents, originalPriceCents);
+    }
+
+    @Override
+    public void calculateDiscountsCents(long[] originalPricesCents, long[] discountsCents, int from, int to) {
+        long discount = discountCents;
+        for (int i = from; i < to; i++) {
+            discountsCents[i] = Math.min(discount, originalPricesCents[i]);
+        }
     }
     
     @Override
     public String getDiscountType() {
-        return "$" + discountAmount + " Off";
+        return discountType;
+    }
+
+    public double getDiscountAmount() {
+        return discountAmount;
+    }
+
+    public long getDiscountCents() {
+        return discountCents;
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,31 @@
 package com.example.solid.discounts;
 
 import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.registry.RegisteredStrategy;
+import com.example.solid.registry.StrategyRegistry;
+
+import java.util.Arrays;
 
 /**
  * OCP: No discount strategy - demonstrates null object pattern
  */
+@RegisteredStrategy(key = StrategyRegistry.NO_DISCOUNT, label = "No Discount", order = 1)
 public class NoDiscount implements DiscountCalculator {
     
     @Override
     public double calculateDiscount(double originalPrice) {
         return 0.0;
     }
+
+    @Override
+    public long calculateDiscountCents(long originalPriceCents) {
+        return 0;
+    }
+
+    @Override
+    public void calculateDiscountsCents(long[] originalPricesCents, long[] discountsCents, int from, int to) {
+        Arrays.fill(discountsCents, from, to, 0L);
+    }
     
     @Override
     public String getDiscountType() {
@@ -1,24 +1,90 @@
 package com.example.solid.discounts;
 
 import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.money.Money;
+import com.example.solid.registry.RegisteredStrategy;
+import com.example.solid.registry.StrategyRegistry;
+
+import java.math.RoundingMode;
 
 /**
  * OCP: Implementation of discount strategy - can be added without modifying existing code
  */
+@RegisteredStrategy(key = StrategyRegistry.PERCENTAGE, label = "Percentage Discount", order = 2,
+                    prompt = "Enter percentage (e.g., 10 for 10%): ", defaultArgument = "10")
 public class PercentageDiscount implements DiscountCalculator {
     private final double percentage;
+    private final long basisPoints;
+    private final RoundingMode roundingMode;
+    private final String discountType;
     
     public PercentageDiscount(double percentage) {
+        this(percentage, Money.DEFAULT_ROUNDING);
+    }
+
+    public PercentageDiscount(double percentage, RoundingMode roundingMode) {
         this.percentage = percentage;
+        this.basisPoints = Money.toBasisPoints(percentage, roundingMode);
+        this.roundingMode = roundingMode;
+        this.discountType = percentage + "% Discount";
     }
     
     @Override
     public double calculateDiscount(double originalPrice) {
-        return originalPrice * (percentage / 100.0);
+        return Money.toAmount(calculateDiscountCents(Money.toCents(originalPrice)));
+    }
+
+    @Override
+    public long calculateDiscountCents(long originalPriceCents) {
+        return Money.percentOf(originalPriceCents, basisPoints, roundingMode);
+    }
+
+    // Half-even and half-up rounding of non-negative prices up to maxInline are inlined as branch-free arithmetic;
+    // other modes, negative prices and prices whose product could overflow go through Money.percentOf
+    @Override
+    public void calculateDiscountsCents(long[] originalPricesCents, long[] discountsCents, int from, int to) {
+        long rate = basisPoints;
+        long unit = Money.BASIS_POINTS_PER_UNIT;
+        // Keeps price * rate, plus the half-unit HALF_UP adds, within a long
+        long maxInline = rate < 0 ? -1 : rate == 0 ? Long.MAX_VALUE : (Long.MAX_VALUE - unit) / rate;
+        if (roundingMode == RoundingMode.HALF_EVEN) {
+            for (int i = from; i < to; i++) {
+                long price = originalPricesCents[i];
+                long product = price * rate;
+                long quotient = product / unit;
+                long excess = 2 * (product - quotient * unit) - unit;
+                long roundUp = (excess > 0 || (excess == 0 && (quotient & 1) == 1)) ? 1 : 0;
+                discountsCents[i] = price >= 0 && price <= maxInline
+                    ? quotient + roundUp : Money.percentOf(price, rate, roundingMode);
+            }
+        } else if (roundingMode == RoundingMode.HALF_UP) {
+            long half = unit / 2;
+            for (int i = from; i < to; i++) {
+                long price = originalPricesCents[i];
+                discountsCents[i] = price >= 0 && price <= maxInline
+                    ? (price * rate + half) / unit : Money.percentOf(price, rate, roundingMode);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                discountsCents[i] = Money.percentOf(originalPricesCents[i], rate, roundingMode);
+            }
+        }
     }
     
     @Override
     public String getDiscountType() {
-        return percentage + "% Discount";
+        return discountType;
+    }
+
+    public double getPercentage() {
+        return percentage;
+    }
+
+    public long getBasisPoints() {
+        return basisPoints;
+    }
+
+    public RoundingMode getRoundingMode() {
+        return roundingMode;
     }
-}
\ No newline at end of file
+}
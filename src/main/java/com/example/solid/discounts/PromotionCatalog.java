@@ -0,0 +1,372 @@
+package com.example.solid.discounts;
+
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.money.Money;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
+
+/**
+ * OCP: A discount that applies the best of many promotions, each valid for a range of order amounts.
+ * <p>
+ * The promotions' range bounds split the amounts into sorted elementary segments; within one segment the same
+ * promotions apply. For each segment the catalog precomputes the highest percentage and the largest fixed amount,
+ * so pricing an order is a binary search over a primitive array plus two comparisons instead of a scan of every
+ * promotion. Other discount kinds, including buy-one-get-one, composite discounts and percentages with non-default
+ * rounding, cannot be ranked ahead of the amount. They are stored in a segment tree over the segments, each in
+ * O(log n) nodes, so a lookup walks one leaf-to-root path and evaluates only the other-kind promotions that cover
+ * the amount.
+ * <p>
+ * Updates are copy-on-write: every change builds a new immutable index and publishes it with one volatile write,
+ * so readers never lock or wait and always see one complete version. Rebuilding costs O(n log n) in the number of
+ * promotions, which suits catalogs that are read far more often than they change.
+ * Promotions with identical discounts tie in favour of the one added first. When different discounts happen to
+ * give the same amount, such as two fixed amounts both capped at a small price, either may be reported.
+ */
+public final class PromotionCatalog implements DiscountCalculator {
+    private final String discountType;
+    private final Object writeLock = new Object();
+    private volatile Index index = Index.EMPTY;
+
+    public PromotionCatalog() {
+        this("Best Promotion");
+    }
+
+    public PromotionCatalog(String discountType) {
+        this.discountType = discountType;
+    }
+
+    /**
+     * Adds {@code promotion}, replacing any promotion with the same id.
+     */
+    public void put(Promotion promotion) {
+        synchronized (writeLock) {
+            List<Promotion> promotions = new ArrayList<>(index.promotions.length + 1);
+            for (Promotion existing : index.promotions) {
+                if (!existing.id.equals(promotion.id)) {
+                    promotions.add(existing);
+                }
+            }
+            promotions.add(promotion);
+            index = Index.build(promotions);
+        }
+    }
+
+    /**
+     * @return whether a promotion with {@code id} was removed
+     */
+    public boolean remove(String id) {
+        synchronized (writeLock) {
+            List<Promotion> promotions = new ArrayList<>(index.promotions.length);
+            for (Promotion existing : index.promotions) {
+                if (!existing.id.equals(id)) {
+                    promotions.add(existing);
+                }
+            }
+            if (promotions.size() == index.promotions.length) {
+                return false;
+            }
+            index = Index.build(promotions);
+            return true;
+        }
+    }
+
+    /**
+     * Replaces every promotion at once; readers see either the old set or the new one.
+     */
+    public void replaceAll(Collection<Promotion> promotions) {
+        synchronized (writeLock) {
+            index = Index.build(new ArrayList<>(promotions));
+        }
+    }
+
+    public List<Promotion> getPromotions() {
+        return Collections.unmodifiableList(Arrays.asList(index.promotions));
+    }
+
+    /**
+     * A promotion giving the largest discount on {@code amountCents}, or {@code null} if none applies.
+     */
+    public Promotion findBest(long amountCents) {
+        Index current = index;
+        int best = current.best(amountCents);
+        return best < 0 ? null : current.promotions[best];
+    }
+
+    @Override
+    public double calculateDiscount(double originalPrice) {
+        return Money.toAmount(calculateDiscountCents(Money.toCents(originalPrice)));
+    }
+
+    @Override
+    public long calculateDiscountCents(long originalPriceCents) {
+        Index current = index;
+        int best = current.best(originalPriceCents);
+        return best < 0 ? 0 : current.promotions[best].discount.calculateDiscountCents(originalPriceCents);
+    }
+
+    // One index version serves the whole batch
+    @Override
+    public void calculateDiscountsCents(long[] originalPricesCents, long[] discountsCents, int from, int to) {
+        Index current = index;
+        for (int i = from; i < to; i++) {
+            int best = current.best(originalPricesCents[i]);
+            discountsCents[i] = best < 0 ? 0 : current.promotions[best].discount.calculateDiscountCents(originalPricesCents[i]);
+        }
+    }
+
+    @Override
+    public String getDiscountType() {
+        return discountType;
+    }
+
+    /**
+     * A discount valid for order amounts from {@code minAmount} inclusive up to {@code maxAmount} exclusive.
+     */
+    public static final class Promotion {
+        private static final long NO_MAX = Long.MAX_VALUE;
+
+        private final String id;
+        private final DiscountCalculator discount;
+        private final long minAmountCents;
+        private final long maxAmountCents;
+
+        /**
+         * Valid for every amount of at least {@code minAmount}.
+         */
+        public Promotion(String id, DiscountCalculator discount, double minAmount) {
+            this(id, discount, Money.toCents(minAmount), NO_MAX);
+        }
+
+        public Promotion(String id, DiscountCalculator discount, double minAmount, double maxAmount) {
+            this(id, discount, Money.toCents(minAmount), Money.toCents(maxAmount));
+        }
+
+        private Promotion(String id, DiscountCalculator discount, long minAmountCents, long maxAmountCents) {
+            if (minAmountCents >= maxAmountCents) {
+                throw new IllegalArgumentException("Promotion " + id + " has an empty amount range");
+            }
+            this.id = id;
+            this.discount = discount;
+            this.minAmountCents = minAmountCents;
+            this.maxAmountCents = maxAmountCents;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public DiscountCalculator getDiscount() {
+            return discount;
+        }
+
+        public long getMinAmountCents() {
+            return minAmountCents;
+        }
+
+        /**
+         * Exclusive upper bound, or {@link Long#MAX_VALUE} for none.
+         */
+        public long getMaxAmountCents() {
+            return maxAmountCents;
+        }
+
+        public boolean appliesTo(long amountCents) {
+            return amountCents >= minAmountCents && amountCents < maxAmountCents;
+        }
+    }
+
+    // Immutable segment tables; segment s covers [bounds[s], bounds[s + 1]) and the last one has no upper end
+    private static final class Index {
+        private static final byte PERCENTAGE = 0;
+        private static final byte FIXED_AMOUNT = 1;
+        private static final byte OTHER = 2;
+        private static final int[] NONE = new int[0];
+        private static final Index EMPTY = new Index(new Promotion[0], new long[0], new int[0], new int[0], null, 0);
+
+        private final Promotion[] promotions;
+        private final long[] bounds;
+        // Promotion index per segment, or -1
+        private final int[] bestPercentage;
+        private final int[] bestFixed;
+        // Segment tree of other-kind promotions: leaf leafBase + s is segment s, and node n covers its two
+        // children 2n and 2n + 1. Null when there are none.
+        private final int[][] otherTree;
+        private final int leafBase;
+
+        private Index(Promotion[] promotions, long[] bounds, int[] bestPercentage, int[] bestFixed, int[][] otherTree,
+                      int leafBase) {
+            this.promotions = promotions;
+            this.bounds = bounds;
+            this.bestPercentage = bestPercentage;
+            this.bestFixed = bestFixed;
+            this.otherTree = otherTree;
+            this.leafBase = leafBase;
+        }
+
+        int best(long amountCents) {
+            int segment = Arrays.binarySearch(bounds, amountCents);
+            if (segment < 0) {
+                segment = -segment - 2;
+                if (segment < 0) {
+                    return -1;
+                }
+            }
+            int best = bestPercentage[segment];
+            long bestDiscount = best < 0 ? 0 : discountOf(best, amountCents);
+            int fixed = bestFixed[segment];
+            if (fixed >= 0) {
+                long discount = discountOf(fixed, amountCents);
+                if (beats(fixed, discount, best, bestDiscount)) {
+                    best = fixed;
+                    bestDiscount = discount;
+                }
+            }
+            if (otherTree != null) {
+                for (int node = leafBase + segment; node > 0; node >>= 1) {
+                    for (int candidate : otherTree[node]) {
+                        long discount = discountOf(candidate, amountCents);
+                        if (beats(candidate, discount, best, bestDiscount)) {
+                            best = candidate;
+                            bestDiscount = discount;
+                        }
+                    }
+                }
+            }
+            return best;
+        }
+
+        private long discountOf(int promotion, long amountCents) {
+            return promotions[promotion].discount.calculateDiscountCents(amountCents);
+        }
+
+        private static boolean beats(int candidate, long discount, int best, long bestDiscount) {
+            return best < 0 || discount > bestDiscount || (discount == bestDiscount && candidate < best);
+        }
+
+        // Sweeps the sorted bounds once, keeping the active ranked promotions of each kind ordered by rank
+        static Index build(List<Promotion> promotionList) {
+            Promotion[] promotions = promotionList.toArray(new Promotion[0]);
+            if (promotions.length == 0) {
+                return EMPTY;
+            }
+            long[] rank = new long[promotions.length];
+            byte[] kind = new byte[promotions.length];
+            long[] allBounds = new long[promotions.length * 2];
+            int boundCount = 0;
+            for (int i = 0; i < promotions.length; i++) {
+                DiscountCalculator discount = promotions[i].discount;
+                if (discount.getClass() == PercentageDiscount.class
+                        && ((PercentageDiscount) discount).getRoundingMode() == Money.DEFAULT_ROUNDING) {
+                    kind[i] = PERCENTAGE;
+                    rank[i] = ((PercentageDiscount) discount).getBasisPoints();
+                } else if (discount.getClass() == FixedAmountDiscount.class) {
+                    kind[i] = FIXED_AMOUNT;
+                    rank[i] = ((FixedAmountDiscount) discount).getDiscountCents();
+                } else {
+                    kind[i] = OTHER;
+                }
+                allBounds[boundCount++] = promotions[i].minAmountCents;
+                if (promotions[i].maxAmountCents != Promotion.NO_MAX) {
+                    allBounds[boundCount++] = promotions[i].maxAmountCents;
+                }
+            }
+            Arrays.sort(allBounds, 0, boundCount);
+            int segments = 0;
+            for (int i = 0; i < boundCount; i++) {
+                if (segments == 0 || allBounds[i] != allBounds[segments - 1]) {
+                    allBounds[segments++] = allBounds[i];
+                }
+            }
+            long[] bounds = Arrays.copyOf(allBounds, segments);
+
+            Integer[] byStart = sortedBy(promotions, Comparator.comparingLong(p -> promotions[p].minAmountCents));
+            Integer[] byEnd = sortedBy(promotions, Comparator.comparingLong(p -> promotions[p].maxAmountCents));
+            // Highest rank last; among equals, the earliest added last
+            Comparator<Integer> byRank = Comparator.<Integer>comparingLong(p -> rank[p]).thenComparing(p -> -p);
+            TreeSet<Integer> activePercentages = new TreeSet<>(byRank);
+            TreeSet<Integer> activeFixed = new TreeSet<>(byRank);
+            int[] bestPercentage = new int[segments];
+            int[] bestFixed = new int[segments];
+            int nextStart = 0;
+            int nextEnd = 0;
+            for (int segment = 0; segment < segments; segment++) {
+                long bound = bounds[segment];
+                while (nextEnd < byEnd.length && promotions[byEnd[nextEnd]].maxAmountCents <= bound) {
+                    int p = byEnd[nextEnd++];
+                    if (kind[p] != OTHER) {
+                        (kind[p] == PERCENTAGE ? activePercentages : activeFixed).remove(p);
+                    }
+                }
+                while (nextStart < byStart.length && promotions[byStart[nextStart]].minAmountCents <= bound) {
+                    int p = byStart[nextStart++];
+                    if (kind[p] != OTHER && promotions[p].maxAmountCents > bound) {
+                        (kind[p] == PERCENTAGE ? activePercentages : activeFixed).add(p);
+                    }
+                }
+                bestPercentage[segment] = activePercentages.isEmpty() ? -1 : activePercentages.last();
+                bestFixed[segment] = activeFixed.isEmpty() ? -1 : activeFixed.last();
+            }
+            int leafBase = Integer.highestOneBit(Math.max(segments - 1, 1)) << 1;
+            return new Index(promotions, bounds, bestPercentage, bestFixed,
+                             buildOtherTree(promotions, kind, bounds, leafBase), leafBase);
+        }
+
+        // Stores each other-kind promotion in the canonical nodes covering its segments, O(log n) of them
+        private static int[][] buildOtherTree(Promotion[] promotions, byte[] kind, long[] bounds, int leafBase) {
+            int[] counts = new int[leafBase * 2];
+            boolean any = false;
+            for (int p = 0; p < promotions.length; p++) {
+                if (kind[p] == OTHER) {
+                    any = true;
+                    coverNodes(promotions[p], bounds, leafBase, node -> counts[node]++);
+                }
+            }
+            if (!any) {
+                return null;
+            }
+            int[][] tree = new int[counts.length][];
+            for (int node = 0; node < tree.length; node++) {
+                tree[node] = counts[node] == 0 ? NONE : new int[counts[node]];
+            }
+            int[] filled = new int[counts.length];
+            for (int p = 0; p < promotions.length; p++) {
+                if (kind[p] == OTHER) {
+                    int promotion = p;
+                    coverNodes(promotions[p], bounds, leafBase, node -> tree[node][filled[node]++] = promotion);
+                }
+            }
+            return tree;
+        }
+
+        private static void coverNodes(Promotion promotion, long[] bounds, int leafBase, IntConsumer visitor) {
+            // Both bounds are in the table, so the searches find them exactly
+            int first = Arrays.binarySearch(bounds, promotion.minAmountCents);
+            int end = promotion.maxAmountCents == Promotion.NO_MAX
+                ? bounds.length : Arrays.binarySearch(bounds, promotion.maxAmountCents);
+            for (int left = first + leafBase, right = end + leafBase; left < right; left >>= 1, right >>= 1) {
+                if ((left & 1) == 1) {
+                    visitor.accept(left++);
+                }
+                if ((right & 1) == 1) {
+                    visitor.accept(--right);
+                }
+            }
+        }
+
+        private static Integer[] sortedBy(Promotion[] promotions, Comparator<Integer> order) {
+            Integer[] indices = new Integer[promotions.length];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = i;
+            }
+            Arrays.sort(indices, order);
+            return indices;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.solid.events;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Default event sink: a bounded, lock-free multi-producer ring buffer drained by one
+ * background writer thread. Order threads only claim a slot with a CAS and copy the
+ * event fields into it; formatting and the synchronized {@link PrintStream} write
+ * happen on the writer thread, so console output no longer serializes the order path.
+ * When the ring is full producers spin until the writer frees a slot - events are never dropped
+ * while the sink is open. Once it is closed, publishing returns at once and the event is discarded.
+ */
+public final class AsyncOrderEventSink implements OrderEventSink, AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int MAX_BATCH_CHARS = 8192;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long SHUTDOWN_FLUSH_MILLIS = 1000;
+    // Returned by claim() once the sink is closed; the event is discarded
+    private static final long CLOSED = -1;
+
+    private final OrderEvent[] slots;
+    // Per-slot sequence: equals the claimable sequence when free, sequence + 1 once published
+    private final AtomicLongArray slotSequences;
+    private final int mask;
+    private final AtomicLong nextClaim = new AtomicLong();
+    private final PrintStream out;
+    private final Thread writer;
+    private volatile long consumed;
+    private volatile boolean running = true;
+
+    public AsyncOrderEventSink(PrintStream out) {
+        this(out, DEFAULT_CAPACITY);
+    }
+
+    public AsyncOrderEventSink(PrintStream out, int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, was " + capacity);
+        }
+        this.out = out;
+        this.slots = new OrderEvent[capacity];
+        this.slotSequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new OrderEvent();
+            slotSequences.set(i, i);
+        }
+        this.writer = new Thread(this::drain, "order-event-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Shared sink writing to {@code System.out}; pending events are flushed on JVM shutdown.
+     */
+    public static AsyncOrderEventSink console() {
+        return ConsoleHolder.INSTANCE;
+    }
+
+    @Override
+    public void orderReceived(String customerName) {
+        long sequence = claim();
+        if (sequence == CLOSED) {
+            return;
+        }
+        OrderEvent event = slots[(int) sequence & mask];
+        event.type = OrderEventType.ORDER_RECEIVED;
+        event.name = customerName;
+        publish(sequence);
+    }
+
+    @Override
+    public void pricingComputed(double originalAmount, double discountApplied, double finalAmount, String discountLabel) {
+        long sequence = claim();
+        if (sequence == CLOSED) {
+            return;
+        }
+        OrderEvent event = slots[(int) sequence & mask];
+        event.type = OrderEventType.PRICING_COMPUTED;
+        event.originalAmount = originalAmount;
+        event.discountApplied = discountApplied;
+        event.amount = finalAmount;
+        event.label = discountLabel;
+        publish(sequence);
+    }
+
+    @Override
+    public void paymentAttempted(String paymentMethod, double amount) {
+        long sequence = claim();
+        if (sequence == CLOSED) {
+            return;
+        }
+        OrderEvent event = slots[(int) sequence & mask];
+        event.type = OrderEventType.PAYMENT_ATTEMPTED;
+        event.name = paymentMethod;
+        event.amount = amount;
+        publish(sequence);
+    }
+
+    @Override
+    public void paymentCompleted(String paymentMethod, boolean successful) {
+        long sequence = claim();
+        if (sequence == CLOSED) {
+            return;
+        }
+        OrderEvent event = slots[(int) sequence & mask];
+        event.type = OrderEventType.PAYMENT_COMPLETED;
+        event.name = paymentMethod;
+        event.successful = successful;
+        publish(sequence);
+    }
+
+    @Override
+    public void notificationSent(String channel, String recipient, CharSequence message) {
+        long sequence = claim();
+        if (sequence == CLOSED) {
+            return;
+        }
+        OrderEvent event = slots[(int) sequence & mask];
+        event.type = OrderEventType.NOTIFICATION_SENT;
+        event.name = channel;
+        event.label = recipient;
+        event.message.append(message);
+        publish(sequence);
+    }
+
+    @Override
+    public void flush() {
+        awaitConsumed(nextClaim.get(), Long.MAX_VALUE);
+    }
+
+    /**
+     * Flushes pending events and stops the writer thread. Events published after closing are never written.
+     */
+    @Override
+    public void close() {
+        flush();
+        running = false;
+        LockSupport.unpark(writer);
+    }
+
+    private long claim() {
+        int spins = 0;
+        while (true) {
+            // The writer is gone after close, so a full ring would never drain
+            if (!running) {
+                return CLOSED;
+            }
+            long sequence = nextClaim.get();
+            long slotSequence = slotSequences.get((int) sequence & mask);
+            if (slotSequence == sequence) {
+                if (nextClaim.compareAndSet(sequence, sequence + 1)) {
+                    return sequence;
+                }
+            } else if (slotSequence < sequence) {
+                // Ring is full: back off until the writer releases the slot
+                if (++spins < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+        }
+    }
+
+    private void publish(long sequence) {
+        slotSequences.lazySet((int) sequence & mask, sequence + 1);
+    }
+
+    private void awaitConsumed(long target, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (consumed < target && writer.isAlive()) {
+            if (timeoutNanos != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) {
+                return;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private void drain() {
+        StringBuilder batch = new StringBuilder(MAX_BATCH_CHARS * 2);
+        long next = 0;
+        while (true) {
+            int index = (int) next & mask;
+            if (slotSequences.get(index) == next + 1) {
+                OrderEvent event = slots[index];
+                try {
+                    event.formatTo(batch);
+                } catch (RuntimeException e) {
+                    batch.append("[event sink] failed to render ").append(event.type).append(": ").append(e).append('\n');
+                }
+                event.clearReferences();
+                slotSequences.lazySet(index, next + slots.length);
+                next++;
+                if (batch.length() >= MAX_BATCH_CHARS) {
+                    write(batch);
+                    consumed = next;
+                }
+                continue;
+            }
+            if (batch.length() > 0) {
+                write(batch);
+            }
+            consumed = next;
+            if (!running) {
+                return;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private void write(StringBuilder batch) {
+        out.print(batch);
+        out.flush();
+        batch.setLength(0);
+    }
+
+    private static final class ConsoleHolder {
+        static final AsyncOrderEventSink INSTANCE = new AsyncOrderEventSink(System.out);
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> INSTANCE.awaitConsumed(INSTANCE.nextClaim.get(), TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_FLUSH_MILLIS)),
+                "order-event-flush"));
+        }
+    }
+}
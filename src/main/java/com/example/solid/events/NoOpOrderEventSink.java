@@ -0,0 +1,31 @@
+package com.example.solid.events;
+
+/**
+ * Null object sink that discards every event - use it for benchmarks and load tests.
+ */
+public final class NoOpOrderEventSink implements OrderEventSink {
+    public static final NoOpOrderEventSink INSTANCE = new NoOpOrderEventSink();
+
+    private NoOpOrderEventSink() {
+    }
+
+    @Override
+    public void orderReceived(String customerName) {
+    }
+
+    @Override
+    public void pricingComputed(double originalAmount, double discountApplied, double finalAmount, String discountLabel) {
+    }
+
+    @Override
+    public void paymentAttempted(String paymentMethod, double amount) {
+    }
+
+    @Override
+    public void paymentCompleted(String paymentMethod, boolean successful) {
+    }
+
+    @Override
+    public void notificationSent(String channel, String recipient, CharSequence message) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.solid.events;
+
+/**
+ * Mutable, reusable ring buffer slot. Producers overwrite the fields in place so
+ * publishing an event allocates nothing; the background writer renders it to text.
+ */
+final class OrderEvent {
+    OrderEventType type;
+    String name;
+    String label;
+    double originalAmount;
+    double discountApplied;
+    double amount;
+    boolean successful;
+    final StringBuilder message = new StringBuilder(128);
+
+    void clearReferences() {
+        name = null;
+        label = null;
+        message.setLength(0);
+    }
+
+    // Renders the event in the same console format the order path has always used
+    void formatTo(StringBuilder out) {
+        switch (type) {
+            case ORDER_RECEIVED:
+                out.append("\n=== Processing Order for ").append(name).append(" ===\n");
+                break;
+            case PRICING_COMPUTED:
+                out.append("Original amount: $").append(originalAmount).append('\n');
+                out.append("Discount (").append(label).append("): $").append(discountApplied).append('\n');
+                out.append("Final amount: $").append(amount).append('\n');
+                break;
+            case PAYMENT_ATTEMPTED:
+                out.append("Processing ").append(name).append(" payment of $").append(amount).append('\n');
+                break;
+            case PAYMENT_COMPLETED:
+                out.append("Payment method: ").append(name).append('\n');
+                out.append(successful ? "[SUCCESS] Payment successful!" : "[FAILED] Payment failed!").append('\n');
+                break;
+            case NOTIFICATION_SENT:
+                out.append('[');
+                for (int i = 0; i < name.length(); i++) {
+                    out.append(Character.toUpperCase(name.charAt(i)));
+                }
+                out.append(" to ").append(label).append("] ").append(message).append('\n');
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.solid.events;
+
+/**
+ * DIP: Abstraction for everything the order path reports while it runs.
+ * Implementations receive typed events instead of pre-rendered text, so the
+ * hot path never formats or writes output itself.
+ */
+public interface OrderEventSink {
+    void orderReceived(String customerName);
+
+    void pricingComputed(double originalAmount, double discountApplied, double finalAmount, String discountLabel);
+
+    void paymentAttempted(String paymentMethod, double amount);
+
+    void paymentCompleted(String paymentMethod, boolean successful);
+
+    /**
+     * The message may be a reusable buffer; sinks must copy it before returning if they keep it.
+     */
+    void notificationSent(String channel, String recipient, CharSequence message);
+
+    /**
+     * Blocks until every event published so far has been handled. Synchronous sinks need not override this.
+     */
+    default void flush() {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.solid.events;
+
+/**
+ * Kinds of event an {@link OrderEvent} slot can hold.
+ */
+enum OrderEventType {
+    ORDER_RECEIVED,
+    PRICING_COMPUTED,
+    PAYMENT_ATTEMPTED,
+    PAYMENT_COMPLETED,
+    NOTIFICATION_SENT
+}
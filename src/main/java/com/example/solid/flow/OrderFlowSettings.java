@@ -0,0 +1,119 @@
+package com.example.solid.flow;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Concurrency and buffer size of each stage of a streamed order pipeline, and the executor the stages run on.
+ * By default pricing runs one order per processor, payment and notification run up to 64 and 16 blocking calls,
+ * and every stage holds at most 256 orders.
+ */
+public final class OrderFlowSettings {
+    private final int pricingConcurrency;
+    private final int pricingBuffer;
+    private final int paymentConcurrency;
+    private final int paymentBuffer;
+    private final int notificationConcurrency;
+    private final int notificationBuffer;
+    private final Executor executor;
+
+    private OrderFlowSettings(Builder builder) {
+        this.pricingConcurrency = builder.pricingConcurrency;
+        this.pricingBuffer = builder.pricingBuffer;
+        this.paymentConcurrency = builder.paymentConcurrency;
+        this.paymentBuffer = builder.paymentBuffer;
+        this.notificationConcurrency = builder.notificationConcurrency;
+        this.notificationBuffer = builder.notificationBuffer;
+        this.executor = builder.executor;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static OrderFlowSettings defaults() {
+        return builder().build();
+    }
+
+    public int getPricingConcurrency() {
+        return pricingConcurrency;
+    }
+
+    public int getPricingBuffer() {
+        return pricingBuffer;
+    }
+
+    public int getPaymentConcurrency() {
+        return paymentConcurrency;
+    }
+
+    public int getPaymentBuffer() {
+        return paymentBuffer;
+    }
+
+    public int getNotificationConcurrency() {
+        return notificationConcurrency;
+    }
+
+    public int getNotificationBuffer() {
+        return notificationBuffer;
+    }
+
+    /**
+     * Executor for every stage, or {@code null} for the processor's shared stage executor.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public static final class Builder {
+        private static final int DEFAULT_BUFFER = 256;
+
+        private int pricingConcurrency = Runtime.getRuntime().availableProcessors();
+        private int pricingBuffer = DEFAULT_BUFFER;
+        private int paymentConcurrency = 64;
+        private int paymentBuffer = DEFAULT_BUFFER;
+        private int notificationConcurrency = 16;
+        private int notificationBuffer = DEFAULT_BUFFER;
+        private Executor executor;
+
+        private Builder() {
+        }
+
+        public Builder pricing(int concurrency, int bufferSize) {
+            check(concurrency, bufferSize);
+            this.pricingConcurrency = concurrency;
+            this.pricingBuffer = bufferSize;
+            return this;
+        }
+
+        public Builder payment(int concurrency, int bufferSize) {
+            check(concurrency, bufferSize);
+            this.paymentConcurrency = concurrency;
+            this.paymentBuffer = bufferSize;
+            return this;
+        }
+
+        public Builder notification(int concurrency, int bufferSize) {
+            check(concurrency, bufferSize);
+            this.notificationConcurrency = concurrency;
+            this.notificationBuffer = bufferSize;
+            return this;
+        }
+
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public OrderFlowSettings build() {
+            return new OrderFlowSettings(this);
+        }
+
+        private static void check(int concurrency, int bufferSize) {
+            if (concurrency < 1 || bufferSize < concurrency) {
+                throw new IllegalArgumentException("Need concurrency of at least 1 and a buffer at least as large, were "
+                                                   + concurrency + " and " + bufferSize);
+            }
+        }
+    }
+}
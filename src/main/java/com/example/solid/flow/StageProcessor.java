@@ -0,0 +1,287 @@
+package com.example.solid.flow;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * One stage of a reactive pipeline: applies {@code stage} to each item on {@code executor}, running at most
+ * {@code concurrency} items at once, and publishes the results in the order the items arrived.
+ * <p>
+ * Demand is pulled, never pushed. The stage asks upstream only for as many items as its subscriber has requested
+ * and it does not already hold, and it never holds more than {@code bufferSize} items, counting those requested
+ * but not yet received, those running and those finished but not yet delivered. A chain of stages therefore
+ * passes a subscriber's demand all the way to the source, and a slow subscriber stops the source rather than
+ * filling memory.
+ * <p>
+ * A stage has one subscriber. If {@code stage} throws, the stream fails with that exception and upstream is
+ * cancelled; an upstream error is passed on at once, dropping any held items. Signals to the subscriber are
+ * serialised by a drain loop that runs on whichever thread last changed the state, so the stage itself has no
+ * thread of its own.
+ */
+public final class StageProcessor<I, O> implements Flow.Processor<I, O> {
+    private final Function<? super I, ? extends O> stage;
+    private final Executor executor;
+    private final int concurrency;
+    private final Queue<I> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private volatile Flow.Subscriber<? super O> downstream;
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+    private volatile Throwable requestError;
+    private volatile boolean cancelled;
+
+    // Drain loop only: held items in arrival order, the first `started` of them handed to the executor
+    private final Slot<I, O>[] held;
+    private int head;
+    private int count;
+    private int started;
+    private long outstanding;
+    private boolean terminated;
+
+    @SuppressWarnings("unchecked")
+    public StageProcessor(Function<? super I, ? extends O> stage, Executor executor, int concurrency, int bufferSize) {
+        if (concurrency < 1 || bufferSize < 1) {
+            throw new IllegalArgumentException("Concurrency and buffer size must be positive, were "
+                                               + concurrency + " and " + bufferSize);
+        }
+        this.stage = stage;
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.held = (Slot<I, O>[]) new Slot<?, ?>[bufferSize];
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super O> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("A stage supports only one subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Downstream());
+        downstream = subscriber;
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (!upstream.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(I item) {
+        incoming.add(Objects.requireNonNull(item, "item"));
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstreamError = Objects.requireNonNull(throwable, "throwable");
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    private void drain() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            drainOnce();
+            missed = drainRequests.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainOnce() {
+        if (terminated) {
+            incoming.clear();
+            return;
+        }
+        if (cancelled) {
+            terminate();
+            return;
+        }
+        // Read before taking arrivals, so completion is never seen ahead of the last item
+        boolean done = upstreamDone;
+        I item;
+        while ((item = incoming.poll()) != null) {
+            if (count == held.length) {
+                fail(new IllegalStateException("Upstream sent more items than were requested"));
+                return;
+            }
+            held[(head + count) % held.length] = new Slot<>(item);
+            count++;
+            outstanding--;
+        }
+
+        while (started < count && running.get() < concurrency) {
+            start(held[(head + started) % held.length]);
+            started++;
+        }
+
+        Flow.Subscriber<? super O> subscriber = downstream;
+        if (subscriber == null) {
+            requestMore(done);
+            return;
+        }
+        if (requestError != null) {
+            fail(requestError);
+            return;
+        }
+        if (done && upstreamError != null) {
+            fail(upstreamError);
+            return;
+        }
+        long requested = demand.get();
+        long emitted = 0;
+        while (emitted != requested && count > 0 && held[head].done) {
+            Slot<I, O> slot = held[head];
+            if (slot.failure != null) {
+                fail(slot.failure);
+                return;
+            }
+            held[head] = null;
+            head = (head + 1) % held.length;
+            count--;
+            started--;
+            emitted++;
+            subscriber.onNext(slot.output);
+            if (cancelled) {
+                terminate();
+                return;
+            }
+        }
+        if (emitted > 0 && requested != Long.MAX_VALUE) {
+            demand.addAndGet(-emitted);
+        }
+        if (done && count == 0) {
+            terminated = true;
+            subscriber.onComplete();
+            return;
+        }
+        requestMore(done);
+    }
+
+    // Asks upstream for the subscriber's unmet demand, limited by free buffer space
+    private void requestMore(boolean done) {
+        Flow.Subscription subscription = upstream.get();
+        if (subscription == null || done) {
+            return;
+        }
+        long free = held.length - count - outstanding;
+        long unmet = demand.get() - count - outstanding;
+        long wanted = Math.min(free, unmet);
+        if (wanted > 0) {
+            outstanding += wanted;
+            subscription.request(wanted);
+        }
+    }
+
+    private void start(Slot<I, O> slot) {
+        running.incrementAndGet();
+        try {
+            executor.execute(() -> run(slot));
+        } catch (RejectedExecutionException e) {
+            slot.failure = e;
+            running.decrementAndGet();
+            slot.done = true;
+        }
+    }
+
+    private void run(Slot<I, O> slot) {
+        try {
+            slot.output = Objects.requireNonNull(stage.apply(slot.input), "Stage returned null");
+        } catch (Throwable t) {
+            slot.failure = t;
+        } finally {
+            slot.input = null;
+            running.decrementAndGet();
+            slot.done = true;
+            drain();
+        }
+    }
+
+    private void fail(Throwable failure) {
+        Flow.Subscriber<? super O> subscriber = downstream;
+        terminate();
+        if (subscriber != null) {
+            subscriber.onError(failure);
+        }
+    }
+
+    private void terminate() {
+        terminated = true;
+        Flow.Subscription subscription = upstream.get();
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        incoming.clear();
+        Arrays.fill(held, null);
+        count = 0;
+        started = 0;
+    }
+
+    private static final class Slot<I, O> {
+        private I input;
+        private O output;
+        private Throwable failure;
+        private volatile boolean done;
+
+        Slot(I input) {
+            this.input = input;
+        }
+    }
+
+    private final class Downstream implements Flow.Subscription {
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                requestError = new IllegalArgumentException("Request must be positive, was " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+    }
+}
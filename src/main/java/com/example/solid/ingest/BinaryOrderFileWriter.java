@@ -0,0 +1,62 @@
+package com.example.solid.ingest;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes orders in the compact {@link OrderFileFormat#BINARY} layout.
+ */
+public class BinaryOrderFileWriter implements AutoCloseable {
+    private final DataOutputStream out;
+
+    public BinaryOrderFileWriter(Path output) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output), 64 * 1024));
+        out.writeInt(OrderFileFormat.BINARY_MAGIC);
+        out.writeInt(OrderFileFormat.BINARY_VERSION);
+    }
+
+    /**
+     * Converts a CSV order file to the binary layout and returns the number of orders written.
+     * Malformed CSV records are skipped.
+     */
+    public static long convertCsv(Path csvInput, Path binaryOutput) throws IOException {
+        try (BinaryOrderFileWriter writer = new BinaryOrderFileWriter(binaryOutput)) {
+            long[] written = new long[1];
+            new MappedOrderReader().read(csvInput, OrderFileFormat.CSV,
+                (source, nameOffset, nameLength, amountCents, discountKind, discountValue) -> {
+                    writer.write(source, nameOffset, nameLength, amountCents, discountKind, discountValue);
+                    written[0]++;
+                });
+            return written[0];
+        }
+    }
+
+    public void write(String customerName, long amountCents, int discountKind, long discountValue) throws IOException {
+        byte[] name = customerName.getBytes(StandardCharsets.UTF_8);
+        write(ByteBuffer.wrap(name), 0, name.length, amountCents, discountKind, discountValue);
+    }
+
+    public void write(ByteBuffer nameSource, int nameOffset, int nameLength, long amountCents, int discountKind,
+                      long discountValue) throws IOException {
+        if (nameLength > 0xFFFF) {
+            throw new IOException("Customer name of " + nameLength + " bytes is too long for the binary format");
+        }
+        out.writeShort(nameLength);
+        for (int i = 0; i < nameLength; i++) {
+            out.write(nameSource.get(nameOffset + i));
+        }
+        out.writeLong(amountCents);
+        out.writeByte(discountKind);
+        out.writeLong(discountValue);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
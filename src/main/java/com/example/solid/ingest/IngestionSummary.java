@@ -0,0 +1,53 @@
+package com.example.solid.ingest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts from one ingestion run.
+ */
+public class IngestionSummary {
+    private final long records;
+    private final long successful;
+    private final long declined;
+    private final long malformed;
+    private final long elapsedNanos;
+
+    public IngestionSummary(long records, long successful, long declined, long malformed, long elapsedNanos) {
+        this.records = records;
+        this.successful = successful;
+        this.declined = declined;
+        this.malformed = malformed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getSuccessful() {
+        return successful;
+    }
+
+    public long getDeclined() {
+        return declined;
+    }
+
+    public long getMalformed() {
+        return malformed;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getOrdersPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : (successful + declined) * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return records + " records: " + successful + " successful, " + declined + " declined, " + malformed
+            + " malformed in " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms ("
+            + Math.round(getOrdersPerSecond()) + " orders/s)";
+    }
+}
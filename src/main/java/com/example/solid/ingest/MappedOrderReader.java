@@ -0,0 +1,296 @@
+package com.example.solid.ingest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams orders out of a CSV or binary file through a sliding memory-mapped window.
+ * Fields are parsed straight from the mapped bytes - amounts become cents without an
+ * intermediate {@code String} or {@code double} - and only one window is mapped at a time,
+ * so memory use does not grow with the file size. A record must fit in one window.
+ * A quoted CSV name may contain commas and doubled quotes ({@code ""}); it may not span lines.
+ */
+public class MappedOrderReader {
+    private static final long DEFAULT_WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final long MALFORMED = Long.MIN_VALUE;
+    // short nameLength + long amountCents + byte discountKind + long discountValue
+    private static final int BINARY_FIXED_BYTES = 2 + 8 + 1 + 8;
+
+    private final long windowBytes;
+
+    public MappedOrderReader() {
+        this(DEFAULT_WINDOW_BYTES);
+    }
+
+    public MappedOrderReader(long windowBytes) {
+        this.windowBytes = windowBytes;
+    }
+
+    /**
+     * Parses every record in {@code path} and returns the number of records seen, including malformed ones.
+     */
+    public long read(Path path, OrderFileFormat format, OrderRecordHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long position = format == OrderFileFormat.BINARY ? readBinaryHeader(channel, path) : 0;
+            WindowParser parser = new WindowParser(handler);
+            while (position < fileSize) {
+                long length = Math.min(windowBytes, fileSize - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean lastWindow = position + length == fileSize;
+                int consumed = format == OrderFileFormat.CSV
+                    ? parser.parseCsv(window, (int) length, lastWindow)
+                    : parser.parseBinary(window, (int) length);
+                if (consumed == 0) {
+                    if (lastWindow) {
+                        throw new IOException("Truncated record at byte " + position + " of " + path);
+                    }
+                    throw new IOException("Record at byte " + position + " of " + path
+                        + " does not fit in the " + windowBytes + "-byte mapping window");
+                }
+                position += consumed;
+            }
+            return parser.records;
+        }
+    }
+
+    private static long readBinaryHeader(FileChannel channel, Path path) throws IOException {
+        if (channel.size() < OrderFileFormat.BINARY_HEADER_BYTES) {
+            throw new IOException(path + " is not a binary order file");
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, OrderFileFormat.BINARY_HEADER_BYTES);
+        if (header.getInt(0) != OrderFileFormat.BINARY_MAGIC) {
+            throw new IOException(path + " is not a binary order file");
+        }
+        int version = header.getInt(4);
+        if (version != OrderFileFormat.BINARY_VERSION) {
+            throw new IOException("Unsupported binary order file version " + version + " in " + path);
+        }
+        return OrderFileFormat.BINARY_HEADER_BYTES;
+    }
+
+    /**
+     * Parses a decimal such as {@code 127.5} or {@code -3.005} in {@code [from, to)} into hundredths,
+     * rounding extra digits half-even. Returns {@link #MALFORMED} if the bytes are not a number.
+     */
+    static long parseHundredths(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long value = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        int roundingDigit = 0;
+        boolean sticky = false;
+        for (; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            if (b < '0' || b > '9' || digits > 17) {
+                return MALFORMED;
+            }
+            int digit = b - '0';
+            if (fractionDigits < 0 || fractionDigits < 2) {
+                value = value * 10 + digit;
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (fractionDigits == 2) {
+                roundingDigit = digit;
+                fractionDigits++;
+            } else {
+                sticky |= digit != 0;
+            }
+        }
+        if (digits == 0) {
+            return MALFORMED;
+        }
+        for (int scale = Math.max(fractionDigits, 0); scale < 2; scale++) {
+            value *= 10;
+        }
+        if (roundingDigit > 5 || (roundingDigit == 5 && (sticky || (value & 1) == 1))) {
+            value++;
+        }
+        return negative ? -value : value;
+    }
+
+    // Holds the running record count and handler for one read() call
+    private static final class WindowParser {
+        private final OrderRecordHandler handler;
+        private long records;
+        private boolean headerChecked;
+        // Names with doubled quotes are unescaped here, since the mapped window is read-only
+        private ByteBuffer unescaped = ByteBuffer.allocate(64);
+
+        WindowParser(OrderRecordHandler handler) {
+            this.handler = handler;
+        }
+
+        // Returns bytes consumed; stops before a line that is not terminated unless this is the last window
+        int parseCsv(ByteBuffer window, int length, boolean lastWindow) throws IOException {
+            int lineStart = 0;
+            while (lineStart < length) {
+                int lineEnd = lineStart;
+                while (lineEnd < length && window.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+                if (lineEnd == length && !lastWindow) {
+                    return lineStart;
+                }
+                parseCsvLine(window, lineStart, lineEnd);
+                lineStart = lineEnd + 1;
+            }
+            return length;
+        }
+
+        private void parseCsvLine(ByteBuffer line, int start, int end) throws IOException {
+            if (end > start && line.get(end - 1) == '\r') {
+                end--;
+            }
+            start = skipSpaces(line, start, end);
+            if (start == end) {
+                return;
+            }
+            ByteBuffer nameSource = line;
+            int nameStart = start;
+            int nameEnd;
+            int cursor;
+            if (line.get(start) == '"') {
+                nameStart = start + 1;
+                nameEnd = closingQuote(line, nameStart, end);
+                cursor = indexOf(line, ',', nameEnd, end);
+                if (indexOf(line, '"', nameStart, nameEnd) < nameEnd) {
+                    nameSource = unescape(line, nameStart, nameEnd);
+                    nameStart = 0;
+                    nameEnd = nameSource.position();
+                }
+            } else {
+                cursor = indexOf(line, ',', start, end);
+                nameEnd = trimEnd(line, start, cursor);
+            }
+            int amountStart = cursor + 1;
+            int amountEnd = indexOf(line, ',', amountStart, end);
+            int typeStart = amountEnd + 1;
+            int typeEnd = indexOf(line, ',', typeStart, end);
+            int valueStart = typeEnd + 1;
+
+            long amountCents = amountStart < end
+                ? parseHundredths(line, skipSpaces(line, amountStart, amountEnd), trimEnd(line, amountStart, amountEnd))
+                : MALFORMED;
+            boolean firstRecord = !headerChecked;
+            headerChecked = true;
+            if (amountCents == MALFORMED && firstRecord) {
+                return; // header line
+            }
+            records++;
+            int discountKind = OrderRecordHandler.DISCOUNT_NONE;
+            long discountValue = 0;
+            if (typeStart < end) {
+                int typeFrom = skipSpaces(line, typeStart, typeEnd);
+                byte kind = typeFrom < typeEnd ? (byte) (line.get(typeFrom) | 0x20) : (byte) 'n';
+                if (kind == 'p' || kind == 'f') {
+                    discountKind = kind == 'p' ? OrderRecordHandler.DISCOUNT_PERCENTAGE : OrderRecordHandler.DISCOUNT_FIXED;
+                    discountValue = valueStart < end
+                        ? parseHundredths(line, skipSpaces(line, valueStart, end), trimEnd(line, valueStart, end))
+                        : MALFORMED;
+                } else if (kind != 'n') {
+                    discountValue = MALFORMED;
+                }
+            }
+            if (amountCents == MALFORMED || discountValue == MALFORMED) {
+                handler.onMalformed(records);
+                return;
+            }
+            handler.onOrder(nameSource, nameStart, nameEnd - nameStart, amountCents, discountKind, discountValue);
+        }
+
+        // Copies a quoted field's content with each doubled quote collapsed; the result ends at the returned position
+        private ByteBuffer unescape(ByteBuffer line, int from, int to) {
+            if (unescaped.capacity() < to - from) {
+                unescaped = ByteBuffer.allocate(Math.max(to - from, unescaped.capacity() * 2));
+            }
+            unescaped.clear();
+            for (int i = from; i < to; i++) {
+                byte b = line.get(i);
+                unescaped.put(b);
+                if (b == '"') {
+                    i++;
+                }
+            }
+            return unescaped;
+        }
+
+        // Returns bytes consumed; stops before a record that extends past the window
+        int parseBinary(ByteBuffer window, int length) throws IOException {
+            int position = 0;
+            while (position + 2 <= length) {
+                int nameLength = window.getShort(position) & 0xFFFF;
+                int recordLength = BINARY_FIXED_BYTES + nameLength;
+                if (position + recordLength > length) {
+                    break;
+                }
+                int nameOffset = position + 2;
+                int fieldsOffset = nameOffset + nameLength;
+                long amountCents = window.getLong(fieldsOffset);
+                int discountKind = window.get(fieldsOffset + 8);
+                long discountValue = window.getLong(fieldsOffset + 9);
+                records++;
+                if (discountKind < OrderRecordHandler.DISCOUNT_NONE || discountKind > OrderRecordHandler.DISCOUNT_FIXED) {
+                    handler.onMalformed(records);
+                } else {
+                    handler.onOrder(window, nameOffset, nameLength, amountCents, discountKind, discountValue);
+                }
+                position += recordLength;
+            }
+            return position;
+        }
+
+        private static int indexOf(ByteBuffer buffer, char target, int from, int to) {
+            int i = from;
+            while (i < to && buffer.get(i) != target) {
+                i++;
+            }
+            return i;
+        }
+
+        // The quote closing a field whose content starts at from, passing over doubled quotes; to if there is none
+        private static int closingQuote(ByteBuffer buffer, int from, int to) {
+            int i = from;
+            while (i < to) {
+                if (buffer.get(i) == '"') {
+                    if (i + 1 < to && buffer.get(i + 1) == '"') {
+                        i += 2;
+                        continue;
+                    }
+                    return i;
+                }
+                i++;
+            }
+            return to;
+        }
+
+        private static int skipSpaces(ByteBuffer buffer, int from, int to) {
+            while (from < to && buffer.get(from) == ' ') {
+                from++;
+            }
+            return from;
+        }
+
+        private static int trimEnd(ByteBuffer buffer, int from, int to) {
+            while (to > from && buffer.get(to - 1) == ' ') {
+                to--;
+            }
+            return to;
+        }
+    }
+}
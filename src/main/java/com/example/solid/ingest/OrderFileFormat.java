@@ -0,0 +1,27 @@
+package com.example.solid.ingest;
+
+import java.nio.file.Path;
+
+/**
+ * Supported order file layouts.
+ * <ul>
+ *   <li>{@code CSV}: one order per line, {@code customerName,amount[,discountType[,discountValue]]};
+ *       the discount type is {@code none}, {@code percentage} or {@code fixed}. A header line is skipped.</li>
+ *   <li>{@code BINARY}: the {@code ORDB} magic and a version int, then records of
+ *       {@code short nameLength, UTF-8 name, long amountCents, byte discountKind, long discountValue}
+ *       (basis points for percentages, cents for fixed amounts), all big-endian.</li>
+ * </ul>
+ */
+public enum OrderFileFormat {
+    CSV,
+    BINARY;
+
+    static final int BINARY_MAGIC = 0x4F524442; // "ORDB"
+    static final int BINARY_VERSION = 1;
+    static final int BINARY_HEADER_BYTES = 8;
+
+    public static OrderFileFormat forPath(Path path) {
+        String fileName = path.getFileName().toString().toLowerCase();
+        return fileName.endsWith(".csv") || fileName.endsWith(".txt") ? CSV : BINARY;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.solid.ingest;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.OrderRequest;
+import com.example.solid.OrderResult;
+import com.example.solid.discounts.FixedAmountDiscount;
+import com.example.solid.discounts.NoDiscount;
+import com.example.solid.discounts.PercentageDiscount;
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.money.Money;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Headless batch replay: streams orders from a CSV or binary file into an {@link OrderProcessor}
+ * and writes each result to an output CSV as it is produced. Memory use is bounded by the
+ * mapping window and output buffer, independent of the input size.
+ */
+public class OrderFileIngestor {
+    private final OrderProcessor processor;
+    private final MappedOrderReader reader;
+
+    public OrderFileIngestor(OrderProcessor processor) {
+        this(processor, new MappedOrderReader());
+    }
+
+    public OrderFileIngestor(OrderProcessor processor, MappedOrderReader reader) {
+        this.processor = processor;
+        this.reader = reader;
+    }
+
+    public IngestionSummary ingest(Path input, Path output) throws IOException {
+        return ingest(input, OrderFileFormat.forPath(input), output);
+    }
+
+    public IngestionSummary ingest(Path input, OrderFileFormat format, Path output) throws IOException {
+        long start = System.nanoTime();
+        try (OrderResultWriter writer = new OrderResultWriter(output)) {
+            ReplayHandler handler = new ReplayHandler(writer);
+            long records = reader.read(input, format, handler);
+            return new IngestionSummary(records, handler.successful, handler.declined, handler.malformed,
+                System.nanoTime() - start);
+        }
+    }
+
+    private final class ReplayHandler implements OrderRecordHandler {
+        private final OrderResultWriter writer;
+        private final DiscountCache discounts = new DiscountCache();
+        private byte[] nameScratch = new byte[64];
+        private long successful;
+        private long declined;
+        private long malformed;
+
+        ReplayHandler(OrderResultWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void onOrder(ByteBuffer source, int nameOffset, int nameLength, long amountCents, int discountKind,
+                            long discountValue) throws IOException {
+            OrderRequest request = new OrderRequest(decodeName(source, nameOffset, nameLength),
+                Money.toAmount(amountCents), discounts.get(discountKind, discountValue));
+            OrderResult result = processor.processOrder(request);
+            if (result.isSuccessful()) {
+                successful++;
+            } else {
+                declined++;
+            }
+            writer.write(source, nameOffset, nameLength, result.getPricing(), result.getPaymentOutcome());
+        }
+
+        @Override
+        public void onMalformed(long recordNumber) {
+            malformed++;
+        }
+
+        // The customer name is the only field that becomes a String, because OrderProcessor needs one
+        private String decodeName(ByteBuffer source, int offset, int length) {
+            if (nameScratch.length < length) {
+                nameScratch = new byte[Math.max(length, nameScratch.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                nameScratch[i] = source.get(offset + i);
+            }
+            return new String(nameScratch, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Small open-addressing cache so repeated discount specs share one calculator instance.
+     * Cleared wholesale when full, which bounds its memory.
+     */
+    private static final class DiscountCache {
+        private static final int CAPACITY = 1024;
+        private static final int MAX_ENTRIES = CAPACITY / 2;
+        private static final DiscountCalculator NO_DISCOUNT = new NoDiscount();
+
+        private final long[] keys = new long[CAPACITY];
+        private final DiscountCalculator[] values = new DiscountCalculator[CAPACITY];
+        private int entries;
+
+        DiscountCalculator get(int discountKind, long discountValue) {
+            if (discountKind == OrderRecordHandler.DISCOUNT_NONE) {
+                return NO_DISCOUNT;
+            }
+            long key = discountValue * 4 + discountKind;
+            int slot = (int) (mix(key) & (CAPACITY - 1));
+            while (values[slot] != null) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & (CAPACITY - 1);
+            }
+            if (entries == MAX_ENTRIES) {
+                Arrays.fill(values, null);
+                entries = 0;
+                slot = (int) (mix(key) & (CAPACITY - 1));
+            }
+            DiscountCalculator calculator = discountKind == OrderRecordHandler.DISCOUNT_PERCENTAGE
+                ? new PercentageDiscount(discountValue / (double) Money.BASIS_POINTS_PER_PERCENT)
+                : new FixedAmountDiscount(Money.toAmount(discountValue));
+            keys[slot] = key;
+            values[slot] = calculator;
+            entries++;
+            return calculator;
+        }
+
+        private static long mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return h ^ (h >>> 32);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.solid.ingest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Receives orders parsed by {@link MappedOrderReader}. The customer name is passed as a byte
+ * range of the mapped file (UTF-8) so the reader never builds a {@code String} per field;
+ * the range is only valid during the call.
+ */
+public interface OrderRecordHandler {
+    int DISCOUNT_NONE = 0;
+    int DISCOUNT_PERCENTAGE = 1;
+    int DISCOUNT_FIXED = 2;
+
+    /**
+     * @param discountValue basis points for {@link #DISCOUNT_PERCENTAGE}, cents for {@link #DISCOUNT_FIXED}
+     */
+    void onOrder(ByteBuffer source, int nameOffset, int nameLength, long amountCents, int discountKind, long discountValue)
+        throws IOException;
+
+    /**
+     * Called for a record that could not be parsed; {@code recordNumber} is 1-based.
+     */
+    default void onMalformed(long recordNumber) throws IOException {
+    }
+}
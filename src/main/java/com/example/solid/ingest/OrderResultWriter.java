@@ -0,0 +1,132 @@
+package com.example.solid.ingest;
+
+import com.example.solid.services.OrderPricing;
+import com.example.solid.services.PaymentOutcome;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Appends one CSV line per processed order through a fixed-size direct buffer, so results are
+ * written incrementally and memory stays constant however many orders are processed.
+ * Line format: {@code customerName,originalAmount,discount,finalAmount,paymentMethod,status}.
+ */
+public class OrderResultWriter implements AutoCloseable {
+    private static final int BUFFER_BYTES = 256 * 1024;
+    private static final byte[] HEADER = "customerName,originalAmount,discount,finalAmount,paymentMethod,status\n"
+        .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SUCCESS = "SUCCESS".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DECLINED = "DECLINED".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    // Payment method names repeat on every line; encode each one once
+    private final Map<String, byte[]> encodedMethods = new IdentityHashMap<>();
+
+    public OrderResultWriter(Path output) throws IOException {
+        this.channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        put(HEADER);
+    }
+
+    /**
+     * Writes a result line; the customer name is copied from {@code nameSource} bytes without decoding.
+     */
+    public void write(ByteBuffer nameSource, int nameOffset, int nameLength, OrderPricing pricing, PaymentOutcome outcome)
+            throws IOException {
+        ensureCapacity(2 * nameLength + 128);
+        boolean quote = needsQuotes(nameSource, nameOffset, nameLength);
+        if (quote) {
+            buffer.put((byte) '"');
+        }
+        for (int i = 0; i < nameLength; i++) {
+            byte b = nameSource.get(nameOffset + i);
+            if (b == '"') {
+                buffer.put(b);
+            }
+            buffer.put(b);
+        }
+        if (quote) {
+            buffer.put((byte) '"');
+        }
+        buffer.put((byte) ',');
+        putCents(pricing.getOriginalAmountCents());
+        buffer.put((byte) ',');
+        putCents(pricing.getDiscountAppliedCents());
+        buffer.put((byte) ',');
+        putCents(pricing.getFinalAmountCents());
+        buffer.put((byte) ',');
+        put(encodedMethods.computeIfAbsent(outcome.getPaymentMethod(), method -> method.getBytes(StandardCharsets.UTF_8)));
+        buffer.put((byte) ',');
+        put(outcome.isSuccessful() ? SUCCESS : DECLINED);
+        buffer.put((byte) '\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        ensureCapacity(bytes.length);
+        buffer.put(bytes);
+    }
+
+    // Formats cents as a decimal with two fraction digits without going through String
+    private void putCents(long cents) {
+        if (cents < 0) {
+            buffer.put((byte) '-');
+            cents = -cents;
+        }
+        long units = cents / 100;
+        int fraction = (int) (cents % 100);
+        putDigits(units);
+        buffer.put((byte) '.');
+        buffer.put((byte) ('0' + fraction / 10));
+        buffer.put((byte) ('0' + fraction % 10));
+    }
+
+    private void putDigits(long value) {
+        if (value >= 10) {
+            putDigits(value / 10);
+        }
+        buffer.put((byte) ('0' + value % 10));
+    }
+
+    private static boolean needsQuotes(ByteBuffer source, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            byte b = source.get(offset + i);
+            if (b == ',' || b == '"' || b == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain();
+            if (buffer.remaining() < bytes) {
+                throw new IOException("Result line of " + bytes + " bytes exceeds the output buffer");
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.solid.interfaces;
 
+import com.example.solid.money.Money;
+
 /**
  * OCP: Software entities should be open for extension but closed for modification.
  * This interface allows new discount strategies without changing existing code.
@@ -7,4 +9,23 @@ package com.example.solid.interfaces;
 public interface DiscountCalculator {
     double calculateDiscount(double originalPrice);
     String getDiscountType();
-}
\ No newline at end of file
+
+    /**
+     * Fixed-point variant used by the pricing path. Strategies that can work in cents should
+     * override this; the default converts through {@link #calculateDiscount(double)}.
+     */
+    default long calculateDiscountCents(long originalPriceCents) {
+        return Money.toCents(calculateDiscount(Money.toAmount(originalPriceCents)));
+    }
+
+    /**
+     * Columnar variant for batch repricing: writes the discount for {@code originalPricesCents[i]}
+     * into {@code discountsCents[i]} for every {@code i} in {@code [from, to)}.
+     * Strategies should override this with a branch-light loop the JIT can unroll and vectorize.
+     */
+    default void calculateDiscountsCents(long[] originalPricesCents, long[] discountsCents, int from, int to) {
+        for (int i = from; i < to; i++) {
+            discountsCents[i] = calculateDiscountCents(originalPricesCents[i]);
+        }
+    }
+}
@@ -1,9 +1,37 @@
 package com.example.solid.interfaces;
 
+import java.util.List;
+
 /**
  * DIP: Abstraction for notification services
  */
 public interface NotificationService {
     void sendNotification(String message);
     String getNotificationType();
-}
\ No newline at end of file
+
+    /**
+     * Sends a message that may live in a reusable buffer; it must not be retained after this call returns.
+     * Channels that can consume a {@code CharSequence} directly should override this to skip the copy.
+     */
+    default void sendNotification(CharSequence message) {
+        sendNotification(message.toString());
+    }
+
+    /**
+     * Sends to {@code recipient} rather than the channel's configured recipient, so one channel instance can be
+     * shared by every customer. Channels without per-message addressing ignore {@code recipient}.
+     */
+    default void sendNotification(String recipient, CharSequence message) {
+        sendNotification(message);
+    }
+
+    /**
+     * Delivers several messages in one submission. Channels whose gateway accepts bulk
+     * submissions should override this; the default sends them one at a time.
+     */
+    default void sendBatch(List<String> messages) {
+        for (String message : messages) {
+            sendNotification(message);
+        }
+    }
+}
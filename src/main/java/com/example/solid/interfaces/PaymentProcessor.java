@@ -1,5 +1,7 @@
 package com.example.solid.interfaces;
 
+import com.example.solid.money.Money;
+
 /**
  * DIP: High-level modules should not depend on low-level modules.
  * Both should depend on abstractions.
@@ -7,4 +9,44 @@ package com.example.solid.interfaces;
 public interface PaymentProcessor {
     boolean processPayment(double amount);
     String getPaymentMethod();
-}
\ No newline at end of file
+
+    /**
+     * Fixed-point variant used by the order path. The default converts to a decimal amount.
+     *
+     * @throws PaymentUnavailableException if the payment was turned away without a decision
+     */
+    default boolean processPaymentCents(long amountCents) {
+        return processPayment(Money.toAmount(amountCents));
+    }
+
+    /**
+     * Whether this backend can accept {@code amountCents} at all, judged from its declared limits
+     * without contacting it. The default assumes no limits.
+     */
+    default boolean supportsAmount(long amountCents) {
+        return true;
+    }
+
+    /**
+     * Authorizes several amounts in one call; element {@code i} of the result is the outcome for {@code amounts[i]}.
+     */
+    default boolean[] processPayments(double[] amounts) {
+        long[] amountsCents = new long[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            amountsCents[i] = Money.toCents(amounts[i]);
+        }
+        return processPaymentsCents(amountsCents);
+    }
+
+    /**
+     * Bulk variant of {@link #processPaymentCents(long)}. Backends with a bulk authorization
+     * endpoint should override this; the default authorizes each amount in turn.
+     */
+    default boolean[] processPaymentsCents(long[] amountsCents) {
+        boolean[] outcomes = new boolean[amountsCents.length];
+        for (int i = 0; i < amountsCents.length; i++) {
+            outcomes[i] = processPaymentCents(amountsCents[i]);
+        }
+        return outcomes;
+    }
+}
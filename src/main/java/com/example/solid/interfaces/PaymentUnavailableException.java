@@ -0,0 +1,13 @@
+package com.example.solid.interfaces;
+
+/**
+ * Thrown by a {@link PaymentProcessor} that turned a payment away without a decision, for example because its
+ * bulkhead was full. Unlike a decline it says nothing about the payment, so the order may be retried later.
+ */
+public class PaymentUnavailableException extends RuntimeException {
+
+    // No stack trace: shedding happens under load, where filling one in for every turned-away call is wasted work
+    public PaymentUnavailableException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.solid.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * On-disk layout shared by {@link OrderJournal} and {@link OrderJournalReader}.
+ * Segments are named {@code orders-<first sequence>.journal}; each record is
+ * {@code int payloadLength, int crc32(payload), payload} where the payload is
+ * {@code long sequence, long timestamp, long original, long discount, long final, byte successful,
+ * then customer name, discount label and payment method as short-length-prefixed UTF-8}.
+ */
+final class JournalFormat {
+    static final String SEGMENT_PREFIX = "orders-";
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final int HEADER_BYTES = 8;
+    static final int FIXED_PAYLOAD_BYTES = 5 * 8 + 1 + 3 * 2;
+    static final int MAX_STRING_BYTES = 0xFFFF;
+
+    private JournalFormat() {
+    }
+
+    static String segmentName(long firstSequence) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX);
+    }
+
+    static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    static int checksum(ByteBuffer buffer, int payloadOffset, int payloadLength) {
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = buffer.duplicate();
+        payload.limit(payloadOffset + payloadLength).position(payloadOffset);
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    static byte[] utf8(String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Journal field exceeds " + MAX_STRING_BYTES + " bytes");
+        }
+        return bytes;
+    }
+
+    static String readString(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.solid.journal;
+
+/**
+ * Immutable decoded journal entry: what {@code OrderProcessor} decided for one order.
+ */
+public class JournalRecord {
+    private final long sequence;
+    private final long timestampMillis;
+    private final String customerName;
+    private final long originalAmountCents;
+    private final long discountAppliedCents;
+    private final long finalAmountCents;
+    private final String discountLabel;
+    private final String paymentMethod;
+    private final boolean successful;
+
+    public JournalRecord(long sequence, long timestampMillis, String customerName, long originalAmountCents,
+                         long discountAppliedCents, long finalAmountCents, String discountLabel, String paymentMethod,
+                         boolean successful) {
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.customerName = customerName;
+        this.originalAmountCents = originalAmountCents;
+        this.discountAppliedCents = discountAppliedCents;
+        this.finalAmountCents = finalAmountCents;
+        this.discountLabel = discountLabel;
+        this.paymentMethod = paymentMethod;
+        this.successful = successful;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public long getOriginalAmountCents() {
+        return originalAmountCents;
+    }
+
+    public long getDiscountAppliedCents() {
+        return discountAppliedCents;
+    }
+
+    public long getFinalAmountCents() {
+        return finalAmountCents;
+    }
+
+    public String getDiscountLabel() {
+        return discountLabel;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public boolean isSuccessful() {
+        return successful;
+    }
+}
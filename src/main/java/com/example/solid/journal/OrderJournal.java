@@ -0,0 +1,298 @@
+package com.example.solid.journal;
+
+import com.example.solid.concurrent.OrderExecutors;
+import com.example.solid.services.OrderPricing;
+import com.example.solid.services.PaymentOutcome;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only, crash-safe record of every order decision.
+ * <p>
+ * Appending threads copy their record into a shared buffer and wait; a single committer thread
+ * swaps that buffer for an empty one, checksums and writes the whole batch, and issues one
+ * {@code force} for all of it (group commit). The more threads append concurrently, the more
+ * records share each fsync. Segments roll once they reach the configured size.
+ * <p>
+ * Opening a journal recovers it: a torn tail left by a crash is truncated and appends continue
+ * with the next sequence number in a fresh segment.
+ */
+public class OrderJournal implements AutoCloseable {
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    public static final int DEFAULT_BUFFER_BYTES = 1024 * 1024;
+    // Large enough for a record with three maximum-length strings
+    private static final int MIN_BUFFER_BYTES = JournalFormat.HEADER_BYTES + JournalFormat.FIXED_PAYLOAD_BYTES
+        + 3 * JournalFormat.MAX_STRING_BYTES;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition spaceAvailable = lock.newCondition();
+    private final Condition committed = lock.newCondition();
+    private final Thread committer;
+
+    // Guarded by lock
+    private ByteBuffer active;
+    private long lastSequence;
+    private long durableSequence;
+    private IOException failure;
+    private boolean closed;
+
+    // Owned by the committer thread
+    private ByteBuffer standby;
+    private FileChannel segment;
+    private long segmentSize;
+
+    public OrderJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_BUFFER_BYTES);
+    }
+
+    public OrderJournal(Path directory, long segmentBytes, int bufferBytes) throws IOException {
+        if (segmentBytes < 1) {
+            throw new IllegalArgumentException("Segment size must be positive, was " + segmentBytes);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        int capacity = Math.max(bufferBytes, MIN_BUFFER_BYTES);
+        this.active = ByteBuffer.allocate(capacity);
+        this.standby = ByteBuffer.allocate(capacity);
+        this.lastSequence = recover();
+        this.durableSequence = lastSequence;
+        this.committer = OrderExecutors.daemonThreadFactory("order-journal").newThread(this::commitLoop);
+        committer.start();
+    }
+
+    /**
+     * Appends the outcome of one order and blocks until it is durable on disk.
+     *
+     * @return the record's sequence number
+     */
+    public long append(String customerName, OrderPricing pricing, PaymentOutcome outcome) throws IOException {
+        byte[] name = JournalFormat.utf8(customerName);
+        byte[] label = JournalFormat.utf8(pricing.getDiscountLabel());
+        byte[] method = JournalFormat.utf8(outcome.getPaymentMethod());
+        int payloadLength = JournalFormat.FIXED_PAYLOAD_BYTES + name.length + label.length + method.length;
+        int recordLength = JournalFormat.HEADER_BYTES + payloadLength;
+
+        long sequence;
+        lock.lock();
+        try {
+            while (active.remaining() < recordLength) {
+                checkOpen();
+                spaceAvailable.awaitUninterruptibly();
+            }
+            checkOpen();
+            sequence = ++lastSequence;
+            // The committer fills in the checksum, keeping CRC work out of the lock
+            active.putInt(payloadLength).putInt(0)
+                .putLong(sequence)
+                .putLong(System.currentTimeMillis())
+                .putLong(pricing.getOriginalAmountCents())
+                .putLong(pricing.getDiscountAppliedCents())
+                .putLong(pricing.getFinalAmountCents())
+                .put(outcome.isSuccessful() ? (byte) 1 : (byte) 0);
+            putString(name);
+            putString(label);
+            putString(method);
+            workAvailable.signal();
+
+            while (durableSequence < sequence) {
+                if (failure != null) {
+                    throw new IOException("Journal write failed", failure);
+                }
+                // Not interruptible: an abandoned wait would leave the caller unsure whether its record landed
+                committed.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return sequence;
+    }
+
+    /**
+     * Highest sequence number known to be on disk.
+     */
+    public long getDurableSequence() {
+        lock.lock();
+        try {
+            return durableSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Commits everything appended so far, then stops the committer and closes the current segment.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            workAvailable.signal();
+            spaceAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing journal");
+        }
+        if (segment != null) {
+            segment.close();
+        }
+        if (failure != null) {
+            throw new IOException("Journal write failed", failure);
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (failure != null) {
+            throw new IOException("Journal write failed", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    private void putString(byte[] bytes) {
+        active.putShort((short) bytes.length).put(bytes);
+    }
+
+    private void commitLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long batchLastSequence;
+            lock.lock();
+            try {
+                while (active.position() == 0 && !closed) {
+                    workAvailable.awaitUninterruptibly();
+                }
+                if (active.position() == 0) {
+                    return;
+                }
+                batch = active;
+                active = standby;
+                batchLastSequence = lastSequence;
+                spaceAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                batch.flip();
+                writeBatch(batch);
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    committed.signalAll();
+                    spaceAvailable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            batch.clear();
+            standby = batch;
+
+            lock.lock();
+            try {
+                durableSequence = batchLastSequence;
+                committed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Writes the batch in runs that fit the current segment, rolling to a new segment between records
+    private void writeBatch(ByteBuffer batch) throws IOException {
+        int runStart = 0;
+        int position = 0;
+        while (position < batch.limit()) {
+            int payloadLength = batch.getInt(position);
+            int recordLength = JournalFormat.HEADER_BYTES + payloadLength;
+            int payloadOffset = position + JournalFormat.HEADER_BYTES;
+            batch.putInt(position + 4, JournalFormat.checksum(batch, payloadOffset, payloadLength));
+
+            long pending = position - runStart;
+            if (segment == null || (segmentSize + pending > 0 && segmentSize + pending + recordLength > segmentBytes)) {
+                writeRun(batch, runStart, position);
+                runStart = position;
+                rollSegment(batch.getLong(payloadOffset));
+            }
+            position += recordLength;
+        }
+        writeRun(batch, runStart, position);
+        segment.force(false);
+    }
+
+    private void writeRun(ByteBuffer batch, int from, int to) throws IOException {
+        if (from == to) {
+            return;
+        }
+        ByteBuffer run = batch.duplicate();
+        run.limit(to).position(from);
+        while (run.hasRemaining()) {
+            segment.write(run);
+        }
+        segmentSize += to - from;
+    }
+
+    private void rollSegment(long firstSequence) throws IOException {
+        if (segment != null) {
+            segment.force(false);
+            segment.close();
+        }
+        segment = FileChannel.open(directory.resolve(JournalFormat.segmentName(firstSequence)),
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentSize = 0;
+    }
+
+    // Truncates a torn tail, sets aside any segments after it, and returns the last intact sequence
+    private long recover() throws IOException {
+        OrderJournalReader.ReplayResult result = OrderJournalReader.replay(directory, record -> { });
+        Path lastSegment = result.getLastSegment();
+        if (lastSegment == null) {
+            return 0;
+        }
+        List<Path> segments = OrderJournalReader.listSegments(directory);
+        for (Path unreachable : segments.subList(segments.indexOf(lastSegment) + 1, segments.size())) {
+            Files.move(unreachable, unreachable.resolveSibling(unreachable.getFileName() + ".corrupt"),
+                StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (result.getValidBytesInLastSegment() == 0) {
+            // Rolled but never written; its name would clash with the next segment
+            Files.delete(lastSegment);
+        } else {
+            try (FileChannel channel = FileChannel.open(lastSegment, StandardOpenOption.WRITE)) {
+                if (channel.size() > result.getValidBytesInLastSegment()) {
+                    channel.truncate(result.getValidBytesInLastSegment());
+                    channel.force(true);
+                }
+            }
+        }
+        return result.getLastSequence();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.solid.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sequential replay of an {@link OrderJournal} directory. Each segment is memory-mapped and
+ * scanned front to back; every record's checksum is verified and replay stops at the first
+ * torn or corrupt record, which is where a crash interrupted the last group commit.
+ */
+public class OrderJournalReader {
+
+    private OrderJournalReader() {
+    }
+
+    /**
+     * Feeds every intact record, oldest first, to {@code consumer}.
+     */
+    public static ReplayResult replay(Path directory, Consumer<JournalRecord> consumer) throws IOException {
+        List<Path> segments = listSegments(directory);
+        long records = 0;
+        long lastSequence = 0;
+        Path lastSegment = null;
+        long validBytes = 0;
+        for (Path segment : segments) {
+            lastSegment = segment;
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("Journal segment " + segment + " is larger than 2 GB");
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                int position = 0;
+                while (true) {
+                    int next = nextRecord(buffer, position, (int) size);
+                    if (next < 0) {
+                        break;
+                    }
+                    JournalRecord record = decode(buffer, position + JournalFormat.HEADER_BYTES);
+                    consumer.accept(record);
+                    lastSequence = record.getSequence();
+                    records++;
+                    position = next;
+                }
+                validBytes = position;
+                if (position < size) {
+                    // Anything after a damaged record is unreachable; later segments would break sequence order
+                    break;
+                }
+            }
+        }
+        return new ReplayResult(records, lastSequence, lastSegment, validBytes);
+    }
+
+    static List<Path> listSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalFormat::isSegment).sorted().collect(Collectors.toList());
+        }
+    }
+
+    // Returns the offset after the record at position, or -1 if it is truncated or fails its checksum
+    private static int nextRecord(ByteBuffer buffer, int position, int size) {
+        if (position + JournalFormat.HEADER_BYTES > size) {
+            return -1;
+        }
+        int payloadLength = buffer.getInt(position);
+        if (payloadLength < JournalFormat.FIXED_PAYLOAD_BYTES
+                || payloadLength > size - position - JournalFormat.HEADER_BYTES) {
+            return -1;
+        }
+        int payloadOffset = position + JournalFormat.HEADER_BYTES;
+        if (buffer.getInt(position + 4) != JournalFormat.checksum(buffer, payloadOffset, payloadLength)) {
+            return -1;
+        }
+        return payloadOffset + payloadLength;
+    }
+
+    private static JournalRecord decode(ByteBuffer buffer, int offset) {
+        long sequence = buffer.getLong(offset);
+        long timestamp = buffer.getLong(offset + 8);
+        long original = buffer.getLong(offset + 16);
+        long discount = buffer.getLong(offset + 24);
+        long finalAmount = buffer.getLong(offset + 32);
+        boolean successful = buffer.get(offset + 40) != 0;
+        int cursor = offset + 41;
+        int nameLength = buffer.getShort(cursor) & 0xFFFF;
+        String customerName = JournalFormat.readString(buffer, cursor + 2, nameLength);
+        cursor += 2 + nameLength;
+        int labelLength = buffer.getShort(cursor) & 0xFFFF;
+        String discountLabel = JournalFormat.readString(buffer, cursor + 2, labelLength);
+        cursor += 2 + labelLength;
+        int methodLength = buffer.getShort(cursor) & 0xFFFF;
+        String paymentMethod = JournalFormat.readString(buffer, cursor + 2, methodLength);
+        return new JournalRecord(sequence, timestamp, customerName, original, discount, finalAmount,
+            discountLabel, paymentMethod, successful);
+    }
+
+    /**
+     * Outcome of a replay: how many records were read and where the intact journal ends.
+     */
+    public static class ReplayResult {
+        private final long recordCount;
+        private final long lastSequence;
+        private final Path lastSegment;
+        private final long validBytesInLastSegment;
+
+        ReplayResult(long recordCount, long lastSequence, Path lastSegment, long validBytesInLastSegment) {
+            this.recordCount = recordCount;
+            this.lastSequence = lastSequence;
+            this.lastSegment = lastSegment;
+            this.validBytesInLastSegment = validBytesInLastSegment;
+        }
+
+        public long getRecordCount() {
+            return recordCount;
+        }
+
+        /**
+         * Sequence of the last intact record, or 0 for an empty journal.
+         */
+        public long getLastSequence() {
+            return lastSequence;
+        }
+
+        Path getLastSegment() {
+            return lastSegment;
+        }
+
+        long getValidBytesInLastSegment() {
+            return validBytesInLastSegment;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.solid.ledger;
+
+/**
+ * Counters kept by {@link RevenueLedger} for every payment method and discount label.
+ */
+public enum LedgerMetric {
+    /**
+     * Final amount of approved orders, in cents.
+     */
+    REVENUE_CENTS,
+    /**
+     * Discount granted on approved orders, in cents.
+     */
+    DISCOUNT_CENTS,
+    APPROVED,
+    DECLINED
+}
@@ -0,0 +1,322 @@
+package com.example.solid.ledger;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Live revenue, discount and approval totals per payment method and discount label, kept as primitive counters
+ * in one off-heap buffer rather than as objects on the heap.
+ * <p>
+ * Each (payment method, discount label) pair gets a dense slot on first use; once {@code maxKeys} pairs exist,
+ * further pairs share an overflow slot reported as {@link #OTHER}. The buffer holds one all-time region and a ring
+ * of time buckets, and every region is split into stripes so that concurrent writers update different cache lines.
+ * A writer picks its stripe from its thread id and adds with an atomic fetch-and-add; there are no locks. The
+ * first writer in a new period resets the bucket being reused, and other writers for that bucket spin briefly
+ * until it is clear.
+ * <p>
+ * Queries sum the stripes with volatile reads while writers keep going, and allocate nothing. A query therefore
+ * sees each counter at some recent value, not one consistent instant across all counters.
+ */
+public class RevenueLedger {
+    /**
+     * Payment method and discount label of the overflow slot.
+     */
+    public static final String OTHER = "(other)";
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final LedgerMetric[] METRICS = LedgerMetric.values();
+    private static final int BYTES_PER_SLOT = METRICS.length * Long.BYTES;
+    private static final int OVERFLOW_SLOT = 0;
+    // A bucket's stamp while it is being cleared for a new period
+    private static final long RESETTING = Long.MIN_VALUE;
+    private static final Function<String, ConcurrentHashMap<String, Integer>> NEW_LABEL_MAP =
+        method -> new ConcurrentHashMap<>();
+
+    private final ByteBuffer counters;
+    private final int stripeMask;
+    private final int maxKeys;
+    private final int bucketCount;
+    private final long bucketWidthMillis;
+    private final LongSupplier clock;
+    private final long stripeBytes;
+    private final long regionBytes;
+    // Period number each time bucket currently holds
+    private final AtomicLongArray bucketPeriods;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Integer>> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger(OVERFLOW_SLOT + 1);
+    private final AtomicReferenceArray<String> slotMethods;
+    private final AtomicReferenceArray<String> slotLabels;
+
+    private RevenueLedger(Builder builder, LongSupplier clock) {
+        this.maxKeys = builder.maxKeys;
+        this.bucketCount = builder.buckets;
+        this.bucketWidthMillis = builder.bucketWidthMillis;
+        this.stripeMask = builder.stripes - 1;
+        this.clock = clock;
+        this.stripeBytes = (long) maxKeys * BYTES_PER_SLOT;
+        this.regionBytes = stripeBytes * builder.stripes;
+        long totalBytes = regionBytes * (bucketCount + 1);
+        if (totalBytes > Integer.MAX_VALUE - Long.BYTES) {
+            throw new IllegalArgumentException("Ledger of " + totalBytes + " bytes is too large for one buffer");
+        }
+        // Atomic access needs 8-byte alignment
+        this.counters = ByteBuffer.allocateDirect((int) totalBytes + Long.BYTES).alignedSlice(Long.BYTES)
+            .order(ByteOrder.nativeOrder());
+        this.bucketPeriods = new AtomicLongArray(bucketCount);
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            bucketPeriods.set(bucket, -1);
+        }
+        this.slotMethods = new AtomicReferenceArray<>(maxKeys);
+        this.slotLabels = new AtomicReferenceArray<>(maxKeys);
+        slotMethods.set(OVERFLOW_SLOT, OTHER);
+        slotLabels.set(OVERFLOW_SLOT, OTHER);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Records one order. Revenue and discount are only counted for approved orders.
+     */
+    public void record(String paymentMethod, String discountLabel, long finalAmountCents, long discountCents,
+                       boolean approved) {
+        int slot = slotFor(paymentMethod, discountLabel);
+        int stripe = stripeMask & (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 32);
+        long revenue = approved ? finalAmountCents : 0;
+        long discount = approved ? discountCents : 0;
+
+        add(offset(0, stripe, slot), revenue, discount, approved);
+        long period = Math.floorDiv(clock.getAsLong(), bucketWidthMillis);
+        int bucket = (int) Math.floorMod(period, (long) bucketCount);
+        if (enterPeriod(bucket, period)) {
+            add(offset(bucket + 1, stripe, slot), revenue, discount, approved);
+        }
+    }
+
+    /**
+     * All-time total of {@code metric}; a {@code null} payment method or label matches every value.
+     */
+    public long getTotal(LedgerMetric metric, String paymentMethod, String discountLabel) {
+        return sumRegion(0, metric, paymentMethod, discountLabel);
+    }
+
+    /**
+     * Total of {@code metric} over the current time bucket and the {@code buckets - 1} before it;
+     * a {@code null} payment method or label matches every value.
+     */
+    public long getRecent(LedgerMetric metric, String paymentMethod, String discountLabel, int buckets) {
+        long current = Math.floorDiv(clock.getAsLong(), bucketWidthMillis);
+        long total = 0;
+        for (int i = 0; i < Math.min(buckets, bucketCount); i++) {
+            long period = current - i;
+            int bucket = (int) Math.floorMod(period, (long) bucketCount);
+            if (bucketPeriods.get(bucket) == period) {
+                total += sumRegion(bucket + 1, metric, paymentMethod, discountLabel);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Totals of {@code metric} for the last {@code out.length} time buckets, oldest first, written into {@code out}.
+     */
+    public void getSeries(LedgerMetric metric, String paymentMethod, String discountLabel, long[] out) {
+        long current = Math.floorDiv(clock.getAsLong(), bucketWidthMillis);
+        for (int i = 0; i < out.length; i++) {
+            long period = current - (out.length - 1 - i);
+            int bucket = (int) Math.floorMod(period, (long) bucketCount);
+            out[i] = i >= out.length - bucketCount && bucketPeriods.get(bucket) == period
+                ? sumRegion(bucket + 1, metric, paymentMethod, discountLabel) : 0;
+        }
+    }
+
+    public List<String> getPaymentMethods() {
+        return distinct(slotMethods);
+    }
+
+    public List<String> getDiscountLabels() {
+        return distinct(slotLabels);
+    }
+
+    public long getBucketWidthMillis() {
+        return bucketWidthMillis;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    private int slotFor(String paymentMethod, String discountLabel) {
+        ConcurrentHashMap<String, Integer> labels = slots.get(paymentMethod);
+        if (labels != null) {
+            Integer slot = labels.get(discountLabel);
+            if (slot != null) {
+                return slot;
+            }
+        }
+        // Once every slot is taken, new keys share the overflow slot without being remembered, so the maps stop growing
+        if (nextSlot.get() >= maxKeys) {
+            return OVERFLOW_SLOT;
+        }
+        if (labels == null) {
+            labels = slots.computeIfAbsent(paymentMethod, NEW_LABEL_MAP);
+        }
+        // A null mapping leaves the label out of the map
+        Integer slot = labels.computeIfAbsent(discountLabel, label -> {
+            int next = claimSlot();
+            if (next < 0) {
+                return null;
+            }
+            slotMethods.set(next, paymentMethod);
+            slotLabels.set(next, label);
+            return next;
+        });
+        return slot != null ? slot : OVERFLOW_SLOT;
+    }
+
+    // Next free slot, or -1 when all are taken; never moves the counter past maxKeys
+    private int claimSlot() {
+        int next;
+        do {
+            next = nextSlot.get();
+            if (next >= maxKeys) {
+                return -1;
+            }
+        } while (!nextSlot.compareAndSet(next, next + 1));
+        return next;
+    }
+
+    // Returns false if the bucket has already moved on to a later period, leaving only the all-time region updated
+    private boolean enterPeriod(int bucket, long period) {
+        while (true) {
+            long held = bucketPeriods.get(bucket);
+            if (held == period) {
+                return true;
+            }
+            if (held == RESETTING) {
+                Thread.onSpinWait();
+            } else if (held > period) {
+                return false;
+            } else if (bucketPeriods.compareAndSet(bucket, held, RESETTING)) {
+                long start = offset(bucket + 1, 0, 0);
+                for (long index = start; index < start + regionBytes; index += Long.BYTES) {
+                    counters.putLong((int) index, 0L);
+                }
+                bucketPeriods.set(bucket, period);
+                return true;
+            }
+        }
+    }
+
+    private void add(long offset, long revenue, long discount, boolean approved) {
+        int index = (int) offset;
+        if (approved) {
+            LONGS.getAndAdd(counters, index + LedgerMetric.REVENUE_CENTS.ordinal() * Long.BYTES, revenue);
+            LONGS.getAndAdd(counters, index + LedgerMetric.DISCOUNT_CENTS.ordinal() * Long.BYTES, discount);
+            LONGS.getAndAdd(counters, index + LedgerMetric.APPROVED.ordinal() * Long.BYTES, 1L);
+        } else {
+            LONGS.getAndAdd(counters, index + LedgerMetric.DECLINED.ordinal() * Long.BYTES, 1L);
+        }
+    }
+
+    private long sumRegion(int region, LedgerMetric metric, String paymentMethod, String discountLabel) {
+        int used = nextSlot.get();
+        long total = 0;
+        for (int slot = 0; slot < used; slot++) {
+            if (!matches(slotMethods.get(slot), paymentMethod) || !matches(slotLabels.get(slot), discountLabel)) {
+                continue;
+            }
+            for (int stripe = 0; stripe <= stripeMask; stripe++) {
+                total += (long) LONGS.getVolatile(counters, (int) offset(region, stripe, slot) + metric.ordinal() * Long.BYTES);
+            }
+        }
+        return total;
+    }
+
+    // A slot whose key is not published yet has no counts, so it is skipped
+    private static boolean matches(String key, String filter) {
+        return key != null && (filter == null || filter.equals(key));
+    }
+
+    private long offset(int region, int stripe, int slot) {
+        return region * regionBytes + stripe * stripeBytes + (long) slot * BYTES_PER_SLOT;
+    }
+
+    private List<String> distinct(AtomicReferenceArray<String> keys) {
+        List<String> values = new ArrayList<>();
+        int used = nextSlot.get();
+        for (int slot = OVERFLOW_SLOT + 1; slot < used; slot++) {
+            String key = keys.get(slot);
+            if (key != null && !values.contains(key)) {
+                values.add(key);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Sizes the ledger. By default it keeps 60 one-minute buckets for up to 128 method and label pairs, striped
+     * over the next power of two at or above the processor count.
+     */
+    public static final class Builder {
+        private int maxKeys = 128;
+        private int buckets = 60;
+        private long bucketWidthMillis = TimeUnit.MINUTES.toMillis(1);
+        private int stripes = Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+        private Builder() {
+        }
+
+        /**
+         * Distinct (payment method, discount label) pairs tracked separately, including the overflow slot.
+         */
+        public Builder maxKeys(int maxKeys) {
+            if (maxKeys < 2) {
+                throw new IllegalArgumentException("Need room for at least one pair besides overflow, was " + maxKeys);
+            }
+            this.maxKeys = maxKeys;
+            return this;
+        }
+
+        public Builder timeBuckets(int buckets, long width, TimeUnit unit) {
+            if (buckets < 1 || unit.toMillis(width) < 1) {
+                throw new IllegalArgumentException("Need at least one bucket of at least a millisecond");
+            }
+            this.buckets = buckets;
+            this.bucketWidthMillis = unit.toMillis(width);
+            return this;
+        }
+
+        /**
+         * Rounded up to a power of two.
+         */
+        public Builder stripes(int stripes) {
+            if (stripes < 1) {
+                throw new IllegalArgumentException("Stripe count must be positive, was " + stripes);
+            }
+            this.stripes = Integer.highestOneBit(stripes * 2 - 1);
+            return this;
+        }
+
+        public RevenueLedger build() {
+            return new RevenueLedger(this, System::currentTimeMillis);
+        }
+
+        // Tests drive the buckets from a fake wall clock
+        RevenueLedger build(LongSupplier clockMillis) {
+            return new RevenueLedger(this, clockMillis);
+        }
+    }
+}
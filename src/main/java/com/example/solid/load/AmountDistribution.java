@@ -0,0 +1,33 @@
+package com.example.solid.load;
+
+import com.example.solid.money.Money;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of synthetic order amounts, in cents.
+ */
+public interface AmountDistribution {
+    long nextCents(ThreadLocalRandom random);
+
+    /**
+     * Every amount between {@code minAmount} and {@code maxAmount} is equally likely.
+     */
+    static AmountDistribution uniform(double minAmount, double maxAmount) {
+        long minCents = Money.toCents(minAmount);
+        long maxCents = Money.toCents(maxAmount);
+        if (minCents > maxCents) {
+            throw new IllegalArgumentException("Minimum amount exceeds maximum");
+        }
+        return random -> random.nextLong(minCents, maxCents + 1);
+    }
+
+    /**
+     * Right-skewed amounts like real baskets: most orders near {@code medianAmount}, a long tail of large ones.
+     * {@code sigma} is the standard deviation of the amount's natural logarithm.
+     */
+    static AmountDistribution logNormal(double medianAmount, double sigma) {
+        double mu = Math.log(medianAmount);
+        return random -> Math.max(1, Money.toCents(Math.exp(mu + sigma * random.nextGaussian())));
+    }
+}
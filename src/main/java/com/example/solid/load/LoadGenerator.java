@@ -0,0 +1,171 @@
+package com.example.solid.load;
+
+import com.example.solid.OrderEngine;
+import com.example.solid.OrderRequest;
+import com.example.solid.OrderResult;
+import com.example.solid.concurrent.OrderExecutors;
+import com.example.solid.metrics.LatencyHistogram;
+import com.example.solid.money.Money;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Open-loop load generator: orders are scheduled at fixed intervals derived from the target rate, whether or
+ * not earlier orders have finished, the way independent customers arrive.
+ * <p>
+ * Response time is measured from each order's <em>intended</em> start, not from when it actually started.
+ * If the system stalls, the orders that should have arrived during the stall are charged the time they would
+ * have waited. Measuring from the actual start would hide that time (coordinated omission). Service time, measured
+ * from the actual start, is reported alongside for comparison.
+ */
+public class LoadGenerator {
+    private final OrderEngine engine;
+    private final Executor executor;
+
+    /**
+     * Runs each order on its own task (a virtual thread on Java 21+), so the engine alone limits concurrency.
+     */
+    public LoadGenerator(OrderEngine engine) {
+        this(engine, null);
+    }
+
+    /**
+     * Runs orders on {@code executor}; a bounded executor models a server with a fixed worker pool.
+     */
+    public LoadGenerator(OrderEngine engine, Executor executor) {
+        this.engine = engine;
+        this.executor = executor;
+    }
+
+    /**
+     * Sends the profile's orders at its target rate and returns once every order has completed.
+     */
+    public LoadReport run(LoadProfile profile) throws InterruptedException {
+        ExecutorService ownExecutor = executor == null ? OrderExecutors.newPerTaskExecutor() : null;
+        Executor target = ownExecutor != null ? ownExecutor : executor;
+        try {
+            return drive(profile, target);
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.shutdown();
+            }
+        }
+    }
+
+    private LoadReport drive(LoadProfile profile, Executor target) throws InterruptedException {
+        long intervalNanos = Math.max(1, Math.round(1_000_000_000L / profile.getOrdersPerSecond()));
+        long totalOrders = Math.max(1, profile.getDurationNanos() / intervalNanos);
+        int methods = profile.getPaymentMethods().getOptions().size();
+        RunState state = new RunState(methods);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long start = System.nanoTime();
+        long measureFrom = start + profile.getWarmupNanos();
+        for (long i = 0; i < totalOrders; i++) {
+            long intended = start + i * intervalNanos;
+            Simulation.parkUntil(intended);
+
+            int method = profile.getPaymentMethods().nextIndex(random);
+            String paymentMethod = profile.getPaymentMethods().get(method);
+            String channel = profile.getChannels().get(profile.getChannels().nextIndex(random));
+            OrderRequest request = new OrderRequest("Load Customer " + i,
+                Money.toAmount(profile.getAmounts().nextCents(random)),
+                profile.getDiscounts().get(profile.getDiscounts().nextIndex(random)));
+            boolean measured = intended >= measureFrom;
+
+            state.outstanding.incrementAndGet();
+            try {
+                target.execute(() -> {
+                    try {
+                        process(state, request, paymentMethod, method, channel, intended, measured);
+                    } finally {
+                        state.finishOne();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                state.finishOne();
+                if (measured) {
+                    state.errors.increment();
+                }
+            }
+            if (measured) {
+                state.scheduled.increment();
+            }
+        }
+        // Release the scheduler's own count, then wait for the last order
+        state.finishOne();
+        state.allFinished.await();
+        long elapsed = Math.max(1, System.nanoTime() - measureFrom);
+        return new LoadReport(profile.getOrdersPerSecond(), state.scheduled.sum(), state.completed.sum(),
+            state.errors.sum(), elapsed, state.responseTimes.snapshot(), state.serviceTimes.snapshot(),
+            profile.getPaymentMethods().getOptions(), sums(state.attempts), sums(state.declines));
+    }
+
+    private void process(RunState state, OrderRequest request, String paymentMethod, int method, String channel,
+                         long intended, boolean measured) {
+        long actualStart = System.nanoTime();
+        OrderResult result;
+        try {
+            result = engine.process(request, paymentMethod, channel, null);
+        } catch (RuntimeException e) {
+            if (measured) {
+                state.errors.increment();
+            }
+            return;
+        }
+        long end = System.nanoTime();
+        if (!measured) {
+            return;
+        }
+        state.responseTimes.record(end - intended);
+        state.serviceTimes.record(end - actualStart);
+        state.completed.increment();
+        state.attempts[method].increment();
+        if (!result.isSuccessful()) {
+            state.declines[method].increment();
+        }
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    // Counters shared by all order tasks of one run
+    private static final class RunState {
+        final LatencyHistogram responseTimes = new LatencyHistogram();
+        final LatencyHistogram serviceTimes = new LatencyHistogram();
+        final LongAdder scheduled = new LongAdder();
+        final LongAdder completed = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder[] attempts;
+        final LongAdder[] declines;
+        // Starts at one for the scheduler so the count cannot reach zero while orders are still being sent
+        final AtomicLong outstanding = new AtomicLong(1);
+        final CountDownLatch allFinished = new CountDownLatch(1);
+
+        RunState(int paymentMethods) {
+            attempts = new LongAdder[paymentMethods];
+            declines = new LongAdder[paymentMethods];
+            for (int i = 0; i < paymentMethods; i++) {
+                attempts[i] = new LongAdder();
+                declines[i] = new LongAdder();
+            }
+        }
+
+        void finishOne() {
+            if (outstanding.decrementAndGet() == 0) {
+                allFinished.countDown();
+            }
+        }
+    }
+}
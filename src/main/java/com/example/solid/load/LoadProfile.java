@@ -0,0 +1,136 @@
+package com.example.solid.load;
+
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.registry.StrategyRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a load run sends: the target arrival rate, how long to sustain it, and the mix of orders.
+ * Payment methods and channels are {@link StrategyRegistry} keys.
+ */
+public final class LoadProfile {
+    private final double ordersPerSecond;
+    private final long durationNanos;
+    private final long warmupNanos;
+    private final AmountDistribution amounts;
+    private final WeightedChoice<String> paymentMethods;
+    private final WeightedChoice<String> channels;
+    private final WeightedChoice<DiscountCalculator> discounts;
+
+    private LoadProfile(Builder builder) {
+        this.ordersPerSecond = builder.ordersPerSecond;
+        this.durationNanos = builder.durationNanos;
+        this.warmupNanos = builder.warmupNanos;
+        this.amounts = builder.amounts;
+        this.paymentMethods = builder.paymentMethods.build();
+        this.channels = builder.channels.build();
+        this.discounts = builder.discounts.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A typical mix over the standard registry keys: log-normal baskets around $120, 70% credit card, 80% email,
+     * and half the orders discounted.
+     */
+    public static Builder standard(StrategyRegistry registry) {
+        return builder()
+            .amounts(AmountDistribution.logNormal(120, 1.0))
+            .paymentMethod(StrategyRegistry.CREDIT_CARD, 70)
+            .paymentMethod(StrategyRegistry.PAYPAL, 30)
+            .channel(StrategyRegistry.EMAIL, 80)
+            .channel(StrategyRegistry.SMS, 20)
+            .discount(registry.discount(StrategyRegistry.NO_DISCOUNT), 50)
+            .discount(registry.percentage(10), 30)
+            .discount(registry.fixedAmount(20), 20);
+    }
+
+    public double getOrdersPerSecond() {
+        return ordersPerSecond;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getWarmupNanos() {
+        return warmupNanos;
+    }
+
+    public AmountDistribution getAmounts() {
+        return amounts;
+    }
+
+    public WeightedChoice<String> getPaymentMethods() {
+        return paymentMethods;
+    }
+
+    public WeightedChoice<String> getChannels() {
+        return channels;
+    }
+
+    public WeightedChoice<DiscountCalculator> getDiscounts() {
+        return discounts;
+    }
+
+    public static final class Builder {
+        private double ordersPerSecond = 1000;
+        private long durationNanos = TimeUnit.SECONDS.toNanos(10);
+        private long warmupNanos;
+        private AmountDistribution amounts = AmountDistribution.uniform(10, 500);
+        private final WeightedChoice.Builder<String> paymentMethods = WeightedChoice.builder();
+        private final WeightedChoice.Builder<String> channels = WeightedChoice.builder();
+        private final WeightedChoice.Builder<DiscountCalculator> discounts = WeightedChoice.builder();
+
+        private Builder() {
+        }
+
+        public Builder ordersPerSecond(double ordersPerSecond) {
+            if (!(ordersPerSecond > 0)) {
+                throw new IllegalArgumentException("Rate must be positive, was " + ordersPerSecond);
+            }
+            this.ordersPerSecond = ordersPerSecond;
+            return this;
+        }
+
+        public Builder duration(long duration, TimeUnit unit) {
+            this.durationNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Orders scheduled during the first {@code warmup} are sent but left out of the report.
+         */
+        public Builder warmup(long warmup, TimeUnit unit) {
+            this.warmupNanos = unit.toNanos(warmup);
+            return this;
+        }
+
+        public Builder amounts(AmountDistribution amounts) {
+            this.amounts = amounts;
+            return this;
+        }
+
+        public Builder paymentMethod(String key, double weight) {
+            paymentMethods.add(key, weight);
+            return this;
+        }
+
+        public Builder channel(String key, double weight) {
+            channels.add(key, weight);
+            return this;
+        }
+
+        public Builder discount(DiscountCalculator discount, double weight) {
+            discounts.add(discount, weight);
+            return this;
+        }
+
+        public LoadProfile build() {
+            return new LoadProfile(this);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.solid.load;
+
+import com.example.solid.metrics.HistogramSnapshot;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Results of one load run, covering only orders scheduled after the warmup. Latencies are in nanoseconds.
+ */
+public class LoadReport {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final double targetOrdersPerSecond;
+    private final long scheduled;
+    private final long completed;
+    private final long errors;
+    private final long elapsedNanos;
+    private final HistogramSnapshot responseTimes;
+    private final HistogramSnapshot serviceTimes;
+    private final List<String> paymentMethods;
+    private final long[] attempts;
+    private final long[] declines;
+
+    LoadReport(double targetOrdersPerSecond, long scheduled, long completed, long errors, long elapsedNanos,
+               HistogramSnapshot responseTimes, HistogramSnapshot serviceTimes, List<String> paymentMethods,
+               long[] attempts, long[] declines) {
+        this.targetOrdersPerSecond = targetOrdersPerSecond;
+        this.scheduled = scheduled;
+        this.completed = completed;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+        this.responseTimes = responseTimes;
+        this.serviceTimes = serviceTimes;
+        this.paymentMethods = paymentMethods;
+        this.attempts = attempts;
+        this.declines = declines;
+    }
+
+    public double getTargetOrdersPerSecond() {
+        return targetOrdersPerSecond;
+    }
+
+    /**
+     * Completed orders per second, from the end of the warmup until the last order finished.
+     */
+    public double getThroughput() {
+        return completed * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    public long getScheduled() {
+        return scheduled;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Orders that threw, for example because an injected gateway failure propagated.
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Time from each order's intended start to its completion, corrected for coordinated omission.
+     */
+    public HistogramSnapshot getResponseTimes() {
+        return responseTimes;
+    }
+
+    /**
+     * Time from each order's actual start to its completion.
+     */
+    public HistogramSnapshot getServiceTimes() {
+        return serviceTimes;
+    }
+
+    /**
+     * Fraction of completed orders whose payment was declined.
+     */
+    public double getDeclineRate() {
+        long totalAttempts = 0;
+        long totalDeclines = 0;
+        for (int i = 0; i < attempts.length; i++) {
+            totalAttempts += attempts[i];
+            totalDeclines += declines[i];
+        }
+        return totalAttempts == 0 ? 0.0 : (double) totalDeclines / totalAttempts;
+    }
+
+    public double getDeclineRate(String paymentMethod) {
+        int index = paymentMethods.indexOf(paymentMethod);
+        if (index < 0 || attempts[index] == 0) {
+            return 0.0;
+        }
+        return (double) declines[index] / attempts[index];
+    }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format(Locale.ROOT, "target rate:   %.1f orders/s%n", targetOrdersPerSecond));
+        text.append(String.format(Locale.ROOT, "throughput:    %.1f orders/s (%d of %d completed, %d errors)%n",
+            getThroughput(), completed, scheduled, errors));
+        appendLatencies(text, "response time", responseTimes);
+        appendLatencies(text, "service time ", serviceTimes);
+        text.append(String.format(Locale.ROOT, "decline rate:  %.2f%%", getDeclineRate() * 100));
+        for (int i = 0; i < paymentMethods.size(); i++) {
+            text.append(String.format(Locale.ROOT, "%n  %-12s %.2f%% of %d", paymentMethods.get(i),
+                getDeclineRate(paymentMethods.get(i)) * 100, attempts[i]));
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+
+    private static void appendLatencies(StringBuilder text, String label, HistogramSnapshot latencies) {
+        text.append(String.format(Locale.ROOT, "%s: p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms%n", label,
+            latencies.getValueAtPercentile(50) / NANOS_PER_MILLI, latencies.getValueAtPercentile(99) / NANOS_PER_MILLI,
+            latencies.getValueAtPercentile(99.9) / NANOS_PER_MILLI, latencies.getMax() / NANOS_PER_MILLI));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.solid.load;
+
+import com.example.solid.interfaces.NotificationService;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for a notification gateway with configurable latency and injected failures.
+ * A failed send throws, the way a gateway client reports an unreachable endpoint.
+ */
+public class SimulatedNotificationService implements NotificationService {
+    private final String notificationType;
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double failureRate;
+    private final LongAdder sentCount = new LongAdder();
+
+    public SimulatedNotificationService(String notificationType, long latencyMicros, long jitterMicros, double failureRate) {
+        if (jitterMicros > latencyMicros) {
+            throw new IllegalArgumentException("Jitter cannot exceed the mean latency");
+        }
+        this.notificationType = notificationType;
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        this.jitterNanos = TimeUnit.MICROSECONDS.toNanos(jitterMicros);
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public void sendNotification(String message) {
+        deliver();
+    }
+
+    @Override
+    public void sendNotification(CharSequence message) {
+        deliver();
+    }
+
+    @Override
+    public void sendNotification(String recipient, CharSequence message) {
+        deliver();
+    }
+
+    @Override
+    public String getNotificationType() {
+        return notificationType;
+    }
+
+    public long getSentCount() {
+        return sentCount.sum();
+    }
+
+    private void deliver() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Simulation.pause(latencyNanos, jitterNanos, random);
+        if (random.nextDouble() < failureRate) {
+            throw new IllegalStateException(notificationType + " gateway unavailable");
+        }
+        sentCount.increment();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.solid.load;
+
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.money.Money;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a payment gateway: waits a configurable, jittered time per call and
+ * declines a configurable fraction of payments on top of its amount limit.
+ */
+public class SimulatedPaymentProcessor implements PaymentProcessor {
+    private final String paymentMethod;
+    private final long limitCents;
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double declineRate;
+
+    /**
+     * @param latencyMicros mean time per call
+     * @param jitterMicros each call takes {@code latencyMicros} plus or minus up to this much, uniformly
+     * @param declineRate fraction (0-1) of otherwise acceptable payments that are declined at random
+     */
+    public SimulatedPaymentProcessor(String paymentMethod, double limitAmount, long latencyMicros, long jitterMicros,
+                                     double declineRate) {
+        if (jitterMicros > latencyMicros) {
+            throw new IllegalArgumentException("Jitter cannot exceed the mean latency");
+        }
+        this.paymentMethod = paymentMethod;
+        this.limitCents = Money.toCents(limitAmount);
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+        this.jitterNanos = TimeUnit.MICROSECONDS.toNanos(jitterMicros);
+        this.declineRate = declineRate;
+    }
+
+    @Override
+    public boolean processPayment(double amount) {
+        return processPaymentCents(Money.toCents(amount));
+    }
+
+    @Override
+    public boolean processPaymentCents(long amountCents) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Simulation.pause(latencyNanos, jitterNanos, random);
+        return supportsAmount(amountCents) && random.nextDouble() >= declineRate;
+    }
+
+    @Override
+    public boolean supportsAmount(long amountCents) {
+        return amountCents > 0 && amountCents <= limitCents;
+    }
+
+    @Override
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+}
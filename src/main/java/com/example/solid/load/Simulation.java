@@ -0,0 +1,26 @@
+package com.example.solid.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+// Shared timing helpers for the simulated gateways and the load generator
+final class Simulation {
+
+    private Simulation() {
+    }
+
+    static void pause(long meanNanos, long jitterNanos, ThreadLocalRandom random) {
+        long nanos = jitterNanos == 0 ? meanNanos : meanNanos + random.nextLong(-jitterNanos, jitterNanos + 1);
+        if (nanos > 0) {
+            parkUntil(System.nanoTime() + nanos);
+        }
+    }
+
+    // parkNanos may return early, so keep parking until the deadline has passed
+    static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.solid.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable weighted distribution over a fixed set of options.
+ */
+public final class WeightedChoice<T> {
+    private final List<T> options;
+    private final double[] cumulativeWeights;
+
+    private WeightedChoice(List<T> options, double[] cumulativeWeights) {
+        this.options = Collections.unmodifiableList(options);
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public static <T> WeightedChoice<T> of(T option) {
+        return WeightedChoice.<T>builder().add(option, 1).build();
+    }
+
+    /**
+     * Index into {@link #getOptions()} of a randomly drawn option.
+     */
+    public int nextIndex(ThreadLocalRandom random) {
+        double point = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length - 1; i++) {
+            if (point < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    public T get(int index) {
+        return options.get(index);
+    }
+
+    public List<T> getOptions() {
+        return options;
+    }
+
+    public static final class Builder<T> {
+        private final List<T> options = new ArrayList<>();
+        private final List<Double> weights = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder<T> add(T option, double weight) {
+            if (!(weight > 0)) {
+                throw new IllegalArgumentException("Weight must be positive, was " + weight);
+            }
+            options.add(option);
+            weights.add(weight);
+            return this;
+        }
+
+        public WeightedChoice<T> build() {
+            if (options.isEmpty()) {
+                throw new IllegalStateException("At least one option is required");
+            }
+            double[] cumulative = new double[weights.size()];
+            double total = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                total += weights.get(i);
+                cumulative[i] = total;
+            }
+            return new WeightedChoice<>(new ArrayList<>(options), cumulative);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.solid.metrics;
+
+/**
+ * Immutable copy of a {@link LatencyHistogram}. Snapshots from different histograms
+ * (threads, nodes, time windows) can be merged because they share one bucket layout.
+ */
+public class HistogramSnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public static HistogramSnapshot empty() {
+        return new HistogramSnapshot(new long[LatencyHistogram.BUCKET_COUNT], 0, 0, 0);
+    }
+
+    public HistogramSnapshot merge(HistogramSnapshot other) {
+        long[] merged = new long[counts.length];
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = counts[i] + other.counts[i];
+        }
+        return new HistogramSnapshot(merged, count + other.count, sum + other.sum, Math.max(max, other.max));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the value at {@code percentile} (0-100), accurate to the bucket resolution.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(LatencyHistogram.highestEquivalentValue(i), max);
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.solid.metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of {@link OrderMetrics}, exportable as Prometheus-style text.
+ */
+public class MetricsSnapshot {
+    private static final double[] EXPORTED_PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.9", "0.99", "0.999"};
+
+    private final Map<OrderStage, HistogramSnapshot> stageLatencies;
+    private final List<OutcomeCount> outcomes;
+
+    MetricsSnapshot(Map<OrderStage, HistogramSnapshot> stageLatencies, List<OutcomeCount> outcomes) {
+        this.stageLatencies = Collections.unmodifiableMap(stageLatencies);
+        this.outcomes = Collections.unmodifiableList(outcomes);
+    }
+
+    public HistogramSnapshot getStageLatency(OrderStage stage) {
+        return stageLatencies.get(stage);
+    }
+
+    public List<OutcomeCount> getOutcomes() {
+        return outcomes;
+    }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append("# TYPE order_stage_latency_nanos summary\n");
+        for (Map.Entry<OrderStage, HistogramSnapshot> entry : stageLatencies.entrySet()) {
+            String stage = entry.getKey().name().toLowerCase(Locale.ROOT);
+            HistogramSnapshot histogram = entry.getValue();
+            for (int i = 0; i < EXPORTED_PERCENTILES.length; i++) {
+                text.append("order_stage_latency_nanos{stage=\"").append(stage)
+                    .append("\",quantile=\"").append(QUANTILE_LABELS[i]).append("\"} ")
+                    .append(histogram.getValueAtPercentile(EXPORTED_PERCENTILES[i])).append('\n');
+            }
+            text.append("order_stage_latency_nanos_max{stage=\"").append(stage).append("\"} ")
+                .append(histogram.getMax()).append('\n');
+            text.append("order_stage_latency_nanos_count{stage=\"").append(stage).append("\"} ")
+                .append(histogram.getCount()).append('\n');
+        }
+        text.append("# TYPE order_outcomes_total counter\n");
+        for (OutcomeCount outcome : outcomes) {
+            appendOutcome(text, outcome, "success", outcome.getSuccesses());
+            appendOutcome(text, outcome, "failure", outcome.getFailures());
+        }
+        return text.toString();
+    }
+
+    private static void appendOutcome(StringBuilder text, OutcomeCount outcome, String result, long value) {
+        text.append("order_outcomes_total{payment_method=\"").append(escape(outcome.getPaymentMethod()))
+            .append("\",discount=\"").append(escape(outcome.getDiscountLabel()))
+            .append("\",result=\"").append(result).append("\"} ")
+            .append(value).append('\n');
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * Successes and failures for one payment method and discount label combination.
+     */
+    public static class OutcomeCount {
+        private final String paymentMethod;
+        private final String discountLabel;
+        private final long successes;
+        private final long failures;
+
+        OutcomeCount(String paymentMethod, String discountLabel, long successes, long failures) {
+            this.paymentMethod = paymentMethod;
+            this.discountLabel = discountLabel;
+            this.successes = successes;
+            this.failures = failures;
+        }
+
+        public String getPaymentMethod() {
+            return paymentMethod;
+        }
+
+        public String getDiscountLabel() {
+            return discountLabel;
+        }
+
+        public long getSuccesses() {
+            return successes;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+    }
+}
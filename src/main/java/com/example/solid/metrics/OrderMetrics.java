@@ -0,0 +1,143 @@
+package com.example.solid.metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Built-in instrumentation for the order path: a latency histogram per {@link OrderStage}
+ * and outcome counters tagged by payment method, discount label and success.
+ * Recording is lock-free; {@link #disabled()} returns an instance whose {@link #isEnabled()}
+ * is {@code false}, letting callers skip even the clock reads.
+ * <p>
+ * Discount labels such as "12.5% Discount" are unbounded, so outcome counters are capped like
+ * {@code RevenueLedger}'s slots: once {@code maxSeries} (payment method, discount label) pairs exist,
+ * further pairs share one series reported as {@link #OTHER}. A {@code null} method or label is
+ * counted as {@link #UNLABELLED}.
+ */
+public class OrderMetrics {
+    public static final int DEFAULT_MAX_SERIES = 1_000;
+    /**
+     * Payment method and discount label of the overflow series.
+     */
+    public static final String OTHER = "(other)";
+    /**
+     * Stands in for a {@code null} payment method or discount label.
+     */
+    public static final String UNLABELLED = "(none)";
+
+    private static final Function<String, ConcurrentHashMap<String, LongAdder[]>> NEW_LABEL_MAP =
+        method -> new ConcurrentHashMap<>();
+    private static final Function<String, LongAdder[]> NEW_COUNTER_PAIR =
+        label -> new LongAdder[] {new LongAdder(), new LongAdder()};
+    // Declared after the functions above, which the constructor uses
+    private static final OrderMetrics DISABLED = new OrderMetrics(false, 1);
+
+    private final boolean enabled;
+    private final EnumMap<OrderStage, LatencyHistogram> stageLatencies = new EnumMap<>(OrderStage.class);
+    // payment method -> discount label -> {successes, failures}
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder[]>> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder[] overflow = NEW_COUNTER_PAIR.apply(OTHER);
+    private final AtomicInteger seriesCount = new AtomicInteger();
+    private final int maxSeries;
+
+    public OrderMetrics() {
+        this(DEFAULT_MAX_SERIES);
+    }
+
+    /**
+     * @param maxSeries distinct (payment method, discount label) pairs counted separately before the overflow series
+     */
+    public OrderMetrics(int maxSeries) {
+        this(true, maxSeries);
+        if (maxSeries < 1) {
+            throw new IllegalArgumentException("Need room for at least one series, was " + maxSeries);
+        }
+    }
+
+    private OrderMetrics(boolean enabled, int maxSeries) {
+        this.enabled = enabled;
+        this.maxSeries = maxSeries;
+        for (OrderStage stage : OrderStage.values()) {
+            stageLatencies.put(stage, new LatencyHistogram());
+        }
+    }
+
+    public static OrderMetrics disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordStage(OrderStage stage, long elapsedNanos) {
+        if (enabled) {
+            stageLatencies.get(stage).record(elapsedNanos);
+        }
+    }
+
+    public void recordOutcome(String paymentMethod, String discountLabel, boolean successful) {
+        if (enabled) {
+            countersFor(paymentMethod != null ? paymentMethod : UNLABELLED,
+                        discountLabel != null ? discountLabel : UNLABELLED)[successful ? 0 : 1].increment();
+        }
+    }
+
+    public MetricsSnapshot snapshot() {
+        Map<OrderStage, HistogramSnapshot> stages = new EnumMap<>(OrderStage.class);
+        for (Map.Entry<OrderStage, LatencyHistogram> entry : stageLatencies.entrySet()) {
+            stages.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        List<MetricsSnapshot.OutcomeCount> counts = new ArrayList<>();
+        for (Map.Entry<String, ConcurrentHashMap<String, LongAdder[]>> byMethod : outcomes.entrySet()) {
+            for (Map.Entry<String, LongAdder[]> byLabel : byMethod.getValue().entrySet()) {
+                LongAdder[] pair = byLabel.getValue();
+                counts.add(new MetricsSnapshot.OutcomeCount(byMethod.getKey(), byLabel.getKey(), pair[0].sum(), pair[1].sum()));
+            }
+        }
+        long overflowSuccesses = overflow[0].sum();
+        long overflowFailures = overflow[1].sum();
+        if (overflowSuccesses + overflowFailures > 0) {
+            counts.add(new MetricsSnapshot.OutcomeCount(OTHER, OTHER, overflowSuccesses, overflowFailures));
+        }
+        return new MetricsSnapshot(stages, counts);
+    }
+
+    private LongAdder[] countersFor(String paymentMethod, String discountLabel) {
+        ConcurrentHashMap<String, LongAdder[]> labels = outcomes.get(paymentMethod);
+        if (labels != null) {
+            LongAdder[] pair = labels.get(discountLabel);
+            if (pair != null) {
+                return pair;
+            }
+        }
+        // Once the cap is reached, new pairs share the overflow series without being remembered, so the maps stop growing
+        if (seriesCount.get() >= maxSeries) {
+            return overflow;
+        }
+        if (labels == null) {
+            labels = outcomes.computeIfAbsent(paymentMethod, NEW_LABEL_MAP);
+        }
+        // A null mapping leaves the label out of the map
+        LongAdder[] pair = labels.computeIfAbsent(discountLabel, label -> claimSeries() ? NEW_COUNTER_PAIR.apply(label) : null);
+        return pair != null ? pair : overflow;
+    }
+
+    // Never moves the count past maxSeries
+    private boolean claimSeries() {
+        int count;
+        do {
+            count = seriesCount.get();
+            if (count >= maxSeries) {
+                return false;
+            }
+        } while (!seriesCount.compareAndSet(count, count + 1));
+        return true;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.solid.metrics;
+
+/**
+ * Timed sections of the order path. {@link #TOTAL} spans the whole order.
+ */
+public enum OrderStage {
+    PRICING,
+    PAYMENT,
+    NOTIFICATION,
+    TOTAL
+}
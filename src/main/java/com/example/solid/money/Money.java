@@ -0,0 +1,169 @@
+package com.example.solid.money;
+
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-point money arithmetic on {@code long} minor units (cents).
+ * Every operation works on primitives and takes an explicit {@link RoundingMode},
+ * so pricing is exact and allocation-free - no {@code double} drift, no {@code BigDecimal} garbage.
+ */
+public final class Money {
+    public static final long CENTS_PER_UNIT = 100;
+    public static final long BASIS_POINTS_PER_UNIT = 10_000;
+    public static final long BASIS_POINTS_PER_PERCENT = 100;
+    public static final RoundingMode DEFAULT_ROUNDING = RoundingMode.HALF_EVEN;
+
+    // Binary doubles such as 12.34 * 100 land a hair off the intended value; differences below this are noise
+    private static final double SCALING_TOLERANCE = 1e-6;
+    // Largest magnitude a double can have and still convert to a long; 2^63 itself does not fit
+    private static final double LONG_RANGE_LIMIT = 0x1p63;
+    // Double.toString switches to scientific notation at 10^7; below that it prints exactly the cents
+    private static final long PLAIN_FORMAT_LIMIT_CENTS = 10_000_000 * CENTS_PER_UNIT;
+
+    private Money() {
+    }
+
+    public static long toCents(double amount) {
+        return toCents(amount, DEFAULT_ROUNDING);
+    }
+
+    /**
+     * Converts a decimal amount to cents, rounding sub-cent fractions with {@code roundingMode}.
+     *
+     * @throws IllegalArgumentException if {@code amount} is NaN or infinite
+     * @throws ArithmeticException if the amount in cents does not fit in a {@code long}
+     */
+    public static long toCents(double amount, RoundingMode roundingMode) {
+        return scale(amount, CENTS_PER_UNIT, roundingMode);
+    }
+
+    public static double toAmount(long cents) {
+        return cents / (double) CENTS_PER_UNIT;
+    }
+
+    /**
+     * Appends {@code cents} as a decimal amount exactly as {@code Double.toString(toAmount(cents))} would
+     * ({@code "127.5"}, {@code "127.05"}, {@code "0.0"}) without creating a double or a String.
+     */
+    public static StringBuilder appendAmount(StringBuilder out, long cents) {
+        if (Math.abs(cents) >= PLAIN_FORMAT_LIMIT_CENTS) {
+            return out.append(toAmount(cents));
+        }
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % CENTS_PER_UNIT;
+        out.append(cents / CENTS_PER_UNIT).append('.');
+        if (fraction % 10 == 0) {
+            return out.append((char) ('0' + fraction / 10));
+        }
+        return out.append((char) ('0' + fraction / 10)).append((char) ('0' + fraction % 10));
+    }
+
+    /**
+     * ASCII variant of {@link #appendAmount(StringBuilder, long)} that writes straight into {@code out}.
+     */
+    public static void putAmount(ByteBuffer out, long cents) {
+        if (Math.abs(cents) >= PLAIN_FORMAT_LIMIT_CENTS) {
+            String amount = Double.toString(toAmount(cents));
+            for (int i = 0; i < amount.length(); i++) {
+                out.put((byte) amount.charAt(i));
+            }
+            return;
+        }
+        if (cents < 0) {
+            out.put((byte) '-');
+            cents = -cents;
+        }
+        long fraction = cents % CENTS_PER_UNIT;
+        putDigits(out, cents / CENTS_PER_UNIT);
+        out.put((byte) '.').put((byte) ('0' + fraction / 10));
+        if (fraction % 10 != 0) {
+            out.put((byte) ('0' + fraction % 10));
+        }
+    }
+
+    /**
+     * Converts a percentage such as {@code 12.5} to basis points ({@code 1250}).
+     */
+    public static long toBasisPoints(double percentage, RoundingMode roundingMode) {
+        return scale(percentage, BASIS_POINTS_PER_PERCENT, roundingMode);
+    }
+
+    /**
+     * Returns {@code basisPoints / 10000} of {@code cents}, rounded with {@code roundingMode}.
+     */
+    public static long percentOf(long cents, long basisPoints, RoundingMode roundingMode) {
+        return divide(Math.multiplyExact(cents, basisPoints), BASIS_POINTS_PER_UNIT, roundingMode);
+    }
+
+    /**
+     * Integer division with the rounding behaviour of {@link java.math.BigDecimal#divide}, without allocating.
+     */
+    public static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = (dividend < 0) == (divisor < 0) ? 1 : -1;
+        long absRemainder = Math.abs(remainder);
+        // Compare the remainder with half the divisor without overflowing
+        int halfComparison = Long.compare(absRemainder, Math.abs(divisor) - absRemainder);
+        return quotient + roundingIncrement(sign, halfComparison, (quotient & 1) != 0, roundingMode);
+    }
+
+    private static void putDigits(ByteBuffer out, long value) {
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static long scale(double value, long factor, RoundingMode roundingMode) {
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Not a finite amount: " + value);
+        }
+        double scaled = value * factor;
+        if (Math.abs(scaled) >= LONG_RANGE_LIMIT) {
+            throw new ArithmeticException("long overflow scaling " + value + " by " + factor);
+        }
+        double nearest = Math.rint(scaled);
+        if (Math.abs(scaled - nearest) < SCALING_TOLERANCE) {
+            return (long) nearest;
+        }
+        double truncated = scaled < 0 ? Math.ceil(scaled) : Math.floor(scaled);
+        double fraction = Math.abs(scaled - truncated);
+        int halfComparison = Math.abs(fraction - 0.5) < SCALING_TOLERANCE ? 0 : (fraction < 0.5 ? -1 : 1);
+        long quotient = (long) truncated;
+        return quotient + roundingIncrement(scaled < 0 ? -1 : 1, halfComparison, (quotient & 1) != 0, roundingMode);
+    }
+
+    // Amount (0 or +/-1) to add to a truncated quotient that has a non-zero discarded fraction
+    private static long roundingIncrement(int sign, int halfComparison, boolean quotientOdd, RoundingMode roundingMode) {
+        switch (roundingMode) {
+            case UP:
+                return sign;
+            case DOWN:
+                return 0;
+            case CEILING:
+                return sign > 0 ? 1 : 0;
+            case FLOOR:
+                return sign < 0 ? -1 : 0;
+            case HALF_UP:
+                return halfComparison >= 0 ? sign : 0;
+            case HALF_DOWN:
+                return halfComparison > 0 ? sign : 0;
+            case HALF_EVEN:
+                return halfComparison > 0 || (halfComparison == 0 && quotientOdd) ? sign : 0;
+            case UNNECESSARY:
+            default:
+                throw new ArithmeticException("Rounding necessary");
+        }
+    }
+}
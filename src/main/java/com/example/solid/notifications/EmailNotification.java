@@ -1,20 +1,63 @@
 package com.example.solid.notifications;
 
+import com.example.solid.events.AsyncOrderEventSink;
+import com.example.solid.events.OrderEventSink;
 import com.example.solid.interfaces.NotificationService;
+import com.example.solid.registry.RegisteredStrategy;
+import com.example.solid.registry.StrategyRegistry;
+
+import java.util.List;
 
 /**
  * DIP: Concrete implementation of NotificationService
  */
+@RegisteredStrategy(key = StrategyRegistry.EMAIL, label = "Email", order = 1,
+                    prompt = "Enter email address: ", defaultArgument = "customer@example.com")
 public class EmailNotification implements NotificationService {
     private final String emailAddress;
+    private final OrderEventSink eventSink;
     
     public EmailNotification(String emailAddress) {
+        this(emailAddress, AsyncOrderEventSink.console());
+    }
+
+    public EmailNotification(String emailAddress, OrderEventSink eventSink) {
         this.emailAddress = emailAddress;
+        this.eventSink = eventSink;
     }
     
     @Override
     public void sendNotification(String message) {
-        System.out.println("[EMAIL to " + emailAddress + "] " + message);
+        eventSink.notificationSent(getNotificationType(), emailAddress, message);
+    }
+
+    // The event sink copies the text, so a render buffer can be passed straight through
+    @Override
+    public void sendNotification(CharSequence message) {
+        eventSink.notificationSent(getNotificationType(), emailAddress, message);
+    }
+
+    @Override
+    public void sendNotification(String recipient, CharSequence message) {
+        eventSink.notificationSent(getNotificationType(), recipient, message);
+    }
+    
+    // One digest email per batch instead of one email per message
+    @Override
+    public void sendBatch(List<String> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        if (messages.size() == 1) {
+            sendNotification(messages.get(0));
+            return;
+        }
+        StringBuilder digest = new StringBuilder(64 * messages.size());
+        digest.append("Order updates (").append(messages.size()).append("):");
+        for (String message : messages) {
+            digest.append("\n - ").append(message);
+        }
+        eventSink.notificationSent(getNotificationType(), emailAddress, digest);
     }
     
     @Override
@@ -1,20 +1,67 @@
 package com.example.solid.notifications;
 
+import com.example.solid.events.AsyncOrderEventSink;
+import com.example.solid.events.OrderEventSink;
 import com.example.solid.interfaces.NotificationService;
+import com.example.solid.registry.RegisteredStrategy;
+import com.example.solid.registry.StrategyRegistry;
+
+import java.util.List;
 
 /**
  * DIP: Another concrete implementation of NotificationService
  */
+@RegisteredStrategy(key = StrategyRegistry.SMS, label = "SMS", order = 2,
+                    prompt = "Enter phone number: ", defaultArgument = "+1-555-0000")
 public class SmsNotification implements NotificationService {
+    private static final int SEGMENT_LENGTH = 160;
+    private static final String SEPARATOR = " | ";
+
     private final String phoneNumber;
+    private final OrderEventSink eventSink;
     
     public SmsNotification(String phoneNumber) {
+        this(phoneNumber, AsyncOrderEventSink.console());
+    }
+
+    public SmsNotification(String phoneNumber, OrderEventSink eventSink) {
         this.phoneNumber = phoneNumber;
+        this.eventSink = eventSink;
     }
     
     @Override
     public void sendNotification(String message) {
-        System.out.println("[SMS to " + phoneNumber + "] " + message);
+        eventSink.notificationSent(getNotificationType(), phoneNumber, message);
+    }
+
+    // The event sink copies the text, so a render buffer can be passed straight through
+    @Override
+    public void sendNotification(CharSequence message) {
+        eventSink.notificationSent(getNotificationType(), phoneNumber, message);
+    }
+
+    @Override
+    public void sendNotification(String recipient, CharSequence message) {
+        eventSink.notificationSent(getNotificationType(), recipient, message);
+    }
+    
+    // Packs as many messages as fit into each 160-character segment, one submission per segment
+    @Override
+    public void sendBatch(List<String> messages) {
+        StringBuilder segment = new StringBuilder(SEGMENT_LENGTH);
+        for (String message : messages) {
+            if (segment.length() > 0 && segment.length() + SEPARATOR.length() + message.length() > SEGMENT_LENGTH) {
+                eventSink.notificationSent(getNotificationType(), phoneNumber, segment);
+                segment.setLength(0);
+            }
+            if (segment.length() > 0) {
+                segment.append(SEPARATOR);
+            }
+            segment.append(message);
+        }
+        if (segment.length() > 0) {
+            eventSink.notificationSent(getNotificationType(), phoneNumber, segment);
+        }
     }
     
     @Override
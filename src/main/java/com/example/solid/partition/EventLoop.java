@@ -0,0 +1,374 @@
+package com.example.solid.partition;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Single-threaded non-blocking socket loop shared by the coordinator and the workers. It frames the byte stream
+ * into length-prefixed messages and hands each one to the connection's {@link Handler} on the loop thread.
+ * Any thread may {@link #send} a frame: frames queue per connection and are written by the loop with gathering
+ * writes, so many pipelined frames cost one system call.
+ */
+final class EventLoop implements Closeable {
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_GATHER = 64;
+
+    /**
+     * Receives the frames and the closing of one connection, always on the loop thread.
+     */
+    interface Handler {
+        /**
+         * {@code frame} covers one message without its length prefix and is only valid during the call.
+         */
+        void onFrame(Connection connection, ByteBuffer frame);
+
+        void onClosed(Connection connection, IOException cause);
+    }
+
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    EventLoop(String name) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Accepts connections on {@code server}, asking {@code handlers} for each new connection's handler.
+     */
+    void listen(ServerSocketChannel server, Function<Connection, Handler> handlers) throws IOException {
+        server.configureBlocking(false);
+        call(() -> server.register(selector, SelectionKey.OP_ACCEPT, handlers));
+    }
+
+    /**
+     * Connects with a blocking handshake, then hands the channel to the loop.
+     */
+    Connection connect(InetSocketAddress address, Handler handler) throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        Connection connection = new Connection(channel);
+        connection.handler = handler;
+        try {
+            register(connection);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    /**
+     * Queues {@code frame}, which must start with its length prefix, for writing after frames sent before it.
+     */
+    void send(Connection connection, ByteBuffer frame) {
+        connection.outbound.add(frame);
+        if (connection.writeScheduled.compareAndSet(false, true)) {
+            pendingWrites.add(connection);
+            selector.wakeup();
+        }
+    }
+
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void register(Connection connection) throws IOException {
+        connection.channel.configureBlocking(false);
+        connection.channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        call(() -> connection.key = connection.channel.register(selector, SelectionKey.OP_READ, connection));
+    }
+
+    // Runs a registration on the loop thread, because registering blocks while another thread is selecting.
+    // Only the loop thread completes the call, so a stopped loop must fail it rather than leave it waiting.
+    private void call(IoTask task) throws IOException {
+        if (!running || !thread.isAlive()) {
+            throw new IOException(thread.getName() + " is closed");
+        }
+        LoopCall call = new LoopCall(task);
+        execute(call);
+        // The loop may have stopped between the check and the queueing, after its own final sweep
+        if (!running) {
+            failPendingCalls();
+        }
+        try {
+            call.done.join();
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+                Connection writer;
+                while ((writer = pendingWrites.poll()) != null) {
+                    try {
+                        flush(writer);
+                    } catch (IOException e) {
+                        close(writer, e);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            // The loop is gone; connections are closed below
+        } finally {
+            running = false;
+            failPendingCalls();
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    close((Connection) key.attachment(), null);
+                } else {
+                    closeQuietly(key);
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+
+    private void failPendingCalls() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            if (task instanceof LoopCall) {
+                ((LoopCall) task).done.completeExceptionally(new IOException(thread.getName() + " is closed"));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept((ServerSocketChannel) key.channel(), (Function<Connection, Handler>) key.attachment());
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                read(connection);
+            }
+            if (key.isValid() && key.isWritable()) {
+                flush(connection);
+            }
+        } catch (IOException e) {
+            close(connection, e);
+        } catch (RuntimeException e) {
+            // A malformed frame or a failing handler costs only its own connection, not the loop
+            close(connection, new IOException("Failed to handle frame", e));
+        }
+    }
+
+    private void accept(ServerSocketChannel server, Function<Connection, Handler> handlers) {
+        try {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                Connection connection = new Connection(channel);
+                connection.handler = handlers.apply(connection);
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            }
+        } catch (IOException e) {
+            // A failed accept only loses that connection; the client sees it closed
+        }
+    }
+
+    private void read(Connection connection) throws IOException {
+        ByteBuffer buffer = connection.readBuffer;
+        int read = connection.channel.read(buffer);
+        if (read < 0) {
+            close(connection, null);
+            return;
+        }
+        buffer.flip();
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt(buffer.position());
+            if (length < PartitionProtocol.HEADER_BYTES || length > PartitionProtocol.MAX_FRAME_BYTES) {
+                throw new IOException("Invalid frame length " + length);
+            }
+            if (buffer.remaining() < Integer.BYTES + length) {
+                break;
+            }
+            int frameStart = buffer.position() + Integer.BYTES;
+            int limit = buffer.limit();
+            buffer.position(frameStart).limit(frameStart + length);
+            connection.handler.onFrame(connection, buffer.slice());
+            buffer.limit(limit).position(frameStart + length);
+        }
+        if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+            // A partial frame fills the buffer; it is bounded by MAX_FRAME_BYTES
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            larger.put(buffer);
+            connection.readBuffer = larger;
+        } else {
+            buffer.compact();
+        }
+    }
+
+    private void flush(Connection connection) throws IOException {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        while (true) {
+            ByteBuffer frame;
+            while ((frame = connection.outbound.poll()) != null) {
+                connection.writing.add(frame);
+            }
+            while (!connection.writing.isEmpty()) {
+                int count = 0;
+                for (ByteBuffer pending : connection.writing) {
+                    connection.gather[count++] = pending;
+                    if (count == MAX_GATHER) {
+                        break;
+                    }
+                }
+                connection.channel.write(connection.gather, 0, count);
+                boolean socketFull = connection.gather[count - 1].hasRemaining();
+                Arrays.fill(connection.gather, 0, count, null);
+                while (!connection.writing.isEmpty() && !connection.writing.peek().hasRemaining()) {
+                    connection.writing.poll();
+                }
+                if (socketFull) {
+                    // The socket buffer is full; resume when it drains
+                    connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+            connection.key.interestOps(SelectionKey.OP_READ);
+            connection.writeScheduled.set(false);
+            // A frame queued after the last poll may have seen the flag still set
+            if (connection.outbound.isEmpty() || !connection.writeScheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void close(Connection connection, IOException cause) {
+        if (connection.closed) {
+            return;
+        }
+        connection.closed = true;
+        closeQuietly(connection.key);
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // Already closing
+        }
+        connection.handler.onClosed(connection, cause);
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        if (key == null) {
+            return;
+        }
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Already closing
+        }
+    }
+
+    private interface IoTask {
+        void run() throws IOException;
+    }
+
+    // A task whose caller waits for it; failed instead of run when the loop has stopped
+    private static final class LoopCall implements Runnable {
+        private final IoTask task;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        LoopCall(IoTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+                done.complete(null);
+            } catch (IOException | RuntimeException e) {
+                done.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * One socket and its buffers. Only {@link EventLoop#send} may be called from other threads.
+     */
+    static final class Connection {
+        private final SocketChannel channel;
+        private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean writeScheduled = new AtomicBoolean();
+        // Loop thread only
+        private final ArrayDeque<ByteBuffer> writing = new ArrayDeque<>();
+        private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+        private ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        private Handler handler;
+        private SelectionKey key;
+        private boolean closed;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Closes the socket from the loop thread; the handler's {@link Handler#onClosed} follows.
+         */
+        void close(EventLoop loop) {
+            loop.execute(() -> loop.close(this, null));
+        }
+    }
+}
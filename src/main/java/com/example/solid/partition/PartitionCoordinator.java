@@ -0,0 +1,371 @@
+package com.example.solid.partition;
+
+import com.example.solid.OrderRequest;
+import com.example.solid.OrderResult;
+import com.example.solid.registry.StrategyRegistry;
+import com.example.solid.services.OrderPricing;
+import com.example.solid.services.PaymentOutcome;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spreads orders over {@link PartitionWorker}s by customer. A customer hashes to one of a fixed number of
+ * partitions, and each partition is assigned to one worker. Requests are pipelined: {@link #submit} returns at
+ * once, any number of orders can be in flight on a connection, and results complete the returned futures on the
+ * coordinator's I/O thread.
+ * <p>
+ * Ordering: a partition's orders are sent in submission order over one connection, and the worker processes each
+ * customer's orders one at a time, so a customer's orders are processed in the order they were submitted. A
+ * {@link #rebalance} keeps that guarantee: a partition that moves holds its new orders until the orders already
+ * sent to its old worker have completed, then sends them to the new one.
+ */
+public class PartitionCoordinator implements AutoCloseable {
+    private final StrategyRegistry registry;
+    private final EventLoop loop;
+    private final Partition[] partitions;
+    // Indexed by worker number; a removed worker leaves a null so numbers stay stable
+    private final List<Worker> workers = new CopyOnWriteArrayList<>();
+    private final ConcurrentHashMap<Long, Pending> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong nextRequestId = new AtomicLong();
+
+    /**
+     * Connects to {@code workerAddresses} and spreads {@code partitionCount} partitions evenly over them.
+     *
+     * @param registry identifies named discounts; it must match the workers' registries
+     */
+    public PartitionCoordinator(StrategyRegistry registry, List<InetSocketAddress> workerAddresses, int partitionCount)
+            throws IOException {
+        if (workerAddresses.isEmpty() || partitionCount < 1) {
+            throw new IllegalArgumentException("Need at least one worker and one partition");
+        }
+        this.registry = registry;
+        this.loop = new EventLoop("partition-coordinator");
+        this.partitions = new Partition[partitionCount];
+        try {
+            for (InetSocketAddress address : workerAddresses) {
+                connect(address);
+            }
+        } catch (IOException e) {
+            loop.close();
+            throw e;
+        }
+        for (int partition = 0; partition < partitionCount; partition++) {
+            partitions[partition] = new Partition(partition % workerAddresses.size());
+        }
+    }
+
+    /**
+     * Partition that orders from {@code customerName} belong to.
+     */
+    public int partitionOf(String customerName) {
+        int hash = customerName.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), partitions.length);
+    }
+
+    /**
+     * Sends {@code request} to the worker that owns its customer's partition.
+     *
+     * @throws IllegalArgumentException if the order's discount cannot be described to a worker
+     */
+    public CompletableFuture<OrderResult> submit(OrderRequest request) {
+        long requestId = nextRequestId.incrementAndGet();
+        ByteBuffer frame = PartitionProtocol.encodeOrder(requestId, request, registry);
+        Partition partition = partitions[partitionOf(request.getCustomerName())];
+        Pending pending = new Pending(requestId, request, frame, partition);
+        synchronized (partition) {
+            if (partition.target >= 0) {
+                partition.held.add(pending);
+            } else {
+                send(partition, pending);
+            }
+        }
+        return pending.future;
+    }
+
+    /**
+     * Blocking convenience for {@link #submit}.
+     */
+    public OrderResult process(OrderRequest request) {
+        return submit(request).join();
+    }
+
+    /**
+     * Connects to another worker, which receives partitions at the next {@link #rebalance}.
+     *
+     * @return the new worker's number
+     */
+    public int addWorker(InetSocketAddress address) throws IOException {
+        return connect(address);
+    }
+
+    /**
+     * Moves partitions so that partition {@code p} ends up on worker {@code assignment[p]}. Each moving partition
+     * waits for its in-flight orders first, holding new ones meanwhile.
+     *
+     * @return completes once every partition has moved
+     */
+    public CompletableFuture<Void> rebalance(int[] assignment) {
+        if (assignment.length != partitions.length) {
+            throw new IllegalArgumentException("Assignment covers " + assignment.length + " of " + partitions.length
+                                               + " partitions");
+        }
+        for (int worker : assignment) {
+            if (worker < 0 || worker >= workers.size() || workers.get(worker) == null) {
+                throw new IllegalArgumentException("No worker " + worker);
+            }
+        }
+        List<CompletableFuture<Void>> moves = new ArrayList<>();
+        for (int p = 0; p < partitions.length; p++) {
+            Partition partition = partitions[p];
+            synchronized (partition) {
+                int destination = assignment[p];
+                if (partition.target >= 0) {
+                    partition.target = destination;
+                    moves.add(partition.moved);
+                } else if (partition.worker != destination) {
+                    partition.target = destination;
+                    partition.moved = new CompletableFuture<>();
+                    moves.add(partition.moved);
+                    completeMoveIfDrained(partition);
+                }
+            }
+        }
+        return CompletableFuture.allOf(moves.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Spreads partitions evenly over the live workers, moving as few as possible.
+     */
+    public CompletableFuture<Void> rebalance() {
+        return rebalance(balancedAssignment(getAssignment(), liveWorkers()));
+    }
+
+    /**
+     * Moves all of {@code worker}'s partitions to the other workers, then disconnects from it.
+     */
+    public CompletableFuture<Void> removeWorker(int worker) {
+        Worker removed = worker >= 0 && worker < workers.size() ? workers.get(worker) : null;
+        if (removed == null) {
+            throw new IllegalArgumentException("No worker " + worker);
+        }
+        boolean[] live = liveWorkers();
+        live[worker] = false;
+        return rebalance(balancedAssignment(getAssignment(), live)).thenRun(() -> {
+            workers.set(worker, null);
+            removed.connection.close(loop);
+        });
+    }
+
+    /**
+     * Worker currently responsible for each partition; a partition that is moving reports its destination.
+     */
+    public int[] getAssignment() {
+        int[] assignment = new int[partitions.length];
+        for (int p = 0; p < partitions.length; p++) {
+            synchronized (partitions[p]) {
+                assignment[p] = partitions[p].target >= 0 ? partitions[p].target : partitions[p].worker;
+            }
+        }
+        return assignment;
+    }
+
+    @Override
+    public void close() throws IOException {
+        loop.close();
+    }
+
+    /**
+     * Keeps partitions on live workers up to an even share and hands the rest to the least loaded live workers.
+     */
+    static int[] balancedAssignment(int[] current, boolean[] live) {
+        int liveCount = 0;
+        for (boolean isLive : live) {
+            liveCount += isLive ? 1 : 0;
+        }
+        if (liveCount == 0) {
+            throw new IllegalArgumentException("No live workers");
+        }
+        int[] load = new int[live.length];
+        int share = (current.length + liveCount - 1) / liveCount;
+        int[] assignment = new int[current.length];
+        Arrays.fill(assignment, -1);
+        for (int p = 0; p < current.length; p++) {
+            int worker = current[p];
+            if (worker < live.length && live[worker] && load[worker] < share) {
+                assignment[p] = worker;
+                load[worker]++;
+            }
+        }
+        for (int p = 0; p < current.length; p++) {
+            if (assignment[p] < 0) {
+                int lightest = -1;
+                for (int worker = 0; worker < live.length; worker++) {
+                    if (live[worker] && (lightest < 0 || load[worker] < load[lightest])) {
+                        lightest = worker;
+                    }
+                }
+                assignment[p] = lightest;
+                load[lightest]++;
+            }
+        }
+        return assignment;
+    }
+
+    private boolean[] liveWorkers() {
+        boolean[] live = new boolean[workers.size()];
+        for (int worker = 0; worker < live.length; worker++) {
+            live[worker] = workers.get(worker) != null;
+        }
+        return live;
+    }
+
+    private synchronized int connect(InetSocketAddress address) throws IOException {
+        int number = workers.size();
+        Worker worker = new Worker(number);
+        worker.connection = loop.connect(address, new WorkerHandler(worker));
+        workers.add(worker);
+        return number;
+    }
+
+    // Caller holds the partition's lock
+    private void send(Partition partition, Pending pending) {
+        Worker worker = workers.get(partition.worker);
+        pending.worker = worker;
+        partition.inFlight++;
+        inFlight.put(pending.requestId, pending);
+        if (worker.closed) {
+            fail(pending, new IOException("Worker " + worker.number + " is disconnected"));
+            return;
+        }
+        loop.send(worker.connection, pending.frame);
+    }
+
+    // Caller holds the partition's lock
+    private void completeMoveIfDrained(Partition partition) {
+        if (partition.target < 0 || partition.inFlight > 0) {
+            return;
+        }
+        partition.worker = partition.target;
+        partition.target = -1;
+        Pending held;
+        while ((held = partition.held.poll()) != null) {
+            send(partition, held);
+        }
+        partition.moved.complete(null);
+    }
+
+    private void complete(long requestId, OrderResult result, Throwable failure) {
+        Pending pending = inFlight.remove(requestId);
+        if (pending == null) {
+            return;
+        }
+        synchronized (pending.partition) {
+            pending.partition.inFlight--;
+            completeMoveIfDrained(pending.partition);
+        }
+        if (failure != null) {
+            pending.future.completeExceptionally(failure);
+        } else {
+            pending.future.complete(result);
+        }
+    }
+
+    private void fail(Pending pending, IOException cause) {
+        complete(pending.requestId, null, cause);
+    }
+
+    private static final class Partition {
+        private int worker;
+        // Destination of a move in progress, or -1
+        private int target = -1;
+        private int inFlight;
+        private final ArrayDeque<Pending> held = new ArrayDeque<>();
+        private CompletableFuture<Void> moved;
+
+        Partition(int worker) {
+            this.worker = worker;
+        }
+    }
+
+    private static final class Pending {
+        private final long requestId;
+        private final OrderRequest request;
+        private final ByteBuffer frame;
+        private final Partition partition;
+        private final CompletableFuture<OrderResult> future = new CompletableFuture<>();
+        private Worker worker;
+
+        Pending(long requestId, OrderRequest request, ByteBuffer frame, Partition partition) {
+            this.requestId = requestId;
+            this.request = request;
+            this.frame = frame;
+            this.partition = partition;
+        }
+    }
+
+    private static final class Worker {
+        private final int number;
+        private EventLoop.Connection connection;
+        private volatile boolean closed;
+
+        Worker(int number) {
+            this.number = number;
+        }
+    }
+
+    private final class WorkerHandler implements EventLoop.Handler {
+        private final Worker worker;
+
+        WorkerHandler(Worker worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public void onFrame(EventLoop.Connection connection, ByteBuffer frame) {
+            byte type = frame.get();
+            long requestId = frame.getLong();
+            if (type == PartitionProtocol.ERROR) {
+                complete(requestId, null, new IllegalStateException("Worker " + worker.number + " failed order: "
+                                                                    + PartitionProtocol.getString(frame)));
+                return;
+            }
+            Pending pending = inFlight.get(requestId);
+            if (type != PartitionProtocol.RESULT || pending == null) {
+                return;
+            }
+            byte flags = frame.get();
+            long originalCents = frame.getLong();
+            long discountCents = frame.getLong();
+            long finalCents = frame.getLong();
+            String discountLabel = PartitionProtocol.getString(frame);
+            String paymentMethod = PartitionProtocol.getString(frame);
+            OrderResult result = PartitionProtocol.isRejected(flags)
+                ? OrderResult.rejected(pending.request, paymentMethod)
+                : new OrderResult(pending.request.getCustomerName(),
+                                  OrderPricing.ofCents(originalCents, discountCents, finalCents, discountLabel),
+                                  new PaymentOutcome(paymentMethod, PartitionProtocol.isSuccessful(flags)));
+            complete(requestId, result, null);
+        }
+
+        @Override
+        public void onClosed(EventLoop.Connection connection, IOException cause) {
+            worker.closed = true;
+            IOException failure = new IOException("Lost connection to worker " + worker.number, cause);
+            for (Pending pending : inFlight.values()) {
+                if (pending.worker == worker) {
+                    fail(pending, failure);
+                }
+            }
+        }
+    }
+}
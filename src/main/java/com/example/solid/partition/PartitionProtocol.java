@@ -0,0 +1,175 @@
+package com.example.solid.partition;
+
+import com.example.solid.OrderRequest;
+import com.example.solid.discounts.FixedAmountDiscount;
+import com.example.solid.discounts.NoDiscount;
+import com.example.solid.discounts.PercentageDiscount;
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.money.Money;
+import com.example.solid.registry.StrategyRegistry;
+import com.example.solid.services.OrderPricing;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format between coordinator and workers. Every frame is an int length followed by that many bytes,
+ * big-endian, starting with a type byte and a long request id:
+ * <ul>
+ *   <li>{@code ORDER}: long amountCents, byte discountKind, long discountValue, then the discount key,
+ *       customer name and order id as short-length-prefixed UTF-8 (empty for none).</li>
+ *   <li>{@code RESULT}: byte flags (successful, rejected), long original, discount and final cents, then the
+ *       discount label and payment method.</li>
+ *   <li>{@code ERROR}: the exception message from the worker.</li>
+ * </ul>
+ * Discounts travel as data, not objects: none, a percentage in basis points, a fixed amount in cents,
+ * or the key of a discount registered in both processes' {@link StrategyRegistry}.
+ */
+final class PartitionProtocol {
+    static final int MAX_FRAME_BYTES = 1 << 20;
+    // Every frame starts with its type and request id
+    static final int HEADER_BYTES = 1 + Long.BYTES;
+
+    static final byte ORDER = 1;
+    static final byte RESULT = 2;
+    static final byte ERROR = 3;
+
+    static final byte DISCOUNT_NONE = 0;
+    static final byte DISCOUNT_PERCENTAGE = 1;
+    static final byte DISCOUNT_FIXED = 2;
+    static final byte DISCOUNT_NAMED = 3;
+
+    private static final int SUCCESSFUL = 1;
+    private static final int REJECTED = 2;
+    private static final int MAX_STRING_BYTES = Short.MAX_VALUE;
+
+    private PartitionProtocol() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the discount is neither a plain percentage or fixed amount nor registered
+     */
+    static ByteBuffer encodeOrder(long requestId, OrderRequest request, StrategyRegistry registry) {
+        DiscountCalculator discount = request.getDiscountCalculator();
+        byte kind;
+        long value = 0;
+        String key = "";
+        if (discount instanceof NoDiscount) {
+            kind = DISCOUNT_NONE;
+        } else if (discount.getClass() == PercentageDiscount.class
+                   && ((PercentageDiscount) discount).getRoundingMode() == Money.DEFAULT_ROUNDING) {
+            kind = DISCOUNT_PERCENTAGE;
+            value = ((PercentageDiscount) discount).getBasisPoints();
+        } else if (discount.getClass() == FixedAmountDiscount.class) {
+            kind = DISCOUNT_FIXED;
+            value = ((FixedAmountDiscount) discount).getDiscountCents();
+        } else {
+            kind = DISCOUNT_NAMED;
+            key = registeredKey(discount, registry);
+        }
+        byte[] discountKey = utf8(key);
+        byte[] customerName = utf8(request.getCustomerName());
+        byte[] orderId = utf8(request.getOrderId() == null ? "" : request.getOrderId());
+        int length = 1 + Long.BYTES + Long.BYTES + 1 + Long.BYTES
+                     + 3 * Short.BYTES + discountKey.length + customerName.length + orderId.length;
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + length);
+        frame.putInt(length).put(ORDER).putLong(requestId)
+             .putLong(Money.toCents(request.getOrderAmount())).put(kind).putLong(value);
+        putString(frame, discountKey);
+        putString(frame, customerName);
+        putString(frame, orderId);
+        return frame.flip();
+    }
+
+    static ByteBuffer encodeResult(long requestId, OrderPricing pricing, String paymentMethod, boolean successful,
+                                   boolean rejected) {
+        byte[] label = utf8(pricing.getDiscountLabel());
+        byte[] method = utf8(paymentMethod);
+        int length = 1 + Long.BYTES + 1 + 3 * Long.BYTES + 2 * Short.BYTES + label.length + method.length;
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + length);
+        frame.putInt(length).put(RESULT).putLong(requestId)
+             .put((byte) ((successful ? SUCCESSFUL : 0) | (rejected ? REJECTED : 0)))
+             .putLong(pricing.getOriginalAmountCents())
+             .putLong(pricing.getDiscountAppliedCents())
+             .putLong(pricing.getFinalAmountCents());
+        putString(frame, label);
+        putString(frame, method);
+        return frame.flip();
+    }
+
+    static ByteBuffer encodeError(long requestId, String message) {
+        byte[] text = utf8(message == null ? "" : message);
+        int length = 1 + Long.BYTES + Short.BYTES + text.length;
+        ByteBuffer frame = ByteBuffer.allocate(Integer.BYTES + length);
+        frame.putInt(length).put(ERROR).putLong(requestId);
+        putString(frame, text);
+        return frame.flip();
+    }
+
+    /**
+     * Rebuilds an order on the worker; percentages and fixed amounts come from the registry's interned instances.
+     */
+    static OrderRequest decodeOrder(ByteBuffer frame, StrategyRegistry registry) {
+        long amountCents = frame.getLong();
+        byte kind = frame.get();
+        long value = frame.getLong();
+        String discountKey = getString(frame);
+        String customerName = getString(frame);
+        String orderId = getString(frame);
+        DiscountCalculator discount;
+        switch (kind) {
+            case DISCOUNT_NONE:
+                discount = registry.discount(StrategyRegistry.NO_DISCOUNT);
+                break;
+            case DISCOUNT_PERCENTAGE:
+                discount = registry.percentage(value / (double) Money.BASIS_POINTS_PER_PERCENT);
+                break;
+            case DISCOUNT_FIXED:
+                discount = registry.fixedAmount(Money.toAmount(value));
+                break;
+            case DISCOUNT_NAMED:
+                discount = registry.discount(discountKey);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown discount kind " + kind);
+        }
+        return new OrderRequest(orderId.isEmpty() ? null : orderId, customerName, Money.toAmount(amountCents), discount);
+    }
+
+    static boolean isSuccessful(byte flags) {
+        return (flags & SUCCESSFUL) != 0;
+    }
+
+    static boolean isRejected(byte flags) {
+        return (flags & REJECTED) != 0;
+    }
+
+    static String getString(ByteBuffer frame) {
+        int length = Short.toUnsignedInt(frame.getShort());
+        String value = new String(frame.array(), frame.arrayOffset() + frame.position(), length, StandardCharsets.UTF_8);
+        frame.position(frame.position() + length);
+        return value;
+    }
+
+    private static String registeredKey(DiscountCalculator discount, StrategyRegistry registry) {
+        for (String key : registry.getDiscounts()) {
+            if (registry.discount(key) == discount) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Discount '" + discount.getDiscountType()
+            + "' is not registered, so it cannot be sent to a worker");
+    }
+
+    private static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Field of " + bytes.length + " bytes is too long to send");
+        }
+        return bytes;
+    }
+
+    private static void putString(ByteBuffer frame, byte[] bytes) {
+        frame.putShort((short) bytes.length).put(bytes);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.solid.partition;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.OrderRequest;
+import com.example.solid.OrderResult;
+import com.example.solid.concurrent.OrderExecutors;
+import com.example.solid.registry.StrategyRegistry;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves one share of the partitions: receives orders from a {@link PartitionCoordinator} over a socket and runs
+ * them through its own {@link OrderProcessor}.
+ * <p>
+ * Orders are spread over single-threaded lanes by customer, so one customer's orders are processed one at a time
+ * in the order they arrived while different customers proceed in parallel. Results go back as soon as each order
+ * finishes and may overtake each other across customers; the request id ties each to its order.
+ */
+public class PartitionWorker implements AutoCloseable {
+    private final OrderProcessor processor;
+    private final StrategyRegistry registry;
+    private final ExecutorService[] lanes;
+    private final ServerSocketChannel server;
+    private final EventLoop loop;
+
+    /**
+     * Listens on {@code port} of the loopback interface (0 picks a free port) with one lane per processor.
+     */
+    public PartitionWorker(OrderProcessor processor, StrategyRegistry registry, int port) throws IOException {
+        this(processor, registry, new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+             Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param registry resolves the discounts named in incoming orders; it must match the coordinator's
+     */
+    public PartitionWorker(OrderProcessor processor, StrategyRegistry registry, InetSocketAddress address, int lanes)
+            throws IOException {
+        if (lanes < 1) {
+            throw new IllegalArgumentException("Need at least one lane, was " + lanes);
+        }
+        this.processor = processor;
+        this.registry = registry;
+        this.lanes = new ExecutorService[lanes];
+        for (int i = 0; i < lanes; i++) {
+            this.lanes[i] = Executors.newSingleThreadExecutor(OrderExecutors.daemonThreadFactory("partition-lane"));
+        }
+        this.server = ServerSocketChannel.open().bind(address);
+        this.loop = new EventLoop("partition-worker");
+        loop.listen(server, connection -> new CoordinatorHandler());
+    }
+
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    public int getPort() throws IOException {
+        return getAddress().getPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        loop.close();
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        for (ExecutorService lane : lanes) {
+            try {
+                lane.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private final class CoordinatorHandler implements EventLoop.Handler {
+        @Override
+        public void onFrame(EventLoop.Connection connection, ByteBuffer frame) {
+            byte type = frame.get();
+            long requestId = frame.getLong();
+            if (type != PartitionProtocol.ORDER) {
+                loop.send(connection, PartitionProtocol.encodeError(requestId, "Unexpected frame type " + type));
+                return;
+            }
+            OrderRequest request;
+            try {
+                request = PartitionProtocol.decodeOrder(frame, registry);
+            } catch (RuntimeException e) {
+                loop.send(connection, PartitionProtocol.encodeError(requestId, e.getMessage()));
+                return;
+            }
+            lanes[Math.floorMod(request.getCustomerName().hashCode(), lanes.length)]
+                .execute(() -> loop.send(connection, process(requestId, request)));
+        }
+
+        @Override
+        public void onClosed(EventLoop.Connection connection, IOException cause) {
+            // Orders still in the lanes finish; their results are dropped with the connection
+        }
+
+        private ByteBuffer process(long requestId, OrderRequest request) {
+            try {
+                OrderResult result = processor.processOrder(request);
+                return PartitionProtocol.encodeResult(requestId, result.getPricing(),
+                    result.getPaymentOutcome().getPaymentMethod(), result.isSuccessful(), result.isRejected());
+            } catch (RuntimeException e) {
+                return PartitionProtocol.encodeError(requestId, e.toString());
+            }
+        }
+    }
+}
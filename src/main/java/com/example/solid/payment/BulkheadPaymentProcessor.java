@@ -0,0 +1,91 @@
+package com.example.solid.payment;
+
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.interfaces.PaymentUnavailableException;
+import com.example.solid.money.Money;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decorator that caps the number of concurrent calls into one payment backend.
+ * Wrapping each processor in its own bulkhead means a slow backend can only tie up
+ * {@code maxConcurrentCalls} threads, leaving the rest free for other processors.
+ * A call that cannot get a permit within {@code maxWaitMillis} never reaches the backend and throws
+ * {@link PaymentUnavailableException}, so callers can tell it apart from a decline by the backend.
+ */
+public class BulkheadPaymentProcessor implements PaymentProcessor {
+    private final PaymentProcessor delegate;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public BulkheadPaymentProcessor(PaymentProcessor delegate, int maxConcurrentCalls, long maxWaitMillis) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Bulkhead must allow at least one call, was " + maxConcurrentCalls);
+        }
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrentCalls);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    }
+
+    @Override
+    public boolean processPayment(double amount) {
+        return processPaymentCents(Money.toCents(amount));
+    }
+
+    @Override
+    public boolean processPaymentCents(long amountCents) {
+        acquire();
+        try {
+            return delegate.processPaymentCents(amountCents);
+        } finally {
+            permits.release();
+        }
+    }
+
+    // A bulk authorization is one backend call, so it holds a single permit
+    @Override
+    public boolean[] processPaymentsCents(long[] amountsCents) {
+        acquire();
+        try {
+            return delegate.processPaymentsCents(amountsCents);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean supportsAmount(long amountCents) {
+        return delegate.supportsAmount(amountCents);
+    }
+
+    @Override
+    public String getPaymentMethod() {
+        return delegate.getPaymentMethod();
+    }
+
+    public int getAvailableCalls() {
+        return permits.availablePermits();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private void acquire() {
+        boolean acquired = permits.tryAcquire();
+        if (!acquired && maxWaitNanos > 0) {
+            try {
+                acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!acquired) {
+            rejectedCount.incrementAndGet();
+            throw new PaymentUnavailableException(getPaymentMethod() + " bulkhead is full");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.solid.payment;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free circuit breaker. After {@code failureThreshold} consecutive failures the circuit opens and calls
+ * are refused without reaching the backend. Once {@code openMillis} has passed, a single probe call is let
+ * through (half-open): success closes the circuit, and failure opens it for another period.
+ * All state lives in three atomics, so checking the breaker never blocks.
+ */
+public final class CircuitBreaker {
+    /**
+     * Returned by {@link #tryAcquire(long)}.
+     */
+    public enum Permit { REJECTED, CALL, PROBE }
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // 0 while closed; otherwise the nanoTime at which the open period ends
+    private final AtomicLong openUntilNanos = new AtomicLong();
+    private final AtomicBoolean probeInFlight = new AtomicBoolean();
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1, was " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = Math.max(1, TimeUnit.MILLISECONDS.toNanos(openMillis));
+    }
+
+    public Permit tryAcquire(long nowNanos) {
+        long openUntil = openUntilNanos.get();
+        if (openUntil == 0) {
+            return Permit.CALL;
+        }
+        if (nowNanos - openUntil < 0) {
+            return Permit.REJECTED;
+        }
+        return probeInFlight.compareAndSet(false, true) ? Permit.PROBE : Permit.REJECTED;
+    }
+
+    public void onSuccess(Permit permit) {
+        consecutiveFailures.set(0);
+        if (permit == Permit.PROBE) {
+            openUntilNanos.set(0);
+            probeInFlight.set(false);
+        }
+    }
+
+    public void onFailure(Permit permit, long nowNanos) {
+        if (permit == Permit.PROBE) {
+            openUntilNanos.set(openUntil(nowNanos));
+            probeInFlight.set(false);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            // Only the transition from closed starts a new open period; later failures of in-flight calls do not extend it
+            openUntilNanos.compareAndSet(0, openUntil(nowNanos));
+        }
+    }
+
+    public State getState(long nowNanos) {
+        long openUntil = openUntilNanos.get();
+        if (openUntil == 0) {
+            return State.CLOSED;
+        }
+        return nowNanos - openUntil < 0 ? State.OPEN : State.HALF_OPEN;
+    }
+
+    // Never 0, which means closed
+    private long openUntil(long nowNanos) {
+        long until = nowNanos + openNanos;
+        return until == 0 ? 1 : until;
+    }
+}
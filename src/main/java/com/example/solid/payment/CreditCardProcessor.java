@@ -1,17 +1,44 @@
 package com.example.solid.payment;
 
+import com.example.solid.events.AsyncOrderEventSink;
+import com.example.solid.events.OrderEventSink;
 import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.money.Money;
+import com.example.solid.registry.RegisteredStrategy;
+import com.example.solid.registry.StrategyRegistry;
 
 /**
  * DIP: Concrete implementation of PaymentProcessor
  */
+@RegisteredStrategy(key = StrategyRegistry.CREDIT_CARD, label = "Credit Card (limit: $10,000)", order = 1)
 public class CreditCardProcessor implements PaymentProcessor {
+    private static final long LIMIT_CENTS = 10000 * Money.CENTS_PER_UNIT;
+
+    private final OrderEventSink eventSink;
+
+    public CreditCardProcessor() {
+        this(AsyncOrderEventSink.console());
+    }
+
+    public CreditCardProcessor(OrderEventSink eventSink) {
+        this.eventSink = eventSink;
+    }
     
     @Override
     public boolean processPayment(double amount) {
-        System.out.println("Processing credit card payment of $" + amount);
-        // Simulate payment processing
-        return amount > 0 && amount <= 10000; // Reject very large amounts
+        return processPaymentCents(Money.toCents(amount));
+    }
+
+    @Override
+    public boolean processPaymentCents(long amountCents) {
+        eventSink.paymentAttempted(getPaymentMethod(), Money.toAmount(amountCents));
+        // Simulate credit card processing
+        return supportsAmount(amountCents); // Reject very large amounts
+    }
+
+    @Override
+    public boolean supportsAmount(long amountCents) {
+        return amountCents > 0 && amountCents <= LIMIT_CENTS;
     }
     
     @Override
@@ -1,17 +1,44 @@
 package com.example.solid.payment;
 
+import com.example.solid.events.AsyncOrderEventSink;
+import com.example.solid.events.OrderEventSink;
 import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.money.Money;
+import com.example.solid.registry.RegisteredStrategy;
+import com.example.solid.registry.StrategyRegistry;
 
 /**
  * DIP: Another concrete implementation of PaymentProcessor
  */
+@RegisteredStrategy(key = StrategyRegistry.PAYPAL, label = "PayPal (limit: $5,000)", order = 2)
 public class PayPalProcessor implements PaymentProcessor {
+    private static final long LIMIT_CENTS = 5000 * Money.CENTS_PER_UNIT;
+
+    private final OrderEventSink eventSink;
+
+    public PayPalProcessor() {
+        this(AsyncOrderEventSink.console());
+    }
+
+    public PayPalProcessor(OrderEventSink eventSink) {
+        this.eventSink = eventSink;
+    }
     
     @Override
     public boolean processPayment(double amount) {
-        System.out.println("Processing PayPal payment of $" + amount);
+        return processPaymentCents(Money.toCents(amount));
+    }
+
+    @Override
+    public boolean processPaymentCents(long amountCents) {
+        eventSink.paymentAttempted(getPaymentMethod(), Money.toAmount(amountCents));
         // Simulate PayPal processing
-        return amount > 0 && amount <= 5000; // Different limit than credit card
+        return supportsAmount(amountCents); // Different limit than credit card
+    }
+
+    @Override
+    public boolean supportsAmount(long amountCents) {
+        return amountCents > 0 && amountCents <= LIMIT_CENTS;
     }
     
     @Override
@@ -0,0 +1,383 @@
+package com.example.solid.payment;
+
+import com.example.solid.concurrent.OrderExecutors;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.interfaces.PaymentUnavailableException;
+import com.example.solid.metrics.LatencyHistogram;
+import com.example.solid.money.Money;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decorator that stops a slow or broken payment backend from holding order threads.
+ * <ul>
+ *   <li><b>Deadline</b>: every call runs on a worker and is abandoned (and interrupted) once the deadline
+ *   passes.</li>
+ *   <li><b>Circuit breaker</b>: timeouts and exceptions count as failures. Once the {@link CircuitBreaker}
+ *   opens, payments are turned away immediately, without a worker or a backend call. Declines are normal
+ *   results and never trip the breaker.</li>
+ *   <li><b>Hedging</b> (optional): if the primary has not answered within its observed p95 latency, the same
+ *   payment is also sent to an alternate processor, and the first approval wins. Both backends may approve,
+ *   so only enable hedging when duplicate authorizations are voided or deduplicated downstream.</li>
+ * </ul>
+ * A timeout, an open circuit, or attempts that all failed with an exception say nothing about the payment, so
+ * they throw {@link PaymentUnavailableException} rather than declining; an idempotency store then forgets the
+ * attempt and a retry is charged again. A timed-out call may still complete at the backend, so pair this
+ * wrapper with an idempotency key when retrying. All shared state is held in atomics.
+ */
+public class ResilientPaymentProcessor implements PaymentProcessor {
+    // The p95 hedge delay is re-estimated from a fresh window every this many primary calls
+    static final int HEDGE_WINDOW = 256;
+
+    private final PaymentProcessor primary;
+    private final PaymentProcessor alternate;
+    private final long deadlineNanos;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService executor;
+    private final AtomicReference<LatencyHistogram> primaryLatencies = new AtomicReference<>(new LatencyHistogram());
+    private final AtomicInteger windowCalls = new AtomicInteger();
+    // 0 until the first window completes; hedging waits for a real estimate
+    private final AtomicLong hedgeDelayNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong shortCircuitCount = new AtomicLong();
+    private final AtomicLong hedgeCount = new AtomicLong();
+    // getPaymentMethod() reports the backend whose attempt decided this thread's last payment
+    private final ThreadLocal<String> lastMethod = new ThreadLocal<>();
+
+    private ResilientPaymentProcessor(Builder builder) {
+        this.primary = builder.primary;
+        this.alternate = builder.alternate;
+        this.deadlineNanos = builder.deadlineNanos;
+        this.circuitBreaker = builder.circuitBreaker;
+        this.executor = builder.executor != null ? builder.executor : WorkerHolder.EXECUTOR;
+    }
+
+    public static Builder builder(PaymentProcessor primary) {
+        return new Builder(primary);
+    }
+
+    @Override
+    public boolean processPayment(double amount) {
+        return processPaymentCents(Money.toCents(amount));
+    }
+
+    @Override
+    public boolean processPaymentCents(long amountCents) {
+        long start = System.nanoTime();
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire(start);
+        lastMethod.remove();
+        if (permit == CircuitBreaker.Permit.REJECTED) {
+            shortCircuitCount.incrementAndGet();
+            throw new PaymentUnavailableException(primary.getPaymentMethod() + " circuit is open");
+        }
+        Call call = new Call(Thread.currentThread());
+        Future<?> primaryAttempt = executor.submit(() -> runPrimary(call, permit, amountCents));
+        Future<?> hedgeAttempt = null;
+
+        long deadline = start + deadlineNanos;
+        long hedgeDelay = hedgeDelayNanos.get();
+        if (alternate != null && hedgeDelay > 0 && alternate.supportsAmount(amountCents)) {
+            long hedgeAt = start + hedgeDelay;
+            if (hedgeAt - deadline < 0 && !call.awaitUntil(hedgeAt) && call.tryAddAttempt()) {
+                hedgeCount.incrementAndGet();
+                hedgeAttempt = executor.submit(() -> runAlternate(call, amountCents));
+            }
+        }
+        if (call.awaitUntil(deadline) || !call.expire()) {
+            cancel(primaryAttempt);
+            cancel(hedgeAttempt);
+            lastMethod.set(call.method());
+            if (call.failed()) {
+                throw new PaymentUnavailableException(call.method() + " failed without a decision");
+            }
+            return call.approved();
+        }
+
+        timeoutCount.incrementAndGet();
+        // The primary has not answered, so all that is known of its latency is that it exceeds the deadline
+        if (call.claimPrimaryLatency()) {
+            recordPrimaryLatency(deadlineNanos);
+        }
+        if (call.claimBreakerReport()) {
+            circuitBreaker.onFailure(permit, System.nanoTime());
+        }
+        cancel(primaryAttempt);
+        cancel(hedgeAttempt);
+        throw new PaymentUnavailableException(primary.getPaymentMethod() + " did not answer before the deadline");
+    }
+
+    @Override
+    public boolean supportsAmount(long amountCents) {
+        return primary.supportsAmount(amountCents);
+    }
+
+    @Override
+    public String getPaymentMethod() {
+        String method = lastMethod.get();
+        return method != null ? method : primary.getPaymentMethod();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState(System.nanoTime());
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * Payments declined without a backend call because the circuit was open.
+     */
+    public long getShortCircuitCount() {
+        return shortCircuitCount.get();
+    }
+
+    public long getHedgeCount() {
+        return hedgeCount.get();
+    }
+
+    /**
+     * Current hedge delay (the primary's p95 latency), or 0 before enough calls have been observed.
+     */
+    public long getHedgeDelayNanos() {
+        return hedgeDelayNanos.get();
+    }
+
+    // Methods are read on the attempt's own thread, where a routing backend records the backend it chose
+    private void runPrimary(Call call, CircuitBreaker.Permit permit, long amountCents) {
+        long start = System.nanoTime();
+        boolean approved;
+        try {
+            approved = primary.processPaymentCents(amountCents);
+        } catch (RuntimeException e) {
+            if (call.claimBreakerReport()) {
+                circuitBreaker.onFailure(permit, System.nanoTime());
+            }
+            // A failure shows nothing of how long an answer would take, so it counts as the deadline
+            recordPrimaryLatency(call, deadlineNanos);
+            call.attemptFailed(primary.getPaymentMethod());
+            return;
+        }
+        if (call.claimBreakerReport()) {
+            circuitBreaker.onSuccess(permit);
+        }
+        recordPrimaryLatency(call, System.nanoTime() - start);
+        call.attemptFinished(approved, primary.getPaymentMethod());
+    }
+
+    private void runAlternate(Call call, long amountCents) {
+        boolean approved;
+        try {
+            approved = alternate.processPaymentCents(amountCents);
+        } catch (RuntimeException e) {
+            // A failed hedge just leaves the primary's answer
+            call.attemptFailed(alternate.getPaymentMethod());
+            return;
+        }
+        call.attemptFinished(approved, alternate.getPaymentMethod());
+    }
+
+    // An attempt finishing after a hedge win or the deadline was cut short by cancellation, so it is left out
+    // rather than pulling the p95 down and making the next hedge come sooner
+    private void recordPrimaryLatency(Call call, long nanos) {
+        if (!call.isDecided() && call.claimPrimaryLatency()) {
+            recordPrimaryLatency(nanos);
+        }
+    }
+
+    private void recordPrimaryLatency(long nanos) {
+        primaryLatencies.get().record(nanos);
+        // Whoever completes a window publishes its p95 and swaps in a fresh histogram for the next one,
+        // so recordings racing the swap are kept instead of being reset away
+        if (windowCalls.incrementAndGet() % HEDGE_WINDOW == 0) {
+            LatencyHistogram window = primaryLatencies.getAndSet(new LatencyHistogram());
+            hedgeDelayNanos.set(Math.max(1, window.snapshot().getValueAtPercentile(95)));
+        }
+    }
+
+    private static void cancel(Future<?> attempt) {
+        if (attempt != null) {
+            attempt.cancel(true);
+        }
+    }
+
+    // Outcome of one payment, shared by the caller and its attempts
+    private static final class Call {
+        // Decides a call whose deadline passed first; attempts finishing later cannot change it
+        private static final Outcome TIMED_OUT = new Outcome(false, true, null);
+
+        private final Thread caller;
+        private final AtomicInteger pendingAttempts = new AtomicInteger(1);
+        private final AtomicReference<Outcome> result = new AtomicReference<>();
+        private final AtomicBoolean breakerReported = new AtomicBoolean();
+        private final AtomicBoolean primaryLatencyRecorded = new AtomicBoolean();
+        // Set by any attempt that got a real decline; read after the last pending attempt is counted down
+        private volatile boolean declined;
+
+        Call(Thread caller) {
+            this.caller = caller;
+        }
+
+        // Fails once every attempt has declined, so a hedge is never sent for an already-declined payment
+        boolean tryAddAttempt() {
+            int pending;
+            do {
+                pending = pendingAttempts.get();
+                if (pending == 0) {
+                    return false;
+                }
+            } while (!pendingAttempts.compareAndSet(pending, pending + 1));
+            return true;
+        }
+
+        // The first approval decides the call; otherwise the last attempt to finish declines it, or fails it
+        // when no attempt got a decline
+        void attemptFinished(boolean approved, String method) {
+            if (approved) {
+                result.compareAndSet(null, new Outcome(true, false, method));
+            } else {
+                declined = true;
+                finishWithoutApproval(method);
+            }
+            if (result.get() != null) {
+                LockSupport.unpark(caller);
+            }
+        }
+
+        void attemptFailed(String method) {
+            finishWithoutApproval(method);
+            if (result.get() != null) {
+                LockSupport.unpark(caller);
+            }
+        }
+
+        private void finishWithoutApproval(String method) {
+            if (pendingAttempts.decrementAndGet() == 0) {
+                result.compareAndSet(null, new Outcome(false, !declined, method));
+            }
+        }
+
+        // Marks the call as timed out; fails if an attempt decided it first, just as the deadline passed
+        boolean expire() {
+            return result.compareAndSet(null, TIMED_OUT);
+        }
+
+        boolean isDecided() {
+            return result.get() != null;
+        }
+
+        boolean approved() {
+            Outcome outcome = result.get();
+            return outcome != null && outcome.approved;
+        }
+
+        boolean failed() {
+            Outcome outcome = result.get();
+            return outcome != null && outcome.failed;
+        }
+
+        // Payment method of the deciding attempt, or null while undecided
+        String method() {
+            Outcome outcome = result.get();
+            return outcome != null ? outcome.method : null;
+        }
+
+        // Parks the caller until the outcome is known or the deadline passes; returns whether it is known
+        boolean awaitUntil(long deadlineNanos) {
+            long remaining;
+            while (result.get() == null) {
+                remaining = deadlineNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            return true;
+        }
+
+        // Each call contributes at most one primary latency, from its attempt or its deadline
+        boolean claimPrimaryLatency() {
+            return primaryLatencyRecorded.compareAndSet(false, true);
+        }
+
+        // Each call feeds the breaker once, whether through its primary attempt or its deadline
+        boolean claimBreakerReport() {
+            return breakerReported.compareAndSet(false, true);
+        }
+    }
+
+    private static final class Outcome {
+        final boolean approved;
+        final boolean failed;
+        final String method;
+
+        Outcome(boolean approved, boolean failed, String method) {
+            this.approved = approved;
+            this.failed = failed;
+            this.method = method;
+        }
+    }
+
+    // Shared by wrappers built without an executor; created on first use
+    private static final class WorkerHolder {
+        static final ExecutorService EXECUTOR = OrderExecutors.newPerTaskExecutor();
+    }
+
+    /**
+     * Configures deadlines, the circuit breaker and optional hedging.
+     */
+    public static final class Builder {
+        private final PaymentProcessor primary;
+        private PaymentProcessor alternate;
+        private long deadlineNanos = TimeUnit.SECONDS.toNanos(2);
+        private CircuitBreaker circuitBreaker = new CircuitBreaker(5, 5_000);
+        private ExecutorService executor;
+
+        private Builder(PaymentProcessor primary) {
+            this.primary = primary;
+        }
+
+        /**
+         * Maximum time a caller waits for a payment; 2 seconds by default.
+         */
+        public Builder deadline(long deadline, TimeUnit unit) {
+            this.deadlineNanos = unit.toNanos(deadline);
+            return this;
+        }
+
+        /**
+         * Opens after {@code failureThreshold} consecutive failures for {@code openMillis}; 5 and 5 seconds by default.
+         */
+        public Builder circuitBreaker(int failureThreshold, long openMillis) {
+            this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+            return this;
+        }
+
+        /**
+         * Sends a hedged copy of slow payments to {@code alternate}; see the class documentation before enabling.
+         */
+        public Builder hedgeTo(PaymentProcessor alternate) {
+            this.alternate = alternate;
+            return this;
+        }
+
+        /**
+         * Runs backend calls on {@code executor} instead of the shared per-task executor.
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public ResilientPaymentProcessor build() {
+            return new ResilientPaymentProcessor(this);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.solid.payment;
+
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.money.Money;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sends each payment to the backend expected to succeed soonest, and fails over to the next one on decline.
+ * <p>
+ * Only backends whose {@link PaymentProcessor#supportsAmount(long) declared limits} accept the amount are
+ * considered, so an amount no backend accepts is declined without any backend call. Each backend's latency and
+ * success rate are tracked as exponentially weighted moving averages; backends are ranked by latency divided by
+ * success rate, the expected time to a successful authorization. Every {@value #EXPLORE_INTERVAL}th payment
+ * starts with the eligible backend used least recently, so a backend that was slow for a while gets a chance
+ * to show it has recovered.
+ */
+public class RoutingPaymentProcessor implements PaymentProcessor {
+    static final int EXPLORE_INTERVAL = 64;
+    // Moving averages weigh each new observation 1/8
+    private static final int EWMA_SHIFT = 3;
+    // Success rates are fixed-point fractions of this
+    private static final long RATE_ONE = 1 << 16;
+    private static final long MIN_RATE = RATE_ONE >> 6;
+
+    private final PaymentProcessor[] backends;
+    private final AtomicLongArray latencyNanos;
+    private final AtomicLongArray successRates;
+    // Nanoseconds since creation; 0 means never used
+    private final AtomicLongArray lastUsedNanos;
+    private final long createdNanos = System.nanoTime();
+    private final AtomicLong payments = new AtomicLong();
+    private final AtomicLong unsupportedCount = new AtomicLong();
+    // getPaymentMethod() reports the backend that handled this thread's last payment
+    private final ThreadLocal<String> lastRoutedMethod = new ThreadLocal<>();
+    private final String description;
+
+    public RoutingPaymentProcessor(List<? extends PaymentProcessor> backends) {
+        if (backends.isEmpty() || backends.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Routing needs between 1 and 64 backends, was " + backends.size());
+        }
+        this.backends = backends.toArray(new PaymentProcessor[0]);
+        this.latencyNanos = new AtomicLongArray(this.backends.length);
+        this.successRates = new AtomicLongArray(this.backends.length);
+        this.lastUsedNanos = new AtomicLongArray(this.backends.length);
+        StringBuilder names = new StringBuilder("Routed (");
+        for (int i = 0; i < this.backends.length; i++) {
+            // Untried backends look instant and reliable, so each is tried early
+            successRates.set(i, RATE_ONE);
+            names.append(i == 0 ? "" : ", ").append(this.backends[i].getPaymentMethod());
+        }
+        this.description = names.append(')').toString();
+    }
+
+    public RoutingPaymentProcessor(PaymentProcessor... backends) {
+        this(List.of(backends));
+    }
+
+    @Override
+    public boolean processPayment(double amount) {
+        return processPaymentCents(Money.toCents(amount));
+    }
+
+    @Override
+    public boolean processPaymentCents(long amountCents) {
+        long tried = 0;
+        boolean explore = payments.incrementAndGet() % EXPLORE_INTERVAL == 0;
+        int backend;
+        while ((backend = nextBackend(amountCents, tried, explore)) >= 0) {
+            explore = false;
+            tried |= 1L << backend;
+            PaymentProcessor processor = backends[backend];
+            long start = System.nanoTime();
+            boolean success = processor.processPaymentCents(amountCents);
+            long end = System.nanoTime();
+            record(backend, end - start, success, end);
+            lastRoutedMethod.set(processor.getPaymentMethod());
+            if (success) {
+                return true;
+            }
+        }
+        if (tried == 0) {
+            unsupportedCount.incrementAndGet();
+            lastRoutedMethod.set(description);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean supportsAmount(long amountCents) {
+        for (PaymentProcessor backend : backends) {
+            if (backend.supportsAmount(amountCents)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String getPaymentMethod() {
+        String method = lastRoutedMethod.get();
+        return method != null ? method : description;
+    }
+
+    /**
+     * Payments declined without a backend call because no backend accepts the amount.
+     */
+    public long getUnsupportedCount() {
+        return unsupportedCount.get();
+    }
+
+    public long getAverageLatencyNanos(int backend) {
+        return latencyNanos.get(backend);
+    }
+
+    public double getSuccessRate(int backend) {
+        return (double) successRates.get(backend) / RATE_ONE;
+    }
+
+    // Best untried eligible backend, or -1 once none is left
+    private int nextBackend(long amountCents, long tried, boolean explore) {
+        int best = -1;
+        long bestKey = Long.MAX_VALUE;
+        for (int i = 0; i < backends.length; i++) {
+            if ((tried & (1L << i)) != 0 || !backends[i].supportsAmount(amountCents)) {
+                continue;
+            }
+            long key = explore ? lastUsedNanos.get(i) : expectedNanosPerSuccess(i);
+            if (best < 0 || key < bestKey) {
+                best = i;
+                bestKey = key;
+            }
+        }
+        return best;
+    }
+
+    private long expectedNanosPerSuccess(int backend) {
+        long rate = Math.max(successRates.get(backend), MIN_RATE);
+        return latencyNanos.get(backend) * RATE_ONE / rate;
+    }
+
+    private void record(int backend, long elapsedNanos, boolean success, long now) {
+        // The first observation seeds the latency average instead of being diluted by the initial zero
+        if (!latencyNanos.compareAndSet(backend, 0, elapsedNanos)) {
+            updateAverage(latencyNanos, backend, elapsedNanos);
+        }
+        updateAverage(successRates, backend, success ? RATE_ONE : 0);
+        lastUsedNanos.set(backend, Math.max(1, now - createdNanos));
+    }
+
+    private static void updateAverage(AtomicLongArray averages, int index, long sample) {
+        long current;
+        long next;
+        do {
+            current = averages.get(index);
+            next = current + ((sample - current) >> EWMA_SHIFT);
+        } while (!averages.compareAndSet(index, current, next));
+    }
+}
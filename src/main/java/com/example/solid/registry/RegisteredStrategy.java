@@ -0,0 +1,46 @@
+package com.example.solid.registry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Lists a {@code PaymentProcessor}, {@code NotificationService} or {@code DiscountCalculator} implementation in the
+ * {@code StrategyIndex} generated at compile time, so menus and registries pick it up without reflection or
+ * classpath scanning.
+ * <p>
+ * The index calls the public constructor with the most parameters whose parameters are all an
+ * {@code OrderEventSink}, a {@code String} or a {@code double}. A {@code String} or {@code double} parameter is
+ * the strategy's argument, such as a recipient or a rate, and requires a {@link #defaultArgument()}.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface RegisteredStrategy {
+    /**
+     * Registry key, unique per kind of strategy.
+     */
+    String key();
+
+    /**
+     * Menu text.
+     */
+    String label();
+
+    /**
+     * Position in menus; ties are ordered by key.
+     */
+    int order() default 100;
+
+    /**
+     * Question asked for the constructor argument, if the strategy takes one.
+     */
+    String prompt() default "";
+
+    /**
+     * Argument used when none is given, for example by {@link StrategyRegistry#standardBuilder}.
+     */
+    String defaultArgument() default "";
+}
@@ -0,0 +1,67 @@
+package com.example.solid.registry;
+
+import com.example.solid.events.OrderEventSink;
+
+/**
+ * Entry of the generated {@link StrategyIndex}: how to present a strategy and how to construct it.
+ * Construction goes through a generated {@code switch}, so it costs neither reflection nor a lambda bootstrap.
+ */
+public final class StrategyDescriptor<T> {
+    private final Class<T> kind;
+    private final int id;
+    private final String key;
+    private final String label;
+    private final String prompt;
+    private final String defaultArgument;
+
+    StrategyDescriptor(Class<T> kind, int id, String key, String label, String prompt, String defaultArgument) {
+        this.kind = kind;
+        this.id = id;
+        this.key = key;
+        this.label = label;
+        this.prompt = prompt;
+        this.defaultArgument = defaultArgument;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Question to ask for the argument, or {@code null} if the strategy takes none.
+     */
+    public String getPrompt() {
+        return prompt;
+    }
+
+    /**
+     * Argument used by {@link #create(OrderEventSink)}, or {@code null} if the strategy takes none.
+     */
+    public String getDefaultArgument() {
+        return defaultArgument;
+    }
+
+    public boolean takesArgument() {
+        return defaultArgument != null;
+    }
+
+    public T create(OrderEventSink eventSink) {
+        return create(eventSink, defaultArgument);
+    }
+
+    /**
+     * @throws NumberFormatException if the strategy takes a number and {@code argument} is not one
+     */
+    public T create(OrderEventSink eventSink, String argument) {
+        return kind.cast(StrategyIndex.newInstance(id, eventSink, argument));
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
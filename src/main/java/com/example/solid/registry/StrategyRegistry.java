@@ -0,0 +1,215 @@
+package com.example.solid.registry;
+
+import com.example.solid.discounts.FixedAmountDiscount;
+import com.example.solid.discounts.PercentageDiscount;
+import com.example.solid.events.OrderEventSink;
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.interfaces.NotificationService;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.money.Money;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-built, shared strategy instances looked up by key, so processing an order never constructs one.
+ * <p>
+ * Thread safety: a registry is immutable once built, and every strategy it hands out must be stateless or
+ * thread-safe, because the same instance serves all threads. Percentage and fixed-amount discounts are
+ * interned flyweights: whole percentages and whole-dollar amounts up to {@value #PREBUILT_DOLLARS} come from
+ * arrays filled at build time and are always the same instance. Any other rate or amount is cached in a
+ * concurrent map until {@value #MAX_INTERNED} of them are interned; past that cap, rates not yet cached get a
+ * fresh instance on every call, so compare those by value rather than identity.
+ */
+public final class StrategyRegistry {
+    public static final String CREDIT_CARD = "credit-card";
+    public static final String PAYPAL = "paypal";
+    public static final String EMAIL = "email";
+    public static final String SMS = "sms";
+    public static final String NO_DISCOUNT = "none";
+    public static final String PERCENTAGE = "percentage";
+    public static final String FIXED_AMOUNT = "fixed-amount";
+    public static final String BUY_ONE_GET_ONE = "bogo";
+
+    static final int PREBUILT_DOLLARS = 1000;
+    private static final int WHOLE_PERCENTAGES = 100;
+    // Past this many interned odd rates or amounts, lookups return fresh instances so callers cannot grow the maps
+    static final int MAX_INTERNED = 1024;
+
+    private final Map<String, PaymentProcessor> paymentProcessors;
+    private final Map<String, NotificationService> channels;
+    private final Map<String, DiscountCalculator> namedDiscounts;
+    private final OrderEventSink eventSink;
+    private final PercentageDiscount[] wholePercentages = new PercentageDiscount[WHOLE_PERCENTAGES + 1];
+    private final FixedAmountDiscount[] wholeDollars = new FixedAmountDiscount[PREBUILT_DOLLARS + 1];
+    private final ConcurrentHashMap<Long, PercentageDiscount> otherPercentages = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, FixedAmountDiscount> otherFixedAmounts = new ConcurrentHashMap<>();
+
+    private StrategyRegistry(Builder builder) {
+        this.paymentProcessors = Collections.unmodifiableMap(new LinkedHashMap<>(builder.paymentProcessors));
+        this.channels = Collections.unmodifiableMap(new LinkedHashMap<>(builder.channels));
+        this.namedDiscounts = Collections.unmodifiableMap(new LinkedHashMap<>(builder.namedDiscounts));
+        this.eventSink = builder.eventSink;
+        for (int percent = 0; percent <= WHOLE_PERCENTAGES; percent++) {
+            wholePercentages[percent] = new PercentageDiscount(percent);
+        }
+        for (int dollars = 0; dollars <= PREBUILT_DOLLARS; dollars++) {
+            wholeDollars[dollars] = new FixedAmountDiscount(dollars);
+        }
+    }
+
+    public static Builder builder(OrderEventSink eventSink) {
+        return new Builder(eventSink);
+    }
+
+    /**
+     * Builder pre-populated from the compile-time {@link StrategyIndex}: every payment processor and channel,
+     * channels using their default recipient, and every discount that takes no argument. Percentage and
+     * fixed-amount discounts are served by {@link #percentage(double)} and {@link #fixedAmount(double)} instead.
+     */
+    public static Builder standardBuilder(OrderEventSink eventSink) {
+        Builder builder = builder(eventSink);
+        for (StrategyDescriptor<PaymentProcessor> descriptor : StrategyIndex.paymentProcessors()) {
+            builder.paymentProcessor(descriptor.getKey(), descriptor.create(eventSink));
+        }
+        for (StrategyDescriptor<NotificationService> descriptor : StrategyIndex.notificationServices()) {
+            builder.channel(descriptor.getKey(), descriptor.create(eventSink));
+        }
+        for (StrategyDescriptor<DiscountCalculator> descriptor : StrategyIndex.discounts()) {
+            if (!descriptor.takesArgument()) {
+                builder.discount(descriptor.getKey(), descriptor.create(eventSink));
+            }
+        }
+        return builder;
+    }
+
+    public static StrategyRegistry standard(OrderEventSink eventSink) {
+        return standardBuilder(eventSink).build();
+    }
+
+    /**
+     * @throws IllegalArgumentException if no processor is registered under {@code key}
+     */
+    public PaymentProcessor paymentProcessor(String key) {
+        return lookup(paymentProcessors, key, "payment method");
+    }
+
+    /**
+     * @throws IllegalArgumentException if no channel is registered under {@code key}
+     */
+    public NotificationService channel(String key) {
+        return lookup(channels, key, "notification channel");
+    }
+
+    /**
+     * @throws IllegalArgumentException if no discount is registered under {@code key}
+     */
+    public DiscountCalculator discount(String key) {
+        return lookup(namedDiscounts, key, "discount");
+    }
+
+    /**
+     * Shared {@link PercentageDiscount} for {@code percentage}, interned by its basis-point rate.
+     * Whole percentages are always shared; other rates only until {@value #MAX_INTERNED} of them are interned.
+     */
+    public PercentageDiscount percentage(double percentage) {
+        long basisPoints = Money.toBasisPoints(percentage, Money.DEFAULT_ROUNDING);
+        if (basisPoints >= 0 && basisPoints <= Money.BASIS_POINTS_PER_UNIT && basisPoints % Money.BASIS_POINTS_PER_PERCENT == 0) {
+            return wholePercentages[(int) (basisPoints / Money.BASIS_POINTS_PER_PERCENT)];
+        }
+        PercentageDiscount interned = otherPercentages.get(basisPoints);
+        if (interned != null) {
+            return interned;
+        }
+        PercentageDiscount created = new PercentageDiscount(basisPoints / (double) Money.BASIS_POINTS_PER_PERCENT);
+        return otherPercentages.size() < MAX_INTERNED ? intern(otherPercentages, basisPoints, created) : created;
+    }
+
+    /**
+     * Shared {@link FixedAmountDiscount} for {@code amount}, interned by its value in cents.
+     * Whole dollars up to {@value #PREBUILT_DOLLARS} are always shared; other amounts only until
+     * {@value #MAX_INTERNED} of them are interned.
+     */
+    public FixedAmountDiscount fixedAmount(double amount) {
+        long cents = Money.toCents(amount);
+        if (cents >= 0 && cents <= PREBUILT_DOLLARS * Money.CENTS_PER_UNIT && cents % Money.CENTS_PER_UNIT == 0) {
+            return wholeDollars[(int) (cents / Money.CENTS_PER_UNIT)];
+        }
+        FixedAmountDiscount interned = otherFixedAmounts.get(cents);
+        if (interned != null) {
+            return interned;
+        }
+        FixedAmountDiscount created = new FixedAmountDiscount(Money.toAmount(cents));
+        return otherFixedAmounts.size() < MAX_INTERNED ? intern(otherFixedAmounts, cents, created) : created;
+    }
+
+    // The size check races with other interning threads, so the cap can be overshot by at most one per thread
+    private static <T> T intern(ConcurrentHashMap<Long, T> interned, long key, T created) {
+        T existing = interned.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    public Set<String> getPaymentMethods() {
+        return paymentProcessors.keySet();
+    }
+
+    public Set<String> getChannels() {
+        return channels.keySet();
+    }
+
+    public Set<String> getDiscounts() {
+        return namedDiscounts.keySet();
+    }
+
+    public OrderEventSink getEventSink() {
+        return eventSink;
+    }
+
+    private static <T> T lookup(Map<String, T> strategies, String key, String kind) {
+        T strategy = strategies.get(key);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown " + kind + " '" + key + "', expected one of " + strategies.keySet());
+        }
+        return strategy;
+    }
+
+    /**
+     * Collects strategies before the registry is frozen.
+     */
+    public static final class Builder {
+        private final OrderEventSink eventSink;
+        private final Map<String, PaymentProcessor> paymentProcessors = new LinkedHashMap<>();
+        private final Map<String, NotificationService> channels = new LinkedHashMap<>();
+        private final Map<String, DiscountCalculator> namedDiscounts = new LinkedHashMap<>();
+
+        private Builder(OrderEventSink eventSink) {
+            this.eventSink = eventSink;
+        }
+
+        public Builder paymentProcessor(String key, PaymentProcessor paymentProcessor) {
+            paymentProcessors.put(key, paymentProcessor);
+            return this;
+        }
+
+        /**
+         * Registers a channel shared by all customers; per-order recipients are passed to
+         * {@link NotificationService#sendNotification(String, CharSequence)}.
+         */
+        public Builder channel(String key, NotificationService channel) {
+            channels.put(key, channel);
+            return this;
+        }
+
+        public Builder discount(String key, DiscountCalculator discount) {
+            namedDiscounts.put(key, discount);
+            return this;
+        }
+
+        public StrategyRegistry build() {
+            return new StrategyRegistry(this);
+        }
+    }
+}
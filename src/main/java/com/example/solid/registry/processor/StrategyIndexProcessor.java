@@ -0,0 +1,320 @@
+package com.example.solid.registry.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates {@code com.example.solid.registry.StrategyIndex} from the classes annotated with
+ * {@code @RegisteredStrategy}. The index lists payment processors, notification channels and discounts in menu
+ * order and constructs them through a plain {@code switch}, so nothing is discovered or instantiated reflectively
+ * at run time.
+ * <p>
+ * The build compiles this class on its own before the main sources, and then names it as the annotation processor
+ * for the main compilation. It refers to the annotation and the strategy interfaces by name only, so it does not
+ * depend on them at compile time.
+ */
+@SupportedAnnotationTypes(StrategyIndexProcessor.ANNOTATION)
+public class StrategyIndexProcessor extends AbstractProcessor {
+    static final String ANNOTATION = "com.example.solid.registry.RegisteredStrategy";
+    private static final String PACKAGE = "com.example.solid.registry";
+    private static final String INDEX = "StrategyIndex";
+    private static final String EVENT_SINK = "com.example.solid.events.OrderEventSink";
+    // Interface simple name, accessor and list constant for each kind of strategy, in the order they are emitted
+    private static final String[][] KINDS = {
+        {"PaymentProcessor", "paymentProcessors", "PAYMENT_PROCESSORS"},
+        {"NotificationService", "notificationServices", "NOTIFICATION_SERVICES"},
+        {"DiscountCalculator", "discounts", "DISCOUNTS"}
+    };
+    private static final String INTERFACES = "com.example.solid.interfaces.";
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (generated || annotations.isEmpty()) {
+            return false;
+        }
+        List<List<Entry>> entriesByKind = new ArrayList<>();
+        for (int kind = 0; kind < KINDS.length; kind++) {
+            entriesByKind.add(new ArrayList<>());
+        }
+        List<Element> originating = new ArrayList<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                Entry entry = describe(element);
+                if (entry == null) {
+                    continue;
+                }
+                boolean indexed = false;
+                for (int kind = 0; kind < KINDS.length; kind++) {
+                    if (implementsInterface((TypeElement) element, KINDS[kind][0])) {
+                        entriesByKind.get(kind).add(entry);
+                        indexed = true;
+                    }
+                }
+                if (!indexed) {
+                    error(element, "@RegisteredStrategy class must implement PaymentProcessor, NotificationService "
+                                   + "or DiscountCalculator");
+                    continue;
+                }
+                originating.add(element);
+            }
+        }
+        // Ids follow menu order, so the generated source only changes when the strategies do
+        int nextId = 0;
+        for (List<Entry> entries : entriesByKind) {
+            entries.sort(Comparator.comparingInt((Entry entry) -> entry.order).thenComparing(entry -> entry.key));
+            Set<String> keys = new HashSet<>();
+            for (Entry entry : entries) {
+                if (!keys.add(entry.key)) {
+                    error(entry.element, "Duplicate strategy key '" + entry.key + "'");
+                }
+                if (entry.id < 0) {
+                    entry.id = nextId++;
+                }
+            }
+        }
+        write(entriesByKind, originating);
+        generated = true;
+        return true;
+    }
+
+    // Returns null after reporting an error if the class cannot be indexed
+    private Entry describe(Element element) {
+        if (element.getKind() != ElementKind.CLASS || !element.getModifiers().contains(Modifier.PUBLIC)
+                || element.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(element, "@RegisteredStrategy must be on a public, concrete class");
+            return null;
+        }
+        TypeElement type = (TypeElement) element;
+        ExecutableElement constructor = null;
+        for (ExecutableElement candidate : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (candidate.getModifiers().contains(Modifier.PUBLIC) && supported(candidate)
+                    && (constructor == null || candidate.getParameters().size() > constructor.getParameters().size())) {
+                constructor = candidate;
+            }
+        }
+        if (constructor == null) {
+            error(element, "No public constructor taking only an OrderEventSink, a String or a double");
+            return null;
+        }
+
+        Entry entry = new Entry(element, type.getQualifiedName().toString());
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(annotationOn(element)).entrySet()) {
+            String name = value.getKey().getSimpleName().toString();
+            Object constant = value.getValue().getValue();
+            switch (name) {
+                case "key":
+                    entry.key = (String) constant;
+                    break;
+                case "label":
+                    entry.label = (String) constant;
+                    break;
+                case "order":
+                    entry.order = (Integer) constant;
+                    break;
+                case "prompt":
+                    entry.prompt = (String) constant;
+                    break;
+                case "defaultArgument":
+                    entry.defaultArgument = (String) constant;
+                    break;
+                default:
+                    break;
+            }
+        }
+        StringBuilder arguments = new StringBuilder();
+        for (VariableElement parameter : constructor.getParameters()) {
+            if (arguments.length() > 0) {
+                arguments.append(", ");
+            }
+            TypeMirror parameterType = parameter.asType();
+            if (parameterType.getKind() == TypeKind.DOUBLE) {
+                arguments.append("Double.parseDouble(argument)");
+                entry.takesArgument = true;
+            } else if (parameterType.toString().equals(EVENT_SINK)) {
+                arguments.append("eventSink");
+            } else {
+                arguments.append("argument");
+                entry.takesArgument = true;
+            }
+        }
+        if (entry.takesArgument && entry.defaultArgument.isEmpty()) {
+            error(element, "Strategy '" + entry.key + "' takes an argument, so it needs a defaultArgument");
+            return null;
+        }
+        entry.arguments = arguments.toString();
+        return entry;
+    }
+
+    // At most one String or double argument, plus any number of event sinks
+    private static boolean supported(ExecutableElement constructor) {
+        int arguments = 0;
+        for (VariableElement parameter : constructor.getParameters()) {
+            TypeMirror type = parameter.asType();
+            String name = type.toString();
+            if (type.getKind() == TypeKind.DOUBLE || name.equals("java.lang.String")) {
+                arguments++;
+            } else if (!name.equals(EVENT_SINK)) {
+                return false;
+            }
+        }
+        return arguments <= 1;
+    }
+
+    private boolean implementsInterface(TypeElement type, String simpleName) {
+        TypeElement target = processingEnv.getElementUtils().getTypeElement(INTERFACES + simpleName);
+        return target != null && processingEnv.getTypeUtils().isAssignable(
+            processingEnv.getTypeUtils().erasure(type.asType()), processingEnv.getTypeUtils().erasure(target.asType()));
+    }
+
+    private static AnnotationMirror annotationOn(Element element) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ANNOTATION)) {
+                return mirror;
+            }
+        }
+        throw new IllegalStateException("Element is not annotated: " + element);
+    }
+
+    private void write(List<List<Entry>> entriesByKind, List<Element> originating) {
+        try {
+            JavaFileObject file = processingEnv.getFiler()
+                .createSourceFile(PACKAGE + "." + INDEX, originating.toArray(new Element[0]));
+            try (PrintWriter out = new PrintWriter(file.openWriter())) {
+                out.println("package " + PACKAGE + ";");
+                out.println();
+                out.println("import " + EVENT_SINK + ";");
+                for (String[] kind : KINDS) {
+                    out.println("import " + INTERFACES + kind[0] + ";");
+                }
+                out.println();
+                out.println("import java.util.List;");
+                out.println();
+                out.println("/**");
+                out.println(" * Every {@link RegisteredStrategy} in the build, in menu order. Generated at compile time; do not edit.");
+                out.println(" */");
+                out.println("@javax.annotation.processing.Generated(\"" + StrategyIndexProcessor.class.getName() + "\")");
+                out.println("public final class " + INDEX + " {");
+                for (int kind = 0; kind < KINDS.length; kind++) {
+                    String type = KINDS[kind][0];
+                    out.println("    private static final List<StrategyDescriptor<" + type + ">> " + KINDS[kind][2]
+                                + " = List.of(");
+                    List<Entry> entries = entriesByKind.get(kind);
+                    for (int i = 0; i < entries.size(); i++) {
+                        Entry entry = entries.get(i);
+                        out.print("        new StrategyDescriptor<>(" + type + ".class, " + entry.id + ", "
+                                  + literal(entry.key) + ", " + literal(entry.label) + ", "
+                                  + (entry.takesArgument ? literal(entry.prompt.isEmpty() ? entry.label + ": " : entry.prompt)
+                                                         : "null") + ", "
+                                  + (entry.takesArgument ? literal(entry.defaultArgument) : "null") + ")");
+                        out.println(i + 1 < entries.size() ? "," : "");
+                    }
+                    out.println("    );");
+                }
+                out.println();
+                out.println("    private " + INDEX + "() {");
+                out.println("    }");
+                for (String[] kind : KINDS) {
+                    out.println();
+                    out.println("    public static List<StrategyDescriptor<" + kind[0] + ">> " + kind[1] + "() {");
+                    out.println("        return " + kind[2] + ";");
+                    out.println("    }");
+                }
+                out.println();
+                out.println("    static Object newInstance(int id, OrderEventSink eventSink, String argument) {");
+                out.println("        switch (id) {");
+                Set<Integer> emitted = new HashSet<>();
+                for (List<Entry> entries : entriesByKind) {
+                    for (Entry entry : entries) {
+                        if (emitted.add(entry.id)) {
+                            out.println("            case " + entry.id + ":");
+                            out.println("                return new " + entry.className + "(" + entry.arguments + ");");
+                        }
+                    }
+                }
+                out.println("            default:");
+                out.println("                throw new IllegalArgumentException(\"Unknown strategy id \" + id);");
+                out.println("        }");
+                out.println("    }");
+                out.println("}");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + INDEX, e);
+        }
+    }
+
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                default:
+                    literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static final class Entry {
+        private final Element element;
+        private final String className;
+        // Assigned once all entries are sorted
+        private int id = -1;
+        private String key;
+        private String label;
+        private int order;
+        private String prompt;
+        private String defaultArgument;
+        private boolean takesArgument;
+        private String arguments;
+
+        Entry(Element element, String className) {
+            this.element = element;
+            this.className = className;
+        }
+    }
+}
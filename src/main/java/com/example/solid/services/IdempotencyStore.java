@@ -0,0 +1,164 @@
+package com.example.solid.services;
+
+import com.example.solid.interfaces.PaymentUnavailableException;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the payment outcome of each order id so a retried order is answered from memory
+ * instead of charging the customer again.
+ * <p>
+ * Entries live in lock-striped, insertion-ordered maps. Each stripe expires entries older than the
+ * TTL from its head and evicts its oldest completed entry once it is over its share of the size
+ * bound. A duplicate that arrives while the first attempt is still in flight waits for that
+ * attempt's result rather than calling the processor itself. Attempts that throw are forgotten,
+ * so they can be retried; declined payments are remembered like any other outcome. A processor that
+ * turns a payment away without a decision, such as a full bulkhead, an open circuit or a missed
+ * deadline, must therefore throw {@link PaymentUnavailableException}
+ * rather than decline, or the rejection would be replayed for the whole TTL.
+ */
+public class IdempotencyStore {
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(24);
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    public IdempotencyStore() {
+        this(DEFAULT_TTL_MILLIS, DEFAULT_MAX_ENTRIES);
+    }
+
+    public IdempotencyStore(long ttlMillis, int maxEntries) {
+        this(ttlMillis, maxEntries, System::nanoTime);
+    }
+
+    IdempotencyStore(long ttlMillis, int maxEntries, LongSupplier clock) {
+        if (ttlMillis < 1 || maxEntries < 1) {
+            throw new IllegalArgumentException("TTL and size bound must be positive");
+        }
+        int stripeCount = Math.min(Integer.highestOneBit(maxEntries),
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+        int entriesPerStripe = (maxEntries + stripeCount - 1) / stripeCount;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(entriesPerStripe);
+        }
+        this.stripeMask = stripeCount - 1;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the remembered outcome for {@code orderId}, or runs {@code payment} if this is the first attempt.
+     * Remembered outcomes come back {@linkplain PaymentOutcome#isReplayed() marked as replays}.
+     *
+     * @throws IllegalArgumentException if the order id was already used for a different amount
+     */
+    public PaymentOutcome execute(String orderId, long amountCents, Supplier<PaymentOutcome> payment) {
+        Stripe stripe = stripeFor(orderId);
+        while (true) {
+            Entry entry;
+            boolean owner = false;
+            synchronized (stripe) {
+                long now = clock.getAsLong();
+                stripe.expire(now);
+                entry = stripe.get(orderId);
+                if (entry == null) {
+                    entry = new Entry(amountCents, now + ttlNanos);
+                    stripe.put(orderId, entry);
+                    owner = true;
+                }
+            }
+            if (entry.amountCents != amountCents) {
+                throw new IllegalArgumentException("Order id " + orderId + " was already used for a different amount");
+            }
+            if (owner) {
+                return attempt(stripe, orderId, entry, payment);
+            }
+            try {
+                return entry.outcome.join().asReplay();
+            } catch (CompletionException e) {
+                // The first attempt failed and has been forgotten; try again as the owner
+            }
+        }
+    }
+
+    /**
+     * Number of remembered or in-flight order ids.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private PaymentOutcome attempt(Stripe stripe, String orderId, Entry entry, Supplier<PaymentOutcome> payment) {
+        PaymentOutcome outcome;
+        try {
+            outcome = payment.get();
+        } catch (RuntimeException | Error e) {
+            synchronized (stripe) {
+                stripe.remove(orderId, entry);
+            }
+            entry.outcome.completeExceptionally(e);
+            throw e;
+        }
+        entry.outcome.complete(outcome);
+        return outcome;
+    }
+
+    private Stripe stripeFor(String orderId) {
+        int hash = orderId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    private static final class Entry {
+        final long amountCents;
+        final long expiresAtNanos;
+        final CompletableFuture<PaymentOutcome> outcome = new CompletableFuture<>();
+
+        Entry(long amountCents, long expiresAtNanos) {
+            this.amountCents = amountCents;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    // Insertion order is expiry order, since every entry gets the same TTL
+    private static final class Stripe extends LinkedHashMap<String, Entry> {
+        private final int maxEntries;
+
+        Stripe(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        void expire(long now) {
+            Iterator<Entry> entries = values().iterator();
+            while (entries.hasNext()) {
+                Entry eldest = entries.next();
+                if (eldest.expiresAtNanos - now > 0 || !eldest.outcome.isDone()) {
+                    return;
+                }
+                entries.remove();
+            }
+        }
+
+        // An in-flight entry is never evicted, or its duplicates could reach the processor
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries && eldest.getValue().outcome.isDone();
+        }
+    }
+}
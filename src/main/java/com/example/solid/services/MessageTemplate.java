@@ -0,0 +1,175 @@
+package com.example.solid.services;
+
+import com.example.solid.money.Money;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Notification text with {@code {placeholder}} fields, parsed once and rendered many times.
+ * <p>
+ * Supported placeholders are {@code {amount}} (final amount), {@code {originalAmount}}, {@code {discount}},
+ * {@code {discountLabel}} and {@code {paymentMethod}}. Amounts are formatted from cents by
+ * {@link Money#appendAmount(StringBuilder, long)}, so rendering never creates a double or an intermediate String.
+ * Literal text is kept both as a String and pre-encoded as UTF-8 for {@link #renderTo(ByteBuffer, PaymentOutcome, OrderPricing)}.
+ */
+public final class MessageTemplate {
+    private static final int AMOUNT = 0;
+    private static final int ORIGINAL_AMOUNT = 1;
+    private static final int DISCOUNT = 2;
+    private static final int DISCOUNT_LABEL = 3;
+    private static final int PAYMENT_METHOD = 4;
+    private static final String[] FIELD_NAMES = {"amount", "originalAmount", "discount", "discountLabel", "paymentMethod"};
+
+    private static final ThreadLocal<StringBuilder> RENDER_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+    private final String pattern;
+    // literals[i] precedes fields[i]; the last literal follows the last field
+    private final String[] literals;
+    private final byte[][] encodedLiterals;
+    private final int[] fields;
+
+    private MessageTemplate(String pattern, List<String> literals, List<Integer> fields) {
+        this.pattern = pattern;
+        this.literals = literals.toArray(new String[0]);
+        this.encodedLiterals = new byte[this.literals.length][];
+        for (int i = 0; i < this.literals.length; i++) {
+            encodedLiterals[i] = this.literals[i].getBytes(StandardCharsets.UTF_8);
+        }
+        this.fields = fields.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Parses {@code pattern}; an unknown or unterminated placeholder is rejected here rather than at render time.
+     */
+    public static MessageTemplate compile(String pattern) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> fields = new ArrayList<>();
+        int literalStart = 0;
+        int open;
+        while ((open = pattern.indexOf('{', literalStart)) >= 0) {
+            int close = pattern.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unterminated placeholder at index " + open + " in: " + pattern);
+            }
+            literals.add(pattern.substring(literalStart, open));
+            fields.add(fieldIndex(pattern.substring(open + 1, close), pattern));
+            literalStart = close + 1;
+        }
+        literals.add(pattern.substring(literalStart));
+        return new MessageTemplate(pattern, literals, fields);
+    }
+
+    /**
+     * Renders into a per-thread buffer. The result is only valid until this thread renders again,
+     * so callers that keep the message must copy it.
+     */
+    public CharSequence render(PaymentOutcome paymentOutcome, OrderPricing pricing) {
+        StringBuilder buffer = RENDER_BUFFER.get();
+        buffer.setLength(0);
+        return renderTo(buffer, paymentOutcome, pricing);
+    }
+
+    public StringBuilder renderTo(StringBuilder out, PaymentOutcome paymentOutcome, OrderPricing pricing) {
+        return renderTo(out, pricing.getFinalAmountCents(), pricing.getOriginalAmountCents(),
+                        pricing.getDiscountAppliedCents(), pricing.getDiscountLabel(), paymentOutcome.getPaymentMethod());
+    }
+
+    public StringBuilder renderTo(StringBuilder out, OrderContext context) {
+        return renderTo(out, context.getFinalAmountCents(), context.getOriginalAmountCents(),
+                        context.getDiscountAppliedCents(), context.getDiscountLabel(), context.getPaymentMethod());
+    }
+
+    private StringBuilder renderTo(StringBuilder out, long finalAmountCents, long originalAmountCents,
+                                   long discountCents, String discountLabel, String paymentMethod) {
+        for (int i = 0; i < fields.length; i++) {
+            out.append(literals[i]);
+            switch (fields[i]) {
+                case AMOUNT:
+                    Money.appendAmount(out, finalAmountCents);
+                    break;
+                case ORIGINAL_AMOUNT:
+                    Money.appendAmount(out, originalAmountCents);
+                    break;
+                case DISCOUNT:
+                    Money.appendAmount(out, discountCents);
+                    break;
+                case DISCOUNT_LABEL:
+                    out.append(discountLabel);
+                    break;
+                case PAYMENT_METHOD:
+                    out.append(paymentMethod);
+                    break;
+            }
+        }
+        return out.append(literals[fields.length]);
+    }
+
+    /**
+     * Renders as UTF-8 straight into {@code out}, ready for a channel write.
+     *
+     * @throws java.nio.BufferOverflowException if the message does not fit in {@code out}'s remaining space
+     */
+    public void renderTo(ByteBuffer out, PaymentOutcome paymentOutcome, OrderPricing pricing) {
+        for (int i = 0; i < fields.length; i++) {
+            out.put(encodedLiterals[i]);
+            switch (fields[i]) {
+                case AMOUNT:
+                    Money.putAmount(out, pricing.getFinalAmountCents());
+                    break;
+                case ORIGINAL_AMOUNT:
+                    Money.putAmount(out, pricing.getOriginalAmountCents());
+                    break;
+                case DISCOUNT:
+                    Money.putAmount(out, pricing.getDiscountAppliedCents());
+                    break;
+                case DISCOUNT_LABEL:
+                    putUtf8(out, pricing.getDiscountLabel());
+                    break;
+                case PAYMENT_METHOD:
+                    putUtf8(out, paymentOutcome.getPaymentMethod());
+                    break;
+            }
+        }
+        out.put(encodedLiterals[fields.length]);
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    private static int fieldIndex(String name, String pattern) {
+        for (int i = 0; i < FIELD_NAMES.length; i++) {
+            if (FIELD_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown placeholder {" + name + "} in: " + pattern);
+    }
+
+    // Encodes without an intermediate byte[]; unpaired surrogates become '?' as in String.getBytes
+    private static void putUtf8(ByteBuffer out, String text) {
+        String value = String.valueOf(text);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.put((byte) (0xF0 | codePoint >> 18))
+                    .put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                    .put((byte) (0x80 | codePoint >> 6 & 0x3F))
+                    .put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?');
+            } else {
+                out.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.solid.services;
+
+import com.example.solid.interfaces.NotificationService;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces notifications into bulk submissions. Messages wait in a bounded queue,
+ * are grouped by channel ({@link NotificationService#getNotificationType()}) and are
+ * handed to {@link NotificationService#sendBatch(List)} when a channel batch reaches
+ * {@code maxBatchSize} or its oldest message has waited {@code maxDelayMillis}.
+ * A full queue blocks submitters for at most {@code offerTimeoutMillis}, then drops the message.
+ */
+public class NotificationDispatcher implements AutoCloseable {
+
+    /**
+     * Receives messages that could not be delivered. Called on the submitting thread for
+     * drops and on the dispatcher thread for failed batches; an exception thrown from
+     * {@link #failed} is ignored so it cannot stop the dispatcher.
+     */
+    public interface DeliveryListener {
+        default void dropped(NotificationService target, String message) {
+        }
+
+        default void failed(NotificationService target, List<String> messages, RuntimeException cause) {
+        }
+    }
+
+    private static final DeliveryListener NO_LISTENER = new DeliveryListener() {
+    };
+
+    private final BlockingQueue<PendingNotification> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutNanos;
+    private final DeliveryListener listener;
+    private final Thread worker;
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private volatile boolean running = true;
+
+    public NotificationDispatcher(int queueCapacity, int maxBatchSize, long maxDelayMillis, long offerTimeoutMillis) {
+        this(queueCapacity, maxBatchSize, maxDelayMillis, offerTimeoutMillis, NO_LISTENER);
+    }
+
+    public NotificationDispatcher(int queueCapacity, int maxBatchSize, long maxDelayMillis, long offerTimeoutMillis,
+                                  DeliveryListener listener) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, was " + maxBatchSize);
+        }
+        // A zero delay would make the dispatcher poll without waiting and spin a core
+        if (maxDelayMillis < 1) {
+            throw new IllegalArgumentException("Max delay must be at least 1 ms, was " + maxDelayMillis);
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.listener = listener;
+        this.worker = new Thread(this::dispatchLoop, "notification-dispatcher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues a message for {@code target}. Returns {@code false} if the message was dropped
+     * because the queue stayed full for the offer timeout or the dispatcher is closed.
+     */
+    public boolean submit(NotificationService target, String message) {
+        boolean accepted = false;
+        if (running) {
+            PendingNotification pending = new PendingNotification(target, message);
+            try {
+                accepted = queue.offer(pending, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Closed while offering: take the message back unless a drain already picked it up for delivery
+            if (accepted && !running && queue.remove(pending)) {
+                accepted = false;
+            }
+        }
+        if (!accepted) {
+            droppedCount.incrementAndGet();
+            listener.dropped(target, message);
+        }
+        return accepted;
+    }
+
+    public long getSentCount() {
+        return sentCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Stops accepting messages and waits until everything already queued has been delivered.
+     */
+    @Override
+    public void close() {
+        running = false;
+        // Wake the dispatcher from its timed poll rather than waiting out the delay
+        worker.interrupt();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A submitter that passed its running check before close may have queued after the worker's last drain
+        drainAndFlush(new LinkedHashMap<>());
+    }
+
+    private void dispatchLoop() {
+        Map<String, ChannelBatch> batches = new LinkedHashMap<>();
+        while (running) {
+            try {
+                PendingNotification next = queue.poll(nanosUntilNextDeadline(batches), TimeUnit.NANOSECONDS);
+                if (next != null) {
+                    add(batches, next);
+                    for (PendingNotification more = queue.poll(); more != null; more = queue.poll()) {
+                        add(batches, more);
+                    }
+                }
+            } catch (InterruptedException e) {
+                break;
+            }
+            flushExpired(batches, System.nanoTime());
+        }
+        // Clear the close-time interrupt so it cannot fail the final sends
+        Thread.interrupted();
+        drainAndFlush(batches);
+    }
+
+    private synchronized void drainAndFlush(Map<String, ChannelBatch> batches) {
+        for (PendingNotification remaining = queue.poll(); remaining != null; remaining = queue.poll()) {
+            add(batches, remaining);
+        }
+        flushExpired(batches, Long.MAX_VALUE);
+    }
+
+    private void add(Map<String, ChannelBatch> batches, PendingNotification pending) {
+        String channel;
+        try {
+            channel = pending.target.getNotificationType();
+        } catch (RuntimeException | Error e) {
+            failed(pending.target, List.of(pending.message), e);
+            return;
+        }
+        ChannelBatch batch = batches.computeIfAbsent(channel, type -> new ChannelBatch());
+        if (batch.messages.isEmpty()) {
+            batch.firstQueuedNanos = System.nanoTime();
+        }
+        batch.messages.add(pending);
+        if (batch.messages.size() >= maxBatchSize) {
+            flush(batch);
+        }
+    }
+
+    private long nanosUntilNextDeadline(Map<String, ChannelBatch> batches) {
+        long now = System.nanoTime();
+        long wait = maxDelayNanos;
+        for (ChannelBatch batch : batches.values()) {
+            if (!batch.messages.isEmpty()) {
+                wait = Math.min(wait, batch.firstQueuedNanos + maxDelayNanos - now);
+            }
+        }
+        return Math.max(wait, 0);
+    }
+
+    private void flushExpired(Map<String, ChannelBatch> batches, long now) {
+        for (ChannelBatch batch : batches.values()) {
+            if (!batch.messages.isEmpty() && (now == Long.MAX_VALUE || now - batch.firstQueuedNanos >= maxDelayNanos)) {
+                flush(batch);
+            }
+        }
+    }
+
+    // A channel batch can mix recipients; each recipient's service gets its own bulk submission.
+    // Any throwable from a send fails only that submission, so the dispatcher thread survives it.
+    private void flush(ChannelBatch batch) {
+        Map<NotificationService, List<String>> byTarget = new IdentityHashMap<>();
+        for (PendingNotification pending : batch.messages) {
+            byTarget.computeIfAbsent(pending.target, target -> new ArrayList<>()).add(pending.message);
+        }
+        batch.messages.clear();
+        for (Map.Entry<NotificationService, List<String>> entry : byTarget.entrySet()) {
+            List<String> messages = entry.getValue();
+            try {
+                entry.getKey().sendBatch(messages);
+                sentCount.addAndGet(messages.size());
+            } catch (RuntimeException | Error e) {
+                failed(entry.getKey(), messages, e);
+            }
+        }
+    }
+
+    private void failed(NotificationService target, List<String> messages, Throwable cause) {
+        failedCount.addAndGet(messages.size());
+        RuntimeException reported = cause instanceof RuntimeException
+            ? (RuntimeException) cause : new IllegalStateException("Notification send failed", cause);
+        try {
+            listener.failed(target, messages, reported);
+        } catch (RuntimeException | Error ignored) {
+            // A broken listener must not kill the only dispatcher thread
+        }
+    }
+
+    private static final class PendingNotification {
+        final NotificationService target;
+        final String message;
+
+        PendingNotification(NotificationService target, String message) {
+            this.target = target;
+            this.message = message;
+        }
+    }
+
+    private static final class ChannelBatch {
+        final List<PendingNotification> messages = new ArrayList<>();
+        long firstQueuedNanos;
+    }
+}
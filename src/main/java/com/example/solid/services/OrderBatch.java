@@ -0,0 +1,89 @@
+package com.example.solid.services;
+
+import com.example.solid.money.Money;
+
+/**
+ * Struct-of-arrays batch of orders for bulk repricing. Each column is a primitive array
+ * indexed by order position, so pricing a batch allocates nothing per order and the
+ * discount loops stream through contiguous memory. Reuse one batch with {@link #clear()}.
+ */
+public class OrderBatch {
+    private final long[] originalAmountsCents;
+    private final int[] discountIds;
+    private final long[] discountsCents;
+    private final long[] finalAmountsCents;
+    private int size;
+
+    public OrderBatch(int capacity) {
+        this.originalAmountsCents = new long[capacity];
+        this.discountIds = new int[capacity];
+        this.discountsCents = new long[capacity];
+        this.finalAmountsCents = new long[capacity];
+    }
+
+    /**
+     * Appends an order and returns its index. {@code discountId} indexes the calculator array passed to
+     * {@link OrderPricingService#applyDiscountBatch(OrderBatch, com.example.solid.interfaces.DiscountCalculator[])}.
+     */
+    public int add(long originalAmountCents, int discountId) {
+        if (size == originalAmountsCents.length) {
+            throw new IllegalStateException("Order batch is full (capacity " + originalAmountsCents.length + ")");
+        }
+        originalAmountsCents[size] = originalAmountCents;
+        discountIds[size] = discountId;
+        return size++;
+    }
+
+    public int add(double originalAmount, int discountId) {
+        return add(Money.toCents(originalAmount), discountId);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return originalAmountsCents.length;
+    }
+
+    public boolean isFull() {
+        return size == originalAmountsCents.length;
+    }
+
+    public long getOriginalAmountCents(int index) {
+        return originalAmountsCents[index];
+    }
+
+    public int getDiscountId(int index) {
+        return discountIds[index];
+    }
+
+    public long getDiscountCents(int index) {
+        return discountsCents[index];
+    }
+
+    public long getFinalAmountCents(int index) {
+        return finalAmountsCents[index];
+    }
+
+    // Raw columns for the pricing service; only the first size() entries are meaningful
+    long[] originalAmountsCents() {
+        return originalAmountsCents;
+    }
+
+    int[] discountIds() {
+        return discountIds;
+    }
+
+    long[] discountsCents() {
+        return discountsCents;
+    }
+
+    long[] finalAmountsCents() {
+        return finalAmountsCents;
+    }
+}
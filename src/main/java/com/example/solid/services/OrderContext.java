@@ -0,0 +1,171 @@
+package com.example.solid.services;
+
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.money.Money;
+
+/**
+ * Mutable, reusable state of one order for the allocation-free processing path: the request, then its pricing,
+ * payment outcome and notification text, each filled in place by the service that computes it.
+ * <p>
+ * A context is not thread-safe. The usual pattern is one per thread via {@link #current()}, reset for each order;
+ * everything in it, including {@link #getMessage()}, is only valid until the next {@link #reset}.
+ */
+public final class OrderContext {
+    private static final ThreadLocal<OrderContext> CURRENT = ThreadLocal.withInitial(OrderContext::new);
+
+    private final StringBuilder message = new StringBuilder(128);
+    private String orderId;
+    private String customerName;
+    private long orderAmountCents;
+    private DiscountCalculator discountCalculator;
+    private long originalAmountCents;
+    private long discountAppliedCents;
+    private long finalAmountCents;
+    private String discountLabel;
+    private String paymentMethod;
+    private boolean successful;
+    private boolean rejected;
+    private boolean replayed;
+
+    /**
+     * This thread's context.
+     */
+    public static OrderContext current() {
+        return CURRENT.get();
+    }
+
+    public OrderContext reset(String customerName, long orderAmountCents, DiscountCalculator discountCalculator) {
+        return reset(null, customerName, orderAmountCents, discountCalculator);
+    }
+
+    /**
+     * Starts a new order, clearing every result of the previous one.
+     *
+     * @param orderId client-chosen id that stays the same across retries of this order, or {@code null}
+     */
+    public OrderContext reset(String orderId, String customerName, long orderAmountCents,
+                              DiscountCalculator discountCalculator) {
+        this.orderId = orderId;
+        this.customerName = customerName;
+        this.orderAmountCents = orderAmountCents;
+        this.discountCalculator = discountCalculator;
+        this.originalAmountCents = 0;
+        this.discountAppliedCents = 0;
+        this.finalAmountCents = 0;
+        this.discountLabel = null;
+        this.paymentMethod = null;
+        this.successful = false;
+        this.rejected = false;
+        this.replayed = false;
+        message.setLength(0);
+        return this;
+    }
+
+    public void setPricing(long originalAmountCents, long discountAppliedCents, long finalAmountCents,
+                           String discountLabel) {
+        this.originalAmountCents = originalAmountCents;
+        this.discountAppliedCents = discountAppliedCents;
+        this.finalAmountCents = finalAmountCents;
+        this.discountLabel = discountLabel;
+    }
+
+    public void setPayment(String paymentMethod, boolean successful) {
+        setPayment(paymentMethod, successful, false);
+    }
+
+    /**
+     * @param replayed whether the outcome was answered from an idempotency store instead of charged
+     */
+    public void setPayment(String paymentMethod, boolean successful, boolean replayed) {
+        this.paymentMethod = paymentMethod;
+        this.successful = successful;
+        this.replayed = replayed;
+    }
+
+    /**
+     * Marks the payment as turned away without a decision; the order counts as {@linkplain #isRejected() rejected}.
+     */
+    public void setPaymentRejected(String paymentMethod) {
+        setPayment(paymentMethod, false);
+        this.rejected = true;
+    }
+
+    /**
+     * Marks the order as turned away before processing; it stays unpriced and unpaid.
+     */
+    public void setRejected(String paymentMethod, String label) {
+        setPricing(orderAmountCents, 0, orderAmountCents, label);
+        setPayment(paymentMethod, false);
+        this.rejected = true;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public long getOrderAmountCents() {
+        return orderAmountCents;
+    }
+
+    public DiscountCalculator getDiscountCalculator() {
+        return discountCalculator;
+    }
+
+    public long getOriginalAmountCents() {
+        return originalAmountCents;
+    }
+
+    public long getDiscountAppliedCents() {
+        return discountAppliedCents;
+    }
+
+    public long getFinalAmountCents() {
+        return finalAmountCents;
+    }
+
+    public double getFinalAmount() {
+        return Money.toAmount(finalAmountCents);
+    }
+
+    public String getDiscountLabel() {
+        return discountLabel;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    public boolean isReplayed() {
+        return replayed;
+    }
+
+    /**
+     * The notification text, rendered in place; copy it to keep it past the next order.
+     */
+    public StringBuilder getMessage() {
+        return message;
+    }
+
+    /**
+     * Snapshot of the pricing as an immutable value, for callers that need to keep it.
+     */
+    public OrderPricing toPricing() {
+        return OrderPricing.ofCents(originalAmountCents, discountAppliedCents, finalAmountCents, discountLabel);
+    }
+
+    public PaymentOutcome toPaymentOutcome() {
+        return new PaymentOutcome(paymentMethod, successful);
+    }
+}
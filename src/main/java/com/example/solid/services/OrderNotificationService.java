@@ -6,15 +6,75 @@ import com.example.solid.interfaces.NotificationService;
  * Builds and delivers customer-facing order status notifications.
  */
 public class OrderNotificationService {
+    public static final MessageTemplate DEFAULT_SUCCESS_TEMPLATE =
+        MessageTemplate.compile("Order processed successfully! Amount: ${amount}");
+    public static final MessageTemplate DEFAULT_DECLINED_TEMPLATE =
+        MessageTemplate.compile("Order failed! Payment of ${amount} was declined.");
+
+    private final NotificationDispatcher dispatcher;
+    private final MessageTemplate successTemplate;
+    private final MessageTemplate declinedTemplate;
+
+    public OrderNotificationService() {
+        this(null);
+    }
+
+    /**
+     * Routes notifications through {@code dispatcher} so they are coalesced into bulk submissions;
+     * {@code null} sends each one synchronously.
+     */
+    public OrderNotificationService(NotificationDispatcher dispatcher) {
+        this(dispatcher, DEFAULT_SUCCESS_TEMPLATE, DEFAULT_DECLINED_TEMPLATE);
+    }
+
+    public OrderNotificationService(NotificationDispatcher dispatcher, MessageTemplate successTemplate,
+                                    MessageTemplate declinedTemplate) {
+        this.dispatcher = dispatcher;
+        this.successTemplate = successTemplate;
+        this.declinedTemplate = declinedTemplate;
+    }
 
     public String composeMessage(PaymentOutcome paymentOutcome, OrderPricing pricing) {
-        if (paymentOutcome.isSuccessful()) {
-            return "Order processed successfully! Amount: $" + pricing.getFinalAmount();
+        return renderMessage(paymentOutcome, pricing).toString();
+    }
+
+    /**
+     * Allocation-free variant of {@link #composeMessage}: the message lives in a per-thread buffer
+     * that is reused by this thread's next render.
+     */
+    public CharSequence renderMessage(PaymentOutcome paymentOutcome, OrderPricing pricing) {
+        MessageTemplate template = paymentOutcome.isSuccessful() ? successTemplate : declinedTemplate;
+        return template.render(paymentOutcome, pricing);
+    }
+
+    /**
+     * Renders the context's notification into its own message buffer.
+     */
+    public CharSequence renderMessage(OrderContext context) {
+        MessageTemplate template = context.isSuccessful() ? successTemplate : declinedTemplate;
+        StringBuilder message = context.getMessage();
+        message.setLength(0);
+        return template.renderTo(message, context);
+    }
+
+    /**
+     * Sends to {@code recipient} instead of the channel's configured recipient. Addressed messages are delivered
+     * directly, because the dispatcher batches per channel instance and would merge different recipients.
+     */
+    public void send(NotificationService notificationService, String recipient, CharSequence message) {
+        if (recipient == null) {
+            send(notificationService, message);
+            return;
         }
-        return "Order failed! Payment of $" + pricing.getFinalAmount() + " was declined.";
+        notificationService.sendNotification(recipient, message);
     }
 
-    public void send(NotificationService notificationService, String message) {
+    public void send(NotificationService notificationService, CharSequence message) {
+        if (dispatcher != null) {
+            // Queued messages outlive the render buffer
+            dispatcher.submit(notificationService, message.toString());
+            return;
+        }
         notificationService.sendNotification(message);
     }
 }
@@ -1,14 +1,101 @@
 package com.example.solid.services;
 
 import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.interfaces.PaymentUnavailableException;
+import com.example.solid.money.Money;
+
+import java.util.Arrays;
 
 /**
- * Delegates payment processing to the selected payment processor.
+ * Delegates payment processing to the selected payment processor. A payment the processor turns away with
+ * {@link PaymentUnavailableException} comes back as a {@linkplain PaymentOutcome#isRejected() rejected} outcome.
  */
 public class OrderPaymentService {
+    private final IdempotencyStore idempotencyStore;
+
+    public OrderPaymentService() {
+        this(null);
+    }
+
+    /**
+     * Answers retried order ids from {@code idempotencyStore} instead of charging again;
+     * {@code null} charges on every call.
+     */
+    public OrderPaymentService(IdempotencyStore idempotencyStore) {
+        this.idempotencyStore = idempotencyStore;
+    }
 
     public PaymentOutcome processPayment(PaymentProcessor paymentProcessor, double amountToCharge) {
-        boolean success = paymentProcessor.processPayment(amountToCharge);
+        return processPaymentCents(paymentProcessor, Money.toCents(amountToCharge));
+    }
+
+    public PaymentOutcome processPaymentCents(PaymentProcessor paymentProcessor, long amountToChargeCents) {
+        try {
+            return charge(paymentProcessor, amountToChargeCents);
+        } catch (PaymentUnavailableException e) {
+            return PaymentOutcome.rejected(paymentProcessor.getPaymentMethod());
+        }
+    }
+
+    /**
+     * Charges the order at most once per {@code orderId}; a {@code null} id is always charged.
+     * A repeated id gets the remembered outcome, {@linkplain PaymentOutcome#isReplayed() marked as a replay}.
+     */
+    public PaymentOutcome processPaymentCents(String orderId, PaymentProcessor paymentProcessor, long amountToChargeCents) {
+        if (idempotencyStore == null || orderId == null) {
+            return processPaymentCents(paymentProcessor, amountToChargeCents);
+        }
+        // A rejection escapes the store as an exception, so it is forgotten and a retry is charged
+        try {
+            return idempotencyStore.execute(orderId, amountToChargeCents, () -> charge(paymentProcessor, amountToChargeCents));
+        } catch (PaymentUnavailableException e) {
+            return PaymentOutcome.rejected(paymentProcessor.getPaymentMethod());
+        }
+    }
+
+    /**
+     * Charges the context's final amount and records the outcome in place. Only an order id answered through the
+     * idempotency store allocates, for the stored outcome.
+     */
+    public void processPayment(OrderContext context, PaymentProcessor paymentProcessor) {
+        if (idempotencyStore != null && context.getOrderId() != null) {
+            PaymentOutcome outcome = processPaymentCents(context.getOrderId(), paymentProcessor, context.getFinalAmountCents());
+            if (outcome.isRejected()) {
+                context.setPaymentRejected(outcome.getPaymentMethod());
+            } else {
+                context.setPayment(outcome.getPaymentMethod(), outcome.isSuccessful(), outcome.isReplayed());
+            }
+            return;
+        }
+        try {
+            boolean success = paymentProcessor.processPaymentCents(context.getFinalAmountCents());
+            context.setPayment(paymentProcessor.getPaymentMethod(), success);
+        } catch (PaymentUnavailableException e) {
+            context.setPaymentRejected(paymentProcessor.getPaymentMethod());
+        }
+    }
+
+    /**
+     * Authorizes a batch of amounts with a single bulk call to the processor.
+     */
+    public PaymentOutcome[] processPaymentsCents(PaymentProcessor paymentProcessor, long[] amountsToChargeCents) {
+        PaymentOutcome[] outcomes = new PaymentOutcome[amountsToChargeCents.length];
+        boolean[] successes;
+        try {
+            successes = paymentProcessor.processPaymentsCents(amountsToChargeCents);
+        } catch (PaymentUnavailableException e) {
+            Arrays.fill(outcomes, PaymentOutcome.rejected(paymentProcessor.getPaymentMethod()));
+            return outcomes;
+        }
+        String paymentMethod = paymentProcessor.getPaymentMethod();
+        for (int i = 0; i < successes.length; i++) {
+            outcomes[i] = new PaymentOutcome(paymentMethod, successes[i]);
+        }
+        return outcomes;
+    }
+
+    private static PaymentOutcome charge(PaymentProcessor paymentProcessor, long amountToChargeCents) {
+        boolean success = paymentProcessor.processPaymentCents(amountToChargeCents);
         return new PaymentOutcome(paymentProcessor.getPaymentMethod(), success);
     }
 }
@@ -1,31 +1,57 @@
 package com.example.solid.services;
 
+import com.example.solid.money.Money;
+
 /**
  * Immutable representation of an order's pricing after discount application.
+ * Amounts are held exactly in cents; the decimal getters are derived from them.
  */
 public class OrderPricing {
-    private final double originalAmount;
-    private final double discountApplied;
-    private final double finalAmount;
+    private final long originalAmountCents;
+    private final long discountAppliedCents;
+    private final long finalAmountCents;
     private final String discountLabel;
 
+    /**
+     * Creates a pricing from decimal amounts, rounding each to the nearest cent.
+     */
     public OrderPricing(double originalAmount, double discountApplied, double finalAmount, String discountLabel) {
-        this.originalAmount = originalAmount;
-        this.discountApplied = discountApplied;
-        this.finalAmount = finalAmount;
+        this(Money.toCents(originalAmount), Money.toCents(discountApplied), Money.toCents(finalAmount), discountLabel);
+    }
+
+    private OrderPricing(long originalAmountCents, long discountAppliedCents, long finalAmountCents, String discountLabel) {
+        this.originalAmountCents = originalAmountCents;
+        this.discountAppliedCents = discountAppliedCents;
+        this.finalAmountCents = finalAmountCents;
         this.discountLabel = discountLabel;
     }
 
+    public static OrderPricing ofCents(long originalAmountCents, long discountAppliedCents, long finalAmountCents, String discountLabel) {
+        return new OrderPricing(originalAmountCents, discountAppliedCents, finalAmountCents, discountLabel);
+    }
+
     public double getOriginalAmount() {
-        return originalAmount;
+        return Money.toAmount(originalAmountCents);
     }
 
     public double getDiscountApplied() {
-        return discountApplied;
+        return Money.toAmount(discountAppliedCents);
     }
 
     public double getFinalAmount() {
-        return finalAmount;
+        return Money.toAmount(finalAmountCents);
+    }
+
+    public long getOriginalAmountCents() {
+        return originalAmountCents;
+    }
+
+    public long getDiscountAppliedCents() {
+        return discountAppliedCents;
+    }
+
+    public long getFinalAmountCents() {
+        return finalAmountCents;
     }
 
     public String getDiscountLabel() {
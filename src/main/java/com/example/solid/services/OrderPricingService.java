@@ -1,6 +1,7 @@
 package com.example.solid.services;
 
 import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.money.Money;
 
 /**
  * Applies discount strategies to compute final order pricing.
@@ -8,8 +9,61 @@ import com.example.solid.interfaces.DiscountCalculator;
 public class OrderPricingService {
 
     public OrderPricing applyDiscount(double orderAmount, DiscountCalculator discountCalculator) {
-        double discount = discountCalculator.calculateDiscount(orderAmount);
-        double finalAmount = orderAmount - discount;
-        return new OrderPricing(orderAmount, discount, finalAmount, discountCalculator.getDiscountType());
+        return applyDiscountCents(Money.toCents(orderAmount), discountCalculator);
+    }
+
+    public OrderPricing applyDiscountCents(long orderAmountCents, DiscountCalculator discountCalculator) {
+        long discountCents = discountCalculator.calculateDiscountCents(orderAmountCents);
+        long finalAmountCents = orderAmountCents - discountCents;
+        return OrderPricing.ofCents(orderAmountCents, discountCents, finalAmountCents, discountCalculator.getDiscountType());
+    }
+
+    /**
+     * Prices the context's order in place, allocating nothing.
+     */
+    public void applyDiscount(OrderContext context) {
+        long orderAmountCents = context.getOrderAmountCents();
+        DiscountCalculator discountCalculator = context.getDiscountCalculator();
+        long discountCents = discountCalculator.calculateDiscountCents(orderAmountCents);
+        context.setPricing(orderAmountCents, discountCents, orderAmountCents - discountCents,
+                           discountCalculator.getDiscountType());
+    }
+
+    /**
+     * Prices every order in the batch with the same discount strategy.
+     */
+    public void applyDiscountBatch(OrderBatch batch, DiscountCalculator discountCalculator) {
+        discountCalculator.calculateDiscountsCents(batch.originalAmountsCents(), batch.discountsCents(), 0, batch.size());
+        computeFinalAmounts(batch);
+    }
+
+    /**
+     * Prices every order in the batch with {@code discountsById[batch.getDiscountId(i)]}.
+     * Consecutive orders sharing a discount id are priced by one bulk call, so batches sorted
+     * or grouped by discount id get the longest tight loops.
+     */
+    public void applyDiscountBatch(OrderBatch batch, DiscountCalculator[] discountsById) {
+        int[] discountIds = batch.discountIds();
+        int size = batch.size();
+        int runStart = 0;
+        while (runStart < size) {
+            int discountId = discountIds[runStart];
+            int runEnd = runStart + 1;
+            while (runEnd < size && discountIds[runEnd] == discountId) {
+                runEnd++;
+            }
+            discountsById[discountId].calculateDiscountsCents(batch.originalAmountsCents(), batch.discountsCents(), runStart, runEnd);
+            runStart = runEnd;
+        }
+        computeFinalAmounts(batch);
+    }
+
+    private static void computeFinalAmounts(OrderBatch batch) {
+        long[] originals = batch.originalAmountsCents();
+        long[] discounts = batch.discountsCents();
+        long[] finals = batch.finalAmountsCents();
+        for (int i = 0, size = batch.size(); i < size; i++) {
+            finals[i] = originals[i] - discounts[i];
+        }
     }
 }
@@ -6,10 +6,32 @@ package com.example.solid.services;
 public class PaymentOutcome {
     private final String paymentMethod;
     private final boolean successful;
+    private final boolean rejected;
+    private final boolean replayed;
 
     public PaymentOutcome(String paymentMethod, boolean successful) {
+        this(paymentMethod, successful, false, false);
+    }
+
+    private PaymentOutcome(String paymentMethod, boolean successful, boolean rejected, boolean replayed) {
         this.paymentMethod = paymentMethod;
         this.successful = successful;
+        this.rejected = rejected;
+        this.replayed = replayed;
+    }
+
+    /**
+     * Outcome of a payment the processor turned away without a decision; it is unsuccessful but may be retried.
+     */
+    public static PaymentOutcome rejected(String paymentMethod) {
+        return new PaymentOutcome(paymentMethod, false, true, false);
+    }
+
+    /**
+     * The same outcome, marked as answered from an {@link IdempotencyStore} rather than charged by this call.
+     */
+    public PaymentOutcome asReplay() {
+        return replayed ? this : new PaymentOutcome(paymentMethod, successful, rejected, true);
     }
 
     public String getPaymentMethod() {
@@ -19,4 +41,18 @@ public class PaymentOutcome {
     public boolean isSuccessful() {
         return successful;
     }
+
+    /**
+     * Whether the payment was turned away without a decision rather than declined.
+     */
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    /**
+     * Whether this outcome repeats an earlier attempt of the same order id instead of a new charge.
+     */
+    public boolean isReplayed() {
+        return replayed;
+    }
 }
@@ -0,0 +1,114 @@
+package com.example.solid;
+
+import com.example.solid.concurrent.OrderExecutors;
+import com.example.solid.discounts.NoDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.NotificationService;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.services.OrderNotificationService;
+import com.example.solid.services.OrderPaymentService;
+import com.example.solid.services.OrderPricingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for the asynchronous order pipeline
+ * Run with: mvn test (needs JDK 21+ for virtual threads; skipped on older JDKs)
+ */
+public class AsyncOrderPipelineTest {
+    private static final int ORDERS = 2000;
+    private static final long PAYMENT_LATENCY_MILLIS = 200;
+    private static final long NOTIFICATION_LATENCY_MILLIS = 50;
+
+    @Test
+    @DisplayName("Async pipeline keeps thousands of slow orders in flight")
+    void testThousandsOfOrdersInFlight() throws Exception {
+        // Without virtual threads every order would pin its own platform thread
+        assumeTrue(OrderExecutors.virtualThreadsAvailable(), "Virtual threads are unavailable on this JDK");
+        System.out.println("🔍 Testing async pipeline with " + ORDERS + " slow orders on virtual threads");
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        // Every payment waits until all of them have started, so the batch only succeeds if all are in flight at once
+        CountDownLatch allPaymentsStarted = new CountDownLatch(ORDERS);
+
+        PaymentProcessor slowPayment = new PaymentProcessor() {
+            @Override
+            public boolean processPayment(double amount) {
+                int current = inFlight.incrementAndGet();
+                maxInFlight.accumulateAndGet(current, Math::max);
+                try {
+                    allPaymentsStarted.countDown();
+                    boolean allStarted = allPaymentsStarted.await(30, TimeUnit.SECONDS);
+                    sleep(PAYMENT_LATENCY_MILLIS);
+                    return allStarted;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+
+            @Override
+            public String getPaymentMethod() {
+                return "Slow Payment";
+            }
+        };
+
+        NotificationService slowNotification = new NotificationService() {
+            @Override
+            public void sendNotification(String message) {
+                sleep(NOTIFICATION_LATENCY_MILLIS);
+            }
+
+            @Override
+            public String getNotificationType() {
+                return "Slow Notification";
+            }
+        };
+
+        OrderProcessor processor = new OrderProcessor(slowPayment, slowNotification, new OrderPricingService(),
+                new OrderPaymentService(), new OrderNotificationService(), NoOpOrderEventSink.INSTANCE);
+        ExecutorService executor = OrderExecutors.newPerTaskExecutor();
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<OrderResult>> futures = new ArrayList<>();
+            for (int i = 0; i < ORDERS; i++) {
+                futures.add(processor.processOrderAsync(new OrderRequest("Customer " + i, 10.0 + i, new NoDiscount()), executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            for (CompletableFuture<OrderResult> future : futures) {
+                assertTrue(future.join().isSuccessful());
+            }
+            // Serially this batch would need ORDERS * 250ms = 500s
+            assertEquals(ORDERS, maxInFlight.get());
+            assertTrue(elapsedMillis < 30_000, "Batch took " + elapsedMillis + "ms");
+
+            System.out.println("✅ " + ORDERS + " orders completed in " + elapsedMillis + "ms, peak in-flight payments: " + maxInFlight.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.solid;
+
+import com.example.solid.discounts.FixedAmountDiscount;
+import com.example.solid.discounts.PercentageDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.interfaces.NotificationService;
+import com.example.solid.registry.StrategyRegistry;
+import com.example.solid.services.OrderNotificationService;
+import com.example.solid.services.OrderPricing;
+import com.example.solid.services.OrderPricingService;
+import com.example.solid.services.PaymentOutcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent stress test for the shared order engine and its strategy registry
+ * Run with: mvn test
+ */
+public class OrderEngineTest {
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 2000;
+
+    @Test
+    @DisplayName("One engine processes concurrent orders with per-call strategies exactly like dedicated processors")
+    void testConcurrentOrdersOnSharedEngine() throws Exception {
+        RecordingChannel channel = new RecordingChannel();
+        StrategyRegistry registry = StrategyRegistry.standardBuilder(NoOpOrderEventSink.INSTANCE)
+            .channel("recording", channel)
+            .build();
+        OrderEngine engine = new OrderEngine(registry);
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        Set<DiscountCalculator> interned = Collections.newSetFromMap(Collections.synchronizedMap(new IdentityHashMap<>()));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<List<OrderResult>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                List<OrderResult> results = new ArrayList<>(ORDERS_PER_THREAD);
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    interned.add(registry.percentage(12.5));
+                    results.add(engine.process(request(registry, thread, i), paymentMethod(i), "recording",
+                                               recipient(thread, i)));
+                }
+                return results;
+            }));
+        }
+
+        OrderPricingService pricingService = new OrderPricingService();
+        OrderNotificationService notificationService = new OrderNotificationService();
+        for (int t = 0; t < THREADS; t++) {
+            List<OrderResult> results = futures.get(t).get();
+            for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                OrderRequest request = request(registry, t, i);
+                OrderPricing expected = pricingService.applyDiscount(request.getOrderAmount(), freshDiscount(i));
+                OrderResult actual = results.get(i);
+                assertEquals(request.getCustomerName(), actual.getCustomerName());
+                assertEquals(expected.getFinalAmountCents(), actual.getPricing().getFinalAmountCents());
+                assertEquals(expected.getDiscountLabel(), actual.getPricing().getDiscountLabel());
+
+                long limitCents = paymentMethod(i).equals(StrategyRegistry.PAYPAL) ? 500_000 : 1_000_000;
+                boolean expectedSuccess = expected.getFinalAmountCents() > 0 && expected.getFinalAmountCents() <= limitCents;
+                assertEquals(expectedSuccess, actual.isSuccessful());
+
+                PaymentOutcome outcome = actual.getPaymentOutcome();
+                assertEquals(notificationService.composeMessage(outcome, expected), channel.messages.get(recipient(t, i)));
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(THREADS * ORDERS_PER_THREAD, channel.messages.size());
+        assertEquals(1, interned.size(), "Concurrent lookups of one rate must share an instance");
+        assertSame(registry.percentage(15), registry.percentage(15.0));
+        assertSame(registry.fixedAmount(20), registry.fixedAmount(20.00));
+        assertThrows(IllegalArgumentException.class, () -> engine.process(request(registry, 0, 0), "bitcoin", "email", null));
+        System.out.println("✅ Shared engine processed " + channel.messages.size() + " concurrent orders on "
+                           + THREADS + " threads");
+    }
+
+    private static OrderRequest request(StrategyRegistry registry, int thread, int i) {
+        double amount = 10 + (thread * 7919L + i * 37L) % 9000 + (i % 100) / 100.0;
+        DiscountCalculator discount = i % 2 == 0 ? registry.percentage(i % 30) : registry.fixedAmount(i % 50);
+        return new OrderRequest("Customer " + thread + "-" + i, amount, discount);
+    }
+
+    private static DiscountCalculator freshDiscount(int i) {
+        return i % 2 == 0 ? new PercentageDiscount(i % 30) : new FixedAmountDiscount(i % 50);
+    }
+
+    private static String paymentMethod(int i) {
+        return i % 3 == 0 ? StrategyRegistry.PAYPAL : StrategyRegistry.CREDIT_CARD;
+    }
+
+    private static String recipient(int thread, int i) {
+        return "customer-" + thread + "-" + i + "@example.com";
+    }
+
+    private static class RecordingChannel implements NotificationService {
+        private final Map<String, String> messages = new ConcurrentHashMap<>();
+
+        @Override
+        public void sendNotification(String message) {
+            sendNotification("default", message);
+        }
+
+        @Override
+        public void sendNotification(String recipient, CharSequence message) {
+            assertNull(messages.put(recipient, message.toString()), "Duplicate notification for " + recipient);
+        }
+
+        @Override
+        public String getNotificationType() {
+            return "Recording";
+        }
+    }
+}
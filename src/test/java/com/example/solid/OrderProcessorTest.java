@@ -0,0 +1,124 @@
+package com.example.solid;
+
+import com.example.solid.discounts.NoDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.money.Money;
+import com.example.solid.notifications.EmailNotification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for parallel batch processing of orders
+ * Run with: mvn test
+ */
+public class OrderProcessorTest {
+    private static final int ORDERS = 500;
+
+    @Test
+    @DisplayName("Batch results come back in request order for any parallelism")
+    void testResultOrder() {
+        ConcurrencyTrackingProcessor payments = new ConcurrencyTrackingProcessor(-1);
+        OrderProcessor processor = processor(payments);
+        List<OrderRequest> requests = requests();
+        for (int parallelism : new int[] {1, 2, 3, Runtime.getRuntime().availableProcessors() + 4}) {
+            List<OrderResult> results = processor.processOrders(requests, parallelism);
+            assertEquals(ORDERS, results.size());
+            for (int i = 0; i < ORDERS; i++) {
+                assertEquals(requests.get(i).getCustomerName(), results.get(i).getCustomerName(), "Parallelism " + parallelism);
+                assertEquals(Money.toCents(i + 1), results.get(i).getPricing().getFinalAmountCents());
+            }
+        }
+        assertEquals(requests.get(7).getCustomerName(), processor.processOrders(requests).get(7).getCustomerName());
+
+        System.out.println("✅ Batch results keep request order");
+    }
+
+    @Test
+    @DisplayName("The requested parallelism is both reached and not exceeded, even above the core count")
+    void testParallelismBound() {
+        // Batches are cut into slices of 16 orders, so there must be at least one slice per worker
+        int aboveCores = Math.min(ForkJoinPool.getCommonPoolParallelism() + 4, ORDERS / 16);
+        for (int parallelism : new int[] {2, aboveCores}) {
+            ConcurrencyTrackingProcessor payments = new ConcurrencyTrackingProcessor(-1);
+            processor(payments).processOrders(requests(), parallelism);
+            assertEquals(parallelism, payments.maxConcurrent.get(), "Peak concurrent payments at parallelism " + parallelism);
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> processor(new ConcurrencyTrackingProcessor(-1)).processOrders(requests(), 0));
+
+        System.out.println("✅ Parallelism 2 and " + aboveCores + " ran exactly that many payments at once");
+    }
+
+    @Test
+    @DisplayName("A failing order fails the whole batch with its exception")
+    void testFailurePropagates() {
+        OrderProcessor processor = processor(new ConcurrencyTrackingProcessor(Money.toCents(321)));
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+            () -> processor.processOrders(requests(), 4));
+        assertTrue(String.valueOf(failure.getMessage()).contains("Gateway rejected")
+                   || String.valueOf(failure.getCause()).contains("Gateway rejected"), String.valueOf(failure));
+        assertThrows(IllegalStateException.class, () -> processor.processOrders(requests(), 1));
+
+        System.out.println("✅ Failing orders propagate out of the batch");
+    }
+
+    private static OrderProcessor processor(PaymentProcessor payments) {
+        return OrderProcessor.builder(payments, new EmailNotification("batch@example.com", NoOpOrderEventSink.INSTANCE))
+            .eventSink(NoOpOrderEventSink.INSTANCE)
+            .build();
+    }
+
+    private static List<OrderRequest> requests() {
+        List<OrderRequest> requests = new ArrayList<>(ORDERS);
+        for (int i = 0; i < ORDERS; i++) {
+            requests.add(new OrderRequest("Customer " + i, i + 1, new NoDiscount()));
+        }
+        return requests;
+    }
+
+    // Records the peak number of overlapping payments, and throws for one amount if asked to
+    private static final class ConcurrencyTrackingProcessor implements PaymentProcessor {
+        private final long failingAmountCents;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        ConcurrencyTrackingProcessor(long failingAmountCents) {
+            this.failingAmountCents = failingAmountCents;
+        }
+
+        @Override
+        public boolean processPayment(double amount) {
+            return processPaymentCents(Money.toCents(amount));
+        }
+
+        @Override
+        public boolean processPaymentCents(long amountCents) {
+            if (amountCents == failingAmountCents) {
+                throw new IllegalStateException("Gateway rejected " + amountCents);
+            }
+            int now = active.incrementAndGet();
+            maxConcurrent.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            return true;
+        }
+
+        @Override
+        public String getPaymentMethod() {
+            return "Tracking";
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.solid.admission;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.OrderRequest;
+import com.example.solid.OrderResult;
+import com.example.solid.discounts.NoDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.notifications.EmailNotification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for token-bucket admission control
+ * Run with: mvn test
+ */
+public class AdmissionControllerTest {
+
+    @Test
+    @DisplayName("A customer over their limit is rejected before payment while other customers are admitted")
+    void testPerCustomerRejection() {
+        AtomicInteger charges = new AtomicInteger();
+        PaymentProcessor payment = new PaymentProcessor() {
+            @Override
+            public boolean processPayment(double amount) {
+                charges.incrementAndGet();
+                return true;
+            }
+
+            @Override
+            public String getPaymentMethod() {
+                return "Counting Gateway";
+            }
+        };
+        AdmissionController admission = AdmissionController.builder().customerLimit(0.1, 3).build();
+        OrderProcessor processor = OrderProcessor.builder(payment,
+                new EmailNotification("flash@example.com", NoOpOrderEventSink.INSTANCE))
+            .eventSink(NoOpOrderEventSink.INSTANCE)
+            .admissionController(admission)
+            .build();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(processor.processOrder(new OrderRequest("Alice", 25.0, new NoDiscount())).isSuccessful());
+        }
+        OrderResult rejected = processor.processOrder(new OrderRequest("Alice", 25.0, new NoDiscount()));
+        assertTrue(rejected.isRejected());
+        assertFalse(rejected.isSuccessful());
+        assertEquals(OrderResult.NOT_ADMITTED, rejected.getPricing().getDiscountLabel());
+        assertEquals(3, charges.get(), "A rejected order must not reach the payment processor");
+
+        assertTrue(processor.processOrder(new OrderRequest("Bob", 25.0, new NoDiscount())).isSuccessful());
+        assertTrue(processor.processOrderAsync(new OrderRequest("Alice", 25.0, new NoDiscount())).join().isRejected());
+        assertEquals(4, admission.getAdmittedCount());
+        assertEquals(2, admission.getRejectedCount());
+        System.out.println("✅ Fourth order in a burst was shed before payment");
+    }
+
+    @Test
+    @DisplayName("Queue mode delays orders up to the maximum wait and rejects those that would wait longer")
+    void testBoundedQueueing() {
+        AdmissionController admission = AdmissionController.builder()
+            .paymentMethodLimit(100, 1)
+            .queue(35, TimeUnit.MILLISECONDS)
+            .build();
+
+        long start = System.nanoTime();
+        int admitted = 0;
+        for (int i = 0; i < 10; i++) {
+            long wait = admission.reserve("Card", null);
+            if (wait != TokenBucket.REJECTED) {
+                assertTrue(wait <= TimeUnit.MILLISECONDS.toNanos(35));
+                admitted++;
+            }
+        }
+        // One token now plus three intervals of 10ms borrowed within the 35ms wait
+        assertEquals(4, admitted, "Reservations issued within " + (System.nanoTime() - start) + "ns");
+        assertEquals(3, admission.getDelayedCount());
+
+        AdmissionController queued = AdmissionController.builder()
+            .paymentMethodLimit(200, 1)
+            .queue(1, TimeUnit.SECONDS)
+            .build();
+        start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(queued.acquire("Card", "Carol"));
+        }
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(15), "Queued orders were not paced");
+        assertEquals(0, queued.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("Concurrent callers never admit more than the bucket's burst")
+    void testConcurrentAdmissionIsExact() throws Exception {
+        int threads = 8;
+        AdmissionController admission = AdmissionController.builder().paymentMethodLimit(0.001, 50).build();
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                int admitted = 0;
+                for (int i = 0; i < 1000; i++) {
+                    if (admission.acquire("Card", null)) {
+                        admitted++;
+                    }
+                }
+                return admitted;
+            }));
+        }
+        int admitted = 0;
+        for (Future<Integer> future : futures) {
+            admitted += future.get();
+        }
+        pool.shutdown();
+        assertEquals(50, admitted);
+        assertEquals(threads * 1000 - 50, admission.getRejectedCount());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.solid.discounts;
+
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for composite discount chains
+ * Run with: mvn test
+ */
+public class CompositeDiscountTest {
+
+    @Test
+    @DisplayName("Sequential steps each discount what the previous steps left")
+    void testSequential() {
+        CompositeDiscount discount = CompositeDiscount.sequential()
+            .then(new PercentageDiscount(10))
+            .then(new FixedAmountDiscount(5))
+            .build();
+
+        // 10% of $100, then $5 off the remaining $90
+        assertEquals(1_500, discount.calculateDiscountCents(10_000));
+        // The fixed step never takes more than what is left
+        assertEquals(400, discount.calculateDiscountCents(400));
+        assertEquals("10.0% Discount + $5.0 Off", discount.getDiscountType());
+
+        System.out.println("✅ Sequential chains stack their steps");
+    }
+
+    @Test
+    @DisplayName("Best-of applies only the largest step, each measured on the full price")
+    void testBestOf() {
+        CompositeDiscount discount = CompositeDiscount.bestOf()
+            .then(new PercentageDiscount(10))
+            .then(new FixedAmountDiscount(15))
+            .then(new NoDiscount())
+            .build();
+
+        assertEquals(1_500, discount.calculateDiscountCents(10_000));
+        assertEquals(3_000, discount.calculateDiscountCents(30_000));
+        assertEquals(1_000, discount.calculateDiscountCents(1_000));
+
+        System.out.println("✅ Best-of chains pick the largest discount");
+    }
+
+    @Test
+    @DisplayName("A cap limits the combined discount and a floor limits the final price")
+    void testCapAndFloor() {
+        CompositeDiscount capped = CompositeDiscount.sequential()
+            .then(new PercentageDiscount(50))
+            .cappedAt(20.0)
+            .build();
+        assertEquals(1_000, capped.calculateDiscountCents(2_000));
+        assertEquals(2_000, capped.calculateDiscountCents(10_000));
+
+        CompositeDiscount floored = CompositeDiscount.sequential()
+            .then(new FixedAmountDiscount(30))
+            .withFloor(20.0)
+            .build();
+        assertEquals(3_000, floored.calculateDiscountCents(10_000));
+        assertEquals(1_000, floored.calculateDiscountCents(3_000));
+        assertEquals(0, floored.calculateDiscountCents(1_500), "Prices already under the floor keep their price");
+
+        // A capped chain nested in another keeps its cap instead of being flattened away
+        CompositeDiscount nested = CompositeDiscount.sequential()
+            .then(capped)
+            .then(new FixedAmountDiscount(1))
+            .build();
+        assertEquals(2_100, nested.calculateDiscountCents(10_000));
+
+        System.out.println("✅ Caps and floors bound the discount");
+    }
+
+    @Test
+    @DisplayName("Subclasses of the inlined discounts are evaluated through their own methods")
+    void testSubclassesAreNotInlined() {
+        DiscountCalculator bogo = new BuyOneGetOneDiscount();
+        CompositeDiscount withBogo = CompositeDiscount.sequential()
+            .then(bogo)
+            .then(new FixedAmountDiscount(5))
+            .build();
+        assertEquals(bogo.calculateDiscountCents(10_000) + 500, withBogo.calculateDiscountCents(10_000));
+        assertEquals("Buy One Get One Free + $5.0 Off", withBogo.getDiscountType());
+
+        // Same parameters as a plain 10% step, but the override must win
+        PercentageDiscount memberRate = new PercentageDiscount(10) {
+            @Override
+            public long calculateDiscountCents(long originalPriceCents) {
+                return Money.percentOf(originalPriceCents, getBasisPoints() * 2, getRoundingMode());
+            }
+        };
+        FixedAmountDiscount doubledFixed = new FixedAmountDiscount(5) {
+            @Override
+            public long calculateDiscountCents(long originalPriceCents) {
+                return Math.min(getDiscountCents() * 2, originalPriceCents);
+            }
+        };
+        NoDiscount loyaltyCent = new NoDiscount() {
+            @Override
+            public long calculateDiscountCents(long originalPriceCents) {
+                return Math.min(1, originalPriceCents);
+            }
+        };
+        assertEquals(2_000, CompositeDiscount.sequential().then(memberRate).build().calculateDiscountCents(10_000));
+        assertEquals(1_000, CompositeDiscount.sequential().then(doubledFixed).build().calculateDiscountCents(10_000));
+        assertEquals(1, CompositeDiscount.bestOf().then(loyaltyCent).build().calculateDiscountCents(10_000));
+
+        System.out.println("✅ Subclass overrides survive compilation of the chain");
+    }
+}
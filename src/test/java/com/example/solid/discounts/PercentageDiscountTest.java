@@ -0,0 +1,59 @@
+package com.example.solid.discounts;
+
+import com.example.solid.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the batch path of percentage discounts
+ * Run with: mvn test
+ */
+public class PercentageDiscountTest {
+    private static final double[] PERCENTAGES = {0, 0.01, 10, 12.5, 33.33, 50, 99.99, 100, -5};
+    private static final RoundingMode[] MODES = {RoundingMode.HALF_EVEN, RoundingMode.HALF_UP, RoundingMode.UP};
+
+    @Test
+    @DisplayName("Batch discounts equal the scalar discount element by element, including large and negative prices")
+    void testBatchMatchesScalar() {
+        Random random = new Random(42);
+        for (double percentage : PERCENTAGES) {
+            for (RoundingMode mode : MODES) {
+                PercentageDiscount discount = new PercentageDiscount(percentage, mode);
+                long rate = Math.max(1, Math.abs(discount.getBasisPoints()));
+                // The last price that fits in a long once multiplied by the rate, and its neighbours
+                long largest = Long.MAX_VALUE / rate;
+                long[] prices = {0, 1, 5_000, 12_345, -1, -5_000, -12_345, largest, largest - 1,
+                                 largest - Money.BASIS_POINTS_PER_UNIT, -largest, random.nextLong() / rate,
+                                 random.nextInt(), -Math.abs((long) random.nextInt())};
+                long[] batch = new long[prices.length];
+                discount.calculateDiscountsCents(prices, batch, 0, prices.length);
+                for (int i = 0; i < prices.length; i++) {
+                    assertEquals(discount.calculateDiscountCents(prices[i]), batch[i],
+                                 percentage + "% " + mode + " of " + prices[i]);
+                }
+            }
+        }
+
+        System.out.println("✅ Batch discounts match the scalar path");
+    }
+
+    @Test
+    @DisplayName("A price whose discount overflows fails in the batch as it does alone")
+    void testBatchOverflowFails() {
+        for (RoundingMode mode : MODES) {
+            PercentageDiscount discount = new PercentageDiscount(12.5, mode);
+            long tooLarge = Long.MAX_VALUE / discount.getBasisPoints() + 1;
+            assertThrows(ArithmeticException.class, () -> discount.calculateDiscountCents(tooLarge));
+            long[] prices = {1_000, tooLarge};
+            assertThrows(ArithmeticException.class,
+                         () -> discount.calculateDiscountsCents(prices, new long[prices.length], 0, prices.length));
+        }
+
+        System.out.println("✅ Overflowing batch prices are rejected, not wrapped");
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.solid.discounts;
+
+import com.example.solid.discounts.PromotionCatalog.Promotion;
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.services.OrderPricing;
+import com.example.solid.services.OrderPricingService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the indexed promotion catalog
+ * Run with: mvn test
+ */
+public class PromotionCatalogTest {
+
+    @Test
+    @DisplayName("The indexed best discount equals a linear scan of every promotion")
+    void testMatchesLinearScan() {
+        Random random = new Random(42);
+        List<Promotion> promotions = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            promotions.add(randomPromotion("promo-" + i, random));
+        }
+        PromotionCatalog catalog = new PromotionCatalog();
+        catalog.replaceAll(promotions);
+
+        long[] amounts = new long[5_000];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = random.nextInt(60_000);
+        }
+        long[] batch = new long[amounts.length];
+        catalog.calculateDiscountsCents(amounts, batch, 0, amounts.length);
+        for (int i = 0; i < amounts.length; i++) {
+            long expected = linearBest(promotions, amounts[i]);
+            assertEquals(expected, catalog.calculateDiscountCents(amounts[i]), "Amount " + amounts[i]);
+            assertEquals(expected, batch[i], "Batch amount " + amounts[i]);
+            long amount = amounts[i];
+            Promotion winner = catalog.findBest(amount);
+            if (promotions.stream().noneMatch(promotion -> promotion.appliesTo(amount))) {
+                assertNull(winner, "Amount " + amount);
+            } else {
+                assertNotNull(winner, "Amount " + amount);
+                assertTrue(winner.appliesTo(amount), winner.getId() + " does not apply to " + amount);
+                assertEquals(expected, winner.getDiscount().calculateDiscountCents(amount),
+                             winner.getId() + " is not a best promotion for " + amount);
+            }
+        }
+        // Bounds are inclusive at the minimum and exclusive at the maximum
+        PromotionCatalog bounded = new PromotionCatalog();
+        bounded.put(new Promotion("spring", new FixedAmountDiscount(5), 50.0, 100.0));
+        assertEquals(0, bounded.calculateDiscountCents(4_999));
+        assertEquals(500, bounded.calculateDiscountCents(5_000));
+        assertEquals(500, bounded.calculateDiscountCents(9_999));
+        assertEquals(0, bounded.calculateDiscountCents(10_000));
+        assertNull(bounded.findBest(10_000));
+
+        System.out.println("✅ Indexed lookups match a linear scan over 2,000 promotions");
+    }
+
+    @Test
+    @DisplayName("Staggered overlapping promotions that cannot be ranked still match a linear scan")
+    void testStaggeredUnrankedPromotions() {
+        List<Promotion> promotions = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            DiscountCalculator discount = i % 2 == 0
+                ? new BuyOneGetOneDiscount()
+                : CompositeDiscount.sequential()
+                    .then(new PercentageDiscount(1 + i % 30))
+                    .then(new FixedAmountDiscount(i % 7))
+                    .build();
+            promotions.add(new Promotion("staggered-" + i, discount, i, i + 500));
+        }
+        PromotionCatalog catalog = new PromotionCatalog();
+        catalog.replaceAll(promotions);
+
+        for (long amount = 0; amount < 160_000; amount += 37) {
+            long expected = linearBest(promotions, amount);
+            assertEquals(expected, catalog.calculateDiscountCents(amount), "Amount " + amount);
+            Promotion winner = catalog.findBest(amount);
+            if (winner != null) {
+                assertTrue(winner.appliesTo(amount), winner.getId() + " does not apply to " + amount);
+                assertEquals(expected, winner.getDiscount().calculateDiscountCents(amount));
+            }
+        }
+
+        System.out.println("✅ 1,000 staggered unranked promotions match a linear scan");
+    }
+
+    @Test
+    @DisplayName("The catalog prices orders and reports the winning promotion")
+    void testPricingAndWinner() {
+        PromotionCatalog catalog = new PromotionCatalog("Spring Sale");
+        catalog.put(new Promotion("ten-percent", new PercentageDiscount(10), 0.0));
+        catalog.put(new Promotion("twenty-off-big", new FixedAmountDiscount(20), 150.0));
+        catalog.put(new Promotion("also-ten-percent", new PercentageDiscount(10), 0.0));
+
+        OrderPricing small = new OrderPricingService().applyDiscount(100.0, catalog);
+        assertEquals(1_000, small.getDiscountAppliedCents());
+        assertEquals("Spring Sale", small.getDiscountLabel());
+        assertEquals("ten-percent", catalog.findBest(10_000).getId(), "Equal promotions tie in favour of the first added");
+        assertEquals("twenty-off-big", catalog.findBest(16_000).getId());
+        assertEquals("ten-percent", catalog.findBest(25_000).getId());
+
+        assertTrue(catalog.remove("ten-percent"));
+        assertFalse(catalog.remove("ten-percent"));
+        assertEquals("also-ten-percent", catalog.findBest(10_000).getId());
+
+        System.out.println("✅ Catalog picks and reports the best promotion");
+    }
+
+    @Test
+    @DisplayName("Readers always see a complete catalog while promotions change")
+    void testCopyOnWriteUpdates() throws Exception {
+        PromotionCatalog catalog = new PromotionCatalog();
+        // Every version offers exactly one of these, so a reader must see 10% or $15 off, never both or neither
+        catalog.put(new Promotion("current", new PercentageDiscount(10), 0.0));
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                results.add(readers.submit(() -> {
+                    long reads = 0;
+                    while (running.get()) {
+                        long discount = catalog.calculateDiscountCents(10_000);
+                        assertTrue(discount == 1_000 || discount == 1_500, "Saw discount " + discount);
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            for (int i = 0; i < 2_000; i++) {
+                DiscountCalculator next = i % 2 == 0 ? new FixedAmountDiscount(15) : new PercentageDiscount(10);
+                List<Promotion> version = new ArrayList<>();
+                version.add(new Promotion("current", next, 0.0));
+                version.add(new Promotion("unrelated-" + i, new PercentageDiscount(50), 500.0));
+                catalog.replaceAll(version);
+            }
+            running.set(false);
+            for (Future<Long> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS) > 0);
+            }
+        } finally {
+            readers.shutdownNow();
+        }
+
+        System.out.println("✅ Copy-on-write updates never expose a partial catalog");
+    }
+
+    private static Promotion randomPromotion(String id, Random random) {
+        DiscountCalculator discount;
+        switch (random.nextInt(4)) {
+            case 0:
+                discount = new PercentageDiscount(1 + random.nextInt(40));
+                break;
+            case 1:
+                discount = new FixedAmountDiscount(1 + random.nextInt(100));
+                break;
+            case 2:
+                discount = new PercentageDiscount(0.5 + random.nextInt(30), RoundingMode.UP);
+                break;
+            default:
+                discount = CompositeDiscount.sequential()
+                    .then(new PercentageDiscount(5 + random.nextInt(10)))
+                    .then(new FixedAmountDiscount(random.nextInt(20)))
+                    .build();
+                break;
+        }
+        double min = random.nextInt(50_000) / 100.0;
+        return random.nextBoolean()
+            ? new Promotion(id, discount, min)
+            : new Promotion(id, discount, min, min + 0.01 + random.nextInt(20_000) / 100.0);
+    }
+
+    private static long linearBest(List<Promotion> promotions, long amountCents) {
+        long best = 0;
+        for (Promotion promotion : promotions) {
+            if (promotion.appliesTo(amountCents)) {
+                best = Math.max(best, promotion.getDiscount().calculateDiscountCents(amountCents));
+            }
+        }
+        return best;
+    }
+}
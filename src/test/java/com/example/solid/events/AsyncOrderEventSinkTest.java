@@ -0,0 +1,43 @@
+package com.example.solid.events;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ring-buffer event sink
+ * Run with: mvn test
+ */
+public class AsyncOrderEventSinkTest {
+
+    @Test
+    @DisplayName("Events published before close are written and later ones are discarded without blocking")
+    void testPublishAfterCloseReturns() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        AsyncOrderEventSink sink = new AsyncOrderEventSink(new PrintStream(bytes, true, StandardCharsets.UTF_8), 8);
+        sink.orderReceived("Before Close");
+        sink.close();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 100; i++) {
+                sink.orderReceived("After Close");
+                sink.pricingComputed(100.0, 10.0, 90.0, "10% off");
+                sink.paymentAttempted("Credit Card", 90.0);
+                sink.paymentCompleted("Credit Card", true);
+                sink.notificationSent("EMAIL", "after@example.com", "Paid");
+            }
+            sink.flush();
+        });
+
+        String written = bytes.toString(StandardCharsets.UTF_8);
+        assertTrue(written.contains("Before Close"), written);
+        assertFalse(written.contains("After Close"), written);
+        System.out.println("✅ A closed sink discards events instead of blocking producers");
+    }
+}
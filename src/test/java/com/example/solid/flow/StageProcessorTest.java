@@ -0,0 +1,221 @@
+package com.example.solid.flow;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.OrderRequest;
+import com.example.solid.OrderResult;
+import com.example.solid.discounts.PercentageDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.notifications.EmailNotification;
+import com.example.solid.payment.CreditCardProcessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Flow-based order pipeline
+ * Run with: mvn test
+ */
+public class StageProcessorTest {
+
+    @Test
+    @DisplayName("Streamed orders produce the same results as direct processing, in arrival order")
+    void testStreamMatchesDirectProcessing() throws Exception {
+        OrderProcessor processor = processor(new CreditCardProcessor(NoOpOrderEventSink.INSTANCE));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            OrderFlowSettings settings = OrderFlowSettings.builder()
+                .pricing(2, 16).payment(8, 32).notification(4, 16).executor(executor).build();
+            Collector collector = new Collector(Long.MAX_VALUE);
+            try (SubmissionPublisher<OrderRequest> source = new SubmissionPublisher<>(executor, 8)) {
+                processor.processOrderStream(source, settings).subscribe(collector);
+                for (int i = 0; i < 500; i++) {
+                    // Blocks while the pipeline is full
+                    source.submit(order(i));
+                }
+            }
+            collector.done.get(10, TimeUnit.SECONDS);
+
+            assertEquals(500, collector.results.size());
+            for (int i = 0; i < 500; i++) {
+                OrderResult expected = processor.processOrder(order(i));
+                OrderResult actual = collector.results.get(i);
+                assertEquals(expected.getCustomerName(), actual.getCustomerName(), "Results must keep arrival order");
+                assertEquals(expected.getPricing().getFinalAmountCents(), actual.getPricing().getFinalAmountCents());
+                assertEquals(expected.isSuccessful(), actual.isSuccessful());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.println("✅ Streamed results match direct processing");
+    }
+
+    @Test
+    @DisplayName("The source is asked for exactly what the final subscriber requests")
+    void testDemandPropagatesToSource() throws Exception {
+        OrderProcessor processor = processor(new CreditCardProcessor(NoOpOrderEventSink.INSTANCE));
+        CountingSource source = new CountingSource(1_000);
+        Collector collector = new Collector(10);
+        processor.processOrderStream(source, OrderFlowSettings.defaults()).subscribe(collector);
+
+        awaitCount(collector, 10);
+        Thread.sleep(100);
+        assertEquals(10, collector.results.size());
+        assertEquals(10, source.requested.get(), "No stage may prefetch beyond downstream demand");
+
+        collector.subscription.request(5);
+        awaitCount(collector, 15);
+        Thread.sleep(100);
+        assertEquals(15, source.requested.get());
+
+        collector.subscription.cancel();
+        Thread.sleep(100);
+        assertTrue(source.cancelled, "Cancelling the results must cancel the source");
+
+        System.out.println("✅ Demand propagates end to end");
+    }
+
+    @Test
+    @DisplayName("A slow payment stage is bounded by its concurrency and the pipeline by its buffers")
+    void testConcurrencyAndBufferBounds() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        PaymentProcessor slowGateway = new PaymentProcessor() {
+            @Override
+            public boolean processPayment(double amount) {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(2);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    active.decrementAndGet();
+                }
+                return true;
+            }
+
+            @Override
+            public String getPaymentMethod() {
+                return "Slow Gateway";
+            }
+        };
+        OrderProcessor processor = processor(slowGateway);
+        OrderFlowSettings settings = OrderFlowSettings.builder().pricing(2, 8).payment(4, 8).notification(2, 8).build();
+        CountingSource source = new CountingSource(200);
+        AtomicLong maxHeld = new AtomicLong();
+        Collector collector = new Collector(Long.MAX_VALUE) {
+            @Override
+            public void onNext(OrderResult item) {
+                maxHeld.accumulateAndGet(source.requested.get() - results.size(), Math::max);
+                super.onNext(item);
+            }
+        };
+        processor.processOrderStream(source, settings).subscribe(collector);
+        collector.done.get(10, TimeUnit.SECONDS);
+
+        assertEquals(200, collector.results.size());
+        assertTrue(maxActive.get() <= 4, "Payment ran " + maxActive.get() + " calls at once");
+        assertTrue(maxActive.get() > 1, "Payment calls should overlap");
+        assertTrue(maxHeld.get() <= 24, "Pipeline held " + maxHeld.get() + " orders");
+
+        System.out.println("✅ Stage concurrency and buffers bound the pipeline");
+    }
+
+    private static OrderProcessor processor(PaymentProcessor paymentProcessor) {
+        return OrderProcessor.builder(paymentProcessor, new EmailNotification("stream@example.com", NoOpOrderEventSink.INSTANCE))
+            .eventSink(NoOpOrderEventSink.INSTANCE)
+            .build();
+    }
+
+    private static OrderRequest order(int i) {
+        return new OrderRequest("Customer " + i, 10.0 + i, new PercentageDiscount(5));
+    }
+
+    private static void awaitCount(Collector collector, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (collector.results.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static class Collector implements Flow.Subscriber<OrderResult> {
+        final List<OrderResult> results = new CopyOnWriteArrayList<>();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final long initialRequest;
+        volatile Flow.Subscription subscription;
+
+        Collector(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(OrderResult item) {
+            results.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(null);
+        }
+    }
+
+    // Emits synchronously on request and counts everything asked of it
+    private static final class CountingSource implements Flow.Publisher<OrderRequest> {
+        final AtomicLong requested = new AtomicLong();
+        private final int total;
+        volatile boolean cancelled;
+
+        CountingSource(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super OrderRequest> subscriber) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private int sent;
+                private boolean completed;
+
+                @Override
+                public synchronized void request(long n) {
+                    requested.addAndGet(n);
+                    for (long i = 0; i < n && sent < total && !cancelled; i++) {
+                        subscriber.onNext(order(sent++));
+                    }
+                    if (sent == total && !cancelled && !completed) {
+                        completed = true;
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+    }
+}
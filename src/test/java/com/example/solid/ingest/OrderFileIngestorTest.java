@@ -0,0 +1,119 @@
+package com.example.solid.ingest;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.notifications.EmailNotification;
+import com.example.solid.payment.PayPalProcessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for headless order file ingestion
+ * Run with: mvn test
+ */
+public class OrderFileIngestorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("CSV and binary inputs produce the same results across small mapping windows")
+    void testCsvAndBinaryIngestion() throws Exception {
+        Path csv = tempDir.resolve("orders.csv");
+        Files.write(csv, Arrays.asList(
+            "customerName,amount,discountType,discountValue",
+            "\"Smith, John\",150,percentage,15",
+            "Jane Doe, 90.00 ,fixed,20",
+            "not an order",
+            "Big Spender,6000,none,",
+            "Rounding Fan,10.005"));
+        Path binary = tempDir.resolve("orders.bin");
+        assertEquals(4, BinaryOrderFileWriter.convertCsv(csv, binary));
+
+        OrderProcessor processor = OrderProcessor.builder(new PayPalProcessor(NoOpOrderEventSink.INSTANCE),
+                new EmailNotification("batch@example.com", NoOpOrderEventSink.INSTANCE))
+            .eventSink(NoOpOrderEventSink.INSTANCE)
+            .build();
+        // A 64-byte window forces records to straddle window boundaries
+        OrderFileIngestor ingestor = new OrderFileIngestor(processor, new MappedOrderReader(64));
+
+        Path csvResults = tempDir.resolve("csv-results.csv");
+        IngestionSummary csvSummary = ingestor.ingest(csv, csvResults);
+        assertEquals(5, csvSummary.getRecords());
+        assertEquals(3, csvSummary.getSuccessful());
+        assertEquals(1, csvSummary.getDeclined());
+        assertEquals(1, csvSummary.getMalformed());
+
+        List<String> lines = Files.readAllLines(csvResults);
+        assertEquals(Arrays.asList(
+            "customerName,originalAmount,discount,finalAmount,paymentMethod,status",
+            "\"Smith, John\",150.00,22.50,127.50,PayPal,SUCCESS",
+            "Jane Doe,90.00,20.00,70.00,PayPal,SUCCESS",
+            "Big Spender,6000.00,0.00,6000.00,PayPal,DECLINED",
+            "Rounding Fan,10.00,0.00,10.00,PayPal,SUCCESS"), lines);
+
+        Path binaryResults = tempDir.resolve("binary-results.csv");
+        IngestionSummary binarySummary = ingestor.ingest(binary, binaryResults);
+        assertEquals(4, binarySummary.getRecords());
+        assertEquals(lines, Files.readAllLines(binaryResults));
+    }
+
+    @Test
+    @DisplayName("Quoted names with commas and doubled quotes survive reading and writing")
+    void testQuotedNamesRoundTrip() throws Exception {
+        List<String> names = Arrays.asList("Dwayne \"The Rock\" Johnson", "\"Quoted\"", "Smith, \"JJ\", Jr.", "Plain");
+        List<String> input = new ArrayList<>();
+        input.add("customerName,amount,discountType,discountValue");
+        for (String name : names) {
+            input.add(csvField(name) + ",100,none,");
+        }
+        Path csv = tempDir.resolve("quoted.csv");
+        Files.write(csv, input);
+
+        List<String> read = new ArrayList<>();
+        new MappedOrderReader(64).read(csv, OrderFileFormat.CSV, (source, offset, length, amount, kind, value) -> {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = source.get(offset + i);
+            }
+            read.add(new String(bytes, StandardCharsets.UTF_8));
+        });
+        assertEquals(names, read);
+
+        OrderProcessor processor = OrderProcessor.builder(new PayPalProcessor(NoOpOrderEventSink.INSTANCE),
+                new EmailNotification("batch@example.com", NoOpOrderEventSink.INSTANCE))
+            .eventSink(NoOpOrderEventSink.INSTANCE)
+            .build();
+        Path results = tempDir.resolve("quoted-results.csv");
+        IngestionSummary summary = new OrderFileIngestor(processor, new MappedOrderReader(64)).ingest(csv, results);
+        assertEquals(names.size(), summary.getSuccessful());
+        List<String> lines = Files.readAllLines(results);
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(csvField(names.get(i)) + ",100.00,0.00,100.00,PayPal,SUCCESS", lines.get(i + 1));
+        }
+
+        Path binary = tempDir.resolve("quoted.bin");
+        assertEquals(names.size(), BinaryOrderFileWriter.convertCsv(csv, binary));
+        Path binaryResults = tempDir.resolve("quoted-binary-results.csv");
+        new OrderFileIngestor(processor).ingest(binary, binaryResults);
+        assertEquals(lines, Files.readAllLines(binaryResults));
+    }
+
+    // Quotes a field the way OrderResultWriter does
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.solid.journal;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.OrderRequest;
+import com.example.solid.discounts.PercentageDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.notifications.EmailNotification;
+import com.example.solid.payment.CreditCardProcessor;
+import com.example.solid.services.OrderPricing;
+import com.example.solid.services.PaymentOutcome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the group-committed order journal
+ * Run with: mvn test
+ */
+public class OrderJournalTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 250;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Concurrent appends are replayed in sequence across rolled segments and survive a torn tail")
+    void testConcurrentAppendReplayAndRecovery() throws Exception {
+        Path directory = tempDir.resolve("journal");
+        OrderPricing pricing = OrderPricing.ofCents(15000, 2250, 12750, "15.0% discount");
+
+        // Small segments force rolling in the middle of group-committed batches
+        try (OrderJournal journal = new OrderJournal(directory, 4096, 0)) {
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> appends = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                String customer = "Customer " + t;
+                appends.add(pool.submit(() -> {
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        journal.append(customer, pricing, new PaymentOutcome("Credit Card", i % 2 == 0));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+            pool.shutdown();
+            assertEquals(THREADS * ORDERS_PER_THREAD, journal.getDurableSequence());
+        }
+
+        List<Path> segments = OrderJournalReader.listSegments(directory);
+        assertTrue(segments.size() > 1, "Expected the journal to roll segments");
+
+        List<JournalRecord> records = new ArrayList<>();
+        OrderJournalReader.ReplayResult result = OrderJournalReader.replay(directory, records::add);
+        assertEquals(THREADS * ORDERS_PER_THREAD, result.getRecordCount());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(i + 1, records.get(i).getSequence());
+        }
+        JournalRecord first = records.get(0);
+        assertEquals(12750, first.getFinalAmountCents());
+        assertEquals("15.0% discount", first.getDiscountLabel());
+        assertEquals("Credit Card", first.getPaymentMethod());
+
+        // Simulate a crash halfway through writing the last record
+        Path lastSegment = segments.get(segments.size() - 1);
+        try (FileChannel channel = FileChannel.open(lastSegment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+        long survivors = OrderJournalReader.replay(directory, record -> { }).getRecordCount();
+        assertEquals(THREADS * ORDERS_PER_THREAD - 1, survivors);
+
+        try (OrderJournal reopened = new OrderJournal(directory, 4096, 0)) {
+            assertEquals(survivors + 1, reopened.append("After Crash", pricing, new PaymentOutcome("PayPal", true)));
+        }
+        List<JournalRecord> recovered = new ArrayList<>();
+        OrderJournalReader.replay(directory, recovered::add);
+        assertEquals(survivors + 1, recovered.size());
+        assertEquals("After Crash", recovered.get(recovered.size() - 1).getCustomerName());
+
+        System.out.println("✅ Journal replayed " + recovered.size() + " records from " +
+                           OrderJournalReader.listSegments(directory).size() + " segments");
+    }
+
+    @Test
+    @DisplayName("OrderProcessor journals each payment decision")
+    void testProcessorJournalsOrders() throws Exception {
+        Path directory = tempDir.resolve("processor-journal");
+        try (OrderJournal journal = new OrderJournal(directory)) {
+            OrderProcessor processor = OrderProcessor.builder(new CreditCardProcessor(NoOpOrderEventSink.INSTANCE),
+                    new EmailNotification("journal@example.com", NoOpOrderEventSink.INSTANCE))
+                .eventSink(NoOpOrderEventSink.INSTANCE)
+                .journal(journal)
+                .build();
+            processor.processOrder(new OrderRequest("John Smith", 150.0, new PercentageDiscount(15)));
+            processor.processOrder(new OrderRequest("Big Spender", 20000.0, new PercentageDiscount(0)));
+        }
+
+        List<JournalRecord> records = new ArrayList<>();
+        OrderJournalReader.replay(directory, records::add);
+        assertEquals(2, records.size());
+        assertEquals("John Smith", records.get(0).getCustomerName());
+        assertEquals(12750, records.get(0).getFinalAmountCents());
+        assertTrue(records.get(0).isSuccessful());
+        assertFalse(records.get(1).isSuccessful());
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.solid.ledger;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.OrderRequest;
+import com.example.solid.discounts.PercentageDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.notifications.EmailNotification;
+import com.example.solid.payment.PayPalProcessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the off-heap revenue ledger
+ * Run with: mvn test
+ */
+public class RevenueLedgerTest {
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 20_000;
+
+    @Test
+    @DisplayName("Concurrent writers produce exact totals per payment method and discount label")
+    void testConcurrentTotals() throws Exception {
+        RevenueLedger ledger = RevenueLedger.builder().stripes(4).build();
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    ledger.record(i % 2 == 0 ? "Credit Card" : "PayPal", i % 3 == 0 ? "No Discount" : "10.0% Discount",
+                                  900, i % 3 == 0 ? 0 : 100, i % 5 != 0);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        long orders = (long) THREADS * ORDERS_PER_THREAD;
+        long approved = orders * 4 / 5;
+        assertEquals(approved, ledger.getTotal(LedgerMetric.APPROVED, null, null));
+        assertEquals(orders - approved, ledger.getTotal(LedgerMetric.DECLINED, null, null));
+        assertEquals(approved * 900, ledger.getTotal(LedgerMetric.REVENUE_CENTS, null, null));
+        assertEquals(orders / 2, ledger.getTotal(LedgerMetric.APPROVED, "Credit Card", null)
+                                 + ledger.getTotal(LedgerMetric.DECLINED, "Credit Card", null));
+        assertEquals(0, ledger.getTotal(LedgerMetric.DISCOUNT_CENTS, null, "No Discount"));
+        assertEquals(ledger.getTotal(LedgerMetric.APPROVED, null, "10.0% Discount") * 100,
+                     ledger.getTotal(LedgerMetric.DISCOUNT_CENTS, null, null));
+        assertEquals(approved, ledger.getRecent(LedgerMetric.APPROVED, null, null, 2));
+        assertEquals(List.of("Credit Card", "PayPal"), sorted(ledger.getPaymentMethods()));
+        System.out.println("✅ Ledger totalled " + orders + " concurrent orders exactly");
+    }
+
+    @Test
+    @DisplayName("Pairs beyond the key limit are counted together in the overflow slot")
+    void testOverflowSlot() {
+        RevenueLedger ledger = RevenueLedger.builder().maxKeys(3).build();
+        for (int i = 0; i < 1_000; i++) {
+            ledger.record("Method " + i, "None", 100, 0, true);
+        }
+
+        assertEquals(List.of("Method 0", "Method 1"), ledger.getPaymentMethods());
+        assertEquals(100, ledger.getTotal(LedgerMetric.REVENUE_CENTS, "Method 1", null));
+        assertEquals(99_800, ledger.getTotal(LedgerMetric.REVENUE_CENTS, RevenueLedger.OTHER, null));
+        assertEquals(0, ledger.getTotal(LedgerMetric.REVENUE_CENTS, "Method 500", null));
+        assertEquals(1_000, ledger.getTotal(LedgerMetric.APPROVED, null, null));
+    }
+
+    @Test
+    @DisplayName("Time buckets roll over and old periods drop out of recent totals")
+    void testTimeBuckets() {
+        AtomicLong clock = new AtomicLong(0);
+        RevenueLedger ledger = RevenueLedger.builder().timeBuckets(3, 1, TimeUnit.SECONDS).build(clock::get);
+
+        ledger.record("Card", "None", 100, 0, true);
+        clock.set(1_000);
+        ledger.record("Card", "None", 200, 0, true);
+        ledger.record("Card", "None", 200, 0, false);
+        assertEquals(200, ledger.getRecent(LedgerMetric.REVENUE_CENTS, "Card", null, 1));
+        assertEquals(300, ledger.getRecent(LedgerMetric.REVENUE_CENTS, "Card", null, 3));
+
+        long[] series = new long[4];
+        clock.set(3_500);
+        ledger.record("Card", "None", 400, 0, true);
+        ledger.getSeries(LedgerMetric.REVENUE_CENTS, null, null, series);
+        // Period 0 shares a bucket with period 3, so it has been cleared
+        assertArrayEquals(new long[] {0, 200, 0, 400}, series);
+        assertEquals(600, ledger.getRecent(LedgerMetric.REVENUE_CENTS, null, null, 3));
+        assertEquals(700, ledger.getTotal(LedgerMetric.REVENUE_CENTS, null, null));
+
+        clock.set(60_000);
+        assertEquals(0, ledger.getRecent(LedgerMetric.REVENUE_CENTS, null, null, 3));
+    }
+
+    @Test
+    @DisplayName("The order processor feeds the ledger, and queries do not allocate")
+    void testProcessorIntegrationAndAllocationFreeQueries() {
+        RevenueLedger ledger = RevenueLedger.builder().build();
+        OrderProcessor processor = OrderProcessor.builder(new PayPalProcessor(NoOpOrderEventSink.INSTANCE),
+                new EmailNotification("ledger@example.com", NoOpOrderEventSink.INSTANCE))
+            .eventSink(NoOpOrderEventSink.INSTANCE)
+            .ledger(ledger)
+            .build();
+        processor.processOrder(new OrderRequest("Dana", 200.0, new PercentageDiscount(10)));
+        processor.processOrder(new OrderRequest("Eve", 9000.0, new PercentageDiscount(10)));
+
+        assertEquals(18_000, ledger.getTotal(LedgerMetric.REVENUE_CENTS, "PayPal", null));
+        assertEquals(2_000, ledger.getTotal(LedgerMetric.DISCOUNT_CENTS, null, "10.0% Discount"));
+        assertEquals(1, ledger.getTotal(LedgerMetric.DECLINED, "PayPal", "10.0% Discount"));
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long sink = 0;
+        for (int i = 0; i < 20_000; i++) {
+            sink += ledger.getTotal(LedgerMetric.REVENUE_CENTS, "PayPal", null);
+        }
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < 10_000; i++) {
+            sink += ledger.getRecent(LedgerMetric.DECLINED, null, "10.0% Discount", 5);
+            sink += ledger.getTotal(LedgerMetric.REVENUE_CENTS, "PayPal", null);
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        assertTrue(sink > 0);
+        assertTrue(allocated < 4096, "Queries allocated " + allocated + " bytes");
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> copy = new ArrayList<>(values);
+        copy.sort(null);
+        return copy;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.solid.load;
+
+import com.example.solid.OrderEngine;
+import com.example.solid.discounts.NoDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.registry.StrategyRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the open-loop load generator
+ * Run with: mvn test
+ */
+public class LoadGeneratorTest {
+
+    @Test
+    @DisplayName("Open-loop run sustains the target rate and reports declines and injected failures")
+    void testSustainsTargetRate() throws Exception {
+        StrategyRegistry registry = registry(500, 0.5, 0.01);
+        LoadProfile profile = LoadProfile.builder()
+            .ordersPerSecond(2000)
+            .duration(1, TimeUnit.SECONDS)
+            .amounts(AmountDistribution.uniform(10, 100))
+            .paymentMethod("sim", 1)
+            .channel("sim", 1)
+            .discount(registry.discount(StrategyRegistry.NO_DISCOUNT), 1)
+            .build();
+
+        LoadReport report = new LoadGenerator(new OrderEngine(registry)).run(profile);
+        System.out.println("✅ Load run:\n" + report.toText());
+
+        assertEquals(2000, report.getScheduled());
+        assertEquals(report.getScheduled(), report.getCompleted() + report.getErrors());
+        assertTrue(report.getErrors() > 0 && report.getErrors() < 100, "Unexpected errors: " + report.getErrors());
+        assertEquals(0.5, report.getDeclineRate(), 0.1);
+        assertTrue(report.getThroughput() > 1500, "Throughput too low: " + report.getThroughput());
+        assertTrue(report.getResponseTimes().getValueAtPercentile(50) >= TimeUnit.MICROSECONDS.toNanos(250));
+    }
+
+    @Test
+    @DisplayName("Response time includes queueing behind a saturated worker pool, service time does not")
+    void testCoordinatedOmissionCorrection() throws Exception {
+        StrategyRegistry registry = registry(1000, 0.0, 0.0);
+        LoadProfile profile = LoadProfile.builder()
+            .ordersPerSecond(2000)
+            .duration(250, TimeUnit.MILLISECONDS)
+            .paymentMethod("sim", 1)
+            .channel("sim", 1)
+            .discount(registry.discount(StrategyRegistry.NO_DISCOUNT), 1)
+            .build();
+        // One worker handles ~1000 orders/s, half the offered rate, so the queue keeps growing
+        ExecutorService worker = Executors.newSingleThreadExecutor();
+        try {
+            LoadReport report = new LoadGenerator(new OrderEngine(registry), worker).run(profile);
+            long serviceP99 = report.getServiceTimes().getValueAtPercentile(99);
+            long responseP99 = report.getResponseTimes().getValueAtPercentile(99);
+            assertTrue(serviceP99 < TimeUnit.MILLISECONDS.toNanos(20), "Service time p99 " + serviceP99);
+            assertTrue(responseP99 > TimeUnit.MILLISECONDS.toNanos(100), "Response time p99 " + responseP99);
+        } finally {
+            worker.shutdown();
+        }
+    }
+
+    private static StrategyRegistry registry(long paymentLatencyMicros, double declineRate, double failureRate) {
+        return StrategyRegistry.builder(NoOpOrderEventSink.INSTANCE)
+            .paymentProcessor("sim", new SimulatedPaymentProcessor("Simulated", 10000, paymentLatencyMicros,
+                                                                   paymentLatencyMicros / 2, declineRate))
+            .channel("sim", new SimulatedNotificationService("Simulated", 0, 0, failureRate))
+            .discount(StrategyRegistry.NO_DISCOUNT, new NoDiscount())
+            .build();
+    }
+}
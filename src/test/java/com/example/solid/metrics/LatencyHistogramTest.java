@@ -0,0 +1,90 @@
+package com.example.solid.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the lock-free latency histogram
+ * Run with: mvn test
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Percentiles stay within bucket resolution")
+    void testPercentileAccuracy() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+
+        assertEquals(100_000, snapshot.getCount());
+        assertEquals(100_000_000, snapshot.getMax());
+        assertEquals(50_000_000, snapshot.getValueAtPercentile(50), 50_000_000 * 0.0625);
+        assertEquals(99_000_000, snapshot.getValueAtPercentile(99), 99_000_000 * 0.0625);
+        assertEquals(50_000_500.0, snapshot.getMean(), 1.0);
+    }
+
+    @Test
+    @DisplayName("Snapshots from separate histograms merge")
+    void testMerge() {
+        LatencyHistogram fast = new LatencyHistogram();
+        LatencyHistogram slow = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            fast.record(10);
+        }
+        for (int i = 0; i < 10; i++) {
+            slow.record(5_000);
+        }
+        HistogramSnapshot merged = fast.snapshot().merge(slow.snapshot());
+
+        assertEquals(100, merged.getCount());
+        assertEquals(10, merged.getValueAtPercentile(90));
+        assertEquals(5_000, merged.getValueAtPercentile(95), 5_000 * 0.0625);
+        assertEquals(5_000, merged.getMax());
+    }
+
+    @Test
+    @DisplayName("Disabled metrics record nothing")
+    void testDisabledMetrics() {
+        OrderMetrics metrics = OrderMetrics.disabled();
+        metrics.recordStage(OrderStage.TOTAL, 1_000);
+        metrics.recordOutcome("Credit Card", "No Discount", true);
+
+        assertFalse(metrics.isEnabled());
+        assertEquals(0, metrics.snapshot().getStageLatency(OrderStage.TOTAL).getCount());
+        assertTrue(metrics.snapshot().getOutcomes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Outcome series are capped, with later pairs and null labels counted under fixed names")
+    void testOutcomeSeriesCap() {
+        OrderMetrics metrics = new OrderMetrics(3);
+        for (int i = 0; i < 100; i++) {
+            metrics.recordOutcome("Credit Card", (i % 10) + ".5% Discount", i % 2 == 0);
+        }
+        metrics.recordOutcome("Credit Card", null, true);
+        metrics.recordOutcome("Credit Card", "0.5% Discount", true);
+
+        List<MetricsSnapshot.OutcomeCount> outcomes = metrics.snapshot().getOutcomes();
+        assertEquals(4, outcomes.size(), "Three series plus the overflow");
+        long total = 0;
+        for (MetricsSnapshot.OutcomeCount outcome : outcomes) {
+            total += outcome.getSuccesses() + outcome.getFailures();
+        }
+        assertEquals(102, total);
+        MetricsSnapshot.OutcomeCount overflow = outcomes.stream()
+            .filter(outcome -> outcome.getDiscountLabel().equals(OrderMetrics.OTHER)).findFirst().orElseThrow();
+        assertEquals(71, overflow.getSuccesses() + overflow.getFailures(), "70 capped orders and the null label");
+
+        OrderMetrics roomy = new OrderMetrics();
+        roomy.recordOutcome(null, null, false);
+        assertEquals(OrderMetrics.UNLABELLED, roomy.snapshot().getOutcomes().get(0).getDiscountLabel());
+        assertThrows(IllegalArgumentException.class, () -> new OrderMetrics(0));
+        System.out.println("✅ Outcome series stay within their cap");
+    }
+}
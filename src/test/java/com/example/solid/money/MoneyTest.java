@@ -0,0 +1,107 @@
+package com.example.solid.money;
+
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.payment.CreditCardProcessor;
+import com.example.solid.payment.PayPalProcessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for fixed-point money arithmetic against BigDecimal
+ * Run with: mvn test
+ */
+public class MoneyTest {
+
+    @Test
+    @DisplayName("Conversions to cents and basis points round like BigDecimal in every rounding mode")
+    void testScalingMatchesBigDecimal() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            // Three decimals, so about nine in ten values need rounding; a few are exact halves
+            double amount = (random.nextInt(2_000_000) - 1_000_000) / 1000.0;
+            for (RoundingMode mode : RoundingMode.values()) {
+                BigDecimal decimal = BigDecimal.valueOf(amount);
+                assertSameResult(() -> decimal.movePointRight(2).setScale(0, mode).longValueExact(),
+                                 () -> Money.toCents(amount, mode), amount + " to cents, " + mode);
+                assertSameResult(() -> decimal.movePointRight(2).setScale(0, mode).longValueExact(),
+                                 () -> Money.toBasisPoints(amount, mode), amount + "% to basis points, " + mode);
+            }
+        }
+        assertEquals(1234, Money.toCents(12.34));
+        assertEquals(1250, Money.toBasisPoints(12.5, Money.DEFAULT_ROUNDING));
+
+        System.out.println("✅ Scaling matches BigDecimal for every rounding mode");
+    }
+
+    @Test
+    @DisplayName("percentOf rounds like BigDecimal in every rounding mode")
+    void testPercentOfMatchesBigDecimal() {
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            long cents = random.nextInt(20_000_000) - 10_000_000;
+            long basisPoints = random.nextInt(10_001);
+            for (RoundingMode mode : RoundingMode.values()) {
+                assertSameResult(() -> BigDecimal.valueOf(cents).multiply(BigDecimal.valueOf(basisPoints))
+                                     .divide(BigDecimal.valueOf(Money.BASIS_POINTS_PER_UNIT), 0, mode).longValueExact(),
+                                 () -> Money.percentOf(cents, basisPoints, mode),
+                                 basisPoints + " bps of " + cents + ", " + mode);
+            }
+        }
+        assertThrows(ArithmeticException.class, () -> Money.percentOf(Long.MAX_VALUE / 2, 5_000, RoundingMode.DOWN));
+
+        System.out.println("✅ percentOf matches BigDecimal for every rounding mode");
+    }
+
+    @Test
+    @DisplayName("Non-finite and out-of-range amounts are rejected instead of saturating")
+    void testScalingGuards() {
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> Money.toBasisPoints(Double.NEGATIVE_INFINITY, RoundingMode.UP));
+        assertThrows(ArithmeticException.class, () -> Money.toCents(1e17));
+        assertThrows(ArithmeticException.class, () -> Money.toCents(-1e17));
+        assertEquals(1_000_000_000_000_000_000L, Money.toCents(1e16));
+
+        System.out.println("✅ NaN, infinity and overflow are rejected");
+    }
+
+    @Test
+    @DisplayName("Payment processors accept exactly up to their limits")
+    void testProcessorLimitBoundaries() {
+        CreditCardProcessor card = new CreditCardProcessor(NoOpOrderEventSink.INSTANCE);
+        assertTrue(card.processPayment(10_000.00));
+        assertTrue(card.processPayment(10_000.004), "Sub-cent excess rounds down to the limit");
+        assertTrue(card.processPayment(10_000.005), "Half a cent rounds to the even cent, the limit");
+        assertFalse(card.processPayment(10_000.01));
+        assertTrue(card.processPayment(0.01));
+        assertFalse(card.processPayment(0.004));
+        assertFalse(card.processPayment(0.0));
+
+        PayPalProcessor payPal = new PayPalProcessor(NoOpOrderEventSink.INSTANCE);
+        assertTrue(payPal.processPayment(5_000.00));
+        assertFalse(payPal.processPayment(5_000.01));
+        assertTrue(payPal.processPaymentCents(500_000));
+        assertFalse(payPal.processPaymentCents(500_001));
+        assertFalse(payPal.processPaymentCents(-1));
+
+        System.out.println("✅ Processor limits hold to the cent");
+    }
+
+    private static void assertSameResult(LongSupplier expected, LongSupplier actual, String message) {
+        long expectedValue;
+        try {
+            expectedValue = expected.getAsLong();
+        } catch (ArithmeticException e) {
+            assertThrows(ArithmeticException.class, actual::getAsLong, message);
+            return;
+        }
+        assertEquals(expectedValue, actual.getAsLong(), message);
+    }
+}
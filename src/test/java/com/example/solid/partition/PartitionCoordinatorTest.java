@@ -0,0 +1,243 @@
+package com.example.solid.partition;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.OrderRequest;
+import com.example.solid.OrderResult;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.events.OrderEventSink;
+import com.example.solid.registry.StrategyRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.ServerSocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for partitioned order processing over localhost sockets
+ * Run with: mvn test
+ */
+public class PartitionCoordinatorTest {
+    private static final StrategyRegistry REGISTRY = StrategyRegistry.standard(NoOpOrderEventSink.INSTANCE);
+
+    @Test
+    @DisplayName("Remote results match local processing for every discount kind")
+    void testResultsMatchLocalProcessing() throws Exception {
+        OrderProcessor local = processor(NoOpOrderEventSink.INSTANCE);
+        try (PartitionWorker first = worker(NoOpOrderEventSink.INSTANCE);
+             PartitionWorker second = worker(NoOpOrderEventSink.INSTANCE);
+             PartitionCoordinator coordinator = new PartitionCoordinator(REGISTRY,
+                 Arrays.asList(first.getAddress(), second.getAddress()), 8)) {
+            List<OrderRequest> requests = Arrays.asList(
+                new OrderRequest("Alice", 120.0, REGISTRY.discount(StrategyRegistry.NO_DISCOUNT)),
+                new OrderRequest("Bob", 99.99, REGISTRY.percentage(12.5)),
+                new OrderRequest("order-7", "Carol", 40.0, REGISTRY.fixedAmount(15.0)),
+                new OrderRequest("Dave", 64.0, REGISTRY.discount(StrategyRegistry.BUY_ONE_GET_ONE)));
+            for (OrderRequest request : requests) {
+                OrderResult expected = local.processOrder(request);
+                OrderResult actual = coordinator.process(request);
+                assertEquals(expected.getCustomerName(), actual.getCustomerName());
+                assertEquals(expected.getPricing().getFinalAmountCents(), actual.getPricing().getFinalAmountCents());
+                assertEquals(expected.getPricing().getDiscountAppliedCents(), actual.getPricing().getDiscountAppliedCents());
+                assertEquals(expected.getPricing().getDiscountLabel(), actual.getPricing().getDiscountLabel());
+                assertEquals(expected.isSuccessful(), actual.isSuccessful());
+            }
+        }
+
+        System.out.println("✅ Partitioned results match local processing");
+    }
+
+    @Test
+    @DisplayName("Each customer's orders are processed in submission order across a rebalance")
+    void testPerCustomerOrderingAcrossRebalance() throws Exception {
+        Map<String, List<Long>> processed = new ConcurrentHashMap<>();
+        OrderEventSink recorder = new RecordingSink(processed);
+        int customers = 40;
+        int ordersPerCustomer = 250;
+        List<PartitionWorker> workers = new CopyOnWriteArrayList<>();
+        ExecutorService submitters = Executors.newFixedThreadPool(4);
+        try {
+            workers.add(worker(recorder));
+            workers.add(worker(recorder));
+            PartitionCoordinator coordinator = new PartitionCoordinator(REGISTRY,
+                Arrays.asList(workers.get(0).getAddress(), workers.get(1).getAddress()), 16);
+            try {
+                List<Future<List<CompletableFuture<OrderResult>>>> submissions = new ArrayList<>();
+                for (int s = 0; s < 4; s++) {
+                    int submitter = s;
+                    submissions.add(submitters.submit(() -> {
+                        // Each submitter owns a quarter of the customers and sends their orders in sequence
+                        List<CompletableFuture<OrderResult>> results = new ArrayList<>();
+                        for (int sequence = 1; sequence <= ordersPerCustomer; sequence++) {
+                            for (int c = submitter; c < customers; c += 4) {
+                                results.add(coordinator.submit(new OrderRequest("Customer " + c, sequence,
+                                    REGISTRY.discount(StrategyRegistry.NO_DISCOUNT))));
+                            }
+                        }
+                        return results;
+                    }));
+                }
+
+                workers.add(worker(recorder));
+                coordinator.addWorker(workers.get(2).getAddress());
+                coordinator.rebalance().get(10, TimeUnit.SECONDS);
+                coordinator.removeWorker(0).get(10, TimeUnit.SECONDS);
+
+                for (Future<List<CompletableFuture<OrderResult>>> submission : submissions) {
+                    for (CompletableFuture<OrderResult> result : submission.get(30, TimeUnit.SECONDS)) {
+                        assertTrue(result.get(30, TimeUnit.SECONDS).isSuccessful());
+                    }
+                }
+                for (int assigned : coordinator.getAssignment()) {
+                    assertNotEquals(0, assigned, "A removed worker must not keep partitions");
+                }
+            } finally {
+                coordinator.close();
+            }
+        } finally {
+            submitters.shutdownNow();
+            for (PartitionWorker worker : workers) {
+                worker.close();
+            }
+        }
+
+        assertEquals(customers, processed.size());
+        for (Map.Entry<String, List<Long>> customer : processed.entrySet()) {
+            List<Long> amounts = customer.getValue();
+            assertEquals(ordersPerCustomer, amounts.size(), customer.getKey());
+            for (int i = 0; i < amounts.size(); i++) {
+                assertEquals(i + 1, amounts.get(i), customer.getKey() + " processed out of order");
+            }
+        }
+
+        System.out.println("✅ Per-customer order kept across adding, rebalancing and removing workers");
+    }
+
+    @Test
+    @DisplayName("A malformed frame closes only its own connection")
+    void testMalformedFramesCloseConnection() throws Exception {
+        try (PartitionWorker worker = worker(NoOpOrderEventSink.INSTANCE)) {
+            // Empty, then shorter than the type byte and request id every frame starts with
+            for (byte[] body : new byte[][] {new byte[0], new byte[] {PartitionProtocol.ORDER, 0, 0}}) {
+                try (Socket socket = new Socket(worker.getAddress().getAddress(), worker.getAddress().getPort())) {
+                    socket.setSoTimeout(5_000);
+                    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                    out.writeInt(body.length);
+                    out.write(body);
+                    out.flush();
+                    assertEquals(-1, socket.getInputStream().read(), "Worker should close the connection");
+                }
+            }
+            try (PartitionCoordinator coordinator = new PartitionCoordinator(REGISTRY,
+                     Arrays.asList(worker.getAddress()), 4)) {
+                assertTrue(coordinator.process(new OrderRequest("Alice", 50.0, REGISTRY.percentage(10))).isSuccessful());
+            }
+        }
+
+        System.out.println("✅ Malformed frames are rejected without stopping the worker");
+    }
+
+    @Test
+    @DisplayName("Registering with a stopped event loop fails instead of waiting forever")
+    void testClosedLoopFailsRegistration() throws Exception {
+        EventLoop loop = new EventLoop("closed-loop");
+        loop.close();
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                assertThrows(IOException.class, () -> loop.listen(server, connection -> null));
+                assertThrows(IOException.class,
+                    () -> loop.connect((InetSocketAddress) server.getLocalAddress(), null));
+            });
+        }
+
+        System.out.println("✅ A stopped event loop rejects registrations");
+    }
+
+    @Test
+    @DisplayName("Balanced assignment keeps partitions in place where it can")
+    void testBalancedAssignment() {
+        int[] current = {0, 1, 0, 1, 0, 1, 0, 1};
+        int[] grown = PartitionCoordinator.balancedAssignment(current, new boolean[] {true, true, true});
+        int moved = 0;
+        int[] load = new int[3];
+        for (int p = 0; p < current.length; p++) {
+            moved += grown[p] != current[p] ? 1 : 0;
+            load[grown[p]]++;
+        }
+        assertEquals(2, moved, "Only the new worker's share should move");
+        assertArrayEquals(new int[] {3, 3, 2}, load);
+
+        int[] shrunk = PartitionCoordinator.balancedAssignment(grown, new boolean[] {false, true, true});
+        for (int p = 0; p < shrunk.length; p++) {
+            assertNotEquals(0, shrunk[p]);
+            if (grown[p] != 0) {
+                assertEquals(grown[p], shrunk[p], "Partitions on surviving workers stay put");
+            }
+        }
+
+        System.out.println("✅ Rebalancing moves only the partitions it must");
+    }
+
+    private static PartitionWorker worker(OrderEventSink eventSink) throws Exception {
+        return new PartitionWorker(processor(eventSink), REGISTRY,
+                                   new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4);
+    }
+
+    private static OrderProcessor processor(OrderEventSink eventSink) {
+        return OrderProcessor.builder(REGISTRY.paymentProcessor(StrategyRegistry.CREDIT_CARD),
+                                      REGISTRY.channel(StrategyRegistry.EMAIL))
+            .eventSink(eventSink)
+            .build();
+    }
+
+    // Pairs each order's customer with its amount, which the test uses as a per-customer sequence number
+    private static final class RecordingSink implements OrderEventSink {
+        private final ThreadLocal<String> customer = new ThreadLocal<>();
+        private final Map<String, List<Long>> processed;
+
+        RecordingSink(Map<String, List<Long>> processed) {
+            this.processed = processed;
+        }
+
+        @Override
+        public void orderReceived(String customerName) {
+            customer.set(customerName);
+        }
+
+        @Override
+        public void pricingComputed(double originalAmount, double discountApplied, double finalAmount,
+                                    String discountLabel) {
+            processed.computeIfAbsent(customer.get(), name -> new CopyOnWriteArrayList<>()).add(Math.round(originalAmount));
+        }
+
+        @Override
+        public void paymentAttempted(String paymentMethod, double amount) {
+        }
+
+        @Override
+        public void paymentCompleted(String paymentMethod, boolean successful) {
+        }
+
+        @Override
+        public void notificationSent(String channel, String recipient, CharSequence message) {
+        }
+    }
+}
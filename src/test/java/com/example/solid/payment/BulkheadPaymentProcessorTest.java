@@ -0,0 +1,203 @@
+package com.example.solid.payment;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.OrderRequest;
+import com.example.solid.OrderResult;
+import com.example.solid.discounts.NoDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.NotificationService;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.interfaces.PaymentUnavailableException;
+import com.example.solid.metrics.OrderMetrics;
+import com.example.solid.money.Money;
+import com.example.solid.services.OrderContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the bulkhead around a payment backend
+ * Run with: mvn test
+ */
+public class BulkheadPaymentProcessorTest {
+
+    @Test
+    @DisplayName("No more than the permitted number of calls reach the backend at once")
+    void testConcurrencyCap() throws Exception {
+        GatedProcessor backend = new GatedProcessor();
+        backend.release.countDown();
+        BulkheadPaymentProcessor bulkhead = new BulkheadPaymentProcessor(backend, 3, 10_000);
+        ExecutorService callers = Executors.newFixedThreadPool(12);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(callers.submit(() -> bulkhead.processPaymentCents(Money.toCents(10))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertTrue(backend.maxConcurrent.get() <= 3, "Saw " + backend.maxConcurrent.get() + " concurrent calls");
+        assertEquals(0, bulkhead.getRejectedCount());
+        assertEquals(3, bulkhead.getAvailableCalls());
+
+        System.out.println("✅ Bulkhead held the backend to " + backend.maxConcurrent.get() + " concurrent calls");
+    }
+
+    @Test
+    @DisplayName("A call that waits out the permit timeout is rejected and reported as such")
+    void testPermitTimeout() throws Exception {
+        GatedProcessor backend = new GatedProcessor();
+        BulkheadPaymentProcessor bulkhead = new BulkheadPaymentProcessor(backend, 1, 50);
+        Thread holder = new Thread(() -> bulkhead.processPaymentCents(Money.toCents(10)));
+        holder.start();
+        try {
+            assertTrue(backend.entered.await(5, TimeUnit.SECONDS));
+            long start = System.nanoTime();
+            assertThrows(PaymentUnavailableException.class, () -> bulkhead.processPaymentCents(Money.toCents(10)),
+                         "Rejection must be told apart from a decline");
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50), "Gave up before the timeout");
+            assertEquals(1, bulkhead.getRejectedCount());
+            assertEquals(1, backend.calls.get(), "A rejected call must not reach the backend");
+        } finally {
+            backend.release.countDown();
+            holder.join();
+        }
+
+        backend.approve = false;
+        assertFalse(bulkhead.processPaymentCents(Money.toCents(10)), "A backend decline is not a rejection");
+        assertEquals(1, bulkhead.getRejectedCount());
+
+        System.out.println("✅ Permit timeouts are rejected and distinguishable from declines");
+    }
+
+    @Test
+    @DisplayName("A backend exception still returns the permit")
+    void testPermitReleasedOnException() {
+        GatedProcessor backend = new GatedProcessor();
+        backend.release.countDown();
+        backend.failure = new IllegalStateException("Gateway down");
+        BulkheadPaymentProcessor bulkhead = new BulkheadPaymentProcessor(backend, 2, 0);
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IllegalStateException.class, () -> bulkhead.processPaymentCents(Money.toCents(10)));
+            assertThrows(IllegalStateException.class, () -> bulkhead.processPaymentsCents(new long[] {100, 200}));
+        }
+        assertEquals(2, bulkhead.getAvailableCalls());
+        assertEquals(0, bulkhead.getRejectedCount());
+
+        System.out.println("✅ Permits survive backend exceptions");
+    }
+
+    @Test
+    @DisplayName("An order turned away by a full bulkhead is rejected, not declined, on every processing path")
+    void testOrderRejectedWhenFull() throws Exception {
+        GatedProcessor backend = new GatedProcessor();
+        BulkheadPaymentProcessor bulkhead = new BulkheadPaymentProcessor(backend, 1, 0);
+        List<String> notifications = new CopyOnWriteArrayList<>();
+        OrderMetrics metrics = new OrderMetrics();
+        OrderProcessor processor = OrderProcessor.builder(bulkhead, new RecordingNotification(notifications))
+            .eventSink(NoOpOrderEventSink.INSTANCE)
+            .metrics(metrics)
+            .build();
+        Thread holder = new Thread(() -> bulkhead.processPaymentCents(Money.toCents(10)));
+        holder.start();
+        try {
+            assertTrue(backend.entered.await(5, TimeUnit.SECONDS));
+            OrderResult result = processor.processOrder(new OrderRequest("Jane Doe", 80.0, new NoDiscount()));
+            OrderResult async = processor.processOrderAsync(new OrderRequest("Jane Doe", 80.0, new NoDiscount()))
+                .get(5, TimeUnit.SECONDS);
+            OrderContext context = processor.processOrder(OrderContext.current().reset("Jane Doe", 8_000, new NoDiscount()));
+
+            for (OrderResult rejected : List.of(result, async)) {
+                assertTrue(rejected.isRejected());
+                assertTrue(rejected.getPaymentOutcome().isRejected());
+                assertEquals(OrderResult.NOT_ADMITTED, rejected.getPricing().getDiscountLabel());
+            }
+            assertTrue(context.isRejected());
+            assertFalse(context.isSuccessful());
+        } finally {
+            backend.release.countDown();
+            holder.join();
+        }
+        assertEquals(3, bulkhead.getRejectedCount());
+        assertTrue(notifications.isEmpty(), "Rejected orders must not tell the customer the payment failed");
+        assertTrue(metrics.snapshot().getOutcomes().isEmpty(), "Rejected orders are not declines");
+
+        assertTrue(processor.processOrder(new OrderRequest("Jane Doe", 80.0, new NoDiscount())).isSuccessful());
+        assertEquals(1, notifications.size());
+
+        System.out.println("✅ Full bulkheads reject orders instead of declining them");
+    }
+
+    // Blocks every call until released, tracking how many overlap
+    private static final class GatedProcessor implements PaymentProcessor {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+        private volatile boolean approve = true;
+        private volatile RuntimeException failure;
+
+        @Override
+        public boolean processPayment(double amount) {
+            return processPaymentCents(Money.toCents(amount));
+        }
+
+        @Override
+        public boolean processPaymentCents(long amountCents) {
+            calls.incrementAndGet();
+            maxConcurrent.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                entered.countDown();
+                release.await();
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                active.decrementAndGet();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return approve;
+        }
+
+        @Override
+        public String getPaymentMethod() {
+            return "Gated";
+        }
+    }
+
+    private static final class RecordingNotification implements NotificationService {
+        private final List<String> messages;
+
+        RecordingNotification(List<String> messages) {
+            this.messages = messages;
+        }
+
+        @Override
+        public void sendNotification(String message) {
+            messages.add(message);
+        }
+
+        @Override
+        public String getNotificationType() {
+            return "TEST";
+        }
+    }
+}
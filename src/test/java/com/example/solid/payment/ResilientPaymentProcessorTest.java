@@ -0,0 +1,177 @@
+package com.example.solid.payment;
+
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.interfaces.PaymentUnavailableException;
+import com.example.solid.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for payment deadlines, circuit breaking and hedging
+ * Run with: mvn test
+ */
+public class ResilientPaymentProcessorTest {
+
+    @Test
+    @DisplayName("A stuck backend times out, opens the circuit, and is probed again after the open period")
+    void testDeadlineAndCircuitBreaker() throws Exception {
+        ScriptedProcessor backend = new ScriptedProcessor("Stuck Gateway");
+        backend.latencyMillis = 10_000;
+        ResilientPaymentProcessor processor = ResilientPaymentProcessor.builder(backend)
+            .deadline(50, TimeUnit.MILLISECONDS)
+            .circuitBreaker(3, 200)
+            .build();
+
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            assertThrows(PaymentUnavailableException.class, () -> processor.processPaymentCents(Money.toCents(100)),
+                         "A timeout is not a decline");
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1000), "Caller was blocked");
+        }
+        assertEquals(3, processor.getTimeoutCount());
+        assertEquals(CircuitBreaker.State.OPEN, processor.getCircuitState());
+
+        assertThrows(PaymentUnavailableException.class, () -> processor.processPaymentCents(Money.toCents(100)));
+        assertEquals(3, backend.calls.get(), "An open circuit must not reach the backend");
+        assertEquals(1, processor.getShortCircuitCount());
+
+        backend.latencyMillis = 0;
+        Thread.sleep(250);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, processor.getCircuitState());
+        assertTrue(processor.processPaymentCents(Money.toCents(100)));
+        assertEquals(CircuitBreaker.State.CLOSED, processor.getCircuitState());
+        System.out.println("✅ Stuck backend timed out, tripped the breaker and recovered after a probe");
+    }
+
+    @Test
+    @DisplayName("A payment slower than the primary's p95 is hedged to the alternate processor")
+    void testHedgedRequest() {
+        ScriptedProcessor primary = new ScriptedProcessor("Primary");
+        primary.latencyMillis = 1;
+        ScriptedProcessor alternate = new ScriptedProcessor("Alternate");
+        ResilientPaymentProcessor processor = ResilientPaymentProcessor.builder(primary)
+            .deadline(2, TimeUnit.SECONDS)
+            .hedgeTo(alternate)
+            .build();
+
+        for (int i = 0; i < ResilientPaymentProcessor.HEDGE_WINDOW; i++) {
+            assertTrue(processor.processPaymentCents(Money.toCents(100)));
+        }
+        assertTrue(processor.getHedgeDelayNanos() > 0);
+        assertEquals(0, alternate.calls.get());
+
+        primary.latencyMillis = 1000;
+        long start = System.nanoTime();
+        assertTrue(processor.processPaymentCents(Money.toCents(100)));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500), "Hedge did not answer early");
+        assertEquals(1, processor.getHedgeCount());
+        assertEquals(1, alternate.calls.get());
+        assertEquals("Alternate", processor.getPaymentMethod(), "The winning hedge's method is reported");
+
+        primary.latencyMillis = 0;
+        assertTrue(processor.processPaymentCents(Money.toCents(100)));
+        assertEquals("Primary", processor.getPaymentMethod());
+        System.out.println("✅ Slow payment was hedged after " + processor.getHedgeDelayNanos() / 1000 + "µs");
+    }
+
+    @Test
+    @DisplayName("The reported method is the routed backend chosen on the attempt's thread")
+    void testReportsRoutedMethod() {
+        ScriptedProcessor small = new ScriptedProcessor("Small Payments") {
+            @Override
+            public boolean supportsAmount(long amountCents) {
+                return amountCents <= Money.toCents(100);
+            }
+        };
+        ScriptedProcessor large = new ScriptedProcessor("Large Payments") {
+            @Override
+            public boolean supportsAmount(long amountCents) {
+                return amountCents > Money.toCents(100);
+            }
+        };
+        ResilientPaymentProcessor processor = ResilientPaymentProcessor.builder(new RoutingPaymentProcessor(small, large))
+            .deadline(2, TimeUnit.SECONDS)
+            .build();
+
+        assertTrue(processor.processPaymentCents(Money.toCents(50)));
+        assertEquals("Small Payments", processor.getPaymentMethod());
+        assertTrue(processor.processPaymentCents(Money.toCents(5_000)));
+        assertEquals("Large Payments", processor.getPaymentMethod());
+        System.out.println("✅ Routed backend method reported through the resilient wrapper");
+    }
+
+    @Test
+    @DisplayName("Failed and timed-out primaries count as the deadline, so the hedge delay does not drift down")
+    void testCensoredLatencies() {
+        ScriptedProcessor primary = new ScriptedProcessor("Failing Primary") {
+            @Override
+            public boolean processPaymentCents(long amountCents) {
+                throw new IllegalStateException("Gateway down");
+            }
+        };
+        ResilientPaymentProcessor processor = ResilientPaymentProcessor.builder(primary)
+            .deadline(100, TimeUnit.MILLISECONDS)
+            .circuitBreaker(Integer.MAX_VALUE, 1)
+            .build();
+
+        for (int i = 0; i < ResilientPaymentProcessor.HEDGE_WINDOW; i++) {
+            assertThrows(PaymentUnavailableException.class, () -> processor.processPaymentCents(Money.toCents(100)));
+        }
+        // The histogram's buckets are within about 6% of the recorded value
+        long delayMillis = TimeUnit.NANOSECONDS.toMillis(processor.getHedgeDelayNanos());
+        assertTrue(delayMillis >= 90, "Hedge delay " + delayMillis + "ms ignores the failures");
+
+        ScriptedProcessor stuck = new ScriptedProcessor("Stuck Primary");
+        stuck.latencyMillis = 10_000;
+        ResilientPaymentProcessor timingOut = ResilientPaymentProcessor.builder(stuck)
+            .deadline(5, TimeUnit.MILLISECONDS)
+            .circuitBreaker(Integer.MAX_VALUE, 1)
+            .build();
+        for (int i = 0; i < ResilientPaymentProcessor.HEDGE_WINDOW; i++) {
+            assertThrows(PaymentUnavailableException.class, () -> timingOut.processPaymentCents(Money.toCents(100)));
+        }
+        long timeoutDelayMicros = TimeUnit.NANOSECONDS.toMicros(timingOut.getHedgeDelayNanos());
+        assertTrue(timeoutDelayMicros >= 4_500, "Hedge delay " + timeoutDelayMicros + "µs below the deadline");
+
+        System.out.println("✅ Censored primaries keep the hedge delay at " + delayMillis + "ms");
+    }
+
+    private static class ScriptedProcessor implements PaymentProcessor {
+        private final String paymentMethod;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile long latencyMillis;
+
+        ScriptedProcessor(String paymentMethod) {
+            this.paymentMethod = paymentMethod;
+        }
+
+        @Override
+        public boolean processPayment(double amount) {
+            return processPaymentCents(Money.toCents(amount));
+        }
+
+        @Override
+        public boolean processPaymentCents(long amountCents) {
+            calls.incrementAndGet();
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String getPaymentMethod() {
+            return paymentMethod;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.solid.payment;
+
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.money.Money;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for limit-aware adaptive payment routing
+ * Run with: mvn test
+ */
+public class RoutingPaymentProcessorTest {
+
+    @Test
+    @DisplayName("Amounts go only to backends whose limits accept them")
+    void testLimitsAreRespected() {
+        CountingProcessor creditCard = new CountingProcessor(new CreditCardProcessor(NoOpOrderEventSink.INSTANCE), 0);
+        CountingProcessor payPal = new CountingProcessor(new PayPalProcessor(NoOpOrderEventSink.INSTANCE), 0);
+        RoutingPaymentProcessor router = new RoutingPaymentProcessor(creditCard, payPal);
+
+        assertTrue(router.processPaymentCents(Money.toCents(7500)));
+        assertEquals("Credit Card", router.getPaymentMethod());
+        assertEquals(0, payPal.calls.get());
+
+        assertFalse(router.processPaymentCents(Money.toCents(20000)));
+        assertEquals(1, creditCard.calls.get());
+        assertEquals(0, payPal.calls.get());
+        assertEquals(1, router.getUnsupportedCount());
+        assertFalse(router.supportsAmount(Money.toCents(20000)));
+    }
+
+    @Test
+    @DisplayName("Most payments go to the fastest backend, and declines fail over")
+    void testFastestBackendAndFailover() {
+        CountingProcessor slow = new CountingProcessor(new CreditCardProcessor(NoOpOrderEventSink.INSTANCE), 2);
+        CountingProcessor fast = new CountingProcessor(new PayPalProcessor(NoOpOrderEventSink.INSTANCE), 0);
+        RoutingPaymentProcessor router = new RoutingPaymentProcessor(slow, fast);
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(router.processPaymentCents(Money.toCents(100)));
+        }
+        assertTrue(fast.calls.get() > 150, "Fast backend only handled " + fast.calls.get() + " of 200");
+        assertTrue(slow.calls.get() >= 1, "Slow backend was never explored");
+
+        fast.declineAll = true;
+        assertTrue(router.processPaymentCents(Money.toCents(100)));
+        assertEquals("Credit Card", router.getPaymentMethod());
+        System.out.println("✅ Fast backend handled " + fast.calls.get() + " payments, slow backend "
+                           + slow.calls.get());
+    }
+
+    private static class CountingProcessor implements PaymentProcessor {
+        private final PaymentProcessor delegate;
+        private final long latencyMillis;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean declineAll;
+
+        CountingProcessor(PaymentProcessor delegate, long latencyMillis) {
+            this.delegate = delegate;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public boolean processPayment(double amount) {
+            return processPaymentCents(Money.toCents(amount));
+        }
+
+        @Override
+        public boolean processPaymentCents(long amountCents) {
+            calls.incrementAndGet();
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return !declineAll && delegate.processPaymentCents(amountCents);
+        }
+
+        @Override
+        public boolean supportsAmount(long amountCents) {
+            return delegate.supportsAmount(amountCents);
+        }
+
+        @Override
+        public String getPaymentMethod() {
+            return delegate.getPaymentMethod();
+        }
+    }
+}
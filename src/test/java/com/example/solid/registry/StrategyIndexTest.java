@@ -0,0 +1,65 @@
+package com.example.solid.registry;
+
+import com.example.solid.discounts.BuyOneGetOneDiscount;
+import com.example.solid.discounts.PercentageDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.interfaces.NotificationService;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.notifications.SmsNotification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the compile-time generated strategy index
+ * Run with: mvn test
+ */
+public class StrategyIndexTest {
+
+    @Test
+    @DisplayName("The generated index lists every annotated strategy in menu order and constructs it")
+    void testGeneratedIndex() {
+        assertEquals(List.of(StrategyRegistry.CREDIT_CARD, StrategyRegistry.PAYPAL), keys(StrategyIndex.paymentProcessors()));
+        assertEquals(List.of(StrategyRegistry.EMAIL, StrategyRegistry.SMS), keys(StrategyIndex.notificationServices()));
+        assertEquals(List.of(StrategyRegistry.NO_DISCOUNT, StrategyRegistry.PERCENTAGE, StrategyRegistry.FIXED_AMOUNT,
+                             StrategyRegistry.BUY_ONE_GET_ONE), keys(StrategyIndex.discounts()));
+
+        StrategyDescriptor<NotificationService> sms = StrategyIndex.notificationServices().get(1);
+        assertTrue(sms.takesArgument());
+        assertInstanceOf(SmsNotification.class, sms.create(NoOpOrderEventSink.INSTANCE, "+1-555-0100"));
+
+        StrategyDescriptor<DiscountCalculator> percentage = StrategyIndex.discounts().get(1);
+        PercentageDiscount discount = (PercentageDiscount) percentage.create(NoOpOrderEventSink.INSTANCE, "12.5");
+        assertEquals(1250, discount.getBasisPoints());
+        assertThrows(NumberFormatException.class, () -> percentage.create(NoOpOrderEventSink.INSTANCE, "lots"));
+        assertInstanceOf(BuyOneGetOneDiscount.class, StrategyIndex.discounts().get(3).create(NoOpOrderEventSink.INSTANCE));
+        System.out.println("✅ Strategy index lists " + (StrategyIndex.paymentProcessors().size()
+                           + StrategyIndex.notificationServices().size() + StrategyIndex.discounts().size()) + " strategies");
+    }
+
+    @Test
+    @DisplayName("The standard registry is populated from the index")
+    void testStandardRegistryUsesIndex() {
+        StrategyRegistry registry = StrategyRegistry.standard(NoOpOrderEventSink.INSTANCE);
+        assertEquals(keys(StrategyIndex.paymentProcessors()), new ArrayList<>(registry.getPaymentMethods()));
+        assertEquals(keys(StrategyIndex.notificationServices()), new ArrayList<>(registry.getChannels()));
+        assertEquals(List.of(StrategyRegistry.NO_DISCOUNT, StrategyRegistry.BUY_ONE_GET_ONE),
+                     new ArrayList<>(registry.getDiscounts()));
+        PaymentProcessor creditCard = registry.paymentProcessor(StrategyRegistry.CREDIT_CARD);
+        assertEquals("Credit Card", creditCard.getPaymentMethod());
+        assertEquals(60.0, registry.discount(StrategyRegistry.BUY_ONE_GET_ONE).calculateDiscount(120.0));
+    }
+
+    private static <T> List<String> keys(List<StrategyDescriptor<T>> descriptors) {
+        List<String> keys = new ArrayList<>();
+        for (StrategyDescriptor<T> descriptor : descriptors) {
+            keys.add(descriptor.getKey());
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.solid.registry;
+
+import com.example.solid.events.NoOpOrderEventSink;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for flyweight discount interning in the strategy registry
+ * Run with: mvn test
+ */
+public class StrategyRegistryTest {
+
+    @Test
+    @DisplayName("Odd rates and amounts are interned only up to the cap")
+    void testInterningIsBounded() {
+        StrategyRegistry registry = StrategyRegistry.standard(NoOpOrderEventSink.INSTANCE);
+        assertSame(registry.percentage(12.5), registry.percentage(12.50));
+        assertSame(registry.fixedAmount(2_000.25), registry.fixedAmount(2_000.25));
+
+        // Basis points and cents beyond the prebuilt ranges, so every lookup is a new odd value
+        for (int i = 1; i <= 3 * StrategyRegistry.MAX_INTERNED; i++) {
+            assertEquals(10_000 + i, registry.percentage(100 + i / 100.0).getBasisPoints());
+            assertEquals(200_000 + i, registry.fixedAmount(2_000 + i / 100.0).getDiscountCents());
+        }
+        assertSame(registry.percentage(12.5), registry.percentage(12.5), "Values interned before the cap stay shared");
+        assertSame(registry.percentage(15), registry.percentage(15.0), "Whole percentages are always shared");
+        double pastCap = 100 + 3 * StrategyRegistry.MAX_INTERNED / 100.0;
+        assertNotSame(registry.percentage(pastCap), registry.percentage(pastCap));
+        assertEquals(registry.percentage(pastCap).getBasisPoints(), registry.percentage(pastCap).getBasisPoints());
+
+        System.out.println("✅ Flyweight caches stop growing at " + StrategyRegistry.MAX_INTERNED + " entries");
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.solid.services;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.OrderRequest;
+import com.example.solid.OrderResult;
+import com.example.solid.discounts.NoDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.NotificationService;
+import com.example.solid.interfaces.PaymentProcessor;
+import com.example.solid.interfaces.PaymentUnavailableException;
+import com.example.solid.journal.JournalRecord;
+import com.example.solid.journal.OrderJournal;
+import com.example.solid.journal.OrderJournalReader;
+import com.example.solid.metrics.MetricsSnapshot;
+import com.example.solid.metrics.OrderMetrics;
+import com.example.solid.notifications.EmailNotification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for idempotent order payments
+ * Run with: mvn test
+ */
+public class IdempotencyStoreTest {
+
+    @Test
+    @DisplayName("Concurrent retries of one order id reach the payment processor once")
+    void testConcurrentDuplicatesShareOneCharge() throws Exception {
+        int retries = 16;
+        AtomicInteger charges = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        PaymentProcessor slowPayment = new PaymentProcessor() {
+            @Override
+            public boolean processPayment(double amount) {
+                charges.incrementAndGet();
+                try {
+                    return release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+
+            @Override
+            public String getPaymentMethod() {
+                return "Slow Gateway";
+            }
+        };
+        IdempotencyStore store = new IdempotencyStore();
+        OrderProcessor processor = OrderProcessor.builder(slowPayment,
+                new EmailNotification("retry@example.com", NoOpOrderEventSink.INSTANCE))
+            .paymentService(new OrderPaymentService(store))
+            .eventSink(NoOpOrderEventSink.INSTANCE)
+            .build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(retries);
+        List<Future<OrderResult>> results = new ArrayList<>();
+        for (int i = 0; i < retries; i++) {
+            results.add(pool.submit(() -> processor.processOrder(
+                new OrderRequest("order-42", "John Smith", 100.0, new NoDiscount()))));
+        }
+        // Let the duplicates pile up behind the in-flight charge before it completes
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<OrderResult> result : results) {
+            assertTrue(result.get().isSuccessful());
+        }
+        pool.shutdown();
+
+        assertEquals(1, charges.get());
+        processor.processOrder(new OrderRequest("order-43", "Jane Doe", 100.0, new NoDiscount()));
+        processor.processOrder(new OrderRequest("John Smith", 100.0, new NoDiscount()));
+        assertEquals(3, charges.get());
+        System.out.println("✅ " + retries + " concurrent retries produced a single charge");
+    }
+
+    @Test
+    @DisplayName("Entries expire after the TTL, respect the size bound, and failed attempts can be retried")
+    void testExpiryEvictionAndFailures() {
+        AtomicLong now = new AtomicLong();
+        AtomicInteger calls = new AtomicInteger();
+        IdempotencyStore store = new IdempotencyStore(1000, 4, now::get);
+
+        store.execute("a", 100, () -> outcome(calls));
+        store.execute("a", 100, () -> outcome(calls));
+        assertEquals(1, calls.get());
+        assertThrows(IllegalArgumentException.class, () -> store.execute("a", 200, () -> outcome(calls)));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001));
+        store.execute("a", 100, () -> outcome(calls));
+        assertEquals(2, calls.get());
+
+        for (int i = 0; i < 100; i++) {
+            store.execute("order-" + i, 100, () -> outcome(calls));
+        }
+        assertTrue(store.size() <= 4, "Size bound exceeded: " + store.size());
+
+        assertThrows(IllegalStateException.class, () -> store.execute("flaky", 100, () -> {
+            throw new IllegalStateException("gateway timeout");
+        }));
+        assertTrue(store.execute("flaky", 100, () -> outcome(calls)).isSuccessful());
+    }
+
+    @Test
+    @DisplayName("A retried order is charged, counted, journaled and notified only once")
+    void testRetriesSkipSideEffects(@TempDir Path directory) throws Exception {
+        AtomicInteger charges = new AtomicInteger();
+        List<String> notifications = new CopyOnWriteArrayList<>();
+        PaymentProcessor payment = new PaymentProcessor() {
+            @Override
+            public boolean processPayment(double amount) {
+                charges.incrementAndGet();
+                return true;
+            }
+
+            @Override
+            public String getPaymentMethod() {
+                return "Test Gateway";
+            }
+        };
+        NotificationService channel = new NotificationService() {
+            @Override
+            public void sendNotification(String message) {
+                notifications.add(message);
+            }
+
+            @Override
+            public String getNotificationType() {
+                return "TEST";
+            }
+        };
+        OrderMetrics metrics = new OrderMetrics();
+        try (OrderJournal journal = new OrderJournal(directory)) {
+            OrderProcessor processor = OrderProcessor.builder(payment, channel)
+                .paymentService(new OrderPaymentService(new IdempotencyStore()))
+                .eventSink(NoOpOrderEventSink.INSTANCE)
+                .metrics(metrics)
+                .journal(journal)
+                .build();
+
+            OrderResult first = processor.processOrder(new OrderRequest("order-7", "Jane Doe", 80.0, new NoDiscount()));
+            OrderResult retry = processor.processOrder(new OrderRequest("order-7", "Jane Doe", 80.0, new NoDiscount()));
+            OrderContext context = processor.processOrder(
+                OrderContext.current().reset("order-7", "Jane Doe", 8_000, new NoDiscount()));
+
+            assertFalse(first.getPaymentOutcome().isReplayed());
+            assertTrue(retry.getPaymentOutcome().isReplayed());
+            assertTrue(retry.isSuccessful());
+            assertTrue(context.isReplayed());
+            assertTrue(context.isSuccessful());
+        }
+
+        assertEquals(1, charges.get());
+        assertEquals(1, notifications.size());
+        MetricsSnapshot.OutcomeCount outcome = metrics.snapshot().getOutcomes().get(0);
+        assertEquals(1, outcome.getSuccesses() + outcome.getFailures());
+        List<JournalRecord> records = new ArrayList<>();
+        OrderJournalReader.replay(directory, records::add);
+        assertEquals(1, records.size());
+        System.out.println("✅ Retries return the first outcome without repeating its side effects");
+    }
+
+    @Test
+    @DisplayName("A payment turned away without a decision is not remembered, so a retry is charged")
+    void testUnavailablePaymentIsRetried() {
+        AtomicInteger charges = new AtomicInteger();
+        AtomicBoolean available = new AtomicBoolean(false);
+        PaymentProcessor flaky = new PaymentProcessor() {
+            @Override
+            public boolean processPayment(double amount) {
+                if (!available.get()) {
+                    throw new PaymentUnavailableException("Gateway circuit is open");
+                }
+                charges.incrementAndGet();
+                return true;
+            }
+
+            @Override
+            public String getPaymentMethod() {
+                return "Flaky Gateway";
+            }
+        };
+        IdempotencyStore store = new IdempotencyStore();
+        OrderProcessor processor = OrderProcessor.builder(flaky,
+                new EmailNotification("retry@example.com", NoOpOrderEventSink.INSTANCE))
+            .paymentService(new OrderPaymentService(store))
+            .eventSink(NoOpOrderEventSink.INSTANCE)
+            .build();
+
+        OrderResult rejected = processor.processOrder(new OrderRequest("order-9", "Jane Doe", 40.0, new NoDiscount()));
+        assertTrue(rejected.isRejected());
+        assertEquals(0, store.size(), "A rejection must not be remembered");
+
+        available.set(true);
+        OrderResult retried = processor.processOrder(new OrderRequest("order-9", "Jane Doe", 40.0, new NoDiscount()));
+        assertTrue(retried.isSuccessful());
+        assertFalse(retried.getPaymentOutcome().isReplayed());
+        assertEquals(1, charges.get());
+        System.out.println("✅ Rejected payments are retried instead of replayed");
+    }
+
+    private static PaymentOutcome outcome(AtomicInteger calls) {
+        calls.incrementAndGet();
+        return new PaymentOutcome("Test", true);
+    }
+}
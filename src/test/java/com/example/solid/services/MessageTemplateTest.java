@@ -0,0 +1,51 @@
+package com.example.solid.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for precompiled notification templates
+ * Run with: mvn test
+ */
+public class MessageTemplateTest {
+
+    @Test
+    @DisplayName("Default templates render the same text as string concatenation of double amounts")
+    void testDefaultTemplatesMatchLegacyMessages() {
+        OrderNotificationService service = new OrderNotificationService();
+        PaymentOutcome success = new PaymentOutcome("Credit Card", true);
+        PaymentOutcome declined = new PaymentOutcome("PayPal", false);
+        long[] samples = {0, 1, 5, 10, 99, 100, 105, 12750, 12705, 999_999_999, 1_000_000_000, 2_500_000_001L, -550};
+        for (long cents : samples) {
+            OrderPricing pricing = OrderPricing.ofCents(cents, 0, cents, "No discount");
+            double amount = pricing.getFinalAmount();
+            assertEquals("Order processed successfully! Amount: $" + amount, service.composeMessage(success, pricing));
+            assertEquals("Order failed! Payment of $" + amount + " was declined.", service.composeMessage(declined, pricing));
+        }
+    }
+
+    @Test
+    @DisplayName("UTF-8 rendering matches the encoded String and bad placeholders are rejected at compile time")
+    void testByteBufferRenderingAndValidation() {
+        MessageTemplate template = MessageTemplate.compile(
+            "{paymentMethod}: {originalAmount} - {discount} ({discountLabel}) = €{amount}");
+        OrderPricing pricing = OrderPricing.ofCents(15000, 2250, 12750, "15.0% Größe 😀");
+        PaymentOutcome outcome = new PaymentOutcome("Credit Card", true);
+
+        String expected = "Credit Card: 150.0 - 22.5 (15.0% Größe 😀) = €127.5";
+        assertEquals(expected, template.render(outcome, pricing).toString());
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        template.renderTo(buffer, outcome, pricing);
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), Arrays.copyOf(buffer.array(), buffer.position()));
+
+        assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Amount: {total}"));
+        assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile("Amount: {amount"));
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.solid.services;
+
+import com.example.solid.interfaces.NotificationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for batched notification dispatch
+ * Run with: mvn test
+ */
+public class NotificationDispatcherTest {
+    private static final long LONG_DELAY_MILLIS = 60_000;
+
+    @Test
+    @DisplayName("A channel batch is sent as soon as it reaches the batch size")
+    void testFlushBySize() throws Exception {
+        RecordingChannel channel = new RecordingChannel("EMAIL");
+        NotificationDispatcher dispatcher = new NotificationDispatcher(100, 3, LONG_DELAY_MILLIS, 100);
+        try {
+            for (int i = 0; i < 3; i++) {
+                assertTrue(dispatcher.submit(channel, "message-" + i));
+            }
+            List<String> batch = channel.batches.poll(5, TimeUnit.SECONDS);
+            assertEquals(Arrays.asList("message-0", "message-1", "message-2"), batch);
+        } finally {
+            dispatcher.close();
+        }
+        // The count is updated after the send returns, so read it once the dispatcher has stopped
+        assertEquals(3, dispatcher.getSentCount());
+
+        System.out.println("✅ Full batches flush without waiting for the delay");
+    }
+
+    @Test
+    @DisplayName("A partial batch is sent once its oldest message has waited the max delay")
+    void testFlushByTime() throws Exception {
+        RecordingChannel channel = new RecordingChannel("SMS");
+        NotificationDispatcher dispatcher = new NotificationDispatcher(100, 100, 50, 100);
+        try {
+            long start = System.nanoTime();
+            dispatcher.submit(channel, "only");
+            List<String> batch = channel.batches.poll(5, TimeUnit.SECONDS);
+            long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertEquals(List.of("only"), batch);
+            assertTrue(waitedMillis >= 50, "Flushed after " + waitedMillis + " ms");
+        } finally {
+            dispatcher.close();
+        }
+
+        System.out.println("✅ Partial batches flush after the max delay");
+    }
+
+    @Test
+    @DisplayName("A submit that finds the queue full for the offer timeout is dropped and reported")
+    void testOfferTimeoutDrops() throws Exception {
+        RecordingChannel channel = new RecordingChannel("EMAIL", true);
+        List<String> dropped = new CopyOnWriteArrayList<>();
+        NotificationDispatcher.DeliveryListener listener = new NotificationDispatcher.DeliveryListener() {
+            @Override
+            public void dropped(NotificationService target, String message) {
+                dropped.add(message);
+            }
+        };
+        NotificationDispatcher dispatcher = new NotificationDispatcher(1, 1, LONG_DELAY_MILLIS, 50, listener);
+        try {
+            // Hold the dispatcher inside the first send so the one-slot queue stays full
+            assertTrue(dispatcher.submit(channel, "in-flight"));
+            assertTrue(channel.entered.await(5, TimeUnit.SECONDS));
+            assertTrue(dispatcher.submit(channel, "queued"));
+            assertFalse(dispatcher.submit(channel, "dropped"));
+
+            assertEquals(1, dispatcher.getDroppedCount());
+            assertEquals(List.of("dropped"), dropped);
+        } finally {
+            channel.release.countDown();
+            dispatcher.close();
+        }
+        assertEquals(2, dispatcher.getSentCount());
+        assertFalse(dispatcher.submit(channel, "after-close"), "Closed dispatchers drop new messages");
+        assertEquals(2, dispatcher.getDroppedCount());
+
+        System.out.println("✅ Offer timeouts and closed dispatchers drop messages");
+    }
+
+    @Test
+    @DisplayName("A failing batch is counted and reported without stopping later deliveries")
+    void testFailureCounting() throws Exception {
+        FailingChannel failing = new FailingChannel();
+        RecordingChannel healthy = new RecordingChannel("SMS");
+        List<List<String>> failed = new CopyOnWriteArrayList<>();
+        NotificationDispatcher.DeliveryListener listener = new NotificationDispatcher.DeliveryListener() {
+            @Override
+            public void failed(NotificationService target, List<String> messages, RuntimeException cause) {
+                assertSame(failing, target);
+                failed.add(messages);
+            }
+        };
+        NotificationDispatcher dispatcher = new NotificationDispatcher(100, 2, LONG_DELAY_MILLIS, 100, listener);
+        try {
+            dispatcher.submit(failing, "a");
+            dispatcher.submit(failing, "b");
+            dispatcher.submit(healthy, "c");
+            dispatcher.submit(healthy, "d");
+            assertEquals(Arrays.asList("c", "d"), healthy.batches.poll(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.close();
+        }
+        assertEquals(2, dispatcher.getFailedCount());
+        assertEquals(2, dispatcher.getSentCount());
+        assertEquals(List.of(Arrays.asList("a", "b")), failed);
+
+        System.out.println("✅ Failed batches are counted and reported");
+    }
+
+    @Test
+    @DisplayName("Throwing listeners, channel types and errors from a send do not stop the dispatcher")
+    void testSurvivesThrowingCallbacks() throws Exception {
+        NotificationDispatcher.DeliveryListener listener = new NotificationDispatcher.DeliveryListener() {
+            @Override
+            public void failed(NotificationService target, List<String> messages, RuntimeException cause) {
+                throw new IllegalStateException("Listener broke");
+            }
+        };
+        RecordingChannel erroring = new RecordingChannel("PUSH") {
+            @Override
+            public void sendBatch(List<String> messages) {
+                throw new AssertionError("Gateway crashed");
+            }
+        };
+        RecordingChannel untyped = new RecordingChannel("SMS") {
+            @Override
+            public String getNotificationType() {
+                throw new IllegalStateException("No channel type");
+            }
+        };
+        RecordingChannel healthy = new RecordingChannel("EMAIL");
+        NotificationDispatcher dispatcher = new NotificationDispatcher(100, 1, LONG_DELAY_MILLIS, 100, listener);
+        try {
+            dispatcher.submit(new FailingChannel(), "failing");
+            dispatcher.submit(erroring, "erroring");
+            dispatcher.submit(untyped, "untyped");
+            dispatcher.submit(healthy, "delivered");
+            assertEquals(List.of("delivered"), healthy.batches.poll(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.close();
+        }
+        assertEquals(3, dispatcher.getFailedCount());
+        assertEquals(1, dispatcher.getSentCount());
+
+        System.out.println("✅ The dispatcher thread survives throwing callbacks");
+    }
+
+    @Test
+    @DisplayName("Closing delivers every message already accepted, however long its delay")
+    void testCloseDrainsQueue() throws Exception {
+        RecordingChannel email = new RecordingChannel("EMAIL");
+        RecordingChannel sms = new RecordingChannel("SMS");
+        NotificationDispatcher dispatcher = new NotificationDispatcher(1_000, 1_000, LONG_DELAY_MILLIS, 100);
+        int accepted = 0;
+        for (int i = 0; i < 500; i++) {
+            accepted += dispatcher.submit(i % 2 == 0 ? email : sms, "message-" + i) ? 1 : 0;
+        }
+        dispatcher.close();
+
+        assertEquals(500, accepted);
+        assertEquals(500, dispatcher.getSentCount());
+        assertEquals(250, email.received().size());
+        assertEquals(250, sms.received().size());
+        assertEquals(0, dispatcher.getDroppedCount());
+
+        System.out.println("✅ Close drains the queue before returning");
+    }
+
+    @Test
+    @DisplayName("Messages accepted while another thread closes are delivered, never lost")
+    void testConcurrentSubmitAndClose() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            RecordingChannel channel = new RecordingChannel("EMAIL");
+            NotificationDispatcher dispatcher = new NotificationDispatcher(10_000, 64, LONG_DELAY_MILLIS, 100);
+            long[] accepted = new long[1];
+            Thread submitter = new Thread(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    accepted[0] += dispatcher.submit(channel, "m") ? 1 : 0;
+                }
+            });
+            submitter.start();
+            dispatcher.close();
+            submitter.join();
+
+            assertEquals(accepted[0], channel.received().size(), "Round " + round);
+            assertEquals(accepted[0], dispatcher.getSentCount());
+            assertEquals(2_000 - accepted[0], dispatcher.getDroppedCount());
+        }
+
+        System.out.println("✅ Submits racing close are either delivered or counted as dropped");
+    }
+
+    @Test
+    @DisplayName("A max delay below one millisecond is rejected")
+    void testRejectsZeroDelay() {
+        assertThrows(IllegalArgumentException.class, () -> new NotificationDispatcher(10, 10, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new NotificationDispatcher(10, 0, 10, 100));
+
+        System.out.println("✅ Invalid dispatcher settings are rejected");
+    }
+
+    private static class RecordingChannel implements NotificationService {
+        final BlockingQueue<List<String>> batches = new LinkedBlockingQueue<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release;
+        private final String type;
+
+        RecordingChannel(String type) {
+            this(type, false);
+        }
+
+        // A held channel blocks in its first send until release is counted down
+        RecordingChannel(String type, boolean held) {
+            this.type = type;
+            this.release = new CountDownLatch(held ? 1 : 0);
+        }
+
+        @Override
+        public void sendNotification(String message) {
+            sendBatch(List.of(message));
+        }
+
+        @Override
+        public void sendBatch(List<String> messages) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(new ArrayList<>(messages));
+        }
+
+        @Override
+        public String getNotificationType() {
+            return type;
+        }
+
+        List<String> received() {
+            List<String> all = new ArrayList<>();
+            for (List<String> batch : batches) {
+                all.addAll(batch);
+            }
+            return all;
+        }
+    }
+
+    private static final class FailingChannel extends RecordingChannel {
+        FailingChannel() {
+            super("PUSH");
+        }
+
+        @Override
+        public void sendBatch(List<String> messages) {
+            throw new IllegalStateException("Gateway down");
+        }
+    }
+}
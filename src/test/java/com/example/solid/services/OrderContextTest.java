@@ -0,0 +1,149 @@
+package com.example.solid.services;
+
+import com.example.solid.OrderProcessor;
+import com.example.solid.OrderRequest;
+import com.example.solid.OrderResult;
+import com.example.solid.discounts.FixedAmountDiscount;
+import com.example.solid.discounts.NoDiscount;
+import com.example.solid.discounts.PercentageDiscount;
+import com.example.solid.events.NoOpOrderEventSink;
+import com.example.solid.interfaces.DiscountCalculator;
+import com.example.solid.interfaces.NotificationService;
+import com.example.solid.ledger.RevenueLedger;
+import com.example.solid.metrics.OrderMetrics;
+import com.example.solid.metrics.OrderStage;
+import com.example.solid.money.Money;
+import com.example.solid.notifications.EmailNotification;
+import com.example.solid.payment.CreditCardProcessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for allocation-free order processing with reusable contexts
+ * Run with: mvn test
+ */
+public class OrderContextTest {
+    private static final int WARMUP_ORDERS = 50_000;
+    private static final int MEASURED_ORDERS = 20_000;
+
+    @Test
+    @DisplayName("Processing in a context gives the same results as processing a request")
+    void testMatchesRequestProcessing() {
+        OrderProcessor processor = processor();
+        OrderNotificationService notifications = new OrderNotificationService();
+        DiscountCalculator[] discounts = {new NoDiscount(), new PercentageDiscount(12.5), new FixedAmountDiscount(30)};
+        double[] amounts = {19.99, 250.0, 25_000.0};
+        for (DiscountCalculator discount : discounts) {
+            for (double amount : amounts) {
+                OrderResult expected = processor.processOrder(new OrderRequest("Alice", amount, discount));
+                OrderContext context = processor.processOrder(
+                    OrderContext.current().reset("Alice", Money.toCents(amount), discount));
+
+                assertEquals(expected.getPricing().getOriginalAmountCents(), context.getOriginalAmountCents());
+                assertEquals(expected.getPricing().getDiscountAppliedCents(), context.getDiscountAppliedCents());
+                assertEquals(expected.getPricing().getFinalAmountCents(), context.getFinalAmountCents());
+                assertEquals(expected.getPricing().getDiscountLabel(), context.getDiscountLabel());
+                assertEquals(expected.getPaymentOutcome().getPaymentMethod(), context.getPaymentMethod());
+                assertEquals(expected.isSuccessful(), context.isSuccessful());
+                assertEquals(notifications.composeMessage(expected.getPaymentOutcome(), expected.getPricing()),
+                             context.getMessage().toString());
+            }
+        }
+
+        System.out.println("✅ Context processing matches request processing");
+    }
+
+    @Test
+    @DisplayName("Steady-state processing in a reused context allocates about zero bytes per order")
+    void testSteadyStateAllocatesNothing() {
+        assumeTrue(compiledWithoutAgents(), "Allocation is only measurable with the JIT on and no agents attached");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(),
+                   "Per-thread allocation counters are unavailable");
+        OrderProcessor processor = processor();
+        DiscountCalculator discount = new PercentageDiscount(10);
+        OrderContext context = OrderContext.current();
+        long approved = 0;
+        for (int i = 0; i < WARMUP_ORDERS; i++) {
+            approved += processor.processOrder(context.reset("Alice", 1_000 + i % 5_000, discount)).isSuccessful() ? 1 : 0;
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ORDERS; i++) {
+            approved += processor.processOrder(context.reset("Alice", 1_000 + i % 5_000, discount)).isSuccessful() ? 1 : 0;
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(WARMUP_ORDERS + MEASURED_ORDERS, approved);
+        double perOrder = allocated / (double) MEASURED_ORDERS;
+        assertTrue(perOrder < 1.0, "Allocated " + perOrder + " bytes per order (" + allocated + " in total)");
+
+        System.out.println("✅ Reused contexts allocate " + perOrder + " bytes per order");
+    }
+
+    @Test
+    @DisplayName("A replayed order in a context is neither rendered, sent nor timed as a notification")
+    void testReplaySkipsNotification() {
+        List<String> sent = new ArrayList<>();
+        NotificationService channel = new NotificationService() {
+            @Override
+            public void sendNotification(String message) {
+                sent.add(message);
+            }
+
+            @Override
+            public String getNotificationType() {
+                return "TEST";
+            }
+        };
+        OrderMetrics metrics = new OrderMetrics();
+        OrderProcessor processor = OrderProcessor.builder(new CreditCardProcessor(NoOpOrderEventSink.INSTANCE), channel)
+            .paymentService(new OrderPaymentService(new IdempotencyStore()))
+            .eventSink(NoOpOrderEventSink.INSTANCE)
+            .metrics(metrics)
+            .build();
+        DiscountCalculator discount = new PercentageDiscount(10);
+
+        OrderContext first = processor.processOrder(OrderContext.current().reset("order-1", "Alice", 5_000, discount));
+        assertFalse(first.isReplayed());
+        assertTrue(first.getMessage().length() > 0);
+        OrderContext replay = processor.processOrder(OrderContext.current().reset("order-1", "Alice", 5_000, discount));
+        assertTrue(replay.isReplayed());
+        assertTrue(replay.isSuccessful());
+        assertEquals(0, replay.getMessage().length(), "A replay must not render a message");
+
+        assertEquals(1, sent.size());
+        assertEquals(1, metrics.snapshot().getStageLatency(OrderStage.NOTIFICATION).getCount());
+
+        System.out.println("✅ Replays in a context skip the whole notification stage");
+    }
+
+    // Escape analysis removes the remaining temporaries only in compiled code, and agents may allocate on their own
+    private static boolean compiledWithoutAgents() {
+        for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.equals("-Xint") || argument.startsWith("-javaagent") || argument.startsWith("-agentlib")
+                    || argument.startsWith("-agentpath")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Metrics and ledger are on, so their recording is covered by the allocation check too
+    private static OrderProcessor processor() {
+        return OrderProcessor.builder(new CreditCardProcessor(NoOpOrderEventSink.INSTANCE),
+                                      new EmailNotification("alloc@example.com", NoOpOrderEventSink.INSTANCE))
+            .eventSink(NoOpOrderEventSink.INSTANCE)
+            .metrics(new OrderMetrics())
+            .ledger(RevenueLedger.builder().build())
+            .build();
+    }
+}